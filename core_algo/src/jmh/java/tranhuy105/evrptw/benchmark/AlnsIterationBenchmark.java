@@ -0,0 +1,39 @@
+package tranhuy105.evrptw.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tranhuy105.evrptw.algorithm.ALNS;
+import tranhuy105.evrptw.model.Solution;
+
+/**
+ * Full ALNS iterations (destroy, repair, station repair, evaluation, acceptance) in the default
+ * configuration, so without local search, warm started from the fixture solution. Route minimization
+ * is off so only the main loop is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlnsIterationBenchmark {
+    private static final int ITERATIONS = 50;
+
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public Solution iteration(BenchmarkFixture f) {
+        ALNS alns = new ALNS(f.instance, ITERATIONS, false);
+        alns.setSeed(BenchmarkFixture.SEED);
+        alns.setRouteMinIterations(0);
+        alns.setInitialSolution(f.solution);
+        return alns.solve();
+    }
+}
@@ -0,0 +1,93 @@
+package tranhuy105.evrptw.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import tranhuy105.evrptw.algorithm.ALNS;
+import tranhuy105.evrptw.algorithm.RouteEvaluator;
+import tranhuy105.evrptw.io.InstanceReader;
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.NodeType;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.operators.insertion.InsertionHelper;
+import tranhuy105.evrptw.util.LogLevel;
+import tranhuy105.evrptw.util.Logger;
+
+/**
+ * Shared benchmark fixture: a bundled instance plus a solution from a short seeded ALNS run,
+ * so routes have realistic length and station placement.
+ * Run from core_algo so the data directory resolves.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkFixture {
+    static final String DATA_DIR = "src/main/resources/data/";
+    static final long SEED = 42L;
+    static final int FIXTURE_ITERATIONS = 100;
+
+    @Param({"c101C10", "c101_21", "r201C10", "r201_21", "rc201C10", "rc201_21"})
+    public String instanceName;
+
+    public Instance instance;
+    public Solution solution;
+    public RouteEvaluator evaluator;
+    public InsertionHelper insertionHelper;
+
+    // Longest route, its forward states and the customer in the middle of it
+    public int routeIdx;
+    public List<Integer> route;
+    public double[][] forwardStates;
+    public int insertPos;
+    public int customerId;
+    // Cost of the route before insertion, a typical cutoff for a running best
+    public double routeCost;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Logger.setLevel(LogLevel.WARNING);
+        instance = new InstanceReader().read(DATA_DIR + instanceName + ".txt");
+        evaluator = new RouteEvaluator(instance);
+        insertionHelper = new InsertionHelper(instance);
+
+        ALNS alns = new ALNS(instance, FIXTURE_ITERATIONS, false);
+        alns.setSeed(SEED);
+        solution = alns.solve();
+
+        routeIdx = 0;
+        for (int r = 1; r < solution.getRoutes().size(); r++) {
+            if (solution.getRoutes().get(r).size() > solution.getRoutes().get(routeIdx).size()) {
+                routeIdx = r;
+            }
+        }
+        route = solution.getRoutes().get(routeIdx);
+        forwardStates = evaluator.getForwardStates(route);
+        insertPos = route.size() / 2;
+        routeCost = evaluator.getCostFromForwardStates(forwardStates, route);
+
+        // A customer from another route (or the first one) to insert into the longest route
+        customerId = instance.getCustomers().get(0).getId();
+        for (List<Integer> other : solution.getRoutes()) {
+            if (other != route) {
+                for (int nodeId : other) {
+                    if (instance.getAllNodes().get(nodeId).getType() == NodeType.CUSTOMER) {
+                        customerId = nodeId;
+                        break;
+                    }
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Number of customers to remove per destroy call, matching ALNS' default range
+     */
+    public int removalSize() {
+        return Math.max(1, instance.getCustomers().size() / 10);
+    }
+}
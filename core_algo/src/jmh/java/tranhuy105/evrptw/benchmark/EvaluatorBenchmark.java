@@ -0,0 +1,55 @@
+package tranhuy105.evrptw.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tranhuy105.evrptw.model.RouteStats;
+import tranhuy105.evrptw.operators.insertion.InsertionResult;
+
+/**
+ * Route evaluation and insertion position search
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    @Benchmark
+    public RouteStats evaluate(BenchmarkFixture f) {
+        return f.evaluator.evaluate(f.route);
+    }
+
+    @Benchmark
+    public double[][] getForwardStates(BenchmarkFixture f) {
+        return f.evaluator.getForwardStates(f.route);
+    }
+
+    @Benchmark
+    public RouteStats evaluateWithInsertion(BenchmarkFixture f) {
+        return f.evaluator.evaluateWithInsertion(f.route, f.insertPos, f.customerId);
+    }
+
+    @Benchmark
+    public RouteStats evaluateWithInsertionCached(BenchmarkFixture f) {
+        return f.evaluator.evaluateWithInsertion(f.route, f.insertPos, f.customerId, f.forwardStates);
+    }
+
+    @Benchmark
+    public RouteStats evaluateWithInsertionCutoff(BenchmarkFixture f) {
+        return f.evaluator.evaluateWithInsertion(f.route, f.insertPos, f.customerId, f.forwardStates, f.routeCost);
+    }
+
+    @Benchmark
+    public InsertionResult findBestPosition(BenchmarkFixture f) {
+        return f.insertionHelper.findBestPosition(f.solution, f.routeIdx, f.customerId);
+    }
+}
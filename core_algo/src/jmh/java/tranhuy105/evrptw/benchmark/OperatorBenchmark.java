@@ -0,0 +1,100 @@
+package tranhuy105.evrptw.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.operators.removal.GreedyRouteRemoval;
+import tranhuy105.evrptw.operators.removal.RandomRemoval;
+import tranhuy105.evrptw.operators.removal.RandomRouteRemoval;
+import tranhuy105.evrptw.operators.removal.RemovalOperator;
+import tranhuy105.evrptw.operators.removal.ShawRemoval;
+import tranhuy105.evrptw.operators.removal.StringRemoval;
+import tranhuy105.evrptw.operators.removal.WorstDistanceRemoval;
+import tranhuy105.evrptw.operators.removal.WorstTimeRemoval;
+import tranhuy105.evrptw.operators.station.GreedyStationInsertion;
+
+/**
+ * Removal operators, station repair and solution copy.
+ * Removal and repair work on a fresh copy each call, so subtract copySolution to get the operator cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperatorBenchmark {
+
+    @State(Scope.Thread)
+    public static class Removal {
+        @Param({"random", "shaw", "worst_distance", "worst_time", "random_route", "greedy_route", "string"})
+        public String operator;
+
+        public RemovalOperator removal;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(BenchmarkFixture.SEED);
+            removal = switch (operator) {
+                case "random" -> new RandomRemoval(random);
+                case "shaw" -> new ShawRemoval(random);
+                case "worst_distance" -> new WorstDistanceRemoval(random);
+                case "worst_time" -> new WorstTimeRemoval(random);
+                case "random_route" -> new RandomRouteRemoval(random);
+                case "greedy_route" -> new GreedyRouteRemoval();
+                case "string" -> new StringRemoval(random);
+                default -> throw new IllegalArgumentException("Unknown removal operator: " + operator);
+            };
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Repair {
+        public GreedyStationInsertion stationInsertion;
+        public Solution withoutStations;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkFixture f) {
+            stationInsertion = new GreedyStationInsertion(f.instance);
+
+            // Strip stations so repair has work to do
+            withoutStations = f.solution.copy();
+            int firstStation = f.instance.getCustomers().size() + 1;
+            for (List<Integer> route : withoutStations.getRoutes()) {
+                route.removeIf(nodeId -> nodeId >= firstStation);
+            }
+        }
+    }
+
+    @Benchmark
+    public Solution copySolution(BenchmarkFixture f) {
+        return f.solution.copy();
+    }
+
+    @Benchmark
+    public List<Integer> remove(BenchmarkFixture f, Removal r) {
+        Solution copy = f.solution.copy();
+        return r.removal.remove(copy, f.removalSize());
+    }
+
+    @Benchmark
+    public Solution stationRepair(Repair r) {
+        Solution copy = r.withoutStations.copy();
+        r.stationInsertion.repair(copy);
+        return copy;
+    }
+}
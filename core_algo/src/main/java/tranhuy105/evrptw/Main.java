@@ -1,6 +1,8 @@
 package tranhuy105.evrptw;
 
 import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -11,13 +13,19 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 
 import tranhuy105.evrptw.algorithm.ALNS;
+import tranhuy105.evrptw.algorithm.DecompositionSolver;
+import tranhuy105.evrptw.benchmark.BatchRunner;
+import tranhuy105.evrptw.io.BatchReportWriter;
+import tranhuy105.evrptw.io.BestKnownSolutions;
 import tranhuy105.evrptw.io.InstanceReader;
 import tranhuy105.evrptw.io.SolutionPlotter;
+import tranhuy105.evrptw.io.SolutionReader;
 import tranhuy105.evrptw.io.SolutionVerifier;
 import tranhuy105.evrptw.io.SolutionWriter;
 import tranhuy105.evrptw.model.ChargingMode;
 import tranhuy105.evrptw.model.Instance;
 import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.util.Constants;
 import tranhuy105.evrptw.util.LogLevel;
 import tranhuy105.evrptw.util.Logger;
 
@@ -36,14 +44,15 @@ public class Main {
         try {
             CommandLine cmd = parser.parse(options, args);
 
-            // Get positional argument (instance file)
+            // Get positional argument (instance file), not needed in batch mode
+            String batchPattern = cmd.getOptionValue("batch");
             String[] remaining = cmd.getArgs();
-            if (remaining.length < 1) {
+            if (remaining.length < 1 && batchPattern == null) {
                 System.err.println("Error: Instance file path is required");
                 formatter.printHelp("evrptw-solver <instance_file> [options]", options);
                 System.exit(1);
             }
-            String instancePath = remaining[0];
+            String instancePath = remaining.length > 0 ? remaining[0] : null;
 
             // Parse options
             int iterations = Integer.parseInt(cmd.getOptionValue("iterations", 
@@ -53,9 +62,28 @@ public class Main {
             boolean verify = !cmd.hasOption("no-verify");
             String verifierPath = cmd.getOptionValue("verifier");
             boolean plot = cmd.hasOption("plot");
-            String logLevelStr = cmd.getOptionValue("log-level", "INFO");
+            int decomposeSize = Integer.parseInt(cmd.getOptionValue("decompose", "0"));
+            // Batch and decomposition modes mute per-run solver logs unless asked otherwise
+            String logLevelStr = cmd.getOptionValue("log-level",
+                    batchPattern != null || decomposeSize > 0 ? "WARNING" : "INFO");
             String chargingModeStr = cmd.getOptionValue("charging-mode", "FULL_RECHARGE");
             double swapTime = Double.parseDouble(cmd.getOptionValue("swap-time", "2.0"));
+            boolean localSearch = cmd.hasOption("local-search");
+            boolean timeNormalized = cmd.hasOption("time-normalized-weights");
+            boolean adaptivePenalties = cmd.hasOption("adaptive-penalties");
+            boolean eliteRestarts = cmd.hasOption("elite-restarts");
+            int routeMinIterations = Integer.parseInt(cmd.getOptionValue("route-min-iterations",
+                    String.valueOf(Constants.ROUTE_MIN_ITERATIONS)));
+            String checkpointPath = cmd.getOptionValue("checkpoint");
+            int checkpointInterval = Integer.parseInt(cmd.getOptionValue("checkpoint-interval",
+                    String.valueOf(Constants.CHECKPOINT_INTERVAL)));
+            String resumePath = cmd.getOptionValue("resume");
+            String initialPath = cmd.getOptionValue("initial");
+            String construction = cmd.getOptionValue("construction", "nearest");
+            String destroySize = cmd.getOptionValue("destroy-size", "fraction");
+            String acceptance = cmd.getOptionValue("acceptance", "sa");
+            String operatorSelection = cmd.getOptionValue("operator-selection", "roulette");
+            int destroyCap = Integer.parseInt(cmd.getOptionValue("destroy-cap", "0"));
 
             // Set log level
             try {
@@ -73,9 +101,44 @@ public class Main {
                 chargingMode = ChargingMode.FULL_RECHARGE;
             }
 
+            // Solver settings shared by single, batch and decomposition runs
+            Consumer<ALNS> configurer = alns -> {
+                alns.setLocalSearchEnabled(localSearch);
+                alns.setRouteMinIterations(routeMinIterations);
+                alns.setTimeNormalizedWeights(timeNormalized);
+                alns.setAdaptivePenalties(adaptivePenalties);
+                alns.setEliteRestarts(eliteRestarts);
+                alns.setDestroySize(destroySize, destroyCap);
+                alns.setAcceptance(acceptance);
+                alns.setOperatorSelection(operatorSelection);
+                alns.setConstruction(construction);
+            };
+
+            long baseSeed = Long.parseLong(cmd.getOptionValue("seed", "1"));
+            int threads = Integer.parseInt(cmd.getOptionValue("threads",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())));
+
+            if (batchPattern != null) {
+                int seeds = Integer.parseInt(cmd.getOptionValue("seeds", "1"));
+                runBatch(batchPattern, iterations, timeLimit, outputDir, seeds, baseSeed, threads,
+                        cmd.getOptionValue("bks"), chargingMode, swapTime, configurer);
+                return;
+            }
+
+            DecompositionSolver.Config decomposition = null;
+            if (decomposeSize > 0) {
+                DecompositionSolver.Method method = DecompositionSolver.Method.valueOf(
+                        cmd.getOptionValue("decompose-method", "kmeans").toUpperCase());
+                int boundaryRounds = Integer.parseInt(cmd.getOptionValue("boundary-rounds", "3"));
+                DecompositionSolver.Config defaults = DecompositionSolver.Config.defaults(decomposeSize);
+                decomposition = new DecompositionSolver.Config(decomposeSize, method, boundaryRounds,
+                        defaults.routesPerGroup(), threads, baseSeed);
+            }
+
             // Run solver
             runSolver(instancePath, iterations, timeLimit, outputDir, verify, verifierPath, plot,
-                     chargingMode, swapTime);
+                     chargingMode, swapTime, configurer, checkpointPath, checkpointInterval,
+                     resumePath, initialPath, decomposition);
 
         } catch (ParseException e) {
             System.err.println("Error parsing arguments: " + e.getMessage());
@@ -148,13 +211,179 @@ public class Main {
                 .desc("Battery swap time in minutes (default: 2.0, only used with BATTERY_SWAP mode)")
                 .build());
 
+        options.addOption(Option.builder()
+                .longOpt("local-search")
+                .desc("Run local search (relocate, exchange, 2-opt, 2-opt*, or-opt) on every new best solution")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("route-min-iterations")
+                .hasArg()
+                .desc("Ejection pool steps per route elimination in the route minimization phase (default: "
+                        + Constants.ROUTE_MIN_ITERATIONS + ", 0 = disabled)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("time-normalized-weights")
+                .desc("Normalize operator rewards by time spent per call (favors cheap operators under a time limit)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("adaptive-penalties")
+                .desc("Self-adjust capacity, time and battery penalties towards "
+                        + (int) (Constants.PENALTY_TARGET_FEASIBLE * 100)
+                        + "% feasible candidates per constraint (default: fixed penalties)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("elite-restarts")
+                .desc("Restart from a diverse elite solution after "
+                        + Constants.ELITE_RESTART_STAGNATION
+                        + " iterations without a new best in the elite pool (default: off)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("construction")
+                .hasArg()
+                .desc("Initial solution heuristic: nearest (route by route, slow on large instances), "
+                        + "solomon (parallel I1), savings (Clarke-Wright) or race (all three in parallel, "
+                        + "keep the best) (default: nearest)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("destroy-size")
+                .hasArg()
+                .desc("Customers removed per iteration: fraction (10-40% of n), log (2-8 ln n) "
+                        + "or adaptive (learns the best size band per unit of time) (default: fraction)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("destroy-cap")
+                .hasArg()
+                .desc("Absolute maximum number of customers removed per iteration (default: 0 = no cap)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("acceptance")
+                .hasArg()
+                .desc("Acceptance criterion for non-improving candidates: sa (simulated annealing), sa-budget "
+                        + "(simulated annealing calibrated to the iteration budget), rrt (record-to-record "
+                        + "travel), lahc (late acceptance hill climbing) or ta (threshold accepting) (default: sa)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("operator-selection")
+                .hasArg()
+                .desc("How operators are picked: roulette (segment weights), alias (same weights, O(1) sampling), "
+                        + "ucb (sliding-window UCB) or thompson (discounted Thompson sampling) (default: roulette)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("checkpoint")
+                .hasArg()
+                .desc("Periodically save the full search state to this file (written in the background)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("checkpoint-interval")
+                .hasArg()
+                .desc("Iterations between checkpoints (default: " + Constants.CHECKPOINT_INTERVAL + ")")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("resume")
+                .hasArg()
+                .desc("Continue a run from a checkpoint file (use the same -i and options as the original run)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("batch")
+                .hasArg()
+                .desc("Batch benchmark over a directory or glob of instances (e.g. data/c1*_21.txt); "
+                        + "writes batch_runs.csv, batch_summary.csv and batch_summary.json to the output dir")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("seeds")
+                .hasArg()
+                .desc("Batch mode: runs per instance with consecutive seeds (default: 1)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("seed")
+                .hasArg()
+                .desc("Batch mode: first seed; decomposition: base seed (default: 1)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("threads")
+                .hasArg()
+                .desc("Batch and decomposition modes: core budget for concurrent runs (default: available processors)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("bks")
+                .hasArg()
+                .desc("Batch mode: best known solutions file (lines 'name [vehicles] distance') for gap reporting")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("decompose")
+                .hasArg()
+                .desc("Cluster-first mode for very large instances: split into clusters of about this many "
+                        + "customers, solve each with ALNS in parallel (-i/-t apply per cluster), then "
+                        + "re-optimize routes across cluster boundaries (default: 0 = off)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("decompose-method")
+                .hasArg()
+                .desc("Decomposition clustering: kmeans (coordinates and ready time) or sweep (angle around depot) "
+                        + "(default: kmeans)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("boundary-rounds")
+                .hasArg()
+                .desc("Decomposition: rounds of boundary route re-optimization after merging (default: 3)")
+                .build());
+
+        options.addOption(Option.builder()
+                .longOpt("initial")
+                .hasArg()
+                .desc("Warm start from a solution file written by a previous run (missing customers are inserted)")
+                .build());
+
         return options;
     }
 
+    private static void runBatch(String batchPattern, int iterations, double timeLimit, String outputDir,
+                                 int seeds, long baseSeed, int threads, String bksPath,
+                                 ChargingMode chargingMode, double swapTime,
+                                 Consumer<ALNS> configurer) throws Exception {
+        List<Path> files = BatchRunner.resolveInstances(batchPattern);
+        BestKnownSolutions bestKnown = bksPath != null ? BestKnownSolutions.read(bksPath) : null;
+
+        BatchRunner runner = new BatchRunner(iterations, timeLimit, seeds, baseSeed, threads);
+        runner.setChargingMode(chargingMode, swapTime);
+        runner.setConfigurer(configurer);
+
+        long startTime = System.currentTimeMillis();
+        List<BatchRunner.RunResult> runs = runner.run(files);
+        List<BatchRunner.InstanceSummary> summaries = BatchRunner.summarize(runs, bestKnown);
+        new BatchReportWriter().write(runs, summaries, outputDir);
+
+        System.out.printf("Batch completed: %d runs over %d instances in %.1f s, reports in %s%n",
+                runs.size(), summaries.size(), (System.currentTimeMillis() - startTime) / 1000.0, outputDir);
+    }
+
     private static void runSolver(String instancePath, int iterations, double timeLimit,
                                    String outputDir, boolean verify, 
                                    String verifierPath, boolean plot,
-                                   ChargingMode chargingMode, double swapTime) throws Exception {
+                                   ChargingMode chargingMode, double swapTime,
+                                   Consumer<ALNS> configurer, String checkpointPath,
+                                   int checkpointInterval, String resumePath, String initialPath,
+                                   DecompositionSolver.Config decomposition) throws Exception {
         Logger.info("Reading instance: " + instancePath);
         
         InstanceReader reader = new InstanceReader();
@@ -183,12 +412,33 @@ public class Main {
         } else {
             stopCriteria = String.format("%d iterations", iterations);
         }
-        Logger.info("Starting ALNS with " + stopCriteria + "...");
+        Logger.info("Starting ALNS with " + stopCriteria + (decomposition != null ? " per sub-instance" : "") + "...");
         
         long startTime = System.currentTimeMillis();
 
-        ALNS alns = new ALNS(instance, iterations, timeLimit, true);
-        Solution bestSolution = alns.solve();
+        Solution bestSolution;
+        if (decomposition != null) {
+            if (checkpointPath != null || resumePath != null || initialPath != null) {
+                Logger.warning("--checkpoint, --resume and --initial are ignored in decomposition mode");
+            }
+            DecompositionSolver solver = new DecompositionSolver(instance, iterations, timeLimit, decomposition);
+            solver.setConfigurer(configurer);
+            bestSolution = solver.solve();
+        } else {
+            ALNS alns = new ALNS(instance, iterations, timeLimit, true);
+            configurer.accept(alns);
+            if (checkpointPath != null) {
+                alns.setCheckpoint(checkpointPath, checkpointInterval);
+            }
+            if (resumePath != null) {
+                alns.setResumeFrom(resumePath);
+            }
+            if (initialPath != null) {
+                Logger.info("Reading initial solution: " + initialPath);
+                alns.setInitialSolution(new SolutionReader(instance).read(initialPath));
+            }
+            bestSolution = alns.solve();
+        }
 
         long elapsed = System.currentTimeMillis() - startTime;
         Logger.info(String.format("Optimization completed in %.2f seconds", elapsed / 1000.0));
@@ -1,14 +1,26 @@
 package tranhuy105.evrptw.algorithm;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
+import java.util.Set;
 
+import tranhuy105.evrptw.io.CheckpointReader;
+import tranhuy105.evrptw.io.CheckpointWriter;
+import tranhuy105.evrptw.localsearch.LocalSearch;
 import tranhuy105.evrptw.model.Instance;
-import tranhuy105.evrptw.model.NodeType;
+import tranhuy105.evrptw.model.Node;
+import tranhuy105.evrptw.model.RouteStats;
 import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.operators.insertion.BlinkInsertion;
 import tranhuy105.evrptw.operators.insertion.GreedyInsertion;
 import tranhuy105.evrptw.operators.insertion.InsertionHelper;
 import tranhuy105.evrptw.operators.insertion.InsertionOperator;
@@ -18,6 +30,7 @@ import tranhuy105.evrptw.operators.removal.RandomRemoval;
 import tranhuy105.evrptw.operators.removal.RandomRouteRemoval;
 import tranhuy105.evrptw.operators.removal.RemovalOperator;
 import tranhuy105.evrptw.operators.removal.ShawRemoval;
+import tranhuy105.evrptw.operators.removal.StringRemoval;
 import tranhuy105.evrptw.operators.removal.WorstDistanceRemoval;
 import tranhuy105.evrptw.operators.removal.WorstTimeRemoval;
 import tranhuy105.evrptw.operators.station.GreedyStationInsertion;
@@ -26,6 +39,8 @@ import tranhuy105.evrptw.operators.station.StationRemovalOperator;
 import tranhuy105.evrptw.operators.station.WorstDistanceStationRemoval;
 import tranhuy105.evrptw.util.Constants;
 import tranhuy105.evrptw.util.Logger;
+import tranhuy105.evrptw.util.RestorableRandom;
+import tranhuy105.evrptw.util.RouteHash;
 
 /**
  * Adaptive Large Neighborhood Search for EVRPTW
@@ -34,27 +49,81 @@ public class ALNS {
     private final Instance instance;
     private final int maxIterations;
     private final long maxTimeMs;  // Time limit in milliseconds (0 = no limit)
-    private final boolean verbose;
+
+    // Search event listeners (empty array = no callbacks)
+    private SearchListener[] listeners = new SearchListener[0];
 
     // Operators
     private final Map<String, RemovalOperator> removalOperators;
     private final Map<String, InsertionOperator> insertionOperators;
     private final Map<String, StationRemovalOperator> stationRemovalOperators;
 
+    // Operators by AdaptiveWeights handle (map insertion order)
+    private final RemovalOperator[] removalOps;
+    private final InsertionOperator[] insertionOps;
+    private final StationRemovalOperator[] stationRemovalOps;
+    private final boolean[] routeRemovalOps;
+
     // Adaptive weights
     private final AdaptiveWeights removalWeights;
     private final AdaptiveWeights insertionWeights;
     private final AdaptiveWeights stationRemovalWeights;
+    private String operatorSelection = "roulette";
 
     // Helpers
     private final InsertionHelper insertionHelper;
     private final GreedyStationInsertion stationInsertion;
     private final RouteEvaluator evaluator;
-    private final Random random = new Random();
+    private final LocalSearch localSearch;
+    private final RouteMinimizer routeMinimizer;
+    private final PenaltyWeights penalties = new PenaltyWeights();
+    private final RouteStatsCache routeCache = new RouteStatsCache(Constants.ROUTE_CACHE_SIZE);
+    private final RecentSolutions recentSolutions = new RecentSolutions(Constants.RECENT_SOLUTIONS);
+    private final RestorableRandom random = new RestorableRandom();
+    private final ElitePool elitePool = new ElitePool(Constants.ELITE_POOL_SIZE, random);
+    private long eliteRestarts;
+
+    // Restart from a diverse elite solution when the pool best has not improved for a while
+    private boolean eliteRestartsEnabled = false;
+
+    // Apply local search to every new best solution (off by default)
+    private boolean localSearchEnabled = false;
+
+    // Steer violation penalties towards a target share of feasible candidates
+    private boolean adaptivePenalties = false;
+
+    // Timers for non-adaptive steps (operator timers live in AdaptiveWeights)
+    private long stationRepairNs;
+    private long stationRepairCalls;
+    private long localSearchNs;
+    private long localSearchCalls;
+    private long duplicateCandidates;
+
+    // Checkpointing (null path = disabled)
+    private String checkpointPath;
+    private int checkpointInterval = Constants.CHECKPOINT_INTERVAL;
+    private String resumePath;
+
+    // Number of customers removed per iteration
+    private String destroySizeName = "fraction";
+    private DestroySizePolicy destroySize;
+
+    // Builds the initial solution when not warm started
+    private ConstructionHeuristic construction;
+
+    // Warm start (null = build from scratch)
+    private Solution initialSolution;
+
+    // Ejection pool steps per route elimination in the route minimization phase (0 = disabled)
+    private int routeMinIterations = Constants.ROUTE_MIN_ITERATIONS;
 
-    // Simulated annealing
-    private double temperature;
-    private static final double COOLING_RATE = 0.9995;
+    // Decides on candidates that are not better than the current solution
+    private String acceptanceName = "sa";
+    private AcceptanceCriterion acceptance;
+
+    // Route removal operators, disabled once the fleet reaches its lower bound
+    private static final List<String> ROUTE_REMOVAL_OPERATORS = List.of("random_route", "greedy_route");
+    private boolean fleetAtLowerBound;
 
     /**
      * Create ALNS solver with iteration limit only
@@ -72,65 +141,244 @@ public class ALNS {
         this.instance = instance;
         this.maxIterations = maxIterations;
         this.maxTimeMs = (long) (maxTimeSeconds * 1000);
-        this.verbose = verbose;
+        if (verbose) {
+            listeners = new SearchListener[]{new ConsoleSearchListener()};
+        }
 
         // Initialize helpers
-        this.insertionHelper = new InsertionHelper(instance);
-        this.stationInsertion = new GreedyStationInsertion(instance);
-        this.evaluator = new RouteEvaluator(instance);
+        this.insertionHelper = new InsertionHelper(instance, penalties);
+        this.stationInsertion = new GreedyStationInsertion(instance, penalties);
+        this.evaluator = new RouteEvaluator(instance, penalties);
+        this.localSearch = new LocalSearch(instance, evaluator, random);
+        this.routeMinimizer = new RouteMinimizer(instance, evaluator, random);
 
         // Initialize removal operators (6 operators matching Python)
         this.removalOperators = new LinkedHashMap<>();
-        removalOperators.put("random", new RandomRemoval());
-        removalOperators.put("shaw", new ShawRemoval());
-        removalOperators.put("worst_distance", new WorstDistanceRemoval());
-        removalOperators.put("worst_time", new WorstTimeRemoval());
-        removalOperators.put("random_route", new RandomRouteRemoval());
+        removalOperators.put("random", new RandomRemoval(random));
+        removalOperators.put("shaw", new ShawRemoval(random));
+        removalOperators.put("worst_distance", new WorstDistanceRemoval(random));
+        removalOperators.put("worst_time", new WorstTimeRemoval(random));
+        removalOperators.put("random_route", new RandomRouteRemoval(random));
         removalOperators.put("greedy_route", new GreedyRouteRemoval());
+        removalOperators.put("string", new StringRemoval(random));
 
         // Initialize insertion operators
         this.insertionOperators = new LinkedHashMap<>();
         insertionOperators.put("greedy", new GreedyInsertion(insertionHelper));
         insertionOperators.put("regret_2", new RegretInsertion(insertionHelper, 2));
         insertionOperators.put("regret_3", new RegretInsertion(insertionHelper, 3));
+        insertionOperators.put("blink", new BlinkInsertion(insertionHelper, random));
 
         // Initialize station removal operators
         this.stationRemovalOperators = new LinkedHashMap<>();
-        stationRemovalOperators.put("random_station", new RandomStationRemoval());
-        stationRemovalOperators.put("worst_distance_station", new WorstDistanceStationRemoval());
+        stationRemovalOperators.put("random_station", new RandomStationRemoval(random));
+        stationRemovalOperators.put("worst_distance_station", new WorstDistanceStationRemoval(random));
 
         // Initialize adaptive weights
-        this.removalWeights = new AdaptiveWeights(new ArrayList<>(removalOperators.keySet()));
-        this.insertionWeights = new AdaptiveWeights(new ArrayList<>(insertionOperators.keySet()));
-        this.stationRemovalWeights = new AdaptiveWeights(new ArrayList<>(stationRemovalOperators.keySet()));
+        this.removalWeights = new AdaptiveWeights(new ArrayList<>(removalOperators.keySet()), random);
+        this.insertionWeights = new AdaptiveWeights(new ArrayList<>(insertionOperators.keySet()), random);
+        this.stationRemovalWeights = new AdaptiveWeights(new ArrayList<>(stationRemovalOperators.keySet()), random);
+        this.removalOps = removalOperators.values().toArray(new RemovalOperator[0]);
+        this.insertionOps = insertionOperators.values().toArray(new InsertionOperator[0]);
+        this.stationRemovalOps = stationRemovalOperators.values().toArray(new StationRemovalOperator[0]);
+        this.routeRemovalOps = new boolean[removalOps.length];
+        for (String opName : ROUTE_REMOVAL_OPERATORS) {
+            routeRemovalOps[removalWeights.indexOf(opName)] = true;
+        }
+        this.destroySize = new FractionDestroySize(instance.getCustomers().size(), 0, random);
+        this.acceptance = new SimulatedAnnealingAcceptance(maxIterations, random);
+        this.construction = new InitialSolutionBuilder(instance);
     }
 
     /**
-     * Run ALNS optimization
+     * Enable or disable local search on new best solutions
      */
-    public Solution solve() {
-        // Build initial solution
-        Logger.info("Building initial solution...");
-        InitialSolutionBuilder builder = new InitialSolutionBuilder(instance);
-        Solution currentSol = builder.build();
-        Solution bestSol = currentSol.copy();
-        Solution bestFeasibleSol = bestSol.isFeasible() ? bestSol.copy() : null;
+    public void setLocalSearchEnabled(boolean localSearchEnabled) {
+        this.localSearchEnabled = localSearchEnabled;
+    }
+
+    /**
+     * Let violation penalties self-adjust during the search instead of staying at their Constants values
+     */
+    public void setAdaptivePenalties(boolean adaptivePenalties) {
+        this.adaptivePenalties = adaptivePenalties;
+    }
+
+    /**
+     * Restart from a diverse elite solution after ELITE_RESTART_STAGNATION iterations without a new pool best
+     */
+    public void setEliteRestarts(boolean eliteRestartsEnabled) {
+        this.eliteRestartsEnabled = eliteRestartsEnabled;
+    }
+
+    /**
+     * Seed the random generator shared by all operators (for reproducible runs)
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    /**
+     * Register a listener for search events
+     */
+    public void addListener(SearchListener listener) {
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
 
-        Logger.info(String.format("Initial: Cost=%.2f, Dist=%.2f, Vehicles=%d, Feasible=%s",
-                bestSol.getCost(), bestSol.getTotalDistance(),
-                bestSol.getRoutes().size(), bestSol.isFeasible()));
+    /**
+     * Scale operator rewards by their time per call (favors cheap operators under a time budget)
+     */
+    public void setTimeNormalizedWeights(boolean timeNormalized) {
+        removalWeights.setTimeNormalized(timeNormalized);
+        insertionWeights.setTimeNormalized(timeNormalized);
+        stationRemovalWeights.setTimeNormalized(timeNormalized);
+    }
 
-        // Initialize temperature: accept 5% worse solution with 50% probability
-        double tInit = bestSol.getCost() * 0.05 / Math.log(2);
-        temperature = tInit;
+    /**
+     * Choose how operators are picked: roulette (default), alias, ucb or thompson
+     */
+    public void setOperatorSelection(String policy) {
+        removalWeights.setPolicy(policy);
+        insertionWeights.setPolicy(policy);
+        stationRemovalWeights.setPolicy(policy);
+        this.operatorSelection = policy.toLowerCase();
+    }
 
-        String currentRemovalOp = null;
-        String currentInsertionOp = null;
+    /**
+     * Set ejection pool steps per route elimination (0 disables route minimization)
+     */
+    public void setRouteMinIterations(int routeMinIterations) {
+        this.routeMinIterations = routeMinIterations;
+    }
 
-        long startTime = System.currentTimeMillis();
+    /**
+     * Write a checkpoint every interval iterations (and at the end of the run)
+     */
+    public void setCheckpoint(String checkpointPath, int checkpointInterval) {
+        this.checkpointPath = checkpointPath;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Continue from a checkpoint instead of building an initial solution.
+     * Use the same iteration limit as the original run to continue it exactly.
+     */
+    public void setResumeFrom(String resumePath) {
+        this.resumePath = resumePath;
+    }
+
+    /**
+     * Choose the destroy size policy (fraction, log or adaptive) and an absolute cap (0 = no cap)
+     */
+    public void setDestroySize(String policy, int cap) {
+        this.destroySize = DestroySizePolicy.create(policy, instance.getCustomers().size(), cap, random);
+        this.destroySizeName = policy.toLowerCase();
+    }
+
+    /**
+     * Choose the acceptance criterion: sa (default), rrt, lahc or ta
+     */
+    public void setAcceptance(String name) {
+        this.acceptance = AcceptanceCriterion.create(name, maxIterations, random);
+        this.acceptanceName = name.toLowerCase();
+    }
+
+    /**
+     * Choose the construction heuristic: nearest (default), savings, solomon or race
+     */
+    public void setConstruction(String name) {
+        this.construction = ConstructionHeuristic.create(name, instance);
+    }
+
+    /**
+     * Start from an existing solution instead of building one.
+     * Customers it does not serve are inserted before the search starts.
+     */
+    public void setInitialSolution(Solution initialSolution) {
+        this.initialSolution = initialSolution;
+    }
+
+    /**
+     * Search state kept in local variables of solve(), captured for checkpoints
+     */
+    private record SearchState(Solution currentSol, Solution bestSol, Solution bestFeasibleSol,
+                               int iteration, int iterationsWithoutFeasible,
+                               int lastFeasibleIteration, boolean routeMinimizationDone, long elapsedMs) {
+    }
+
+    /**
+     * Run ALNS optimization
+     */
+    public Solution solve() {
+        Solution currentSol;
+        Solution bestSol;
+        Solution bestFeasibleSol;
         int iteration = 0;
         int iterationsWithoutFeasible = 0;
         int lastFeasibleIteration = -1;
+        boolean routeMinimizationDone = false;
+        long elapsedBefore = 0;
+
+        Logger.info(String.format("Vehicle lower bound: %d (bin-packing=%d, time-window clique=%d)",
+                instance.getVehicleLowerBound(), instance.getBinPackingLowerBound(),
+                instance.getTimeWindowLowerBound()));
+
+        if (resumePath != null) {
+            SearchState state = readCheckpoint(resumePath);
+            currentSol = state.currentSol();
+            bestSol = state.bestSol();
+            bestFeasibleSol = state.bestFeasibleSol();
+            iteration = state.iteration();
+            iterationsWithoutFeasible = state.iterationsWithoutFeasible();
+            lastFeasibleIteration = state.lastFeasibleIteration();
+            routeMinimizationDone = state.routeMinimizationDone();
+            elapsedBefore = state.elapsedMs();
+
+            Logger.info(String.format("Resumed from %s at iter %d: Cost=%.2f, Dist=%.2f, Vehicles=%d, Feasible=%s",
+                    resumePath, iteration, bestSol.getCost(), bestSol.getTotalDistance(),
+                    bestSol.getRoutes().size(), bestSol.isFeasible()));
+        } else {
+            if (initialSolution != null) {
+                currentSol = warmStart(initialSolution);
+            } else {
+                // Build initial solution
+                Logger.info("Building initial solution...");
+                currentSol = construction.build();
+            }
+            bestSol = currentSol.copy();
+            bestFeasibleSol = bestSol.isFeasible() ? bestSol.copy() : null;
+
+            Logger.info(String.format("Initial: Cost=%.2f, Dist=%.2f, Vehicles=%d, Feasible=%s",
+                    bestSol.getCost(), bestSol.getTotalDistance(),
+                    bestSol.getRoutes().size(), bestSol.isFeasible()));
+
+            // A previous solve may have disabled route removal at the fleet lower bound
+            fleetAtLowerBound = false;
+            for (String opName : ROUTE_REMOVAL_OPERATORS) {
+                removalWeights.setEnabled(opName, true);
+            }
+            stationRepairNs = 0;
+            stationRepairCalls = 0;
+            localSearchNs = 0;
+            localSearchCalls = 0;
+            duplicateCandidates = 0;
+            eliteRestarts = 0;
+            elitePool.clear();
+            if (bestFeasibleSol != null) {
+                elitePool.add(bestFeasibleSol, 0);
+            }
+            checkFleetLowerBound(bestFeasibleSol, 0);
+
+            acceptance.start(searchCost(currentSol), currentSol.getCost());
+        }
+
+        int currentRemovalOp = -1;
+        int currentInsertionOp = -1;
+
+        CheckpointWriter checkpointWriter = checkpointPath != null ? new CheckpointWriter(checkpointPath) : null;
+        long startTime = System.currentTimeMillis() - elapsedBefore;
+        int acceptanceFleet = currentSol.getRoutes().size();
 
         while (iteration < maxIterations) {
             // Check time limit
@@ -139,19 +387,42 @@ public class ALNS {
                 break;
             }
             
+            // Route minimization phase: runs once, as soon as a feasible solution exists
+            if (!routeMinimizationDone && bestFeasibleSol != null) {
+                routeMinimizationDone = true;
+                if (routeMinIterations > 0 && !fleetAtLowerBound) {
+                    Solution minimized = routeMinimizer.minimize(bestFeasibleSol, routeMinIterations);
+                    if (minimized.getRoutes().size() < bestFeasibleSol.getRoutes().size()) {
+                        bestFeasibleSol = minimized;
+                        bestSol = minimized.copy();
+                        currentSol = minimized.copy();
+                        elitePool.add(minimized, iteration);
+                        checkFleetLowerBound(bestFeasibleSol, iteration);
+                    }
+                }
+            }
+
             // Calculate progress for adaptive behavior
             double progress = (double) iteration / maxIterations;
             
-            // Feasibility recovery: restart from best feasible if stuck
-            if (bestFeasibleSol != null && 
-                !currentSol.isFeasible() &&
-                progress > Constants.INFEASIBLE_RESTART_THRESHOLD &&
-                iterationsWithoutFeasible > 200) {
-                
-                Logger.debug("Iter " + iteration + ": Restarting from best feasible solution");
-                currentSol = bestFeasibleSol.copy();
+            // Feasibility recovery: restart from an elite solution if stuck infeasible,
+            // or (when enabled) from a diverse elite solution if the pool best stagnates
+            boolean stuckInfeasible = bestFeasibleSol != null &&
+                                      !currentSol.isFeasible() &&
+                                      progress > Constants.INFEASIBLE_RESTART_THRESHOLD &&
+                                      iterationsWithoutFeasible > 200;
+            boolean stagnating = eliteRestartsEnabled && elitePool.size() > 1 &&
+                                 iteration - elitePool.getLastImprovement() >= Constants.ELITE_RESTART_STAGNATION;
+            if (stuckInfeasible || stagnating) {
+                Solution restart = elitePool.pickRestart(currentSol);
+                currentSol = restart != null ? restart : bestFeasibleSol.copy();
+                elitePool.markRestart(iteration);
+                eliteRestarts++;
                 iterationsWithoutFeasible = 0;
-                temperature = tInit * 0.1;  // Reheat slightly
+                acceptance.reheat();
+                for (SearchListener listener : listeners) {
+                    listener.onRestart(iteration, currentSol, acceptance.level());
+                }
             }
             
             Solution tempSol = currentSol.copy();
@@ -165,161 +436,230 @@ public class ALNS {
 
             // Station removal every N iterations
             if (iteration > 0 && iteration % Constants.STATION_REMOVAL_INTERVAL == 0) {
-                String srOpName = stationRemovalWeights.select();
-                stationRemovalWeights.recordUsage(srOpName);
+                int srOp = stationRemovalWeights.select();
+                stationRemovalWeights.recordUsage(srOp);
 
                 int numStations = countStationsInSolution(tempSol);
                 // Python: random.uniform(0.1, 0.3) -> range [0.1, 0.3]
                 int sigma = Math.max(1, (int) (numStations * (0.1 + random.nextDouble() * 0.2)));
 
-                stationRemovalOperators.get(srOpName).remove(tempSol, sigma);
-                Logger.debug("Iter " + iteration + ": Station removal (" + srOpName + ")");
+                long srStart = System.nanoTime();
+                stationRemovalOps[srOp].remove(tempSol, sigma);
+                stationRemovalWeights.recordTime(srOp, System.nanoTime() - srStart);
+                final int iter = iteration;
+                Logger.debug(() -> "Iter " + iter + ": Station removal (" + stationRemovalWeights.getName(srOp) + ")");
             }
 
             // Select removal operator
-            String removalOpName = removalWeights.select();
-            removalWeights.recordUsage(removalOpName);
-            currentRemovalOp = removalOpName;
-
-            // Determine number of customers to remove
-            // Use smaller destruction when focusing on feasibility
-            int nCustomers = instance.getCustomers().size();
-            int minRemove, maxRemove;
-            if (feasibilityFocus) {
-                minRemove = Math.max(1, (int) (nCustomers * 0.05));
-                maxRemove = Math.max(2, (int) (nCustomers * 0.15));
-            } else {
-                minRemove = Math.max(1, (int) (nCustomers * 0.1));
-                maxRemove = Math.max(2, (int) (nCustomers * 0.4));
-            }
-            
-            if (removalOpName.equals("random_route") || removalOpName.equals("greedy_route")) {
+            int removalOp = removalWeights.select();
+            removalWeights.recordUsage(removalOp);
+            currentRemovalOp = removalOp;
+
+            long removalStart = System.nanoTime();
+            boolean routeRemoval = routeRemovalOps[removalOp];
+            if (routeRemoval) {
                 // Route removal operators don't use q parameter
-                removedCustomers = removalOperators.get(removalOpName).remove(tempSol, 0);
+                removedCustomers = removalOps[removalOp].remove(tempSol, 0);
             } else {
-                int q = random.nextInt(maxRemove - minRemove + 1) + minRemove;
-                removedCustomers = removalOperators.get(removalOpName).remove(tempSol, q);
+                // Use smaller destruction when focusing on feasibility
+                int q = destroySize.next(feasibilityFocus);
+                removedCustomers = removalOps[removalOp].remove(tempSol, q);
             }
+            removalWeights.recordTime(removalOp, System.nanoTime() - removalStart);
 
             // Clean empty routes
-            tempSol.getRoutes().removeIf(List::isEmpty);
+            tempSol.removeEmptyRoutes();
 
             // ==================== REPAIR PHASE ====================
 
             // Select insertion operator
-            String insertionOpName = insertionWeights.select();
-            insertionWeights.recordUsage(insertionOpName);
-            currentInsertionOp = insertionOpName;
+            int insertionOp = insertionWeights.select();
+            insertionWeights.recordUsage(insertionOp);
+            currentInsertionOp = insertionOp;
 
-            insertionOperators.get(insertionOpName).insert(tempSol, removedCustomers);
+            long insertionStart = System.nanoTime();
+            insertionOps[insertionOp].insert(tempSol, removedCustomers);
+            insertionWeights.recordTime(insertionOp, System.nanoTime() - insertionStart);
 
             // Repair battery violations
+            long repairStart = System.nanoTime();
             stationInsertion.repair(tempSol);
+            stationRepairNs += System.nanoTime() - repairStart;
+            stationRepairCalls++;
 
             // Clean empty routes again
-            tempSol.getRoutes().removeIf(List::isEmpty);
+            tempSol.removeEmptyRoutes();
 
             // ==================== EVALUATION & ACCEPTANCE ====================
 
-            evaluator.calculateTotalCost(tempSol);
-            double cost = tempSol.getCost();
-            double dist = tempSol.getTotalDistance();
-            double viol = tempSol.getTotalViolations();
-            boolean isFeasible = viol < 1e-6;
+            // Same routes as the current or a recently evaluated solution: skip evaluation
+            long fingerprint = RouteHash.fingerprint(tempSol.getRoutes());
+            boolean duplicate = fingerprint == RouteHash.fingerprint(currentSol.getRoutes())
+                    || recentSolutions.contains(fingerprint);
 
-            // Determine acceptance
             boolean accepted = false;
             int resultType = -1;  // -1 = rejected
-
-            int currVehicles = currentSol.getRoutes().size();
-            int newVehicles = tempSol.getRoutes().size();
-
-            if (newVehicles < currVehicles) {
-                // Fewer vehicles - always accept
-                accepted = true;
-                resultType = 1;  // Better
-            } else if (newVehicles > currVehicles) {
-                // More vehicles - reject
-                accepted = false;
+            long destroyRepairNs;
+
+            if (duplicate) {
+                duplicateCandidates++;
+                resultType = 3;  // Duplicate
+                destroyRepairNs = System.nanoTime() - removalStart;
+                if (!currentSol.isFeasible()) {
+                    iterationsWithoutFeasible++;
+                }
             } else {
-                // Same vehicles - compare cost
-                double delta = cost - currentSol.getCost();
+                recentSolutions.add(fingerprint);
+                evaluator.calculateTotalCost(tempSol, routeCache);
+                destroyRepairNs = System.nanoTime() - removalStart;
+                if (adaptivePenalties) {
+                    recordViolations(tempSol);
+                }
+                double cost = tempSol.getCost();
+                double dist = tempSol.getTotalDistance();
+                double viol = tempSol.getTotalViolations();
+                boolean isFeasible = viol < 1e-6;
+
+                // Determine acceptance
+                int currVehicles = currentSol.getRoutes().size();
+                int newVehicles = tempSol.getRoutes().size();
 
-                if (delta < 0) {
+                if (newVehicles < currVehicles) {
+                    // Fewer vehicles - always accept
                     accepted = true;
                     resultType = 1;  // Better
-                } else if (temperature > 1e-10 && random.nextDouble() < Math.exp(-delta / temperature)) {
-                    accepted = true;
-                    resultType = 2;  // Accepted worse
+                } else if (newVehicles > currVehicles) {
+                    // More vehicles - reject
+                    accepted = false;
+                } else {
+                    // Same vehicles - compare cost
+                    double delta = cost - currentSol.getCost();
+
+                    if (delta < 0) {
+                        accepted = true;
+                        resultType = 1;  // Better
+                    } else if (acceptance.accept(searchCost(tempSol), searchCost(currentSol))) {
+                        accepted = true;
+                        resultType = 2;  // Accepted worse
+                    }
                 }
-            }
 
-            if (accepted) {
-                currentSol = tempSol;
-            }
-
-            // Update best solution
-            boolean isNewBest = checkNewBest(tempSol, bestSol, isFeasible, viol, dist);
+                if (accepted) {
+                    currentSol = tempSol;
+                }
 
-            if (isNewBest) {
-                bestSol = tempSol.copy();
-                resultType = 0;  // New best
-                if (verbose) {
-                    String feasibleStr = isFeasible ? "FEASIBLE" : "infeasible";
-                    Logger.info(String.format("Iter %d: NEW BEST (%s)! Cost=%.2f, Dist=%.2f, Veh=%d, Viol=%.4f",
-                            iteration, feasibleStr, cost, dist, bestSol.getRoutes().size(), viol));
+                // Update best solution
+                boolean isNewBest = checkNewBest(tempSol, bestSol, isFeasible, viol, dist);
+
+                if (isNewBest) {
+                    if (localSearchEnabled) {
+                        // Intensify around the new best (never adds violations)
+                        long lsStart = System.nanoTime();
+                        localSearch.improve(tempSol);
+                        localSearchNs += System.nanoTime() - lsStart;
+                        localSearchCalls++;
+                        cost = tempSol.getCost();
+                        dist = tempSol.getTotalDistance();
+                        viol = tempSol.getTotalViolations();
+                        isFeasible = viol < 1e-6;
+                    }
+                    bestSol = tempSol.copy();
+                    resultType = 0;  // New best
+                    for (SearchListener listener : listeners) {
+                        listener.onNewBest(iteration, bestSol, removalWeights.getName(currentRemovalOp),
+                                insertionWeights.getName(currentInsertionOp));
+                    }
                 }
-            }
             
-            // Track best feasible solution separately
-            if (isFeasible) {
-                iterationsWithoutFeasible = 0;
-                lastFeasibleIteration = iteration;
+                // Track best feasible solution separately
+                if (isFeasible) {
+                    iterationsWithoutFeasible = 0;
+                    lastFeasibleIteration = iteration;
+                    elitePool.add(tempSol, iteration);
                 
-                if (bestFeasibleSol == null) {
-                    bestFeasibleSol = tempSol.copy();
-                    if (verbose) {
-                        Logger.info("Iter " + iteration + ": First feasible solution found!");
+                    if (bestFeasibleSol == null) {
+                        bestFeasibleSol = tempSol.copy();
+                        for (SearchListener listener : listeners) {
+                            listener.onFirstFeasible(iteration, bestFeasibleSol);
+                        }
+                    } else if (tempSol.getRoutes().size() < bestFeasibleSol.getRoutes().size() ||
+                               (tempSol.getRoutes().size() == bestFeasibleSol.getRoutes().size() &&
+                                dist < bestFeasibleSol.getTotalDistance())) {
+                        bestFeasibleSol = tempSol.copy();
                     }
-                } else if (tempSol.getRoutes().size() < bestFeasibleSol.getRoutes().size() ||
-                           (tempSol.getRoutes().size() == bestFeasibleSol.getRoutes().size() &&
-                            dist < bestFeasibleSol.getTotalDistance())) {
-                    bestFeasibleSol = tempSol.copy();
+                    checkFleetLowerBound(bestFeasibleSol, iteration);
+                } else {
+                    iterationsWithoutFeasible++;
                 }
-            } else {
-                iterationsWithoutFeasible++;
             }
 
             // Update operator scores
-            if (resultType >= 0) {
-                ResultType rt = switch (resultType) {
-                    case 0 -> ResultType.NEW_BEST;
-                    case 1 -> ResultType.BETTER;
-                    default -> ResultType.ACCEPTED_WORSE;
-                };
+            ResultType rt = switch (resultType) {
+                case -1 -> null;
+                case 0 -> ResultType.NEW_BEST;
+                case 1 -> ResultType.BETTER;
+                case 3 -> ResultType.DUPLICATE;
+                default -> ResultType.ACCEPTED_WORSE;
+            };
+            if (rt != null) {
                 removalWeights.updateScore(currentRemovalOp, rt);
                 insertionWeights.updateScore(currentInsertionOp, rt);
             }
+            if (!routeRemoval) {
+                destroySize.record(rt, destroyRepairNs);
+            }
 
             // Update adaptive weights periodically
             if ((iteration + 1) % Constants.SEGMENT_SIZE == 0) {
                 removalWeights.updateWeights();
                 insertionWeights.updateWeights();
                 stationRemovalWeights.updateWeights();
+                destroySize.endSegment();
+
+                if (adaptivePenalties && penalties.update()) {
+                    // Current and best costs were priced with the old weights
+                    evaluator.calculateTotalCost(currentSol, routeCache);
+                    evaluator.calculateTotalCost(bestSol, routeCache);
+                    // Records kept by the acceptance criterion were priced the same way
+                    acceptance.rebase(searchCost(currentSol));
+                    final int iter = iteration;
+                    Logger.debug(() -> "Iter " + iter + ": Penalties " + penalties);
+                }
 
-                if (verbose && iteration % 500 == 0) {
-                    String hasFeasible = bestFeasibleSol != null ? "yes" : "no";
-                    Logger.info(String.format("Iter %d: Current=%.2f, Best=%.2f, T=%.4f, HasFeasible=%s",
-                            iteration, currentSol.getCost(), bestSol.getCost(), temperature, hasFeasible));
+                for (SearchListener listener : listeners) {
+                    listener.onWeightsUpdated(iteration, removalWeights, insertionWeights, stationRemovalWeights);
                 }
             }
 
-            // Cool down temperature
-            temperature *= COOLING_RATE;
+            for (SearchListener listener : listeners) {
+                listener.onIteration(iteration, currentSol, bestSol, bestFeasibleSol, acceptance.level(), accepted);
+            }
+
+            // Records kept by the acceptance criterion only compare within one fleet size
+            if (currentSol.getRoutes().size() != acceptanceFleet) {
+                acceptanceFleet = currentSol.getRoutes().size();
+                acceptance.rebase(searchCost(currentSol));
+            }
+            acceptance.step(searchCost(currentSol));
             iteration++;
+
+            if (checkpointWriter != null && iteration % checkpointInterval == 0) {
+                checkpointWriter.submit(encodeCheckpoint(new SearchState(currentSol, bestSol, bestFeasibleSol,
+                        iteration, iterationsWithoutFeasible, lastFeasibleIteration,
+                        routeMinimizationDone, System.currentTimeMillis() - startTime)));
+            }
         }
 
         Logger.info(String.format("Completed %d iterations", iteration));
+        printOperatorReport();
+
+        if (checkpointWriter != null) {
+            checkpointWriter.submit(encodeCheckpoint(new SearchState(currentSol, bestSol, bestFeasibleSol,
+                    iteration, iterationsWithoutFeasible, lastFeasibleIteration,
+                    routeMinimizationDone, System.currentTimeMillis() - startTime)));
+            checkpointWriter.close();
+            Logger.info("Checkpoint saved to: " + checkpointPath);
+        }
         
         // Return best feasible solution if available
         if (bestFeasibleSol != null) {
@@ -363,6 +703,217 @@ public class ALNS {
         return false;
     }
 
+    /**
+     * Cost seen by the acceptance criterion: penalized distance without the vehicle penalty
+     */
+    private static double searchCost(Solution solution) {
+        return solution.getCost() - solution.getRoutes().size() * Constants.PENALTY_VEHICLE;
+    }
+
+    /**
+     * Feed the per-constraint violations of an evaluated candidate to the adaptive penalties.
+     * Its routes were just evaluated, so their stats come from the route cache.
+     */
+    private void recordViolations(Solution solution) {
+        double capacity = 0.0;
+        double time = 0.0;
+        double battery = 0.0;
+        if (solution.getTotalViolations() >= 1e-6) {
+            for (List<Integer> route : solution.getRoutes()) {
+                if (route.isEmpty()) {
+                    continue;
+                }
+                RouteStats stats = routeCache.find(route);
+                if (stats == null) {
+                    stats = evaluator.evaluate(route);
+                }
+                capacity += stats.capacityViolation();
+                time += stats.timeViolation();
+                battery += stats.batteryViolation();
+            }
+        }
+        penalties.record(capacity, time, battery);
+    }
+
+    /**
+     * Once the best feasible fleet matches the instance lower bound no route can be saved,
+     * so route removal is wasted effort: switch to distance-only operators.
+     */
+    private void checkFleetLowerBound(Solution bestFeasibleSol, int iteration) {
+        if (fleetAtLowerBound || bestFeasibleSol == null ||
+            bestFeasibleSol.getRoutes().size() > instance.getVehicleLowerBound()) {
+            return;
+        }
+        fleetAtLowerBound = true;
+        for (String opName : ROUTE_REMOVAL_OPERATORS) {
+            removalWeights.setEnabled(opName, false);
+        }
+        Logger.info(String.format("Iter %d: Fleet at lower bound (%d vehicles), disabling route removal",
+                iteration, bestFeasibleSol.getRoutes().size()));
+    }
+
+    /**
+     * Prepare a warm start: insert unserved customers and repair battery violations
+     */
+    private Solution warmStart(Solution initial) {
+        Solution solution = initial.copy();
+        solution.removeEmptyRoutes();
+
+        Set<Integer> served = new HashSet<>();
+        for (List<Integer> route : solution.getRoutes()) {
+            served.addAll(route);
+        }
+        List<Integer> missing = new ArrayList<>();
+        for (Node customer : instance.getCustomers()) {
+            if (!served.contains(customer.getId())) {
+                missing.add(customer.getId());
+            }
+        }
+
+        Logger.info(String.format("Warm start: %d routes, %d customers to insert",
+                solution.getRoutes().size(), missing.size()));
+        if (!missing.isEmpty()) {
+            insertionOperators.get("greedy").insert(solution, missing);
+        }
+        stationInsertion.repair(solution);
+        solution.removeEmptyRoutes();
+        evaluator.calculateTotalCost(solution);
+        return solution;
+    }
+
+    /**
+     * Encode the full search state: solutions, loop counters, acceptance state, RNG, weights and timers
+     */
+    private byte[] encodeCheckpoint(SearchState state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            CheckpointWriter.writeHeader(out, instance);
+            out.writeInt(state.iteration());
+            out.writeInt(state.iterationsWithoutFeasible());
+            out.writeInt(state.lastFeasibleIteration());
+            out.writeBoolean(state.routeMinimizationDone());
+            out.writeBoolean(fleetAtLowerBound);
+            out.writeLong(state.elapsedMs());
+            out.writeUTF(acceptanceName);
+            acceptance.writeState(out);
+            out.writeLong(random.getState());
+
+            CheckpointWriter.writeSolution(out, state.currentSol());
+            CheckpointWriter.writeSolution(out, state.bestSol());
+            out.writeBoolean(state.bestFeasibleSol() != null);
+            if (state.bestFeasibleSol() != null) {
+                CheckpointWriter.writeSolution(out, state.bestFeasibleSol());
+            }
+
+            out.writeUTF(operatorSelection);
+            removalWeights.writeState(out);
+            insertionWeights.writeState(out);
+            stationRemovalWeights.writeState(out);
+            out.writeUTF(destroySizeName);
+            destroySize.writeState(out);
+            penalties.writeState(out);
+
+            out.writeLong(stationRepairNs);
+            out.writeLong(stationRepairCalls);
+            out.writeLong(localSearchNs);
+            out.writeLong(localSearchCalls);
+            out.writeLong(duplicateCandidates);
+            recentSolutions.writeState(out);
+            out.writeLong(eliteRestarts);
+            elitePool.writeState(out);
+        } catch (IOException e) {
+            // In-memory stream: cannot happen
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Restore search state from a checkpoint written by encodeCheckpoint
+     */
+    private SearchState readCheckpoint(String path) {
+        CheckpointReader reader = new CheckpointReader(instance);
+        try (DataInputStream in = reader.open(path)) {
+            int iteration = in.readInt();
+            int iterationsWithoutFeasible = in.readInt();
+            int lastFeasibleIteration = in.readInt();
+            boolean routeMinimizationDone = in.readBoolean();
+            fleetAtLowerBound = in.readBoolean();
+            long elapsedMs = in.readLong();
+            String criterion = in.readUTF();
+            if (!criterion.equals(acceptanceName)) {
+                throw new IOException("Checkpoint uses acceptance criterion " + criterion + ", run uses " + acceptanceName);
+            }
+            acceptance.readState(in);
+            random.setState(in.readLong());
+
+            Solution currentSol = reader.readSolution(in);
+            Solution bestSol = reader.readSolution(in);
+            Solution bestFeasibleSol = in.readBoolean() ? reader.readSolution(in) : null;
+
+            String selection = in.readUTF();
+            if (!selection.equals(operatorSelection)) {
+                throw new IOException("Checkpoint uses operator selection " + selection + ", run uses " + operatorSelection);
+            }
+            removalWeights.readState(in);
+            insertionWeights.readState(in);
+            stationRemovalWeights.readState(in);
+            String policy = in.readUTF();
+            if (!policy.equals(destroySizeName)) {
+                throw new IOException("Checkpoint uses destroy size policy " + policy + ", run uses " + destroySizeName);
+            }
+            destroySize.readState(in);
+            penalties.readState(in);
+
+            stationRepairNs = in.readLong();
+            stationRepairCalls = in.readLong();
+            localSearchNs = in.readLong();
+            localSearchCalls = in.readLong();
+            duplicateCandidates = in.readLong();
+            recentSolutions.readState(in);
+            eliteRestarts = in.readLong();
+            elitePool.readState(in, reader);
+
+            return new SearchState(currentSol, bestSol, bestFeasibleSol, iteration,
+                    iterationsWithoutFeasible, lastFeasibleIteration, routeMinimizationDone, elapsedMs);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot resume from " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Print per-operator calls, successes and time spent
+     */
+    private void printOperatorReport() {
+        StringBuilder sb = new StringBuilder("Operator report:");
+        sb.append(String.format("%n  %-10s %-24s %8s %8s %8s %8s %10s %10s %8s",
+                "Group", "Operator", "Calls", "Accepted", "NewBest", "Dup", "Time(ms)", "Avg(us)", "Weight"));
+        removalWeights.appendReport(sb, "removal");
+        insertionWeights.appendReport(sb, "insertion");
+        stationRemovalWeights.appendReport(sb, "station");
+        if (destroySize instanceof AdaptiveDestroySize adaptive) {
+            adaptive.appendReport(sb);
+        }
+        appendTimerRow(sb, "repair", "station_insertion", stationRepairCalls, stationRepairNs);
+        appendTimerRow(sb, "intensify", "local_search", localSearchCalls, localSearchNs);
+        sb.append(String.format("%n  Duplicate candidates skipped: %d", duplicateCandidates));
+        sb.append(String.format("%n  Elite pool: %d solutions, mean broken-pairs distance %.3f, %d restarts",
+                elitePool.size(), elitePool.averageDistance(), eliteRestarts));
+        if (adaptivePenalties) {
+            sb.append(String.format("%n  Final penalty weights: %s", penalties));
+        }
+        sb.append(String.format("%n  Route cache: %d hits, %d misses (%.1f%% hit rate), ~%d KB in %d slots",
+                routeCache.getHits(), routeCache.getMisses(), routeCache.getHitRate() * 100,
+                routeCache.getMemoryBytes() / 1024, routeCache.getCapacity()));
+        Logger.info(sb.toString());
+    }
+
+    private static void appendTimerRow(StringBuilder sb, String group, String name, long calls, long nanos) {
+        double avgUs = calls > 0 ? nanos / 1e3 / calls : 0.0;
+        sb.append(String.format("%n  %-10s %-24s %8d %8s %8s %8s %10.1f %10.1f %8s",
+                group, name, calls, "-", "-", "-", nanos / 1e6, avgUs, "-"));
+    }
+
     /**
      * Count stations in solution
      */
@@ -370,7 +921,7 @@ public class ALNS {
         int count = 0;
         for (List<Integer> route : solution.getRoutes()) {
             for (int nodeId : route) {
-                if (instance.getAllNodes().get(nodeId).getType() == NodeType.STATION) {
+                if (instance.isStation(nodeId)) {
                     count++;
                 }
             }
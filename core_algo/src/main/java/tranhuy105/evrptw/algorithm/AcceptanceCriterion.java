@@ -0,0 +1,71 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Decides whether the search moves to a candidate that is not better than the current solution.
+ * Only asked for candidates with the same number of vehicles as the current solution; costs are
+ * penalized distances (the vehicle penalty left out), so they stay comparable across fleet sizes.
+ */
+public interface AcceptanceCriterion {
+
+    /**
+     * Calibrate on the initial solution
+     *
+     * @param initialCost Search cost of the initial solution
+     * @param totalCost Its cost with the vehicle penalty included
+     */
+    void start(double initialCost, double totalCost);
+
+    /**
+     * Accept a candidate whose cost is not below the current cost
+     */
+    boolean accept(double candidateCost, double currentCost);
+
+    /**
+     * End of an iteration, with the cost of the (possibly new) current solution
+     */
+    void step(double currentCost);
+
+    /**
+     * The current solution changed fleet size: reset anything remembered from the old fleet
+     */
+    default void rebase(double currentCost) {
+    }
+
+    /**
+     * The search restarted from the best feasible solution: loosen acceptance a little
+     */
+    default void reheat() {
+    }
+
+    /**
+     * Temperature or threshold, for progress logs
+     */
+    double level();
+
+    default void writeState(DataOutput out) throws IOException {
+    }
+
+    default void readState(DataInput in) throws IOException {
+    }
+
+    /**
+     * Create a criterion by name: sa (default), sa-budget, rrt, lahc or ta
+     *
+     * @param maxIterations Iteration budget used for calibration (Integer.MAX_VALUE = time limit only)
+     */
+    static AcceptanceCriterion create(String name, int maxIterations, Random random) {
+        return switch (name.toLowerCase()) {
+            case "sa" -> new SimulatedAnnealingAcceptance(maxIterations, random);
+            case "sa-budget" -> new SimulatedAnnealingAcceptance(maxIterations, random, true);
+            case "rrt" -> new RecordToRecordAcceptance();
+            case "lahc" -> new LateAcceptance(maxIterations);
+            case "ta" -> new ThresholdAcceptance(maxIterations);
+            default -> throw new IllegalArgumentException("Unknown acceptance criterion: " + name);
+        };
+    }
+}
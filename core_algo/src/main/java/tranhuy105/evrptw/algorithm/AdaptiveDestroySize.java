@@ -0,0 +1,97 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Learns which band of destroy sizes pays off best per unit of time.
+ * Bands double in width (1-2, 3-4, 5-8, 9-16, ...) up to 40% of the customers or the cap;
+ * each band is scored like an operator with time-normalized adaptive weights.
+ * Only improvements are rewarded: tiny moves are almost always accepted as equal-cost, which says nothing.
+ */
+public class AdaptiveDestroySize implements DestroySizePolicy {
+    private final int[] bandMin;
+    private final int[] bandMax;
+    private final AdaptiveWeights weights;
+    private final int focusMax;
+    private final Random random;
+    private int lastBand = -1;
+
+    public AdaptiveDestroySize(int nCustomers, int cap, Random random) {
+        int upper = Math.max(2, (int) (nCustomers * 0.4));
+        if (cap > 0) {
+            upper = Math.max(1, Math.min(upper, cap));
+        }
+
+        List<int[]> bands = new ArrayList<>();
+        int lo = 1;
+        int hi = 2;
+        while (lo <= upper) {
+            bands.add(new int[]{lo, Math.min(hi, upper)});
+            lo = hi + 1;
+            hi = hi * 2;
+        }
+
+        int n = bands.size();
+        this.bandMin = new int[n];
+        this.bandMax = new int[n];
+        String[] bandNames = new String[n];
+        for (int i = 0; i < n; i++) {
+            bandMin[i] = bands.get(i)[0];
+            bandMax[i] = bands.get(i)[1];
+            bandNames[i] = "q" + bandMin[i] + "-" + bandMax[i];
+        }
+
+        this.weights = new AdaptiveWeights(List.of(bandNames), random);
+        this.weights.setTimeNormalized(true);
+        this.focusMax = Math.max(2, (int) (nCustomers * 0.15));
+        this.random = random;
+    }
+
+    @Override
+    public int next(boolean feasibilityFocus) {
+        lastBand = weights.select();
+        weights.recordUsage(lastBand);
+
+        int q = bandMin[lastBand] + random.nextInt(bandMax[lastBand] - bandMin[lastBand] + 1);
+        return feasibilityFocus ? Math.min(q, focusMax) : q;
+    }
+
+    @Override
+    public void record(ResultType result, long nanos) {
+        if (lastBand < 0) {
+            return;
+        }
+        weights.recordTime(lastBand, nanos);
+        if (result == ResultType.NEW_BEST || result == ResultType.BETTER) {
+            weights.updateScore(lastBand, result);
+        }
+        lastBand = -1;
+    }
+
+    @Override
+    public void endSegment() {
+        weights.updateWeights();
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        weights.writeState(out);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        weights.readState(in);
+    }
+
+    /**
+     * Per-band calls, successes and time for the end-of-run report
+     */
+    public void appendReport(StringBuilder sb) {
+        weights.appendReport(sb, "destroy_size");
+    }
+}
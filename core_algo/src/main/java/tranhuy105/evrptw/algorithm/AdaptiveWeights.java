@@ -1,5 +1,8 @@
 package tranhuy105.evrptw.algorithm;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -12,25 +15,49 @@ import tranhuy105.evrptw.util.Logger;
 
 /**
  * Adaptive weight system for operator selection in ALNS.
- * Optimized: uses primitive arrays for O(1) access instead of HashMap lookups.
+ * Operators are referenced by int handles (their position in the operator list); names are
+ * only looked up to enable or disable operators and for reports.
+ * The next operator is picked by a SelectionPolicy (roulette wheel by default).
  */
 public class AdaptiveWeights {
     private final String[] operators;
-    private final Map<String, Integer> operatorIndex; // For name -> index lookup
+    private final Map<String, Integer> operatorIndex; // For name -> handle lookup
     private final double[] weights;
     private final double[] scores;
     private final int[] usage;
+    private final boolean[] enabled;
     private final Random random;
     private final int n;
+    private SelectionPolicy policy;
+
+    // Efficiency metrics: segment time feeds time-normalized rewards, totals feed the report
+    private final long[] segmentTimeNs;
+    private final long[] totalCalls;
+    private final long[] totalSuccess;
+    private final long[] totalNewBest;
+    private final long[] totalDuplicates;
+    private final long[] totalTimeNs;
+    private boolean timeNormalized = false;
 
     public AdaptiveWeights(List<String> operatorList) {
+        this(operatorList, new Random());
+    }
+
+    public AdaptiveWeights(List<String> operatorList, Random random) {
         this.n = operatorList.size();
         this.operators = operatorList.toArray(new String[0]);
         this.operatorIndex = new HashMap<>();
         this.weights = new double[n];
         this.scores = new double[n];
         this.usage = new int[n];
-        this.random = new Random();
+        this.enabled = new boolean[n];
+        this.random = random;
+        this.segmentTimeNs = new long[n];
+        this.totalCalls = new long[n];
+        this.totalSuccess = new long[n];
+        this.totalNewBest = new long[n];
+        this.totalDuplicates = new long[n];
+        this.totalTimeNs = new long[n];
 
         // Initialize all operators with weight 1.0
         for (int i = 0; i < n; i++) {
@@ -38,74 +65,140 @@ public class AdaptiveWeights {
             weights[i] = 1.0;
             scores[i] = 0.0;
             usage[i] = 0;
+            enabled[i] = true;
         }
+        this.policy = new RouletteSelection(random);
     }
 
     /**
-     * Select an operator using roulette wheel selection based on weights.
-     * Optimized: uses primitive array iteration.
+     * Choose the selection policy by name (before the search starts): roulette, alias, ucb or thompson
      */
-    public String select() {
-        // Calculate total weight
-        double total = 0.0;
-        for (int i = 0; i < n; i++) {
-            total += weights[i];
-        }
+    public void setPolicy(String name) {
+        this.policy = SelectionPolicy.create(name, n, random);
+        policy.refresh(weights, enabled);
+    }
 
-        // If total is too small, select randomly
-        if (total < 1e-9) {
-            return operators[random.nextInt(n)];
-        }
+    /**
+     * Handle of the named operator, or -1 if unknown
+     */
+    public int indexOf(String operator) {
+        Integer idx = operatorIndex.get(operator);
+        return idx != null ? idx : -1;
+    }
 
-        // Roulette wheel selection
-        double r = random.nextDouble() * total;
-        double cumsum = 0.0;
+    public String getName(int op) {
+        return operators[op];
+    }
+
+    /**
+     * Handle of the next operator to call
+     */
+    public int select() {
+        return policy.select(weights, enabled);
+    }
 
+    /**
+     * Enable or disable an operator for selection.
+     * At least one operator must stay enabled.
+     */
+    public void setEnabled(String operator, boolean value) {
+        Integer idx = operatorIndex.get(operator);
+        if (idx == null) {
+            return;
+        }
+        enabled[idx] = value;
+        boolean any = false;
         for (int i = 0; i < n; i++) {
-            cumsum += weights[i];
-            if (r <= cumsum) {
-                return operators[i];
-            }
+            any |= enabled[i];
+        }
+        if (!any) {
+            enabled[idx] = true;  // Never disable the whole group
         }
+        policy.refresh(weights, enabled);
+    }
 
-        // Fallback (should rarely happen due to floating point)
-        return operators[n - 1];
+    public boolean isEnabled(String operator) {
+        Integer idx = operatorIndex.get(operator);
+        return idx != null && enabled[idx];
     }
 
     /**
-     * Record that an operator was used.
-     * O(1) with HashMap lookup + array access.
+     * Record that an operator was used
      */
-    public void recordUsage(String operator) {
-        int idx = operatorIndex.get(operator);
-        usage[idx]++;
+    public void recordUsage(int op) {
+        usage[op]++;
+        totalCalls[op]++;
+        policy.onUse(op);
+    }
+
+    /**
+     * Record time spent in one call of an operator
+     */
+    public void recordTime(int op, long nanos) {
+        segmentTimeNs[op] += nanos;
+        totalTimeNs[op] += nanos;
+    }
+
+    /**
+     * Normalize rewards by time spent, so cheap operators that work are picked more often
+     */
+    public void setTimeNormalized(boolean timeNormalized) {
+        this.timeNormalized = timeNormalized;
     }
 
     /**
      * Update score for an operator based on result type.
-     * O(1) with HashMap lookup + array access.
+     * Duplicates are counted apart from successes: the call produced nothing new.
      */
-    public void updateScore(String operator, ResultType resultType) {
-        int idx = operatorIndex.get(operator);
-        scores[idx] += resultType.getScore();
+    public void updateScore(int op, ResultType resultType) {
+        scores[op] += resultType.getScore();
+        policy.onReward(op, Math.min(1.0, (double) resultType.getScore() / Constants.SIGMA_NEW_BEST));
+        if (resultType == ResultType.DUPLICATE) {
+            totalDuplicates[op]++;
+            return;
+        }
+        totalSuccess[op]++;
+        if (resultType == ResultType.NEW_BEST) {
+            totalNewBest[op]++;
+        }
     }
 
     /**
      * Update weights based on accumulated scores and usage.
      * Formula: weight = weight * (1 - RHO) + RHO * (score / usage)
+     * In time-normalized mode the reward is scaled by (mean time per call / operator time per call).
      */
     public void updateWeights() {
         double oneMinusRho = 1.0 - Constants.RHO;
+
+        // Mean time per call over operators used in this segment
+        double meanTime = 0.0;
+        if (timeNormalized) {
+            long time = 0;
+            int calls = 0;
+            for (int i = 0; i < n; i++) {
+                time += segmentTimeNs[i];
+                calls += usage[i];
+            }
+            meanTime = calls > 0 ? (double) time / calls : 0.0;
+        }
         
         for (int i = 0; i < n; i++) {
             if (usage[i] > 0) {
-                weights[i] = weights[i] * oneMinusRho + Constants.RHO * (scores[i] / usage[i]);
+                double reward = scores[i] / usage[i];
+                if (timeNormalized && meanTime > 0 && segmentTimeNs[i] > 0) {
+                    reward *= meanTime / ((double) segmentTimeNs[i] / usage[i]);
+                }
+                weights[i] = weights[i] * oneMinusRho + Constants.RHO * reward;
             }
         }
 
-        // Reset scores and usage
+        // Reset scores, usage and segment timers
         Arrays.fill(scores, 0.0);
         Arrays.fill(usage, 0);
+        Arrays.fill(segmentTimeNs, 0L);
+        policy.endSegment();
+        policy.refresh(weights, enabled);
 
         // Log updated weights at debug level
         if (Logger.isDebugEnabled()) {
@@ -119,6 +212,55 @@ public class AdaptiveWeights {
         }
     }
 
+    /**
+     * Write weights, segment scores, metrics and policy state (checkpointing)
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(n);
+        for (int i = 0; i < n; i++) {
+            out.writeUTF(operators[i]);
+            out.writeDouble(weights[i]);
+            out.writeDouble(scores[i]);
+            out.writeInt(usage[i]);
+            out.writeBoolean(enabled[i]);
+            out.writeLong(segmentTimeNs[i]);
+            out.writeLong(totalCalls[i]);
+            out.writeLong(totalSuccess[i]);
+            out.writeLong(totalNewBest[i]);
+            out.writeLong(totalDuplicates[i]);
+            out.writeLong(totalTimeNs[i]);
+        }
+        policy.writeState(out);
+    }
+
+    /**
+     * Restore state written by writeState; operators and policy must match
+     */
+    public void readState(DataInput in) throws IOException {
+        int count = in.readInt();
+        if (count != n) {
+            throw new IOException("Checkpoint has " + count + " operators, expected " + n);
+        }
+        for (int i = 0; i < n; i++) {
+            String name = in.readUTF();
+            if (!name.equals(operators[i])) {
+                throw new IOException("Checkpoint operator mismatch: " + name + " vs " + operators[i]);
+            }
+            weights[i] = in.readDouble();
+            scores[i] = in.readDouble();
+            usage[i] = in.readInt();
+            enabled[i] = in.readBoolean();
+            segmentTimeNs[i] = in.readLong();
+            totalCalls[i] = in.readLong();
+            totalSuccess[i] = in.readLong();
+            totalNewBest[i] = in.readLong();
+            totalDuplicates[i] = in.readLong();
+            totalTimeNs[i] = in.readLong();
+        }
+        policy.refresh(weights, enabled);
+        policy.readState(in);
+    }
+
     /**
      * Get current weights (for debugging/monitoring)
      */
@@ -130,6 +272,19 @@ public class AdaptiveWeights {
         return result;
     }
 
+    /**
+     * Append one report row per operator: calls, accepted, new bests, duplicates, total and average time, weight
+     */
+    public void appendReport(StringBuilder sb, String group) {
+        for (int i = 0; i < n; i++) {
+            double totalMs = totalTimeNs[i] / 1e6;
+            double avgUs = totalCalls[i] > 0 ? totalTimeNs[i] / 1e3 / totalCalls[i] : 0.0;
+            sb.append(String.format("%n  %-10s %-24s %8d %8d %8d %8d %10.1f %10.1f %8.3f",
+                    group, operators[i], totalCalls[i], totalSuccess[i], totalNewBest[i], totalDuplicates[i],
+                    totalMs, avgUs, weights[i]));
+        }
+    }
+
     /**
      * Get operators list
      */
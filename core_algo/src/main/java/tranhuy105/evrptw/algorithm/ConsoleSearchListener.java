@@ -0,0 +1,38 @@
+package tranhuy105.evrptw.algorithm;
+
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.util.Logger;
+
+/**
+ * Prints search progress to the console (the solver's verbose output)
+ */
+public class ConsoleSearchListener implements SearchListener {
+    private static final int PROGRESS_INTERVAL = 500;
+
+    @Override
+    public void onIteration(int iteration, Solution current, Solution best, Solution bestFeasible,
+                            double temperature, boolean accepted) {
+        if (iteration > 0 && iteration % PROGRESS_INTERVAL == 0) {
+            Logger.info(String.format("Iter %d: Current=%.2f, Best=%.2f, T=%.4f, HasFeasible=%s",
+                    iteration, current.getCost(), best.getCost(), temperature, bestFeasible != null ? "yes" : "no"));
+        }
+    }
+
+    @Override
+    public void onNewBest(int iteration, Solution best, String removalOp, String insertionOp) {
+        String feasibleStr = best.isFeasible() ? "FEASIBLE" : "infeasible";
+        Logger.info(String.format("Iter %d: NEW BEST (%s)! Cost=%.2f, Dist=%.2f, Veh=%d, Viol=%.4f",
+                iteration, feasibleStr, best.getCost(), best.getTotalDistance(),
+                best.getRoutes().size(), best.getTotalViolations()));
+    }
+
+    @Override
+    public void onFirstFeasible(int iteration, Solution feasible) {
+        Logger.info("Iter " + iteration + ": First feasible solution found!");
+    }
+
+    @Override
+    public void onRestart(int iteration, Solution restartFrom, double temperature) {
+        Logger.debug(() -> "Iter " + iteration + ": Restarting from best feasible solution");
+    }
+}
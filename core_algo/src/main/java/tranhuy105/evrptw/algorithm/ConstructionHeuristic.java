@@ -0,0 +1,28 @@
+package tranhuy105.evrptw.algorithm;
+
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Solution;
+
+/**
+ * Builds the initial solution for the search
+ */
+public interface ConstructionHeuristic {
+
+    /**
+     * Build an evaluated solution serving every customer
+     */
+    Solution build();
+
+    /**
+     * Create a construction heuristic by name: nearest, savings, solomon or race
+     */
+    static ConstructionHeuristic create(String name, Instance instance) {
+        return switch (name.toLowerCase()) {
+            case "nearest" -> new InitialSolutionBuilder(instance);
+            case "savings" -> new SavingsConstruction(instance);
+            case "solomon" -> new SolomonConstruction(instance);
+            case "race" -> new RaceConstruction(instance);
+            default -> throw new IllegalArgumentException("Unknown construction heuristic: " + name);
+        };
+    }
+}
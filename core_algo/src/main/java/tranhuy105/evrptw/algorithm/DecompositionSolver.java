@@ -0,0 +1,478 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Node;
+import tranhuy105.evrptw.model.NodeType;
+import tranhuy105.evrptw.model.RouteStats;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.model.SubInstance;
+import tranhuy105.evrptw.util.Logger;
+
+/**
+ * Cluster-first solver for very large instances.
+ * Customers are split into clusters (k-means on coordinates and ready time, or a sweep around the depot),
+ * each cluster is solved by its own ALNS on a sub-instance holding the stations near its customers,
+ * and the routes are merged. Then, for a number of rounds, routes are grouped with their nearest
+ * neighbors; every group spanning more than one cluster is re-solved as a new sub-instance, warm started
+ * from its current routes, and kept if it improves. Sub-instances run in parallel on a dedicated ForkJoinPool.
+ */
+public class DecompositionSolver {
+    private static final int KMEANS_MAX_ITERATIONS = 50;
+    private static final double TIME_WEIGHT = 0.5;  // Weight of ready time against coordinates in k-means
+    private static final int STATIONS_PER_CUSTOMER = 3;
+
+    public enum Method {
+        KMEANS, SWEEP
+    }
+
+    /**
+     * @param clusterSize Target number of customers per cluster
+     * @param boundaryRounds Rounds of boundary re-optimization after merging
+     * @param routesPerGroup Routes re-optimized together in one boundary sub-instance
+     * @param threads Sub-instances solved concurrently
+     * @param seed Seed for clustering, grouping and the sub-instance solvers
+     */
+    public record Config(int clusterSize, Method method, int boundaryRounds, int routesPerGroup,
+                         int threads, long seed) {
+        public static Config defaults(int clusterSize) {
+            return new Config(clusterSize, Method.KMEANS, 3, 6, Runtime.getRuntime().availableProcessors(), 1);
+        }
+    }
+
+    private final Instance instance;
+    private final int iterations;
+    private final double timeLimit;
+    private final Config config;
+    private final RouteEvaluator evaluator;
+    private Consumer<ALNS> configurer = alns -> { };
+
+    /**
+     * @param iterations Iteration limit of every sub-instance solve
+     * @param timeLimit Time limit in seconds of every sub-instance solve (0 = none)
+     */
+    public DecompositionSolver(Instance instance, int iterations, double timeLimit, Config config) {
+        this.instance = instance;
+        this.iterations = iterations;
+        this.timeLimit = timeLimit;
+        this.config = config;
+        this.evaluator = new RouteEvaluator(instance);
+    }
+
+    /**
+     * Apply extra solver settings (local search, destroy size, ...) to every sub-instance solve
+     */
+    public void setConfigurer(Consumer<ALNS> configurer) {
+        this.configurer = configurer;
+    }
+
+    public Solution solve() {
+        Random random = new Random(config.seed());
+        List<List<Integer>> clusters = config.method() == Method.SWEEP ? sweepClusters() : kMeansClusters(random);
+        Logger.info(String.format("Decomposition: %d customers in %d clusters (%s) on %d threads",
+                instance.getCustomers().size(), clusters.size(), config.method(), config.threads()));
+
+        ForkJoinPool pool = new ForkJoinPool(config.threads());
+        try {
+            // Solve every cluster independently
+            List<Callable<List<List<Integer>>>> tasks = new ArrayList<>();
+            double[] seconds = new double[clusters.size()];
+            for (int c = 0; c < clusters.size(); c++) {
+                List<Integer> customers = clusters.get(c);
+                long seed = config.seed() + c;
+                int cluster = c;
+                tasks.add(() -> {
+                    long start = System.nanoTime();
+                    List<List<Integer>> routes = solveGroup(customers, List.of(), seed);
+                    seconds[cluster] = (System.nanoTime() - start) / 1e9;
+                    return routes;
+                });
+            }
+
+            List<List<Integer>> routes = new ArrayList<>();
+            List<Integer> labels = new ArrayList<>();
+            List<List<List<Integer>>> results = runAll(pool, tasks);
+            for (int c = 0; c < results.size(); c++) {
+                List<List<Integer>> clusterRoutes = results.get(c);
+                int cluster = c;
+                Logger.info(() -> String.format("Decomposition: cluster %d: %d customers -> %d routes, dist=%.2f (%.1fs)",
+                        cluster, clusters.get(cluster).size(), clusterRoutes.size(), distance(clusterRoutes),
+                        seconds[cluster]));
+                for (List<Integer> route : clusterRoutes) {
+                    routes.add(route);
+                    labels.add(c);
+                }
+            }
+            report("merged", routes);
+
+            // Re-optimize groups of neighboring routes across cluster boundaries
+            int nextLabel = clusters.size();
+            for (int round = 1; round <= config.boundaryRounds(); round++) {
+                List<int[]> groups = boundaryGroups(routes, labels, random);
+                if (groups.isEmpty()) {
+                    break;
+                }
+
+                List<Callable<List<List<Integer>>>> groupTasks = new ArrayList<>();
+                for (int g = 0; g < groups.size(); g++) {
+                    List<List<Integer>> groupRoutes = select(routes, groups.get(g));
+                    long seed = config.seed() + (long) round * 100_000 + g;
+                    groupTasks.add(() -> solveGroup(customersOf(groupRoutes), groupRoutes, seed));
+                }
+                List<List<List<Integer>>> groupResults = runAll(pool, groupTasks);
+
+                boolean[] replaced = new boolean[routes.size()];
+                List<List<Integer>> newRoutes = new ArrayList<>();
+                List<Integer> newLabels = new ArrayList<>();
+                int improved = 0;
+                for (int g = 0; g < groups.size(); g++) {
+                    List<List<Integer>> before = select(routes, groups.get(g));
+                    List<List<Integer>> after = groupResults.get(g);
+                    if (isBetter(after, before)) {
+                        for (int r : groups.get(g)) {
+                            replaced[r] = true;
+                        }
+                        int label = nextLabel++;
+                        for (List<Integer> route : after) {
+                            newRoutes.add(route);
+                            newLabels.add(label);
+                        }
+                        improved++;
+                    }
+                }
+                for (int r = 0; r < routes.size(); r++) {
+                    if (!replaced[r]) {
+                        newRoutes.add(routes.get(r));
+                        newLabels.add(labels.get(r));
+                    }
+                }
+                routes = newRoutes;
+                labels = newLabels;
+                report(String.format("boundary round %d (%d/%d groups improved)", round, improved, groups.size()),
+                        routes);
+            }
+
+            Solution solution = new Solution(instance);
+            solution.getRoutes().addAll(routes);
+            evaluator.calculateTotalCost(solution);
+            return solution;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Solve the customers with ALNS on a sub-instance, optionally warm started from parent routes.
+     * The sub-instance holds the stations near the customers and those already on the routes.
+     */
+    private List<List<Integer>> solveGroup(List<Integer> customers, List<List<Integer>> initialRoutes, long seed) {
+        Set<Integer> stations = new TreeSet<>();
+        for (int c : customers) {
+            List<Integer> near = instance.getNearestStations().get(c);
+            stations.addAll(near.subList(0, Math.min(STATIONS_PER_CUSTOMER, near.size())));
+        }
+        stations.addAll(instance.getNearestStations().get(0));
+        for (List<Integer> route : initialRoutes) {
+            for (int nodeId : route) {
+                if (instance.getAllNodes().get(nodeId).getType() == NodeType.STATION) {
+                    stations.add(nodeId);
+                }
+            }
+        }
+
+        SubInstance sub = instance.subInstance(customers, stations);
+        ALNS alns = new ALNS(sub.getInstance(), iterations, timeLimit, false);
+        configurer.accept(alns);
+        alns.setSeed(seed);
+        if (!initialRoutes.isEmpty()) {
+            alns.setInitialSolution(sub.toSub(initialRoutes));
+        }
+        return sub.toParent(alns.solve()).getRoutes();
+    }
+
+    /**
+     * K-means on (x, y, weighted ready time) with k-means++ seeding
+     */
+    private List<List<Integer>> kMeansClusters(Random random) {
+        List<Node> customers = instance.getCustomers();
+        int n = customers.size();
+        int k = Math.max(1, (int) Math.ceil((double) n / config.clusterSize()));
+
+        // Scale ready times to the spatial extent so both matter
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (Node c : customers) {
+            minX = Math.min(minX, c.getX());
+            maxX = Math.max(maxX, c.getX());
+            minY = Math.min(minY, c.getY());
+            maxY = Math.max(maxY, c.getY());
+        }
+        double span = Math.max(maxX - minX, maxY - minY);
+        double horizon = instance.getDepot().getDueTime();
+        double timeScale = horizon > 0 ? TIME_WEIGHT * span / horizon : 0.0;
+
+        double[][] points = new double[n][];
+        for (int i = 0; i < n; i++) {
+            Node c = customers.get(i);
+            points[i] = new double[]{c.getX(), c.getY(), c.getReadyTime() * timeScale};
+        }
+
+        // k-means++ seeding
+        double[][] centers = new double[k][];
+        centers[0] = points[random.nextInt(n)].clone();
+        double[] minDist = new double[n];
+        Arrays.fill(minDist, Double.MAX_VALUE);
+        for (int c = 1; c < k; c++) {
+            double total = 0.0;
+            for (int i = 0; i < n; i++) {
+                minDist[i] = Math.min(minDist[i], squaredDistance(points[i], centers[c - 1]));
+                total += minDist[i];
+            }
+            double r = random.nextDouble() * total;
+            int pick = n - 1;
+            for (int i = 0; i < n; i++) {
+                r -= minDist[i];
+                if (r <= 0) {
+                    pick = i;
+                    break;
+                }
+            }
+            centers[c] = points[pick].clone();
+        }
+
+        // Lloyd iterations
+        int[] assignment = new int[n];
+        Arrays.fill(assignment, -1);
+        for (int iter = 0; iter < KMEANS_MAX_ITERATIONS; iter++) {
+            boolean changed = false;
+            for (int i = 0; i < n; i++) {
+                int best = 0;
+                double bestDist = Double.MAX_VALUE;
+                for (int c = 0; c < k; c++) {
+                    double d = squaredDistance(points[i], centers[c]);
+                    if (d < bestDist) {
+                        bestDist = d;
+                        best = c;
+                    }
+                }
+                if (assignment[i] != best) {
+                    assignment[i] = best;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+
+            double[][] sums = new double[k][3];
+            int[] counts = new int[k];
+            for (int i = 0; i < n; i++) {
+                counts[assignment[i]]++;
+                for (int d = 0; d < 3; d++) {
+                    sums[assignment[i]][d] += points[i][d];
+                }
+            }
+            for (int c = 0; c < k; c++) {
+                if (counts[c] > 0) {
+                    for (int d = 0; d < 3; d++) {
+                        centers[c][d] = sums[c][d] / counts[c];
+                    }
+                }
+            }
+        }
+
+        List<List<Integer>> clusters = new ArrayList<>();
+        for (int c = 0; c < k; c++) {
+            clusters.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; i++) {
+            clusters.get(assignment[i]).add(customers.get(i).getId());
+        }
+        clusters.removeIf(List::isEmpty);
+        return clusters;
+    }
+
+    /**
+     * Equal-sized angular sectors around the depot
+     */
+    private List<List<Integer>> sweepClusters() {
+        Node depot = instance.getDepot();
+        List<Node> sorted = new ArrayList<>(instance.getCustomers());
+        sorted.sort((a, b) -> Double.compare(
+                Math.atan2(a.getY() - depot.getY(), a.getX() - depot.getX()),
+                Math.atan2(b.getY() - depot.getY(), b.getX() - depot.getX())));
+
+        int k = Math.max(1, (int) Math.ceil((double) sorted.size() / config.clusterSize()));
+        List<List<Integer>> clusters = new ArrayList<>();
+        for (int c = 0; c < k; c++) {
+            int from = c * sorted.size() / k;
+            int to = (c + 1) * sorted.size() / k;
+            List<Integer> cluster = new ArrayList<>();
+            for (Node customer : sorted.subList(from, to)) {
+                cluster.add(customer.getId());
+            }
+            clusters.add(cluster);
+        }
+        return clusters;
+    }
+
+    /**
+     * Disjoint groups of a route and its nearest routes (by customer centroid),
+     * kept only when they mix routes from different clusters or earlier groups
+     */
+    private List<int[]> boundaryGroups(List<List<Integer>> routes, List<Integer> labels, Random random) {
+        int size = routes.size();
+        double[][] centroids = new double[size][];
+        for (int r = 0; r < size; r++) {
+            centroids[r] = centroid(routes.get(r));
+        }
+
+        List<Integer> order = new ArrayList<>();
+        for (int r = 0; r < size; r++) {
+            order.add(r);
+        }
+        Collections.shuffle(order, random);
+
+        boolean[] assigned = new boolean[size];
+        List<int[]> groups = new ArrayList<>();
+        for (int seed : order) {
+            if (assigned[seed]) {
+                continue;
+            }
+            List<Integer> candidates = new ArrayList<>();
+            for (int r = 0; r < size; r++) {
+                if (!assigned[r]) {
+                    candidates.add(r);
+                }
+            }
+            candidates.sort((a, b) -> Double.compare(
+                    squaredDistance(centroids[seed], centroids[a]), squaredDistance(centroids[seed], centroids[b])));
+
+            int[] group = candidates.subList(0, Math.min(config.routesPerGroup(), candidates.size()))
+                    .stream().mapToInt(Integer::intValue).toArray();
+            Set<Integer> groupLabels = new HashSet<>();
+            for (int r : group) {
+                groupLabels.add(labels.get(r));
+            }
+            if (groupLabels.size() > 1) {
+                for (int r : group) {
+                    assigned[r] = true;
+                }
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
+    private double[] centroid(List<Integer> route) {
+        double x = 0, y = 0;
+        int count = 0;
+        for (int nodeId : route) {
+            Node node = instance.getAllNodes().get(nodeId);
+            if (node.getType() == NodeType.CUSTOMER) {
+                x += node.getX();
+                y += node.getY();
+                count++;
+            }
+        }
+        return count > 0 ? new double[]{x / count, y / count} : new double[]{0, 0};
+    }
+
+    private List<Integer> customersOf(List<List<Integer>> routes) {
+        List<Integer> customers = new ArrayList<>();
+        for (List<Integer> route : routes) {
+            for (int nodeId : route) {
+                if (instance.getAllNodes().get(nodeId).getType() == NodeType.CUSTOMER) {
+                    customers.add(nodeId);
+                }
+            }
+        }
+        return customers;
+    }
+
+    private static List<List<Integer>> select(List<List<Integer>> routes, int[] indices) {
+        List<List<Integer>> selected = new ArrayList<>(indices.length);
+        for (int r : indices) {
+            selected.add(routes.get(r));
+        }
+        return selected;
+    }
+
+    /**
+     * Fewer violations first, then fewer vehicles, then shorter distance
+     */
+    private boolean isBetter(List<List<Integer>> a, List<List<Integer>> b) {
+        double violA = violations(a);
+        double violB = violations(b);
+        if (Math.abs(violA - violB) > 1e-6) {
+            return violA < violB;
+        }
+        if (a.size() != b.size()) {
+            return a.size() < b.size();
+        }
+        return distance(a) < distance(b) - 1e-6;
+    }
+
+    private double violations(List<List<Integer>> routes) {
+        double total = 0.0;
+        for (List<Integer> route : routes) {
+            RouteStats stats = evaluator.evaluate(route);
+            total += stats.capacityViolation() + stats.timeViolation() + stats.batteryViolation();
+        }
+        return total;
+    }
+
+    private double distance(List<List<Integer>> routes) {
+        double total = 0.0;
+        for (List<Integer> route : routes) {
+            total += evaluator.evaluate(route).distance();
+        }
+        return total;
+    }
+
+    private void report(String phase, List<List<Integer>> routes) {
+        Logger.info(() -> String.format("Decomposition: %s: vehicles=%d, dist=%.2f, violations=%.2f",
+                phase, routes.size(), distance(routes), violations(routes)));
+    }
+
+    private static double squaredDistance(double[] a, double[] b) {
+        double sum = 0.0;
+        for (int d = 0; d < a.length; d++) {
+            double diff = a[d] - b[d];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    private static <T> List<T> runAll(ForkJoinPool pool, List<Callable<T>> tasks) {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(pool.submit(task));
+        }
+
+        List<T> results = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Decomposition interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Sub-instance solve failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,65 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Chooses how many customers the removal operators destroy each iteration
+ */
+public interface DestroySizePolicy {
+
+    /**
+     * Number of customers to remove in this iteration
+     *
+     * @param feasibilityFocus true while no feasible solution was found late in the search (use smaller moves)
+     */
+    int next(boolean feasibilityFocus);
+
+    /**
+     * Feedback for the size returned by the last next() call
+     *
+     * @param result Outcome of the iteration, null if rejected
+     * @param nanos Time spent on the iteration
+     */
+    default void record(ResultType result, long nanos) {
+    }
+
+    /**
+     * Called at the end of each weight segment
+     */
+    default void endSegment() {
+    }
+
+    default void writeState(DataOutput out) throws IOException {
+    }
+
+    default void readState(DataInput in) throws IOException {
+    }
+
+    /**
+     * Create a policy by name: fraction (default), log or adaptive
+     *
+     * @param cap Absolute maximum number of removed customers (0 = no cap)
+     */
+    static DestroySizePolicy create(String name, int nCustomers, int cap, Random random) {
+        return switch (name.toLowerCase()) {
+            case "fraction" -> new FractionDestroySize(nCustomers, cap, random);
+            case "log" -> new LogDestroySize(nCustomers, cap, random);
+            case "adaptive" -> new AdaptiveDestroySize(nCustomers, cap, random);
+            default -> throw new IllegalArgumentException("Unknown destroy size policy: " + name);
+        };
+    }
+
+    /**
+     * Uniform draw in [min, max] after applying the cap
+     */
+    static int draw(int min, int max, int cap, Random random) {
+        if (cap > 0) {
+            max = Math.min(max, cap);
+            min = Math.min(min, max);
+        }
+        return min + random.nextInt(max - min + 1);
+    }
+}
@@ -0,0 +1,289 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import tranhuy105.evrptw.io.CheckpointReader;
+import tranhuy105.evrptw.io.CheckpointWriter;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.util.Constants;
+
+/**
+ * Small pool of good and mutually different feasible solutions with the fewest vehicles seen,
+ * managed as in HGS.
+ * Each member keeps its arcs as a sorted long[] of (from << 32 | to) keys, depot arcs included,
+ * so the broken-pairs distance between two members is one linear merge.
+ * Members are ranked by biased fitness: cost rank plus, weighted by the share of non-elite members,
+ * rank of diversity contribution (mean distance to the closest members). Clones are rejected; when
+ * the pool overflows the member with the worst biased fitness is dropped, never the best one.
+ * A full pool rejects a solution no shorter than its longest member before looking at its arcs.
+ */
+public class ElitePool {
+    private static final class Member {
+        private final Solution solution;
+        private final long[] arcs;
+        private double fitness;
+
+        private Member(Solution solution, long[] arcs) {
+            this.solution = solution;
+            this.arcs = arcs;
+        }
+    }
+
+    private final int capacity;
+    private final List<Member> members = new ArrayList<>();
+    private final Random random;
+    private int lastImprovement = 0;
+
+    public ElitePool(int capacity, Random random) {
+        this.capacity = capacity;
+        this.random = random;
+    }
+
+    public int size() {
+        return members.size();
+    }
+
+    public void clear() {
+        members.clear();
+        lastImprovement = 0;
+    }
+
+    /**
+     * Offer a feasible solution (copied if kept). Returns true if it is in the pool afterwards.
+     *
+     * @param iteration Search iteration, remembered if the solution is a new pool best
+     */
+    public boolean add(Solution solution, int iteration) {
+        if (!solution.isFeasible()) {
+            return false;
+        }
+        // Vehicles come first: only solutions with the fewest vehicles seen are kept
+        int vehicles = solution.getRoutes().size();
+        if (!members.isEmpty() && vehicles > members.get(0).solution.getRoutes().size()) {
+            return false;
+        }
+        // A full pool keeps a newcomer only if it beats the longest member: skip the arcs
+        if (members.size() >= capacity && vehicles == members.get(0).solution.getRoutes().size()
+                && solution.getTotalDistance() >= members.get(members.size() - 1).solution.getTotalDistance()) {
+            return false;
+        }
+        long[] arcs = arcKeys(solution);
+        for (Member m : members) {
+            if (Arrays.equals(m.arcs, arcs)) {
+                return false;
+            }
+        }
+        members.removeIf(m -> m.solution.getRoutes().size() > vehicles);
+        if (members.isEmpty() || isBetter(solution, members.get(0).solution)) {
+            lastImprovement = iteration;
+        }
+
+        Member added = new Member(solution.copy(), arcs);
+        members.add(added);
+        members.sort((a, b) -> compare(a.solution, b.solution));
+        if (members.size() > capacity) {
+            Member worst = worstMember();
+            members.remove(worst);
+            return worst != added;
+        }
+        return true;
+    }
+
+    /**
+     * Copy of a member to restart from: binary tournament on biased fitness among members
+     * other than the given solution, so restarts favor good solutions far from the crowd
+     */
+    public Solution pickRestart(Solution from) {
+        long[] fromArcs = arcKeys(from);
+        List<Member> others = new ArrayList<>(members.size());
+        for (Member m : members) {
+            if (!Arrays.equals(m.arcs, fromArcs)) {
+                others.add(m);
+            }
+        }
+        if (others.isEmpty()) {
+            return members.isEmpty() ? null : members.get(0).solution.copy();
+        }
+
+        updateFitness();
+        Member a = others.get(random.nextInt(others.size()));
+        Member b = others.get(random.nextInt(others.size()));
+        return (a.fitness <= b.fitness ? a : b).solution.copy();
+    }
+
+    /**
+     * Iteration of the last new pool best
+     */
+    public int getLastImprovement() {
+        return lastImprovement;
+    }
+
+    /**
+     * Count a restart as progress, so stagnation is measured from it
+     */
+    public void markRestart(int iteration) {
+        lastImprovement = iteration;
+    }
+
+    /**
+     * Mean broken-pairs distance over all member pairs (0 = clones, 1 = no shared arc)
+     */
+    public double averageDistance() {
+        int n = members.size();
+        if (n < 2) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                sum += brokenPairsDistance(members.get(i).arcs, members.get(j).arcs);
+            }
+        }
+        return sum / (n * (n - 1) / 2.0);
+    }
+
+    /**
+     * Share of arcs of the larger solution missing from the other one
+     */
+    public static double brokenPairsDistance(long[] a, long[] b) {
+        int common = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                common++;
+                i++;
+                j++;
+            }
+        }
+        int size = Math.max(a.length, b.length);
+        return size > 0 ? 1.0 - (double) common / size : 0.0;
+    }
+
+    /**
+     * Sorted arc keys of a solution, depot (node 0) at both ends of every route
+     */
+    public static long[] arcKeys(Solution solution) {
+        int count = 0;
+        for (List<Integer> route : solution.getRoutes()) {
+            count += route.size() + 1;
+        }
+        long[] arcs = new long[count];
+        int k = 0;
+        for (List<Integer> route : solution.getRoutes()) {
+            int prev = 0;
+            for (int node : route) {
+                arcs[k++] = ((long) prev << 32) | node;
+                prev = node;
+            }
+            arcs[k++] = (long) prev << 32;
+        }
+        Arrays.sort(arcs);
+        return arcs;
+    }
+
+    /**
+     * Member with the worst biased fitness, never the best member
+     */
+    private Member worstMember() {
+        updateFitness();
+        Member worst = members.get(1);
+        for (int i = 2; i < members.size(); i++) {
+            if (members.get(i).fitness > worst.fitness) {
+                worst = members.get(i);
+            }
+        }
+        return worst;
+    }
+
+    /**
+     * Biased fitness of every member (lower is better); members are sorted by cost
+     */
+    private void updateFitness() {
+        int n = members.size();
+        if (n == 1) {
+            members.get(0).fitness = 0.0;
+            return;
+        }
+
+        // Diversity contribution: mean distance to the closest members
+        double[] contribution = new double[n];
+        double[] dist = new double[n - 1];
+        int closest = Math.min(Constants.ELITE_CLOSEST, n - 1);
+        for (int i = 0; i < n; i++) {
+            int k = 0;
+            for (int j = 0; j < n; j++) {
+                if (j != i) {
+                    dist[k++] = brokenPairsDistance(members.get(i).arcs, members.get(j).arcs);
+                }
+            }
+            Arrays.sort(dist);
+            double sum = 0.0;
+            for (int c = 0; c < closest; c++) {
+                sum += dist[c];
+            }
+            contribution[i] = sum / closest;
+        }
+
+        // Rank by contribution, most diverse first
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(contribution[b], contribution[a]));
+        double diversityWeight = 1.0 - Math.min(Constants.ELITE_KEEP_BEST, n) / (double) n;
+        for (int rank = 0; rank < n; rank++) {
+            Member m = members.get(order[rank]);
+            m.fitness = (double) order[rank] / (n - 1) + diversityWeight * rank / (n - 1);
+        }
+    }
+
+    private static boolean isBetter(Solution a, Solution b) {
+        return compare(a, b) < 0;
+    }
+
+    /**
+     * Fewer vehicles first, then shorter distance
+     */
+    private static int compare(Solution a, Solution b) {
+        int byVehicles = Integer.compare(a.getRoutes().size(), b.getRoutes().size());
+        return byVehicles != 0 ? byVehicles : Double.compare(a.getTotalDistance(), b.getTotalDistance());
+    }
+
+    /**
+     * Write members and the stagnation marker (checkpointing)
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(lastImprovement);
+        out.writeInt(members.size());
+        for (Member m : members) {
+            CheckpointWriter.writeSolution(out, m.solution);
+        }
+    }
+
+    /**
+     * Restore state written by writeState
+     */
+    public void readState(DataInput in, CheckpointReader reader) throws IOException {
+        lastImprovement = in.readInt();
+        int count = in.readInt();
+        if (count > capacity) {
+            throw new IOException("Checkpoint has " + count + " elite solutions, capacity is " + capacity);
+        }
+        members.clear();
+        for (int i = 0; i < count; i++) {
+            Solution solution = reader.readSolution(in);
+            members.add(new Member(solution, arcKeys(solution)));
+        }
+    }
+}
@@ -14,9 +14,10 @@ import tranhuy105.evrptw.util.Constants;
 import tranhuy105.evrptw.util.Logger;
 
 /**
- * Builds initial solution using nearest-to-depot seeding strategy
+ * Builds initial solution using nearest-to-depot seeding strategy.
+ * Fills one route at a time, re-evaluating every unassigned customer at each step (slow on large instances).
  */
-public class InitialSolutionBuilder {
+public class InitialSolutionBuilder implements ConstructionHeuristic {
     private final Instance instance;
     private final InsertionHelper insertionHelper;
     private final GreedyStationInsertion stationInsertion;
@@ -32,6 +33,7 @@ public class InitialSolutionBuilder {
     /**
      * Build initial solution using nearest-to-depot seeding
      */
+    @Override
     public Solution build() {
         Solution solution = new Solution(instance);
         List<Integer> unassigned = new ArrayList<>();
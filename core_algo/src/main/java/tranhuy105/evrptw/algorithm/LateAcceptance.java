@@ -0,0 +1,72 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import tranhuy105.evrptw.util.Constants;
+
+/**
+ * Late acceptance hill climbing: accept a candidate no worse than the current cost of L
+ * iterations ago, kept in a ring buffer. L is LAHC_BUDGET_FRACTION of the iteration budget
+ * within [LAHC_MIN_LENGTH, LAHC_MAX_LENGTH] (the maximum without a budget).
+ */
+public class LateAcceptance implements AcceptanceCriterion {
+    private final double[] history;
+    private int index = 0;
+
+    public LateAcceptance(int maxIterations) {
+        int length = maxIterations < Integer.MAX_VALUE
+                ? (int) (maxIterations * Constants.LAHC_BUDGET_FRACTION)
+                : Constants.LAHC_MAX_LENGTH;
+        this.history = new double[Math.max(Constants.LAHC_MIN_LENGTH, Math.min(Constants.LAHC_MAX_LENGTH, length))];
+    }
+
+    @Override
+    public void start(double initialCost, double totalCost) {
+        rebase(initialCost);
+    }
+
+    @Override
+    public boolean accept(double candidateCost, double currentCost) {
+        return candidateCost <= currentCost || candidateCost <= history[index];
+    }
+
+    @Override
+    public void step(double currentCost) {
+        history[index] = currentCost;
+        index = (index + 1) % history.length;
+    }
+
+    @Override
+    public void rebase(double currentCost) {
+        Arrays.fill(history, currentCost);
+    }
+
+    @Override
+    public double level() {
+        return history[index];
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(history.length);
+        out.writeInt(index);
+        for (double cost : history) {
+            out.writeDouble(cost);
+        }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length != history.length) {
+            throw new IOException("Checkpoint has late acceptance length " + length + ", run uses " + history.length);
+        }
+        index = in.readInt();
+        for (int i = 0; i < length; i++) {
+            history[i] = in.readDouble();
+        }
+    }
+}
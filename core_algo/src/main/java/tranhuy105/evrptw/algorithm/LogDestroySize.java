@@ -0,0 +1,30 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.util.Random;
+
+/**
+ * Removes between 2 ln(n) and 8 ln(n) customers (halved under feasibility focus).
+ * Close to the fraction policy at 100 customers, but grows slowly for large instances.
+ */
+public class LogDestroySize implements DestroySizePolicy {
+    private final int min;
+    private final int max;
+    private final int cap;
+    private final Random random;
+
+    public LogDestroySize(int nCustomers, int cap, Random random) {
+        double log = Math.log(Math.max(2, nCustomers));
+        this.max = Math.max(2, Math.min(nCustomers, (int) (8 * log)));
+        this.min = Math.max(1, Math.min(max - 1, (int) (2 * log)));
+        this.cap = cap;
+        this.random = random;
+    }
+
+    @Override
+    public int next(boolean feasibilityFocus) {
+        if (feasibilityFocus) {
+            return DestroySizePolicy.draw(Math.max(1, min / 2), Math.max(2, max / 2), cap, random);
+        }
+        return DestroySizePolicy.draw(min, max, cap, random);
+    }
+}
@@ -0,0 +1,129 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import tranhuy105.evrptw.util.Constants;
+
+/**
+ * Penalty per unit of capacity, time window and battery violation used in route costs.
+ * Fixed by default. In adaptive mode (as in HGS) each weight starts at its Constants value and is
+ * steered towards a target share of candidates feasible for that constraint: every update the
+ * weight grows if too few candidates were feasible and shrinks if too many were.
+ * Best and feasible comparisons use raw distance and violations, so they do not depend on these.
+ */
+public class PenaltyWeights {
+    private static final int CAPACITY = 0;
+    private static final int TIME = 1;
+    private static final int BATTERY = 2;
+    private static final String[] NAMES = {"capacity", "time", "battery"};
+
+    private final double[] weights;
+    private final int[] feasible = new int[3];
+    private int samples = 0;
+
+    /**
+     * Fixed Constants penalties
+     */
+    public PenaltyWeights() {
+        this(Constants.PENALTY_CAPACITY, Constants.PENALTY_TIME, Constants.PENALTY_BATTERY);
+    }
+
+    public PenaltyWeights(double capacity, double time, double battery) {
+        this.weights = new double[]{capacity, time, battery};
+    }
+
+    public double getCapacity() {
+        return weights[CAPACITY];
+    }
+
+    public double getTime() {
+        return weights[TIME];
+    }
+
+    public double getBattery() {
+        return weights[BATTERY];
+    }
+
+    /**
+     * Penalized cost of a route or solution from its raw distance and violations
+     */
+    public double cost(double distance, double capacityViolation, double timeViolation, double batteryViolation) {
+        return distance +
+               weights[CAPACITY] * capacityViolation +
+               weights[TIME] * timeViolation +
+               weights[BATTERY] * batteryViolation;
+    }
+
+    /**
+     * Count one evaluated candidate towards the feasibility shares of the current window
+     */
+    public void record(double capacityViolation, double timeViolation, double batteryViolation) {
+        samples++;
+        if (capacityViolation < 1e-6) {
+            feasible[CAPACITY]++;
+        }
+        if (timeViolation < 1e-6) {
+            feasible[TIME]++;
+        }
+        if (batteryViolation < 1e-6) {
+            feasible[BATTERY]++;
+        }
+    }
+
+    /**
+     * Adjust each weight towards the target feasible share and start a new window.
+     * Returns true if any weight changed (penalized costs computed before are stale).
+     */
+    public boolean update() {
+        if (samples == 0) {
+            return false;
+        }
+        boolean changed = false;
+        for (int k = 0; k < weights.length; k++) {
+            double share = (double) feasible[k] / samples;
+            double old = weights[k];
+            if (share < Constants.PENALTY_TARGET_FEASIBLE - 0.05) {
+                weights[k] = Math.min(Constants.PENALTY_MAX, weights[k] * Constants.PENALTY_INCREASE);
+            } else if (share > Constants.PENALTY_TARGET_FEASIBLE + 0.05) {
+                weights[k] = Math.max(Constants.PENALTY_MIN, weights[k] * Constants.PENALTY_DECREASE);
+            }
+            changed |= weights[k] != old;
+            feasible[k] = 0;
+        }
+        samples = 0;
+        return changed;
+    }
+
+    /**
+     * Write weights and the current window (checkpointing)
+     */
+    public void writeState(DataOutput out) throws IOException {
+        for (int k = 0; k < weights.length; k++) {
+            out.writeDouble(weights[k]);
+            out.writeInt(feasible[k]);
+        }
+        out.writeInt(samples);
+    }
+
+    /**
+     * Restore state written by writeState
+     */
+    public void readState(DataInput in) throws IOException {
+        for (int k = 0; k < weights.length; k++) {
+            weights[k] = in.readDouble();
+            feasible[k] = in.readInt();
+        }
+        samples = in.readInt();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int k = 0; k < weights.length; k++) {
+            sb.append(k > 0 ? ", " : "").append(NAMES[k]).append('=').append(String.format("%.2f", weights[k]));
+        }
+        return sb.toString();
+    }
+}
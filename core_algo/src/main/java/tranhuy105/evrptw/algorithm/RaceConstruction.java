@@ -0,0 +1,72 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.util.Logger;
+
+/**
+ * Runs the savings, Solomon I1 and nearest-to-depot constructions in parallel and keeps the best:
+ * feasible first, then fewest vehicles, then lowest cost.
+ */
+public class RaceConstruction implements ConstructionHeuristic {
+    private final Map<String, ConstructionHeuristic> heuristics = new LinkedHashMap<>();
+
+    public RaceConstruction(Instance instance) {
+        heuristics.put("savings", new SavingsConstruction(instance));
+        heuristics.put("solomon", new SolomonConstruction(instance));
+        heuristics.put("nearest", new InitialSolutionBuilder(instance));
+    }
+
+    @Override
+    public Solution build() {
+        ExecutorService executor = Executors.newFixedThreadPool(heuristics.size());
+        try {
+            List<String> names = new ArrayList<>(heuristics.keySet());
+            List<CompletableFuture<Solution>> futures = new ArrayList<>();
+            for (String name : names) {
+                ConstructionHeuristic heuristic = heuristics.get(name);
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    long start = System.nanoTime();
+                    Solution solution = heuristic.build();
+                    Logger.info(String.format("Construction %s: Vehicles=%d, Dist=%.2f, Feasible=%s (%.2f s)",
+                            name, solution.getRoutes().size(), solution.getTotalDistance(),
+                            solution.isFeasible(), (System.nanoTime() - start) / 1e9));
+                    return solution;
+                }, executor));
+            }
+
+            Solution best = null;
+            String bestName = null;
+            for (int i = 0; i < futures.size(); i++) {
+                Solution candidate = futures.get(i).join();
+                if (best == null || isBetter(candidate, best)) {
+                    best = candidate;
+                    bestName = names.get(i);
+                }
+            }
+
+            Logger.info("Construction race won by " + bestName);
+            return best;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static boolean isBetter(Solution a, Solution b) {
+        if (a.isFeasible() != b.isFeasible()) {
+            return a.isFeasible();
+        }
+        if (a.getRoutes().size() != b.getRoutes().size()) {
+            return a.getRoutes().size() < b.getRoutes().size();
+        }
+        return a.getCost() < b.getCost();
+    }
+}
@@ -0,0 +1,61 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Fingerprints of the last few evaluated candidates, oldest overwritten first.
+ * Small enough that a linear scan beats any hashed set.
+ */
+public final class RecentSolutions {
+    private final long[] fingerprints;
+    private int size = 0;
+    private int next = 0;
+
+    public RecentSolutions(int capacity) {
+        this.fingerprints = new long[capacity];
+    }
+
+    public boolean contains(long fingerprint) {
+        for (int i = 0; i < size; i++) {
+            if (fingerprints[i] == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void add(long fingerprint) {
+        fingerprints[next] = fingerprint;
+        next = (next + 1) % fingerprints.length;
+        size = Math.min(size + 1, fingerprints.length);
+    }
+
+    /**
+     * Write ring contents (checkpointing)
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(next);
+        for (int i = 0; i < size; i++) {
+            out.writeLong(fingerprints[i]);
+        }
+    }
+
+    /**
+     * Restore state written by writeState
+     */
+    public void readState(DataInput in) throws IOException {
+        int count = in.readInt();
+        int head = in.readInt();
+        if (count > fingerprints.length || head >= fingerprints.length) {
+            throw new IOException("Checkpoint has " + count + " recent solutions, capacity is " + fingerprints.length);
+        }
+        size = count;
+        next = head;
+        for (int i = 0; i < size; i++) {
+            fingerprints[i] = in.readLong();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import tranhuy105.evrptw.util.Constants;
+
+/**
+ * Record-to-record travel: accept any candidate within RRT_DEVIATION of the best current cost
+ * seen on this fleet size (the record)
+ */
+public class RecordToRecordAcceptance implements AcceptanceCriterion {
+    private double record;
+
+    @Override
+    public void start(double initialCost, double totalCost) {
+        record = initialCost;
+    }
+
+    @Override
+    public boolean accept(double candidateCost, double currentCost) {
+        return candidateCost <= record * (1.0 + Constants.RRT_DEVIATION);
+    }
+
+    @Override
+    public void step(double currentCost) {
+        record = Math.min(record, currentCost);
+    }
+
+    @Override
+    public void rebase(double currentCost) {
+        record = currentCost;
+    }
+
+    @Override
+    public double level() {
+        return record * Constants.RRT_DEVIATION;
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(record);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        record = in.readDouble();
+    }
+}
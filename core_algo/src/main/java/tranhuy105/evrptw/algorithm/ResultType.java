@@ -8,7 +8,8 @@ import tranhuy105.evrptw.util.Constants;
 public enum ResultType {
     NEW_BEST(Constants.SIGMA_NEW_BEST),
     BETTER(Constants.SIGMA_BETTER),
-    ACCEPTED_WORSE(Constants.SIGMA_ACCEPTED_WORSE);
+    ACCEPTED_WORSE(Constants.SIGMA_ACCEPTED_WORSE),
+    DUPLICATE(Constants.SIGMA_DUPLICATE);
 
     private final int score;
 
@@ -0,0 +1,66 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.util.Random;
+
+/**
+ * Roulette wheel over the weights of enabled operators: O(n) per selection
+ */
+public class RouletteSelection implements SelectionPolicy {
+    private final Random random;
+
+    public RouletteSelection(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public int select(double[] weights, boolean[] enabled) {
+        // Calculate total weight of enabled operators
+        double total = 0.0;
+        int lastEnabled = -1;
+        for (int i = 0; i < weights.length; i++) {
+            if (enabled[i]) {
+                total += weights[i];
+                lastEnabled = i;
+            }
+        }
+
+        // If total is too small, select randomly
+        if (total < 1e-9) {
+            return randomEnabled(enabled, random);
+        }
+
+        double r = random.nextDouble() * total;
+        double cumsum = 0.0;
+        for (int i = 0; i < weights.length; i++) {
+            if (!enabled[i]) {
+                continue;
+            }
+            cumsum += weights[i];
+            if (r <= cumsum) {
+                return i;
+            }
+        }
+
+        // Fallback (should rarely happen due to floating point)
+        return lastEnabled;
+    }
+
+    /**
+     * Uniform pick among enabled operators
+     */
+    static int randomEnabled(boolean[] enabled, Random random) {
+        int count = 0;
+        for (boolean e : enabled) {
+            if (e) {
+                count++;
+            }
+        }
+        int pick = random.nextInt(count);
+        for (int i = 0; i < enabled.length; i++) {
+            if (enabled[i] && pick-- == 0) {
+                return i;
+            }
+        }
+        return enabled.length - 1;
+    }
+}
@@ -4,8 +4,6 @@ import java.util.List;
 
 import tranhuy105.evrptw.model.ChargingMode;
 import tranhuy105.evrptw.model.Instance;
-import tranhuy105.evrptw.model.Node;
-import tranhuy105.evrptw.model.NodeType;
 import tranhuy105.evrptw.model.RouteStats;
 import tranhuy105.evrptw.model.Solution;
 import tranhuy105.evrptw.util.Constants;
@@ -16,10 +14,15 @@ import tranhuy105.evrptw.util.Constants;
  */
 public class RouteEvaluator {
     private final Instance instance;
-    private final List<Node> allNodes;
+    private final PenaltyWeights penalties;
     private final double[][] distMatrix;
     private final double[][] travelTimeMatrix;
     private final double[][] energyMatrix;
+    private final double[] readyTimes;
+    private final double[] dueTimes;
+    private final double[] demands;
+    private final double[] serviceTimes;
+    private final byte[] nodeTypes;
     
     private final double qBattery;
     private final double cCapacity;
@@ -29,11 +32,23 @@ public class RouteEvaluator {
     private final double swapTime;
 
     public RouteEvaluator(Instance instance) {
+        this(instance, new PenaltyWeights());
+    }
+
+    /**
+     * Evaluator pricing violations with the given (possibly adaptive) penalty weights
+     */
+    public RouteEvaluator(Instance instance, PenaltyWeights penalties) {
         this.instance = instance;
-        this.allNodes = instance.getAllNodes();
+        this.penalties = penalties;
         this.distMatrix = instance.getDistanceMatrix();
         this.travelTimeMatrix = instance.getTravelTimeMatrix();
         this.energyMatrix = instance.getEnergyMatrix();
+        this.readyTimes = instance.getReadyTimes();
+        this.dueTimes = instance.getDueTimes();
+        this.demands = instance.getDemands();
+        this.serviceTimes = instance.getServiceTimes();
+        this.nodeTypes = instance.getNodeTypes();
         
         this.qBattery = instance.getBatteryCapacity();
         this.cCapacity = instance.getCargoCapacity();
@@ -66,7 +81,6 @@ public class RouteEvaluator {
      * Process a single node visit, updating state accordingly
      */
     private void visitNode(RouteState state, int nodeId) {
-        Node node = allNodes.get(nodeId);
         int prevId = state.prevNodeId;
 
         // Travel to node
@@ -80,23 +94,24 @@ public class RouteEvaluator {
         }
 
         // Wait if arriving early
-        if (state.time < node.getReadyTime()) {
-            state.time = node.getReadyTime();
+        if (state.time < readyTimes[nodeId]) {
+            state.time = readyTimes[nodeId];
         }
 
         // Check time window violation
-        if (state.time > node.getDueTime()) {
-            state.violTw += state.time - node.getDueTime();
+        if (state.time > dueTimes[nodeId]) {
+            state.violTw += state.time - dueTimes[nodeId];
         }
 
         // Process based on node type
-        if (node.getType() == NodeType.CUSTOMER) {
-            state.load += node.getDemand();
-            state.time += node.getServiceTime();
+        byte type = nodeTypes[nodeId];
+        if (type == Instance.TYPE_CUSTOMER) {
+            state.load += demands[nodeId];
+            state.time += serviceTimes[nodeId];
             if (state.load > cCapacity) {
                 state.violCap += state.load - cCapacity;
             }
-        } else if (node.getType() == NodeType.STATION) {
+        } else if (type == Instance.TYPE_STATION) {
             processCharging(state);
         }
 
@@ -140,10 +155,7 @@ public class RouteEvaluator {
      * Calculate cost from state
      */
     private double calculateCost(RouteState state) {
-        return state.dist +
-               Constants.PENALTY_CAPACITY * state.violCap +
-               Constants.PENALTY_TIME * state.violTw +
-               Constants.PENALTY_BATTERY * state.violBat;
+        return penalties.cost(state.dist, state.violCap, state.violTw, state.violBat);
     }
 
     /**
@@ -311,6 +323,85 @@ public class RouteEvaluator {
         return buildStats(state);
     }
 
+    /**
+     * Insertion with cached forward states that stops once the cost must exceed cutoff.
+     * Violations only grow along the route and the unchanged suffix adds a known distance,
+     * so a returned cost at or below cutoff is exact. An aborted evaluation returns a cost
+     * above cutoff (a lower bound) and the violations found before stopping.
+     */
+    public RouteStats evaluateWithInsertion(List<Integer> route, int insertPos, int insertId,
+                                            double[][] forwardStates, double cutoff) {
+        int prevNodeId = (insertPos == 0) ? 0 : route.get(insertPos - 1);
+        RouteState state = loadState(forwardStates[insertPos], prevNodeId);
+
+        visitNode(state, insertId);
+        return finishWithCutoff(state, route, insertPos, forwardStates, cutoff);
+    }
+
+    /**
+     * Double insertion with cached forward states and early abort, see the single insertion variant
+     */
+    public RouteStats evaluateWithDoubleInsertion(List<Integer> route, int insertPos,
+                                                   int firstId, int secondId,
+                                                   double[][] forwardStates, double cutoff) {
+        int prevNodeId = (insertPos == 0) ? 0 : route.get(insertPos - 1);
+        RouteState state = loadState(forwardStates[insertPos], prevNodeId);
+
+        visitNode(state, firstId);
+        visitNode(state, secondId);
+        return finishWithCutoff(state, route, insertPos, forwardStates, cutoff);
+    }
+
+    /**
+     * Simulate route[from..] and the depot return, checking cost so far plus the remaining
+     * suffix distance against cutoff after every node
+     */
+    private RouteStats finishWithCutoff(RouteState state, List<Integer> route, int from,
+                                        double[][] forwardStates, double cutoff) {
+        int size = route.size();
+        // Distance of the whole original route; total - forward[i + 1] is what is left after route[i]
+        double total = size > 0 ? forwardStates[size][0] + distMatrix[route.get(size - 1)][0] : 0.0;
+
+        double rest = from < size
+                ? distMatrix[state.prevNodeId][route.get(from)] + total - forwardStates[from + 1][0]
+                : distMatrix[state.prevNodeId][0];
+        double bound = calculateCost(state) + rest;
+        if (bound > cutoff) {
+            return new RouteStats(bound, state.dist + rest, state.violCap, state.violTw, state.violBat);
+        }
+
+        for (int i = from; i < size; i++) {
+            visitNode(state, route.get(i));
+            rest = total - forwardStates[i + 1][0];
+            bound = calculateCost(state) + rest;
+            if (bound > cutoff) {
+                return new RouteStats(bound, state.dist + rest, state.violCap, state.violTw, state.violBat);
+            }
+        }
+
+        returnToDepot(state);
+        return buildStats(state);
+    }
+
+    /**
+     * Evaluate a route whose first prefixLen nodes are unchanged (read from cached forward states)
+     * and whose remaining nodes are nodes[from..to)
+     */
+    public RouteStats evaluateWithTail(List<Integer> route, int prefixLen, double[][] forwardStates,
+                                       int[] nodes, int from, int to) {
+        int prevNodeId = (prefixLen == 0) ? 0 : route.get(prefixLen - 1);
+        RouteState state = loadState(forwardStates[prefixLen], prevNodeId);
+
+        for (int i = from; i < to; i++) {
+            visitNode(state, nodes[i]);
+        }
+
+        if (prefixLen + (to - from) > 0) {
+            returnToDepot(state);
+        }
+        return buildStats(state);
+    }
+
     /**
      * Calculate route cost from pre-computed forward states
      */
@@ -330,6 +421,13 @@ public class RouteEvaluator {
      * Calculate total cost for a complete solution
      */
     public void calculateTotalCost(Solution solution) {
+        calculateTotalCost(solution, null);
+    }
+
+    /**
+     * Calculate total cost, reusing stats of routes already in the cache (null = no cache)
+     */
+    public void calculateTotalCost(Solution solution, RouteStatsCache cache) {
         double totalCost = solution.getRoutes().size() * Constants.PENALTY_VEHICLE;
         double totalDist = 0.0;
         double totalViol = 0.0;
@@ -339,8 +437,10 @@ public class RouteEvaluator {
                 continue;
             }
 
-            RouteStats stats = evaluate(route);
-            totalCost += stats.cost();
+            // Cached stats may have been priced with earlier weights: reprice from raw values
+            RouteStats stats = cache != null ? cache.get(route, this::evaluate) : evaluate(route);
+            totalCost += penalties.cost(stats.distance(), stats.capacityViolation(),
+                    stats.timeViolation(), stats.batteryViolation());
             totalDist += stats.distance();
             totalViol += stats.capacityViolation() +
                         stats.timeViolation() +
@@ -355,4 +455,8 @@ public class RouteEvaluator {
     public Instance getInstance() {
         return instance;
     }
+
+    public PenaltyWeights getPenalties() {
+        return penalties;
+    }
 }
@@ -0,0 +1,351 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Node;
+import tranhuy105.evrptw.model.NodeType;
+import tranhuy105.evrptw.model.RouteStats;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.util.Logger;
+
+/**
+ * Route minimization phase: repeatedly removes the smallest route and pushes its customers
+ * into the others, ejecting at most two customers per insertion (ejection pool + penalty counters).
+ * Every route stays feasible throughout, so a successful elimination is a feasible solution
+ * with one vehicle less.
+ */
+public class RouteMinimizer {
+    private static final double EPSILON = 1e-6;
+    private static final int DOUBLE_EJECTION_POSITIONS = 3;  // Best insertion positions tried for 2 ejections
+    private static final int NUM_STATIONS = 4;
+
+    private final Instance instance;
+    private final RouteEvaluator evaluator;
+    private final Random random;
+    private final boolean[] isCustomer;
+    private final double[] demand;
+    private final double capacity;
+
+    private int[] buffer = new int[16];
+
+    public RouteMinimizer(Instance instance, RouteEvaluator evaluator, Random random) {
+        this.instance = instance;
+        this.evaluator = evaluator;
+        this.random = random;
+        this.capacity = instance.getCargoCapacity();
+
+        List<Node> allNodes = instance.getAllNodes();
+        this.isCustomer = new boolean[allNodes.size()];
+        this.demand = new double[allNodes.size()];
+        for (Node node : allNodes) {
+            isCustomer[node.getId()] = node.getType() == NodeType.CUSTOMER;
+            demand[node.getId()] = node.getDemand();
+        }
+    }
+
+    /**
+     * Remove routes until the lower bound is reached or an elimination fails
+     *
+     * @param solution Feasible starting solution (not modified)
+     * @param maxIterations Ejection pool steps allowed per route elimination
+     * @return Best feasible solution found (a copy)
+     */
+    public Solution minimize(Solution solution, int maxIterations) {
+        Solution best = solution.copy();
+        if (!best.isFeasible()) {
+            return best;
+        }
+
+        int lowerBound = instance.getVehicleLowerBound();
+        while (best.getRoutes().size() > lowerBound) {
+            Solution trial = best.copy();
+            if (!eliminateRoute(trial, maxIterations)) {
+                break;
+            }
+            evaluator.calculateTotalCost(trial);
+            if (!trial.isFeasible()) {
+                break;
+            }
+            best = trial;
+            Logger.info(String.format("Route minimization: %d vehicles (Dist=%.2f)",
+                    best.getRoutes().size(), best.getTotalDistance()));
+        }
+        return best;
+    }
+
+    /**
+     * Remove the smallest route and reinsert its customers through the ejection pool
+     */
+    private boolean eliminateRoute(Solution solution, int maxIterations) {
+        // Routes are edited directly below
+        solution.invalidateIndex();
+        List<List<Integer>> routes = solution.getRoutes();
+        int smallest = 0;
+        for (int r = 1; r < routes.size(); r++) {
+            if (countCustomers(routes.get(r)) < countCustomers(routes.get(smallest))) {
+                smallest = r;
+            }
+        }
+
+        List<Integer> removed = new ArrayList<>();
+        for (int nodeId : routes.remove(smallest)) {
+            if (isCustomer[nodeId]) {
+                removed.add(nodeId);
+            }
+        }
+        Collections.shuffle(removed, random);
+        Deque<Integer> pool = new ArrayDeque<>(removed);
+
+        int[] penalty = new int[isCustomer.length];
+        Arrays.fill(penalty, 1);
+
+        for (int iter = 0; iter < maxIterations && !pool.isEmpty(); iter++) {
+            int customerId = pool.pop();
+            if (insertFeasible(solution, customerId)) {
+                continue;
+            }
+            penalty[customerId]++;
+            if (!insertWithEjection(solution, customerId, penalty, pool)) {
+                return false;
+            }
+        }
+        return pool.isEmpty();
+    }
+
+    /**
+     * Cheapest insertion that keeps the route feasible (optionally with a station next to the customer)
+     */
+    private boolean insertFeasible(Solution solution, int customerId) {
+        List<Integer> nearestStations = instance.getNearestStations().get(customerId);
+        int numStations = nearestStations != null ? Math.min(NUM_STATIONS, nearestStations.size()) : 0;
+
+        int bestRoute = -1;
+        int bestPos = -1;
+        Integer bestStBefore = null;
+        Integer bestStAfter = null;
+        double bestDelta = Double.POSITIVE_INFINITY;
+
+        List<List<Integer>> routes = solution.getRoutes();
+        for (int r = 0; r < routes.size(); r++) {
+            List<Integer> route = routes.get(r);
+            if (routeLoad(route) + demand[customerId] > capacity + EPSILON) {
+                continue;
+            }
+            double[][] forwardStates = evaluator.getForwardStates(route);
+            double oldDist = evaluator.evaluate(route).distance();
+
+            for (int pos = 0; pos <= route.size(); pos++) {
+                // A feasible route costs its distance, so anything above oldDist + bestDelta is useless
+                double cutoff = oldDist + bestDelta;
+                RouteStats stats = evaluator.evaluateWithInsertion(route, pos, customerId, forwardStates, cutoff);
+                if (violations(stats) < EPSILON) {
+                    if (stats.distance() - oldDist < bestDelta) {
+                        bestDelta = stats.distance() - oldDist;
+                        bestRoute = r;
+                        bestPos = pos;
+                        bestStBefore = null;
+                        bestStAfter = null;
+                    }
+                    continue;
+                }
+                if (stats.batteryViolation() < EPSILON) {
+                    continue;  // Stations cannot fix time or capacity
+                }
+                for (int s = 0; s < numStations; s++) {
+                    int stId = nearestStations.get(s);
+                    RouteStats before = evaluator.evaluateWithDoubleInsertion(route, pos, stId, customerId,
+                            forwardStates, oldDist + bestDelta);
+                    if (violations(before) < EPSILON && before.distance() - oldDist < bestDelta) {
+                        bestDelta = before.distance() - oldDist;
+                        bestRoute = r;
+                        bestPos = pos;
+                        bestStBefore = stId;
+                        bestStAfter = null;
+                    }
+                    RouteStats after = evaluator.evaluateWithDoubleInsertion(route, pos, customerId, stId,
+                            forwardStates, oldDist + bestDelta);
+                    if (violations(after) < EPSILON && after.distance() - oldDist < bestDelta) {
+                        bestDelta = after.distance() - oldDist;
+                        bestRoute = r;
+                        bestPos = pos;
+                        bestStBefore = null;
+                        bestStAfter = stId;
+                    }
+                }
+            }
+        }
+
+        if (bestRoute < 0) {
+            return false;
+        }
+
+        List<Integer> route = routes.get(bestRoute);
+        List<Integer> toInsert = new ArrayList<>(3);
+        if (bestStBefore != null) {
+            toInsert.add(bestStBefore);
+        }
+        toInsert.add(customerId);
+        if (bestStAfter != null) {
+            toInsert.add(bestStAfter);
+        }
+        route.addAll(bestPos, toInsert);
+        return true;
+    }
+
+    /**
+     * Insert customer into a route while ejecting one or two customers so the route stays feasible.
+     * Minimizes the summed penalty of the ejected customers, then distance.
+     */
+    private boolean insertWithEjection(Solution solution, int customerId, int[] penalty, Deque<Integer> pool) {
+        int bestRoute = -1;
+        int bestPos = -1;
+        int bestE1 = -1;
+        int bestE2 = -1;
+        int bestPenalty = Integer.MAX_VALUE;
+        double bestDist = Double.POSITIVE_INFINITY;
+
+        List<List<Integer>> routes = solution.getRoutes();
+        for (int r = 0; r < routes.size(); r++) {
+            List<Integer> route = routes.get(r);
+            int len = route.size();
+            double load = routeLoad(route) + demand[customerId];
+            double[][] forwardStates = evaluator.getForwardStates(route);
+            ensureBuffer(len + 1);
+
+            // Rank insertion positions by penalized cost to limit double ejections
+            double[] positionCost = new double[len + 1];
+            for (int pos = 0; pos <= len; pos++) {
+                positionCost[pos] = evaluator.evaluateWithInsertion(route, pos, customerId, forwardStates).cost();
+            }
+            Integer[] ranked = new Integer[len + 1];
+            for (int pos = 0; pos <= len; pos++) {
+                ranked[pos] = pos;
+            }
+            Arrays.sort(ranked, (a, b) -> Double.compare(positionCost[a], positionCost[b]));
+
+            for (int rank = 0; rank <= len; rank++) {
+                int pos = ranked[rank];
+                for (int e1 = 0; e1 < len; e1++) {
+                    int c1 = route.get(e1);
+                    if (!isCustomer[c1]) {
+                        continue;
+                    }
+
+                    // Single ejection
+                    if (penalty[c1] <= bestPenalty && load - demand[c1] <= capacity + EPSILON) {
+                        double dist = evaluateEjection(route, forwardStates, pos, customerId, e1, -1);
+                        if (dist >= 0 && isBetter(penalty[c1], dist, bestPenalty, bestDist)) {
+                            bestPenalty = penalty[c1];
+                            bestDist = dist;
+                            bestRoute = r;
+                            bestPos = pos;
+                            bestE1 = e1;
+                            bestE2 = -1;
+                        }
+                    }
+
+                    // Double ejection (only at the most promising positions)
+                    if (rank >= DOUBLE_EJECTION_POSITIONS) {
+                        continue;
+                    }
+                    for (int e2 = e1 + 1; e2 < len; e2++) {
+                        int c2 = route.get(e2);
+                        if (!isCustomer[c2] || penalty[c1] + penalty[c2] > bestPenalty ||
+                            load - demand[c1] - demand[c2] > capacity + EPSILON) {
+                            continue;
+                        }
+                        double dist = evaluateEjection(route, forwardStates, pos, customerId, e1, e2);
+                        if (dist >= 0 && isBetter(penalty[c1] + penalty[c2], dist, bestPenalty, bestDist)) {
+                            bestPenalty = penalty[c1] + penalty[c2];
+                            bestDist = dist;
+                            bestRoute = r;
+                            bestPos = pos;
+                            bestE1 = e1;
+                            bestE2 = e2;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (bestRoute < 0) {
+            return false;
+        }
+
+        List<Integer> route = routes.get(bestRoute);
+        int len = buildEjection(route, bestPos, customerId, bestE1, bestE2);
+        pool.push(route.get(bestE1));
+        if (bestE2 >= 0) {
+            pool.push(route.get(bestE2));
+        }
+        route.clear();
+        for (int i = 0; i < len; i++) {
+            route.add(buffer[i]);
+        }
+        return true;
+    }
+
+    private static boolean isBetter(int penalty, double dist, int bestPenalty, double bestDist) {
+        return penalty < bestPenalty || (penalty == bestPenalty && dist < bestDist);
+    }
+
+    /**
+     * Distance of the route with customerId inserted at pos and positions e1 (and e2) removed,
+     * or -1 if that route is infeasible
+     */
+    private double evaluateEjection(List<Integer> route, double[][] forwardStates,
+                                    int pos, int customerId, int e1, int e2) {
+        int len = buildEjection(route, pos, customerId, e1, e2);
+        int prefix = Math.min(pos, e1);
+        RouteStats stats = evaluator.evaluateWithTail(route, prefix, forwardStates, buffer, prefix, len);
+        return violations(stats) < EPSILON ? stats.distance() : -1;
+    }
+
+    private int buildEjection(List<Integer> route, int pos, int customerId, int e1, int e2) {
+        int n = 0;
+        for (int k = 0; k <= route.size(); k++) {
+            if (k == pos) {
+                buffer[n++] = customerId;
+            }
+            if (k < route.size() && k != e1 && k != e2) {
+                buffer[n++] = route.get(k);
+            }
+        }
+        return n;
+    }
+
+    private void ensureBuffer(int size) {
+        if (buffer.length < size) {
+            buffer = new int[Math.max(size, buffer.length * 2)];
+        }
+    }
+
+    private int countCustomers(List<Integer> route) {
+        int count = 0;
+        for (int nodeId : route) {
+            if (isCustomer[nodeId]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private double routeLoad(List<Integer> route) {
+        double load = 0.0;
+        for (int nodeId : route) {
+            load += demand[nodeId];
+        }
+        return load;
+    }
+
+    private static double violations(RouteStats stats) {
+        return stats.capacityViolation() + stats.timeViolation() + stats.batteryViolation();
+    }
+}
@@ -0,0 +1,161 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import tranhuy105.evrptw.model.RouteStats;
+import tranhuy105.evrptw.util.RouteHash;
+
+/**
+ * Bounded memo cache from route sequence to its evaluated stats.
+ * Sequences are keyed by their Zobrist-style arc hash (see RouteHash).
+ * The table is 2-way set associative with CLOCK eviction inside each set. Lookups and
+ * stores are lock-free, so one cache can be shared by parallel workers on the same instance.
+ * A hit also compares the stored sequence, so hash collisions never return wrong stats.
+ */
+public final class RouteStatsCache {
+    private static final long ENTRY_OVERHEAD_BYTES = 128;  // Entry, int[] and RouteStats headers and fields
+
+    private record Entry(long hash, int[] sequence, RouteStats stats) {
+        boolean matches(long otherHash, List<Integer> route) {
+            if (hash != otherHash || sequence.length != route.size()) {
+                return false;
+            }
+            for (int i = 0; i < sequence.length; i++) {
+                if (sequence[i] != route.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long bytes() {
+            return ENTRY_OVERHEAD_BYTES + 4L * sequence.length;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    // CLOCK reference bits; a racy write only changes which entry is evicted next
+    private final byte[] referenced;
+    private final int setMask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong bytes = new AtomicLong();
+
+    /**
+     * @param capacity maximum number of cached routes, rounded up to a power of two
+     */
+    public RouteStatsCache(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.referenced = new byte[size];
+        this.setMask = size - 2;
+    }
+
+    /**
+     * Stats of the route, computed with the evaluator on a miss and stored for reuse
+     */
+    public RouteStats get(List<Integer> route, Function<List<Integer>, RouteStats> evaluator) {
+        long h = RouteHash.of(route);
+        int base = (int) (h ^ (h >>> 32)) & setMask;
+
+        RouteStats cached = lookup(h, base, route);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        RouteStats stats = evaluator.apply(route);
+        int[] sequence = new int[route.size()];
+        for (int i = 0; i < sequence.length; i++) {
+            sequence[i] = route.get(i);
+        }
+        store(base, new Entry(h, sequence, stats));
+        return stats;
+    }
+
+    /**
+     * Cached stats of the route, or null; not counted in the hit rate
+     */
+    public RouteStats find(List<Integer> route) {
+        long h = RouteHash.of(route);
+        return lookup(h, (int) (h ^ (h >>> 32)) & setMask, route);
+    }
+
+    private RouteStats lookup(long h, int base, List<Integer> route) {
+        for (int i = base; i <= base + 1; i++) {
+            Entry entry = slots.get(i);
+            if (entry != null && entry.matches(h, route)) {
+                referenced[i] = 1;
+                return entry.stats();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Place the entry in its set: an empty slot if any, else the first slot the clock hand
+     * finds unreferenced, clearing reference bits as it passes
+     */
+    private void store(int base, Entry entry) {
+        int victim = -1;
+        for (int i = base; i <= base + 1 && victim < 0; i++) {
+            if (slots.get(i) == null) {
+                victim = i;
+            }
+        }
+        for (int sweep = 0; victim < 0; sweep++) {
+            int i = base + (sweep & 1);
+            if (referenced[i] == 0) {
+                victim = i;
+            } else {
+                referenced[i] = 0;
+            }
+        }
+
+        referenced[victim] = 0;
+        Entry old = slots.getAndSet(victim, entry);
+        bytes.addAndGet(entry.bytes() - (old != null ? old.bytes() : 0L));
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total > 0 ? (double) h / total : 0.0;
+    }
+
+    /**
+     * Approximate heap held by cached entries
+     */
+    public long getMemoryBytes() {
+        return bytes.get();
+    }
+
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * Drop all entries, keeping the counters
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+            referenced[i] = 0;
+        }
+        bytes.set(0L);
+    }
+}
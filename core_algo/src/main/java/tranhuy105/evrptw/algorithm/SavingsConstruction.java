@@ -0,0 +1,186 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Node;
+import tranhuy105.evrptw.model.RouteStats;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.operators.insertion.InsertionHelper;
+import tranhuy105.evrptw.operators.station.GreedyStationInsertion;
+import tranhuy105.evrptw.util.Constants;
+import tranhuy105.evrptw.util.Logger;
+
+/**
+ * Clarke-Wright savings construction aware of the battery constraint.
+ * Starts with one route per customer and joins the end of one route to the start of another
+ * in decreasing order of savings d(0,i) + d(0,j) - d(i,j), over each customer's nearest
+ * neighbors only. A merge that only breaks the battery constraint is repaired with stations
+ * and kept if the repaired route is feasible.
+ */
+public class SavingsConstruction implements ConstructionHeuristic {
+    private final Instance instance;
+    private final InsertionHelper insertionHelper;
+    private final GreedyStationInsertion stationInsertion;
+    private final RouteEvaluator evaluator;
+
+    private record Saving(int from, int to, double value) {
+    }
+
+    public SavingsConstruction(Instance instance) {
+        this.instance = instance;
+        this.insertionHelper = new InsertionHelper(instance);
+        this.stationInsertion = new GreedyStationInsertion(instance);
+        this.evaluator = new RouteEvaluator(instance);
+    }
+
+    @Override
+    public Solution build() {
+        List<Node> customers = instance.getCustomers();
+        int[] routeOf = new int[instance.getAllNodes().size()];
+        Arrays.fill(routeOf, -1);
+
+        // One route per customer, with a station if the customer cannot be reached directly
+        List<List<Integer>> routes = new ArrayList<>(customers.size());
+        for (Node customer : customers) {
+            List<Integer> route = insertionHelper.singletonRoute(customer.getId());
+            routeOf[customer.getId()] = routes.size();
+            routes.add(route);
+        }
+
+        int merges = 0;
+        for (Saving saving : computeSavings()) {
+            int ra = routeOf[saving.from()];
+            int rb = routeOf[saving.to()];
+            if (ra == rb) {
+                continue;
+            }
+
+            // Routes are directed (time windows): join the end of one to the start of the other
+            List<Integer> a = routes.get(ra);
+            List<Integer> b = routes.get(rb);
+            if (lastCustomer(a) != saving.from() || firstCustomer(b) != saving.to()) {
+                continue;
+            }
+
+            List<Integer> merged = tryMerge(a, b);
+            if (merged == null) {
+                continue;
+            }
+
+            routes.set(ra, merged);
+            routes.set(rb, null);
+            for (int nodeId : b) {
+                if (isCustomer(nodeId)) {
+                    routeOf[nodeId] = ra;
+                }
+            }
+            merges++;
+        }
+
+        Solution solution = new Solution(instance);
+        for (List<Integer> route : routes) {
+            if (route != null) {
+                solution.getRoutes().add(route);
+            }
+        }
+        evaluator.calculateTotalCost(solution);
+
+        Logger.info("Savings construction: " + solution.getRoutes().size() + " vehicles after " + merges + " merges");
+        return solution;
+    }
+
+    /**
+     * Positive savings between each customer and its nearest customers, largest first.
+     * Both directions of a pair are listed since routes are directed.
+     */
+    private List<Saving> computeSavings() {
+        List<Node> customers = instance.getCustomers();
+        double[][] dist = instance.getDistanceMatrix();
+        int k = Math.min(Constants.SAVINGS_NEIGHBORS, customers.size() - 1);
+
+        List<Saving> savings = new ArrayList<>(customers.size() * k * 2);
+        Integer[] others = new Integer[customers.size()];
+        for (Node ci : customers) {
+            int i = ci.getId();
+            for (int idx = 0; idx < customers.size(); idx++) {
+                others[idx] = customers.get(idx).getId();
+            }
+            Arrays.sort(others, Comparator.comparingDouble(j -> dist[i][j]));
+
+            int taken = 0;
+            for (int idx = 0; idx < others.length && taken < k; idx++) {
+                int j = others[idx];
+                if (j == i) {
+                    continue;
+                }
+                taken++;
+                double value = dist[0][i] + dist[0][j] - dist[i][j];
+                if (value > 1e-9) {
+                    savings.add(new Saving(i, j, value));
+                    savings.add(new Saving(j, i, value));
+                }
+            }
+        }
+
+        savings.sort(Comparator.comparingDouble(Saving::value).reversed());
+        return savings;
+    }
+
+    /**
+     * Concatenate a and b without the stations at the junction; null if the result is infeasible.
+     * Stations only add time, so capacity and time window violations are rejected before repair.
+     */
+    private List<Integer> tryMerge(List<Integer> a, List<Integer> b) {
+        int endA = a.size();
+        while (endA > 0 && !isCustomer(a.get(endA - 1))) {
+            endA--;
+        }
+        int startB = 0;
+        while (startB < b.size() && !isCustomer(b.get(startB))) {
+            startB++;
+        }
+
+        List<Integer> merged = new ArrayList<>(endA + b.size() - startB + 2);
+        merged.addAll(a.subList(0, endA));
+        merged.addAll(b.subList(startB, b.size()));
+
+        RouteStats stats = evaluator.evaluate(merged);
+        if (stats.capacityViolation() > 1e-6 || stats.timeViolation() > 1e-6) {
+            return null;
+        }
+        if (stats.batteryViolation() > 1e-6) {
+            stationInsertion.repairRoute(merged);
+            stats = evaluator.evaluate(merged);
+            if (stats.capacityViolation() + stats.timeViolation() + stats.batteryViolation() > 1e-6) {
+                return null;
+            }
+        }
+        return merged;
+    }
+
+    private int firstCustomer(List<Integer> route) {
+        for (int nodeId : route) {
+            if (isCustomer(nodeId)) {
+                return nodeId;
+            }
+        }
+        return -1;
+    }
+
+    private int lastCustomer(List<Integer> route) {
+        for (int i = route.size() - 1; i >= 0; i--) {
+            if (isCustomer(route.get(i))) {
+                return route.get(i);
+            }
+        }
+        return -1;
+    }
+
+    private boolean isCustomer(int nodeId) {
+        return instance.isCustomer(nodeId);
+    }
+}
@@ -0,0 +1,43 @@
+package tranhuy105.evrptw.algorithm;
+
+import tranhuy105.evrptw.model.Solution;
+
+/**
+ * Callbacks for ALNS search events.
+ * All methods default to no-op; ALNS skips the calls entirely when no listener is registered.
+ * Solutions passed in are live objects owned by the search: copy them if they must be kept.
+ */
+public interface SearchListener {
+
+    /**
+     * Called at the end of every iteration (bestFeasible is null until one is found)
+     */
+    default void onIteration(int iteration, Solution current, Solution best, Solution bestFeasible,
+                             double temperature, boolean accepted) {
+    }
+
+    /**
+     * Called when a new best solution (by penalized cost) is found
+     */
+    default void onNewBest(int iteration, Solution best, String removalOp, String insertionOp) {
+    }
+
+    /**
+     * Called the first time a feasible solution is found
+     */
+    default void onFirstFeasible(int iteration, Solution feasible) {
+    }
+
+    /**
+     * Called after adaptive weights are updated at the end of a segment
+     */
+    default void onWeightsUpdated(int iteration, AdaptiveWeights removal, AdaptiveWeights insertion,
+                                  AdaptiveWeights stationRemoval) {
+    }
+
+    /**
+     * Called when the search restarts from the best feasible solution
+     */
+    default void onRestart(int iteration, Solution restartFrom, double temperature) {
+    }
+}
@@ -0,0 +1,64 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Picks the next operator of an AdaptiveWeights group by its int handle.
+ * Weight-based policies read the segment-smoothed weights; bandit policies learn from the
+ * per-call rewards instead (score / SIGMA_NEW_BEST, in [0, 1]), so they adapt every call.
+ */
+public interface SelectionPolicy {
+
+    /**
+     * Handle of the next operator; disabled operators are never picked
+     */
+    int select(double[] weights, boolean[] enabled);
+
+    /**
+     * The operator was called; a reward may follow
+     */
+    default void onUse(int op) {
+    }
+
+    /**
+     * Reward of the operator's last call
+     */
+    default void onReward(int op, double reward) {
+    }
+
+    /**
+     * Weights were updated or an operator was enabled or disabled
+     */
+    default void refresh(double[] weights, boolean[] enabled) {
+    }
+
+    /**
+     * End of a weight segment
+     */
+    default void endSegment() {
+    }
+
+    default void writeState(DataOutput out) throws IOException {
+    }
+
+    default void readState(DataInput in) throws IOException {
+    }
+
+    /**
+     * Create a policy by name: roulette (default), alias, ucb or thompson
+     *
+     * @param n Number of operators in the group
+     */
+    static SelectionPolicy create(String name, int n, Random random) {
+        return switch (name.toLowerCase()) {
+            case "roulette" -> new RouletteSelection(random);
+            case "alias" -> new AliasSelection(n, random);
+            case "ucb" -> new SlidingWindowUcb(n, random);
+            case "thompson" -> new ThompsonSelection(n, random);
+            default -> throw new IllegalArgumentException("Unknown operator selection: " + name);
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+import tranhuy105.evrptw.util.Constants;
+
+/**
+ * Simulated annealing. The start temperature accepts a solution SA_START_WORSE worse than the
+ * initial one with probability 1/2 and cools by SA_COOLING_RATE; a restart reheats to a tenth of it.
+ * With budget cooling the start is scaled on the search cost instead of the total cost, the
+ * cooling rate is chosen so the temperature ends at SA_FINAL_RATIO of the start, and a restart
+ * never cools the search down.
+ */
+public class SimulatedAnnealingAcceptance implements AcceptanceCriterion {
+    private final int maxIterations;
+    private final Random random;
+    private final boolean budgetCooling;
+    private double tInit;
+    private double temperature;
+    private double coolingRate;
+
+    public SimulatedAnnealingAcceptance(int maxIterations, Random random) {
+        this(maxIterations, random, false);
+    }
+
+    /**
+     * @param budgetCooling Calibrate the schedule on the iteration budget (sa-budget)
+     */
+    public SimulatedAnnealingAcceptance(int maxIterations, Random random, boolean budgetCooling) {
+        this.maxIterations = maxIterations;
+        this.random = random;
+        this.budgetCooling = budgetCooling;
+    }
+
+    @Override
+    public void start(double initialCost, double totalCost) {
+        if (!budgetCooling) {
+            tInit = totalCost * Constants.SA_START_WORSE / Math.log(2);
+            temperature = tInit;
+            coolingRate = Constants.SA_COOLING_RATE;
+            return;
+        }
+        tInit = Math.max(1e-6, initialCost * Constants.SA_START_WORSE / Math.log(2));
+        temperature = tInit;
+        coolingRate = maxIterations < Integer.MAX_VALUE
+                ? Math.pow(Constants.SA_FINAL_RATIO, 1.0 / Math.max(1, maxIterations))
+                : Constants.SA_COOLING_RATE;
+    }
+
+    @Override
+    public boolean accept(double candidateCost, double currentCost) {
+        double delta = candidateCost - currentCost;
+        return temperature > 1e-10 && random.nextDouble() < Math.exp(-delta / temperature);
+    }
+
+    @Override
+    public void step(double currentCost) {
+        temperature *= coolingRate;
+    }
+
+    @Override
+    public void reheat() {
+        temperature = budgetCooling ? Math.max(temperature, tInit * 0.1) : tInit * 0.1;
+    }
+
+    @Override
+    public double level() {
+        return temperature;
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(tInit);
+        out.writeDouble(temperature);
+        out.writeDouble(coolingRate);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        tInit = in.readDouble();
+        temperature = in.readDouble();
+        coolingRate = in.readDouble();
+    }
+}
@@ -0,0 +1,117 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import tranhuy105.evrptw.util.Constants;
+
+/**
+ * Sliding-window UCB1: picks the enabled operator with the best mean reward over its calls
+ * among the last UCB_WINDOW calls of the group, plus an exploration bonus. Forgetting old calls
+ * lets the choice follow the search as it moves from construction-repair to fine tuning.
+ */
+public class SlidingWindowUcb implements SelectionPolicy {
+    private final int[] playedOp;
+    private final double[] playedReward;
+    private final int[] counts;
+    private final double[] sums;
+    private final int[] lastSlot;
+    private final Random random;
+    private int head = 0;
+    private int size = 0;
+
+    public SlidingWindowUcb(int n, Random random) {
+        this.playedOp = new int[Constants.UCB_WINDOW];
+        this.playedReward = new double[Constants.UCB_WINDOW];
+        this.counts = new int[n];
+        this.sums = new double[n];
+        this.lastSlot = new int[n];
+        this.random = random;
+    }
+
+    @Override
+    public int select(double[] weights, boolean[] enabled) {
+        int n = counts.length;
+        double logT = Math.log(Math.max(size, 1));
+        int best = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        // Start at a random operator so untried ones and ties are not biased to low handles
+        int offset = random.nextInt(n);
+        for (int k = 0; k < n; k++) {
+            int i = (offset + k) % n;
+            if (!enabled[i]) {
+                continue;
+            }
+            if (counts[i] == 0) {
+                return i;
+            }
+            double value = sums[i] / counts[i] + Constants.UCB_EXPLORATION * Math.sqrt(2.0 * logT / counts[i]);
+            if (value > bestValue) {
+                bestValue = value;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void onUse(int op) {
+        if (size == playedOp.length) {
+            // Window full: forget the oldest call
+            counts[playedOp[head]]--;
+            sums[playedOp[head]] -= playedReward[head];
+        } else {
+            size++;
+        }
+        playedOp[head] = op;
+        playedReward[head] = 0.0;
+        counts[op]++;
+        lastSlot[op] = head;
+        head = (head + 1) % playedOp.length;
+    }
+
+    @Override
+    public void onReward(int op, double reward) {
+        int slot = lastSlot[op];
+        if (counts[op] > 0 && playedOp[slot] == op) {
+            playedReward[slot] += reward;
+            sums[op] += reward;
+        }
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeInt(head);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeInt(playedOp[i]);
+            out.writeDouble(playedReward[i]);
+        }
+        for (int slot : lastSlot) {
+            out.writeInt(slot);
+        }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        head = in.readInt();
+        size = in.readInt();
+        if (size > playedOp.length) {
+            throw new IOException("Checkpoint UCB window is " + size + " calls, expected at most " + playedOp.length);
+        }
+        Arrays.fill(counts, 0);
+        Arrays.fill(sums, 0.0);
+        for (int i = 0; i < size; i++) {
+            playedOp[i] = in.readInt();
+            playedReward[i] = in.readDouble();
+            counts[playedOp[i]]++;
+            sums[playedOp[i]] += playedReward[i];
+        }
+        for (int i = 0; i < lastSlot.length; i++) {
+            lastSlot[i] = in.readInt();
+        }
+    }
+}
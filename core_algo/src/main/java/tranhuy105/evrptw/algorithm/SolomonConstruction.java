@@ -0,0 +1,260 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Node;
+import tranhuy105.evrptw.model.RouteStats;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.operators.insertion.InsertionHelper;
+import tranhuy105.evrptw.operators.insertion.InsertionResult;
+import tranhuy105.evrptw.operators.station.GreedyStationInsertion;
+import tranhuy105.evrptw.util.Constants;
+import tranhuy105.evrptw.util.Logger;
+
+/**
+ * Parallel Solomon I1 insertion with cached insertion costs.
+ * Opens as many routes as the vehicle lower bound, then repeatedly inserts the customer maximizing
+ * lambda * d(0,u) - (cheapest feasible detour). The cheapest insertion of every unrouted customer
+ * is cached per route and only recomputed for the route that changed. When no customer fits
+ * anywhere, a new route is opened. Seeds are the customers farthest from the depot and from
+ * customers already routed.
+ */
+public class SolomonConstruction implements ConstructionHeuristic {
+    // Full evaluations per (route, customer) before falling back to station insertion
+    private static final int MAX_EVALUATIONS = 10;
+    private static final int MAX_STATION_POSITIONS = 3;
+    private static final int MAX_STATIONS = 2;
+
+    private final Instance instance;
+    private final InsertionHelper insertionHelper;
+    private final GreedyStationInsertion stationInsertion;
+    private final RouteEvaluator evaluator;
+    private final double[][] dist;
+    private final double[][] travelTime;
+
+    // Per-route state, recomputed only when the route changes
+    private final List<List<Integer>> routes = new ArrayList<>();
+    private final List<double[][]> forwardStates = new ArrayList<>();
+    private final List<RouteStats> routeStats = new ArrayList<>();
+    private final List<InsertionResult[]> cache = new ArrayList<>();
+
+    public SolomonConstruction(Instance instance) {
+        this.instance = instance;
+        this.insertionHelper = new InsertionHelper(instance);
+        this.stationInsertion = new GreedyStationInsertion(instance);
+        this.evaluator = new RouteEvaluator(instance);
+        this.dist = instance.getDistanceMatrix();
+        this.travelTime = instance.getTravelTimeMatrix();
+    }
+
+    @Override
+    public Solution build() {
+        routes.clear();
+        forwardStates.clear();
+        routeStats.clear();
+        cache.clear();
+
+        List<Integer> unrouted = new ArrayList<>();
+        for (Node customer : instance.getCustomers()) {
+            unrouted.add(customer.getId());
+        }
+
+        int seeds = Math.max(1, Math.min(instance.getVehicleLowerBound(), unrouted.size()));
+        for (int s = 0; s < seeds; s++) {
+            openRoute(pickSeed(unrouted), unrouted);
+        }
+
+        while (!unrouted.isEmpty()) {
+            int bestCustomer = -1;
+            int bestRoute = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+
+            for (int u : unrouted) {
+                int r = cheapestRoute(u);
+                if (r < 0) {
+                    continue;
+                }
+                double score = Constants.SOLOMON_LAMBDA * dist[0][u] - cache.get(r)[u].costIncrease();
+                if (score > bestScore) {
+                    bestScore = score;
+                    bestCustomer = u;
+                    bestRoute = r;
+                }
+            }
+
+            if (bestCustomer < 0) {
+                openRoute(pickSeed(unrouted), unrouted);
+                continue;
+            }
+
+            InsertionResult ins = cache.get(bestRoute)[bestCustomer];
+            List<Integer> route = routes.get(bestRoute);
+            List<Integer> toInsert = new ArrayList<>(3);
+            if (ins.stationBefore() != null) {
+                toInsert.add(ins.stationBefore());
+            }
+            toInsert.add(bestCustomer);
+            if (ins.stationAfter() != null) {
+                toInsert.add(ins.stationAfter());
+            }
+            route.addAll(ins.position(), toInsert);
+            unrouted.remove(Integer.valueOf(bestCustomer));
+            refreshRoute(bestRoute, unrouted);
+        }
+
+        Solution solution = new Solution(instance);
+        solution.getRoutes().addAll(routes);
+        stationInsertion.repair(solution);
+        evaluator.calculateTotalCost(solution);
+
+        Logger.info("Solomon I1 construction: " + solution.getRoutes().size() + " vehicles");
+        return solution;
+    }
+
+    /**
+     * Unrouted customer farthest from the depot and from every routed node
+     */
+    private int pickSeed(List<Integer> unrouted) {
+        int best = -1;
+        double bestDist = -1;
+        for (int u : unrouted) {
+            double d = dist[0][u];
+            for (List<Integer> route : routes) {
+                for (int nodeId : route) {
+                    d = Math.min(d, dist[nodeId][u]);
+                }
+            }
+            if (d > bestDist) {
+                bestDist = d;
+                best = u;
+            }
+        }
+        return best;
+    }
+
+    private void openRoute(int seed, List<Integer> unrouted) {
+        List<Integer> route = insertionHelper.singletonRoute(seed);
+        unrouted.remove(Integer.valueOf(seed));
+
+        routes.add(route);
+        forwardStates.add(null);
+        routeStats.add(null);
+        cache.add(new InsertionResult[instance.getAllNodes().size()]);
+        refreshRoute(routes.size() - 1, unrouted);
+    }
+
+    /**
+     * Recompute forward states and cached insertions of one route
+     */
+    private void refreshRoute(int r, List<Integer> unrouted) {
+        List<Integer> route = routes.get(r);
+        double[][] forward = evaluator.getForwardStates(route);
+        RouteStats stats = evaluator.evaluate(route);
+        forwardStates.set(r, forward);
+        routeStats.set(r, stats);
+
+        InsertionResult[] entries = cache.get(r);
+        for (int u : unrouted) {
+            entries[u] = cheapestInsertion(route, forward, stats, u);
+        }
+    }
+
+    private int cheapestRoute(int u) {
+        int best = -1;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int r = 0; r < routes.size(); r++) {
+            InsertionResult ins = cache.get(r)[u];
+            if (ins != null && ins.costIncrease() < bestCost) {
+                bestCost = ins.costIncrease();
+                best = r;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Cheapest insertion of u that adds no violation, or null.
+     * Positions are filtered by capacity and the arrival time at u, tried in order of
+     * distance detour, and confirmed with a full evaluation from the cached forward states.
+     */
+    private InsertionResult cheapestInsertion(List<Integer> route, double[][] forward, RouteStats stats, int u) {
+        Node customer = instance.getAllNodes().get(u);
+        int len = route.size();
+        if (forward[len][3] + customer.getDemand() > instance.getCargoCapacity() + 1e-9) {
+            return null;
+        }
+
+        // Candidate positions sorted by detour (insertion sort, routes are short)
+        int[] positions = new int[len + 1];
+        double[] detours = new double[len + 1];
+        int count = 0;
+        for (int pos = 0; pos <= len; pos++) {
+            int prev = pos == 0 ? 0 : route.get(pos - 1);
+            int next = pos == len ? 0 : route.get(pos);
+            double arrival = Math.max(customer.getReadyTime(), forward[pos][1] + travelTime[prev][u]);
+            if (arrival > customer.getDueTime() + 1e-6) {
+                continue;
+            }
+            double detour = dist[prev][u] + dist[u][next] - dist[prev][next];
+            int i = count++;
+            while (i > 0 && detours[i - 1] > detour) {
+                detours[i] = detours[i - 1];
+                positions[i] = positions[i - 1];
+                i--;
+            }
+            detours[i] = detour;
+            positions[i] = pos;
+        }
+
+        double penaltyOld = stats.cost() - stats.distance();
+        for (int i = 0; i < Math.min(count, MAX_EVALUATIONS); i++) {
+            // Accepted only if penalties do not grow, i.e. the cost stays within the detour
+            double cutoff = stats.cost() + detours[i] + 1e-6;
+            RouteStats newStats = evaluator.evaluateWithInsertion(route, positions[i], u, forward, cutoff);
+            if (newStats.cost() <= cutoff && newStats.cost() - newStats.distance() <= penaltyOld + 1e-6) {
+                return new InsertionResult(positions[i], detours[i], null, null);
+            }
+        }
+
+        // Battery may be the only problem: try a station next to u at the cheapest positions
+        List<Integer> stations = instance.getNearestStations().get(u);
+        if (stations == null) {
+            return null;
+        }
+        InsertionResult best = null;
+        for (int i = 0; i < Math.min(count, MAX_STATION_POSITIONS); i++) {
+            int pos = positions[i];
+            for (int s = 0; s < Math.min(MAX_STATIONS, stations.size()); s++) {
+                int st = stations.get(s);
+                RouteStats before = evaluator.evaluateWithDoubleInsertion(route, pos, st, u, forward,
+                        stationCutoff(best, stats));
+                best = keepCheaper(best, before, stats, penaltyOld, pos, st, null);
+                RouteStats after = evaluator.evaluateWithDoubleInsertion(route, pos, u, st, forward,
+                        stationCutoff(best, stats));
+                best = keepCheaper(best, after, stats, penaltyOld, pos, null, st);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Cost above which a station variant can no longer beat best without adding penalties
+     */
+    private double stationCutoff(InsertionResult best, RouteStats stats) {
+        return best == null ? Double.POSITIVE_INFINITY : stats.cost() + best.costIncrease() + 1e-6;
+    }
+
+    private InsertionResult keepCheaper(InsertionResult best, RouteStats newStats, RouteStats stats,
+                                        double penaltyOld, int pos, Integer stBefore, Integer stAfter) {
+        if (newStats.cost() - newStats.distance() > penaltyOld + 1e-6) {
+            return best;
+        }
+        double delta = newStats.distance() - stats.distance();
+        if (best == null || delta < best.costIncrease()) {
+            return new InsertionResult(pos, delta, stBefore, stAfter);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,113 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import tranhuy105.evrptw.util.Constants;
+
+/**
+ * Discounted Thompson sampling: each operator keeps a Beta(alpha, beta) posterior of its reward,
+ * every call adds its reward r to alpha and 1 - r to beta. The operator with the highest posterior
+ * sample is picked. At each segment end the evidence decays towards the Beta(1, 1) prior, so old
+ * results lose influence.
+ */
+public class ThompsonSelection implements SelectionPolicy {
+    private final double[] alpha;
+    private final double[] beta;
+    private final Random random;
+
+    public ThompsonSelection(int n, Random random) {
+        this.alpha = new double[n];
+        this.beta = new double[n];
+        this.random = random;
+        Arrays.fill(alpha, 1.0);
+        Arrays.fill(beta, 1.0);
+    }
+
+    @Override
+    public int select(double[] weights, boolean[] enabled) {
+        int best = -1;
+        double bestSample = -1.0;
+        for (int i = 0; i < alpha.length; i++) {
+            if (!enabled[i]) {
+                continue;
+            }
+            double x = sampleGamma(alpha[i]);
+            double sample = x / (x + sampleGamma(beta[i]));
+            if (sample > bestSample) {
+                bestSample = sample;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void onUse(int op) {
+        // A call counts as a failure until its reward arrives
+        beta[op] += 1.0;
+    }
+
+    @Override
+    public void onReward(int op, double reward) {
+        double r = Math.min(reward, beta[op] - 1.0);
+        alpha[op] += r;
+        beta[op] -= r;
+    }
+
+    @Override
+    public void endSegment() {
+        for (int i = 0; i < alpha.length; i++) {
+            alpha[i] = 1.0 + Constants.THOMPSON_DISCOUNT * (alpha[i] - 1.0);
+            beta[i] = 1.0 + Constants.THOMPSON_DISCOUNT * (beta[i] - 1.0);
+        }
+    }
+
+    /**
+     * Gamma(shape, 1) sample for shape >= 1 (Marsaglia and Tsang)
+     */
+    private double sampleGamma(double shape) {
+        double d = shape - 1.0 / 3.0;
+        double c = 1.0 / Math.sqrt(9.0 * d);
+        while (true) {
+            double x = gaussian();
+            double v = 1.0 + c * x;
+            if (v <= 0) {
+                continue;
+            }
+            v = v * v * v;
+            double u = random.nextDouble();
+            if (Math.log(u) < 0.5 * x * x + d - d * v + d * Math.log(v)) {
+                return d * v;
+            }
+        }
+    }
+
+    /**
+     * Standard normal sample (Box-Muller). Random.nextGaussian caches its second value outside
+     * the generator state, which checkpoints do not capture.
+     */
+    private double gaussian() {
+        double u = 1.0 - random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * random.nextDouble());
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        for (int i = 0; i < alpha.length; i++) {
+            out.writeDouble(alpha[i]);
+            out.writeDouble(beta[i]);
+        }
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        for (int i = 0; i < alpha.length; i++) {
+            alpha[i] = in.readDouble();
+            beta[i] = in.readDouble();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package tranhuy105.evrptw.algorithm;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import tranhuy105.evrptw.util.Constants;
+
+/**
+ * Threshold accepting: accept a candidate less than a threshold worse than the current one.
+ * The threshold starts at TA_START of the initial cost and falls linearly to zero over the
+ * iteration budget, or geometrically by SA_COOLING_RATE without a budget.
+ */
+public class ThresholdAcceptance implements AcceptanceCriterion {
+    private final int maxIterations;
+    private double start;
+    private double threshold;
+
+    public ThresholdAcceptance(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    @Override
+    public void start(double initialCost, double totalCost) {
+        start = initialCost * Constants.TA_START;
+        threshold = start;
+    }
+
+    @Override
+    public boolean accept(double candidateCost, double currentCost) {
+        return candidateCost - currentCost < threshold;
+    }
+
+    @Override
+    public void step(double currentCost) {
+        if (maxIterations < Integer.MAX_VALUE) {
+            threshold = Math.max(0.0, threshold - start / Math.max(1, maxIterations));
+        } else {
+            threshold *= Constants.SA_COOLING_RATE;
+        }
+    }
+
+    @Override
+    public void reheat() {
+        threshold = Math.max(threshold, start * 0.1);
+    }
+
+    @Override
+    public double level() {
+        return threshold;
+    }
+
+    @Override
+    public void writeState(DataOutput out) throws IOException {
+        out.writeDouble(start);
+        out.writeDouble(threshold);
+    }
+
+    @Override
+    public void readState(DataInput in) throws IOException {
+        start = in.readDouble();
+        threshold = in.readDouble();
+    }
+}
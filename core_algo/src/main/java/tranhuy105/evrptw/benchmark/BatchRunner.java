@@ -0,0 +1,247 @@
+package tranhuy105.evrptw.benchmark;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import tranhuy105.evrptw.algorithm.ALNS;
+import tranhuy105.evrptw.algorithm.SearchListener;
+import tranhuy105.evrptw.io.BestKnownSolutions;
+import tranhuy105.evrptw.io.InstanceReader;
+import tranhuy105.evrptw.model.ChargingMode;
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.util.Logger;
+
+/**
+ * Runs ALNS over a set of instances with several seeds, concurrently within a core budget.
+ * Runs are submitted to a dedicated ForkJoinPool, so the parallel streams used by the
+ * insertion operators also stay inside that pool instead of the shared common pool.
+ */
+public class BatchRunner {
+    private final int iterations;
+    private final double timeLimit;
+    private final int seeds;
+    private final long baseSeed;
+    private final int threads;
+    private ChargingMode chargingMode = ChargingMode.FULL_RECHARGE;
+    private double swapTime = 2.0;
+    private Consumer<ALNS> configurer = alns -> { };
+
+    /**
+     * Result of a single (instance, seed) run
+     */
+    public record RunResult(String instance, long seed, double cost, double distance, int vehicles,
+                            boolean feasible, double timeToBestSec, double totalSec, int iterations) {
+        public double iterationsPerSecond() {
+            return totalSec > 0 ? iterations / totalSec : 0.0;
+        }
+    }
+
+    /**
+     * Aggregated results over all seeds of one instance
+     */
+    public record InstanceSummary(String instance, int runs, int feasibleRuns,
+                                  double bestCost, double avgCost, double bestDistance, double avgDistance,
+                                  int bestVehicles, double avgVehicles, double avgTimeToBestSec,
+                                  double avgIterationsPerSecond, BestKnownSolutions.Entry bestKnown,
+                                  Double gapPercent) {
+    }
+
+    public BatchRunner(int iterations, double timeLimit, int seeds, long baseSeed, int threads) {
+        this.iterations = iterations;
+        this.timeLimit = timeLimit;
+        this.seeds = seeds;
+        this.baseSeed = baseSeed;
+        this.threads = threads;
+    }
+
+    public void setChargingMode(ChargingMode chargingMode, double swapTime) {
+        this.chargingMode = chargingMode;
+        this.swapTime = swapTime;
+    }
+
+    /**
+     * Apply extra solver settings (local search, route minimization, ...) to every run
+     */
+    public void setConfigurer(Consumer<ALNS> configurer) {
+        this.configurer = configurer;
+    }
+
+    /**
+     * Resolve a directory (all .txt files) or a glob such as data/c1*_21.txt to instance files
+     */
+    public static List<Path> resolveInstances(String dirOrGlob) throws IOException {
+        Path path = Path.of(dirOrGlob);
+        List<Path> files = new ArrayList<>();
+
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, "*.txt")) {
+                stream.forEach(files::add);
+            }
+        } else {
+            Path dir = path.getParent() != null ? path.getParent() : Path.of(".");
+            PathMatcher matcher = dir.getFileSystem().getPathMatcher("glob:" + path.getFileName());
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path file : stream) {
+                    if (Files.isRegularFile(file) && matcher.matches(file.getFileName())) {
+                        files.add(file);
+                    }
+                }
+            }
+        }
+
+        if (files.isEmpty()) {
+            throw new IOException("No instance files match: " + dirOrGlob);
+        }
+        files.sort(Comparator.comparing(Path::toString));
+        return files;
+    }
+
+    /**
+     * Run every instance with every seed and return per-run results (ordered by instance, seed)
+     */
+    public List<RunResult> run(List<Path> instanceFiles) throws IOException {
+        Logger.info(String.format("Batch: %d instances x %d seeds on %d threads",
+                instanceFiles.size(), seeds, threads));
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<Future<RunResult>> futures = new ArrayList<>();
+            for (Path file : instanceFiles) {
+                for (int s = 0; s < seeds; s++) {
+                    long seed = baseSeed + s;
+                    futures.add(pool.submit(() -> runOne(file, seed)));
+                }
+            }
+
+            List<RunResult> results = new ArrayList<>(futures.size());
+            for (Future<RunResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Batch interrupted", e);
+                } catch (ExecutionException e) {
+                    throw new IOException("Batch run failed: " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private RunResult runOne(Path file, long seed) throws IOException {
+        String name = instanceName(file);
+        Instance instance = new InstanceReader().read(file.toString());
+        instance.setChargingMode(chargingMode);
+        instance.setBatterySwapTime(swapTime);
+
+        RunTracker tracker = new RunTracker();
+        ALNS alns = new ALNS(instance, iterations, timeLimit, false);
+        configurer.accept(alns);
+        alns.setSeed(seed);
+        alns.addListener(tracker);
+
+        tracker.startNs = System.nanoTime();
+        Solution best = alns.solve();
+        double totalSec = (System.nanoTime() - tracker.startNs) / 1e9;
+
+        RunResult result = new RunResult(name, seed, best.getCost(), best.getTotalDistance(),
+                best.getRoutes().size(), best.isFeasible(), tracker.timeToBestSec, totalSec, tracker.iterations);
+        // Progress goes to stdout directly so it shows even when solver logging is muted
+        System.out.printf("[batch] %s seed=%d: dist=%.2f veh=%d feasible=%s (%.1fs)%n",
+                name, seed, result.distance(), result.vehicles(), result.feasible(), totalSec);
+        return result;
+    }
+
+    /**
+     * Aggregate per-run results by instance and compare against best known solutions
+     */
+    public static List<InstanceSummary> summarize(List<RunResult> results, BestKnownSolutions bestKnown) {
+        List<InstanceSummary> summaries = new ArrayList<>();
+        int i = 0;
+        while (i < results.size()) {
+            String name = results.get(i).instance();
+            int j = i;
+            while (j < results.size() && results.get(j).instance().equals(name)) {
+                j++;
+            }
+            summaries.add(summarizeInstance(results.subList(i, j), bestKnown));
+            i = j;
+        }
+        return summaries;
+    }
+
+    private static InstanceSummary summarizeInstance(List<RunResult> runs, BestKnownSolutions bestKnown) {
+        RunResult best = runs.get(0);
+        double sumCost = 0, sumDist = 0, sumVeh = 0, sumTtb = 0, sumIps = 0;
+        int feasibleRuns = 0;
+
+        for (RunResult run : runs) {
+            if (run.cost() < best.cost()) {
+                best = run;
+            }
+            sumCost += run.cost();
+            sumDist += run.distance();
+            sumVeh += run.vehicles();
+            sumTtb += run.timeToBestSec();
+            sumIps += run.iterationsPerSecond();
+            if (run.feasible()) {
+                feasibleRuns++;
+            }
+        }
+
+        int n = runs.size();
+        BestKnownSolutions.Entry bks = bestKnown != null ? bestKnown.get(best.instance()) : null;
+        Double gap = bks != null && best.feasible() && bks.distance() > 0
+                ? (best.distance() - bks.distance()) / bks.distance() * 100.0
+                : null;
+
+        return new InstanceSummary(best.instance(), n, feasibleRuns, best.cost(), sumCost / n,
+                best.distance(), sumDist / n, best.vehicles(), sumVeh / n, sumTtb / n, sumIps / n, bks, gap);
+    }
+
+    static String instanceName(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * Counts iterations and records when the last feasible improvement happened
+     */
+    private static class RunTracker implements SearchListener {
+        long startNs;
+        int iterations;
+        double timeToBestSec;
+
+        @Override
+        public void onIteration(int iteration, Solution current, Solution best, Solution bestFeasible,
+                                double temperature, boolean accepted) {
+            iterations++;
+        }
+
+        @Override
+        public void onNewBest(int iteration, Solution best, String removalOp, String insertionOp) {
+            if (best.isFeasible()) {
+                timeToBestSec = (System.nanoTime() - startNs) / 1e9;
+            }
+        }
+
+        @Override
+        public void onFirstFeasible(int iteration, Solution feasible) {
+            timeToBestSec = (System.nanoTime() - startNs) / 1e9;
+        }
+    }
+}
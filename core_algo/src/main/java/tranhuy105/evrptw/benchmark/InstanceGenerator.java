@@ -0,0 +1,216 @@
+package tranhuy105.evrptw.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import tranhuy105.evrptw.io.InstanceWriter;
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Node;
+import tranhuy105.evrptw.model.NodeType;
+
+/**
+ * Generates synthetic Schneider-style instances of any size on a 100x100 grid with the depot in the centre.
+ * Every customer is placed within half a battery range of the depot or a station, so the instance is
+ * solvable with respect to energy; time windows always allow a depot round trip with one full recharge.
+ */
+public class InstanceGenerator {
+    private static final double GRID = 100.0;
+    private static final double HORIZON = 1000.0;
+    private static final double SERVICE_TIME = 10.0;
+    private static final double REFUEL_RATE = 3.39;
+    private static final double MIN_TW_WIDTH = 30.0;
+    private static final double CLUSTER_SIGMA = 6.0;
+
+    /**
+     * Customer placement, as in Solomon's c/r/rc classes
+     */
+    public enum Distribution {
+        CLUSTERED, RANDOM, MIXED
+    }
+
+    /**
+     * Generator parameters.
+     *
+     * @param customers Number of customers
+     * @param distribution Customer placement
+     * @param timeWindowTightness 0 = whole horizon, 1 = narrowest windows
+     * @param stationDensity Stations per customer (0.2 gives 21 stations for 100 customers, like the _21 sets)
+     * @param batteryRange Distance a full battery covers (Q with consumption rate 1)
+     * @param seed Random seed
+     */
+    public record Config(int customers, Distribution distribution, double timeWindowTightness,
+                         double stationDensity, double batteryRange, long seed) {
+        public static Config defaults(int customers) {
+            return new Config(customers, Distribution.MIXED, 0.5, 0.2, 80.0, 1L);
+        }
+    }
+
+    private final Config config;
+    private final Random random;
+
+    public InstanceGenerator(Config config) {
+        this.config = config;
+        this.random = new Random(config.seed());
+    }
+
+    /**
+     * Generate a finalized instance
+     */
+    public Instance generate() {
+        Instance instance = new Instance();
+        instance.setBatteryCapacity(config.batteryRange());
+        instance.setCargoCapacity(200.0);
+        instance.setConsumptionRate(1.0);
+        instance.setRefuelRate(REFUEL_RATE);
+        instance.setVelocity(1.0);
+
+        double cx = GRID / 2, cy = GRID / 2;
+        instance.setDepot(new Node("D0", NodeType.DEPOT, cx, cy, 0.0, 0.0, HORIZON, 0.0));
+
+        // Stations on a jittered grid for even coverage, S0 at the depot as in the Schneider sets
+        List<double[]> stations = new ArrayList<>();
+        stations.add(new double[]{cx, cy});
+        int numStations = Math.max(1, (int) Math.round(config.stationDensity() * config.customers()));
+        int side = (int) Math.ceil(Math.sqrt(numStations));
+        double cell = GRID / side;
+        for (int k = 0; k < numStations; k++) {
+            double x = (k % side + 0.2 + 0.6 * random.nextDouble()) * cell;
+            double y = (k / side + 0.2 + 0.6 * random.nextDouble()) * cell;
+            stations.add(new double[]{x, y});
+        }
+
+        // Customers, each reachable from some station (or the depot) within half a battery
+        double reach = config.batteryRange() / 2 * 0.9;
+        double[][] centers = clusterCenters();
+        List<Node> customers = new ArrayList<>();
+        for (int c = 1; c <= config.customers(); c++) {
+            double[] p = placeCustomer(c, centers);
+            if (nearestDistance(stations, p) > reach) {
+                // Add a station part of the way towards the customer from the depot
+                double d = Math.hypot(p[0] - cx, p[1] - cy);
+                double t = Math.max(0.0, (d - reach * 0.5) / d);
+                stations.add(new double[]{cx + (p[0] - cx) * t, cy + (p[1] - cy) * t});
+            }
+            customers.add(createCustomer("C" + c, p, cx, cy));
+        }
+
+        for (int s = 0; s < stations.size(); s++) {
+            double[] p = stations.get(s);
+            instance.getStations().add(new Node("S" + s, NodeType.STATION, round(p[0]), round(p[1]),
+                    0.0, 0.0, HORIZON, 0.0));
+        }
+        instance.getCustomers().addAll(customers);
+        instance.finalizeInstance();
+        return instance;
+    }
+
+    private double[][] clusterCenters() {
+        int k = Math.max(3, config.customers() / 20);
+        double[][] centers = new double[k][];
+        for (int i = 0; i < k; i++) {
+            centers[i] = new double[]{10 + random.nextDouble() * (GRID - 20), 10 + random.nextDouble() * (GRID - 20)};
+        }
+        return centers;
+    }
+
+    private double[] placeCustomer(int index, double[][] centers) {
+        boolean clustered = switch (config.distribution()) {
+            case CLUSTERED -> true;
+            case RANDOM -> false;
+            case MIXED -> index % 2 == 0;
+        };
+
+        if (clustered) {
+            double[] c = centers[random.nextInt(centers.length)];
+            return new double[]{
+                    clamp(c[0] + random.nextGaussian() * CLUSTER_SIGMA),
+                    clamp(c[1] + random.nextGaussian() * CLUSTER_SIGMA)};
+        }
+        return new double[]{round(random.nextDouble() * GRID), round(random.nextDouble() * GRID)};
+    }
+
+    private Node createCustomer(String id, double[] p, double depotX, double depotY) {
+        double demand = 5 + random.nextInt(26);
+        double travel = Math.hypot(p[0] - depotX, p[1] - depotY);
+
+        // Window centre anywhere a round trip fits, including a full recharge when the
+        // trip exceeds the battery range; width shrinks with tightness
+        double chargeTime = 2 * travel > config.batteryRange() ? REFUEL_RATE * config.batteryRange() : 0.0;
+        double earliest = travel + (travel > config.batteryRange() ? chargeTime : 0.0);
+        double latest = HORIZON - travel - SERVICE_TIME - chargeTime;
+        double center = earliest + random.nextDouble() * (latest - earliest);
+        double width = MIN_TW_WIDTH + (1.0 - config.timeWindowTightness()) * (HORIZON / 2 - MIN_TW_WIDTH);
+        double ready = Math.max(0.0, center - width / 2);
+        double due = Math.min(latest, center + width / 2);
+
+        return new Node(id, NodeType.CUSTOMER, p[0], p[1], demand, Math.floor(ready), Math.ceil(due), SERVICE_TIME);
+    }
+
+    private static double nearestDistance(List<double[]> points, double[] p) {
+        double best = Double.MAX_VALUE;
+        for (double[] q : points) {
+            best = Math.min(best, Math.hypot(p[0] - q[0], p[1] - q[1]));
+        }
+        return best;
+    }
+
+    private static double clamp(double v) {
+        return round(Math.max(0.0, Math.min(GRID, v)));
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 10) / 10.0;
+    }
+
+    /**
+     * CLI: write one generated instance in Schneider format
+     */
+    public static void main(String[] args) {
+        Options options = new Options();
+        options.addOption(Option.builder("n").longOpt("customers").hasArg()
+                .desc("Number of customers (default: 100)").build());
+        options.addOption(Option.builder("d").longOpt("distribution").hasArg()
+                .desc("CLUSTERED, RANDOM or MIXED (default: MIXED)").build());
+        options.addOption(Option.builder().longOpt("tw-tightness").hasArg()
+                .desc("Time window tightness in [0, 1] (default: 0.5)").build());
+        options.addOption(Option.builder().longOpt("station-density").hasArg()
+                .desc("Stations per customer (default: 0.2)").build());
+        options.addOption(Option.builder().longOpt("battery-range").hasArg()
+                .desc("Battery capacity as travel distance (default: 80)").build());
+        options.addOption(Option.builder("s").longOpt("seed").hasArg()
+                .desc("Random seed (default: 1)").build());
+        options.addOption(Option.builder("o").longOpt("output").hasArg().required()
+                .desc("Output instance file").build());
+
+        try {
+            CommandLine cmd = new DefaultParser().parse(options, args);
+            Config config = new Config(
+                    Integer.parseInt(cmd.getOptionValue("customers", "100")),
+                    Distribution.valueOf(cmd.getOptionValue("distribution", "MIXED").toUpperCase()),
+                    Double.parseDouble(cmd.getOptionValue("tw-tightness", "0.5")),
+                    Double.parseDouble(cmd.getOptionValue("station-density", "0.2")),
+                    Double.parseDouble(cmd.getOptionValue("battery-range", "80")),
+                    Long.parseLong(cmd.getOptionValue("seed", "1")));
+
+            Instance instance = new InstanceGenerator(config).generate();
+            new InstanceWriter().write(instance, cmd.getOptionValue("output"));
+            System.out.printf("Generated %s: %d customers, %d stations%n", cmd.getOptionValue("output"),
+                    instance.getCustomers().size(), instance.getStations().size());
+        } catch (ParseException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            new HelpFormatter().printHelp("instance-generator -n <customers> -o <file> [options]", options);
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package tranhuy105.evrptw.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+import tranhuy105.evrptw.algorithm.ALNS;
+import tranhuy105.evrptw.algorithm.SearchListener;
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.util.LogLevel;
+import tranhuy105.evrptw.util.Logger;
+
+/**
+ * Runs ALNS on generated instances of increasing size with a fixed time budget per size and reports
+ * setup time (instance finalization), time to the first iteration (construction), iterations/sec and heap use.
+ */
+public class ScalingBenchmark {
+    private static final int[] DEFAULT_SIZES = {100, 250, 500, 1000, 2000, 5000};
+
+    /**
+     * Measurements for one instance size
+     */
+    public record Result(int customers, double finalizeSec, double constructionSec, int iterations,
+                         double iterationsPerSecond, int vehicles, double distance, boolean feasible,
+                         long heapAfterSetupMb, long peakHeapMb, String error) {
+    }
+
+    private final InstanceGenerator.Distribution distribution;
+    private final double timeLimit;
+    private final long seed;
+
+    public ScalingBenchmark(InstanceGenerator.Distribution distribution, double timeLimit, long seed) {
+        this.distribution = distribution;
+        this.timeLimit = timeLimit;
+        this.seed = seed;
+    }
+
+    /**
+     * Run all sizes in order; stops after the first size that runs out of memory
+     */
+    public List<Result> run(int[] sizes) {
+        List<Result> results = new ArrayList<>();
+        for (int size : sizes) {
+            Result result = runSize(size);
+            results.add(result);
+            System.out.println(format(result));
+            if (result.error() != null) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    private Result runSize(int customers) {
+        System.gc();
+        resetPeakUsage();
+
+        try {
+            InstanceGenerator.Config defaults = InstanceGenerator.Config.defaults(customers);
+            InstanceGenerator.Config config = new InstanceGenerator.Config(customers, distribution,
+                    defaults.timeWindowTightness(), defaults.stationDensity(), defaults.batteryRange(), seed);
+
+            long start = System.nanoTime();
+            Instance instance = new InstanceGenerator(config).generate();
+            double finalizeSec = (System.nanoTime() - start) / 1e9;
+
+            System.gc();
+            long heapAfterSetup = usedHeapMb();
+
+            IterationCounter counter = new IterationCounter();
+            ALNS alns = new ALNS(instance, Integer.MAX_VALUE, timeLimit, false);
+            alns.setSeed(seed);
+            alns.addListener(counter);
+
+            counter.startNs = System.nanoTime();
+            Solution best = alns.solve();
+            long endNs = System.nanoTime();
+
+            double constructionSec = counter.firstIterationNs > 0
+                    ? (counter.firstIterationNs - counter.startNs) / 1e9
+                    : (endNs - counter.startNs) / 1e9;
+            double searchSec = counter.firstIterationNs > 0 ? (endNs - counter.firstIterationNs) / 1e9 : 0.0;
+            double ips = searchSec > 0 ? counter.iterations / searchSec : 0.0;
+
+            return new Result(customers, finalizeSec, constructionSec, counter.iterations, ips,
+                    best.getRoutes().size(), best.getTotalDistance(), best.isFeasible(),
+                    heapAfterSetup, peakHeapMb(), null);
+        } catch (OutOfMemoryError e) {
+            return new Result(customers, 0, 0, 0, 0, 0, 0, false, 0, peakHeapMb(), "OutOfMemoryError");
+        }
+    }
+
+    private static void resetPeakUsage() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeapMb() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak / (1024 * 1024);
+    }
+
+    private static long usedHeapMb() {
+        Runtime rt = Runtime.getRuntime();
+        return (rt.totalMemory() - rt.freeMemory()) / (1024 * 1024);
+    }
+
+    static String header() {
+        return String.format("%8s %10s %10s %10s %10s %6s %10s %8s %10s %10s",
+                "n", "setup_s", "constr_s", "iters", "iter/s", "veh", "distance", "feasible", "heap_mb", "peak_mb");
+    }
+
+    static String format(Result r) {
+        if (r.error() != null) {
+            return String.format("%8d %s (peak heap %d MB)", r.customers(), r.error(), r.peakHeapMb());
+        }
+        return String.format(Locale.ROOT, "%8d %10.2f %10.2f %10d %10.1f %6d %10.1f %8s %10d %10d",
+                r.customers(), r.finalizeSec(), r.constructionSec(), r.iterations(), r.iterationsPerSecond(),
+                r.vehicles(), r.distance(), r.feasible(), r.heapAfterSetupMb(), r.peakHeapMb());
+    }
+
+    private static void writeCsv(List<Result> results, String filepath) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filepath))) {
+            writer.write("customers,setup_s,construction_s,iterations,iter_per_s,vehicles,distance,feasible,"
+                    + "heap_after_setup_mb,peak_heap_mb,error");
+            writer.newLine();
+            for (Result r : results) {
+                writer.write(String.format(Locale.ROOT, "%d,%.3f,%.3f,%d,%.2f,%d,%.3f,%s,%d,%d,%s",
+                        r.customers(), r.finalizeSec(), r.constructionSec(), r.iterations(),
+                        r.iterationsPerSecond(), r.vehicles(), r.distance(), r.feasible(),
+                        r.heapAfterSetupMb(), r.peakHeapMb(), r.error() != null ? r.error() : ""));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Counts iterations and records when the first one finished (end of construction)
+     */
+    private static class IterationCounter implements SearchListener {
+        long startNs;
+        long firstIterationNs;
+        int iterations;
+
+        @Override
+        public void onIteration(int iteration, Solution current, Solution best, Solution bestFeasible,
+                                double temperature, boolean accepted) {
+            if (iterations++ == 0) {
+                firstIterationNs = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * CLI: scaling report over a list of sizes
+     */
+    public static void main(String[] args) {
+        Options options = new Options();
+        options.addOption(Option.builder().longOpt("sizes").hasArg()
+                .desc("Comma-separated customer counts (default: 100,250,500,1000,2000,5000)").build());
+        options.addOption(Option.builder("t").longOpt("time").hasArg()
+                .desc("ALNS time budget per size in seconds (default: 30)").build());
+        options.addOption(Option.builder("d").longOpt("distribution").hasArg()
+                .desc("CLUSTERED, RANDOM or MIXED (default: MIXED)").build());
+        options.addOption(Option.builder("s").longOpt("seed").hasArg()
+                .desc("Random seed (default: 1)").build());
+        options.addOption(Option.builder("o").longOpt("output").hasArg()
+                .desc("Also write results to this CSV file").build());
+
+        try {
+            CommandLine cmd = new DefaultParser().parse(options, args);
+            int[] sizes = DEFAULT_SIZES;
+            if (cmd.hasOption("sizes")) {
+                String[] parts = cmd.getOptionValue("sizes").split(",");
+                sizes = new int[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    sizes[i] = Integer.parseInt(parts[i].trim());
+                }
+            }
+
+            Logger.setLevel(LogLevel.WARNING);
+            ScalingBenchmark benchmark = new ScalingBenchmark(
+                    InstanceGenerator.Distribution.valueOf(cmd.getOptionValue("distribution", "MIXED").toUpperCase()),
+                    Double.parseDouble(cmd.getOptionValue("time", "30")),
+                    Long.parseLong(cmd.getOptionValue("seed", "1")));
+
+            System.out.printf("Max heap: %d MB%n", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+            System.out.println(header());
+            List<Result> results = benchmark.run(sizes);
+
+            if (cmd.hasOption("output")) {
+                writeCsv(results, cmd.getOptionValue("output"));
+            }
+        } catch (ParseException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            new HelpFormatter().printHelp("scaling-benchmark [options]", options);
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package tranhuy105.evrptw.io;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import tranhuy105.evrptw.benchmark.BatchRunner.InstanceSummary;
+import tranhuy105.evrptw.benchmark.BatchRunner.RunResult;
+
+/**
+ * Writes batch benchmark results as CSV (per run and per instance) and JSON (per instance)
+ */
+public class BatchReportWriter {
+
+    /**
+     * Write batch_runs.csv, batch_summary.csv and batch_summary.json into outputDir
+     */
+    public void write(List<RunResult> runs, List<InstanceSummary> summaries, String outputDir) throws IOException {
+        Path dir = Path.of(outputDir);
+        Files.createDirectories(dir);
+
+        writeRunsCsv(runs, dir.resolve("batch_runs.csv"));
+        writeSummaryCsv(summaries, dir.resolve("batch_summary.csv"));
+        writeSummaryJson(summaries, dir.resolve("batch_summary.json"));
+    }
+
+    private void writeRunsCsv(List<RunResult> runs, Path path) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(path.toFile()))) {
+            writer.write("instance,seed,cost,distance,vehicles,feasible,time_to_best_s,total_s,iterations,iter_per_s");
+            writer.newLine();
+            for (RunResult r : runs) {
+                writer.write(String.format(Locale.ROOT, "%s,%d,%.6f,%.6f,%d,%s,%.3f,%.3f,%d,%.1f",
+                        r.instance(), r.seed(), r.cost(), r.distance(), r.vehicles(), r.feasible(),
+                        r.timeToBestSec(), r.totalSec(), r.iterations(), r.iterationsPerSecond()));
+                writer.newLine();
+            }
+        }
+    }
+
+    private void writeSummaryCsv(List<InstanceSummary> summaries, Path path) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(path.toFile()))) {
+            writer.write("instance,runs,feasible_runs,best_cost,avg_cost,best_distance,avg_distance,"
+                    + "best_vehicles,avg_vehicles,avg_time_to_best_s,avg_iter_per_s,bks_vehicles,bks_distance,gap_pct");
+            writer.newLine();
+            for (InstanceSummary s : summaries) {
+                writer.write(String.format(Locale.ROOT, "%s,%d,%d,%.6f,%.6f,%.6f,%.6f,%d,%.2f,%.3f,%.1f,%s,%s,%s",
+                        s.instance(), s.runs(), s.feasibleRuns(), s.bestCost(), s.avgCost(),
+                        s.bestDistance(), s.avgDistance(), s.bestVehicles(), s.avgVehicles(),
+                        s.avgTimeToBestSec(), s.avgIterationsPerSecond(),
+                        bksVehicles(s), bksDistance(s), s.gapPercent() != null
+                                ? String.format(Locale.ROOT, "%.3f", s.gapPercent()) : ""));
+                writer.newLine();
+            }
+        }
+    }
+
+    private void writeSummaryJson(List<InstanceSummary> summaries, Path path) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(path.toFile()))) {
+            writer.write("[");
+            writer.newLine();
+            for (int i = 0; i < summaries.size(); i++) {
+                InstanceSummary s = summaries.get(i);
+                writer.write(String.format(Locale.ROOT,
+                        "  {\"instance\": \"%s\", \"runs\": %d, \"feasibleRuns\": %d, "
+                        + "\"bestCost\": %.6f, \"avgCost\": %.6f, \"bestDistance\": %.6f, \"avgDistance\": %.6f, "
+                        + "\"bestVehicles\": %d, \"avgVehicles\": %.2f, \"avgTimeToBestSec\": %.3f, "
+                        + "\"avgIterationsPerSec\": %.1f, \"bksVehicles\": %s, \"bksDistance\": %s, \"gapPercent\": %s}%s",
+                        s.instance(), s.runs(), s.feasibleRuns(), s.bestCost(), s.avgCost(),
+                        s.bestDistance(), s.avgDistance(), s.bestVehicles(), s.avgVehicles(),
+                        s.avgTimeToBestSec(), s.avgIterationsPerSecond(),
+                        orNull(bksVehicles(s)), orNull(bksDistance(s)),
+                        s.gapPercent() != null ? String.format(Locale.ROOT, "%.3f", s.gapPercent()) : "null",
+                        i < summaries.size() - 1 ? "," : ""));
+                writer.newLine();
+            }
+            writer.write("]");
+            writer.newLine();
+        }
+    }
+
+    private static String bksVehicles(InstanceSummary s) {
+        return s.bestKnown() != null && s.bestKnown().vehicles() >= 0 ? String.valueOf(s.bestKnown().vehicles()) : "";
+    }
+
+    private static String bksDistance(InstanceSummary s) {
+        return s.bestKnown() != null ? String.format(Locale.ROOT, "%.6f", s.bestKnown().distance()) : "";
+    }
+
+    private static String orNull(String value) {
+        return value.isEmpty() ? "null" : value;
+    }
+}
@@ -0,0 +1,73 @@
+package tranhuy105.evrptw.io;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Best known solutions per instance, read from a plain text file.
+ * Format: one instance per line, "name distance" or "name vehicles distance";
+ * blank lines and lines starting with # are ignored. Names match instance file names without .txt.
+ */
+public class BestKnownSolutions {
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Best known result (vehicles = -1 when unknown)
+     */
+    public record Entry(int vehicles, double distance) {
+    }
+
+    /**
+     * Read best known solutions from file
+     *
+     * @throws IOException if file cannot be read or a line is malformed
+     */
+    public static BestKnownSolutions read(String filepath) throws IOException {
+        if (!Files.exists(Path.of(filepath))) {
+            throw new IOException("File not found: " + filepath);
+        }
+
+        BestKnownSolutions bks = new BestKnownSolutions();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filepath))) {
+            String line;
+            int lineNo = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] parts = line.split("[\\s,;]+");
+                try {
+                    if (parts.length == 2) {
+                        bks.entries.put(parts[0], new Entry(-1, Double.parseDouble(parts[1])));
+                    } else if (parts.length == 3) {
+                        bks.entries.put(parts[0], new Entry(Integer.parseInt(parts[1]), Double.parseDouble(parts[2])));
+                    } else {
+                        throw new IOException("Line " + lineNo + ": expected 'name [vehicles] distance'");
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IOException("Line " + lineNo + ": invalid number in '" + line + "'");
+                }
+            }
+        }
+        return bks;
+    }
+
+    /**
+     * Entry for an instance, or null if unknown
+     */
+    public Entry get(String instanceName) {
+        return entries.get(instanceName);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
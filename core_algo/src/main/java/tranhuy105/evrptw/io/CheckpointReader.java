@@ -0,0 +1,76 @@
+package tranhuy105.evrptw.io;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Solution;
+
+/**
+ * Reads binary checkpoints written by CheckpointWriter
+ */
+public class CheckpointReader {
+    private final Instance instance;
+
+    public CheckpointReader(Instance instance) {
+        this.instance = instance;
+    }
+
+    /**
+     * Open a checkpoint and validate its header. Caller closes the stream.
+     */
+    public DataInputStream open(String filepath) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Path.of(filepath))));
+        try {
+            int magic = in.readInt();
+            if (magic != CheckpointWriter.MAGIC) {
+                throw new IOException("Not a checkpoint file: " + filepath);
+            }
+            int version = in.readInt();
+            if (version != CheckpointWriter.VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version + " in " + filepath);
+            }
+            int numNodes = in.readInt();
+            if (numNodes != instance.getAllNodes().size()) {
+                throw new IOException("Checkpoint has " + numNodes + " nodes, instance has "
+                        + instance.getAllNodes().size());
+            }
+            return in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Read a solution written by CheckpointWriter.writeSolution
+     */
+    public Solution readSolution(DataInput in) throws IOException {
+        Solution solution = new Solution(instance);
+        solution.setCost(in.readDouble());
+        solution.setTotalDistance(in.readDouble());
+        solution.setTotalViolations(in.readDouble());
+
+        int numNodes = instance.getAllNodes().size();
+        int numRoutes = in.readInt();
+        for (int r = 0; r < numRoutes; r++) {
+            int len = in.readInt();
+            List<Integer> route = new ArrayList<>(len);
+            for (int i = 0; i < len; i++) {
+                int nodeId = in.readInt();
+                if (nodeId <= 0 || nodeId >= numNodes) {
+                    throw new IOException("Invalid node id in checkpoint: " + nodeId);
+                }
+                route.add(nodeId);
+            }
+            solution.getRoutes().add(route);
+        }
+        return solution;
+    }
+}
@@ -0,0 +1,104 @@
+package tranhuy105.evrptw.io;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.util.Logger;
+
+/**
+ * Writes binary checkpoints of the search state.
+ * The solver encodes a snapshot in memory; a single background thread writes it
+ * to a temp file and atomically moves it into place, so the search never waits on disk.
+ */
+public class CheckpointWriter implements AutoCloseable {
+    public static final int MAGIC = 0x45564350;  // "EVCP"
+    public static final int VERSION = 7;
+
+    private final Path path;
+    private final ExecutorService executor;
+
+    public CheckpointWriter(String filepath) {
+        this.path = Path.of(filepath);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Write file header: magic, version and node count (to reject checkpoints of other instances)
+     */
+    public static void writeHeader(DataOutput out, Instance instance) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(instance.getAllNodes().size());
+    }
+
+    /**
+     * Write routes and cached cost values of a solution
+     */
+    public static void writeSolution(DataOutput out, Solution solution) throws IOException {
+        out.writeDouble(solution.getCost());
+        out.writeDouble(solution.getTotalDistance());
+        out.writeDouble(solution.getTotalViolations());
+        out.writeInt(solution.getRoutes().size());
+        for (List<Integer> route : solution.getRoutes()) {
+            out.writeInt(route.size());
+            for (int nodeId : route) {
+                out.writeInt(nodeId);
+            }
+        }
+    }
+
+    /**
+     * Queue an encoded checkpoint for writing
+     */
+    public void submit(byte[] data) {
+        executor.execute(() -> writeFile(data));
+    }
+
+    private void writeFile(byte[] data) {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null && !Files.exists(parent)) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(tmp, data);
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Logger.debug("Checkpoint written: " + path + " (" + data.length + " bytes)");
+        } catch (IOException e) {
+            Logger.warning("Checkpoint write failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Wait for pending writes to finish
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                Logger.warning("Checkpoint writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
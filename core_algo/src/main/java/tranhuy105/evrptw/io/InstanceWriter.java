@@ -0,0 +1,54 @@
+package tranhuy105.evrptw.io;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Node;
+
+/**
+ * Writes instances in Schneider format (readable by InstanceReader and the verifier)
+ */
+public class InstanceWriter {
+
+    /**
+     * Write instance to file: depot, stations, customers, then vehicle parameters
+     */
+    public void write(Instance instance, String filepath) throws IOException {
+        Path path = Path.of(filepath);
+        Path parent = path.getParent();
+        if (parent != null && !Files.exists(parent)) {
+            Files.createDirectories(parent);
+        }
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filepath))) {
+            writer.write(String.format("%-10s %-10s %-10s %-10s %-10s %-10s %-10s %-10s%n",
+                    "StringID", "Type", "x", "y", "demand", "ReadyTime", "DueDate", "ServiceTime"));
+
+            writeNode(writer, instance.getDepot());
+            for (Node station : instance.getStations()) {
+                writeNode(writer, station);
+            }
+            for (Node customer : instance.getCustomers()) {
+                writeNode(writer, customer);
+            }
+
+            writer.newLine();
+            writer.write(String.format(Locale.ROOT, "Q Vehicle fuel tank capacity /%.2f/%n", instance.getBatteryCapacity()));
+            writer.write(String.format(Locale.ROOT, "C Vehicle load capacity /%.1f/%n", instance.getCargoCapacity()));
+            writer.write(String.format(Locale.ROOT, "r fuel consumption rate /%.1f/%n", instance.getConsumptionRate()));
+            writer.write(String.format(Locale.ROOT, "g inverse refueling rate /%.2f/%n", instance.getRefuelRate()));
+            writer.write(String.format(Locale.ROOT, "v average Velocity /%.1f/%n", instance.getVelocity()));
+        }
+    }
+
+    private void writeNode(BufferedWriter writer, Node node) throws IOException {
+        writer.write(String.format(Locale.ROOT, "%-10s %-10s %-10.1f %-10.1f %-10.1f %-10.1f %-10.1f %-10.1f%n",
+                node.getStringId(), node.getType().getCode(), node.getX(), node.getY(), node.getDemand(),
+                node.getReadyTime(), node.getDueTime(), node.getServiceTime()));
+    }
+}
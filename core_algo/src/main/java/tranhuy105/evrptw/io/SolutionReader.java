@@ -0,0 +1,113 @@
+package tranhuy105.evrptw.io;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import tranhuy105.evrptw.algorithm.RouteEvaluator;
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Node;
+import tranhuy105.evrptw.model.NodeType;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.util.Logger;
+
+/**
+ * Reads solutions in SolutionWriter format and validates them against an instance
+ */
+public class SolutionReader {
+    private final Instance instance;
+    private final Map<String, Integer> nodeIds = new HashMap<>();
+
+    public SolutionReader(Instance instance) {
+        this.instance = instance;
+        // Stations listed after customers, so a station sharing a string id never shadows a customer
+        for (Node node : instance.getAllNodes()) {
+            nodeIds.putIfAbsent(node.getStringId(), node.getId());
+        }
+    }
+
+    /**
+     * Read solution from file.
+     * Unknown and duplicate customers are dropped with a warning so a plan from a
+     * slightly different instance can still be used. Customers missing from the
+     * file are left unserved for the caller to insert.
+     *
+     * @param filepath Path to solution file
+     * @return Evaluated solution
+     * @throws IOException if file cannot be read or a route is malformed
+     */
+    public Solution read(String filepath) throws IOException {
+        Path path = Path.of(filepath);
+
+        if (!Files.exists(path)) {
+            throw new IOException("File not found: " + filepath);
+        }
+
+        String depotId = instance.getDepot().getStringId();
+        Solution solution = new Solution(instance);
+        Set<Integer> seen = new HashSet<>();
+        int lineNo = 0;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(filepath))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNo++;
+                line = line.trim();
+
+                // Skip empty lines and the total distance header
+                if (line.isEmpty() || (lineNo == 1 && isNumber(line))) {
+                    continue;
+                }
+
+                String[] parts = line.split("\\s+");
+                if (parts.length < 2 || !parts[0].equals(depotId) || !parts[parts.length - 1].equals(depotId)) {
+                    throw new IOException("Line " + lineNo + ": route must start and end at depot " + depotId);
+                }
+
+                List<Integer> route = new ArrayList<>();
+                for (int i = 1; i < parts.length - 1; i++) {
+                    Integer nodeId = nodeIds.get(parts[i]);
+                    if (nodeId == null) {
+                        Logger.warning("Line " + lineNo + ": unknown node " + parts[i] + ", skipped");
+                        continue;
+                    }
+
+                    NodeType type = instance.getAllNodes().get(nodeId).getType();
+                    if (type == NodeType.DEPOT) {
+                        throw new IOException("Line " + lineNo + ": depot inside route");
+                    }
+                    if (type == NodeType.CUSTOMER && !seen.add(nodeId)) {
+                        Logger.warning("Line " + lineNo + ": customer " + parts[i] + " visited twice, skipped");
+                        continue;
+                    }
+                    route.add(nodeId);
+                }
+
+                // Drop routes that lost all their customers
+                if (route.stream().anyMatch(id -> instance.getAllNodes().get(id).getType() == NodeType.CUSTOMER)) {
+                    solution.getRoutes().add(route);
+                }
+            }
+        }
+
+        new RouteEvaluator(instance).calculateTotalCost(solution);
+        return solution;
+    }
+
+    private static boolean isNumber(String s) {
+        try {
+            Double.parseDouble(s);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
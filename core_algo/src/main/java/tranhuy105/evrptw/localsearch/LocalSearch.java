@@ -0,0 +1,85 @@
+package tranhuy105.evrptw.localsearch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import tranhuy105.evrptw.algorithm.RouteEvaluator;
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Node;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.util.Constants;
+import tranhuy105.evrptw.util.Logger;
+
+/**
+ * First-improvement local search over granular neighborhoods.
+ * Never accepts a move that increases constraint violations, so feasible solutions stay feasible.
+ */
+public class LocalSearch {
+    private final RouteEvaluator evaluator;
+    private final LocalSearchContext context;
+    private final Map<String, LocalSearchOperator> operators;
+    private final List<Integer> customers = new ArrayList<>();
+    private final Random random;
+
+    public LocalSearch(Instance instance, RouteEvaluator evaluator, Random random) {
+        this.evaluator = evaluator;
+        this.random = random;
+        this.context = new LocalSearchContext(instance, evaluator, Constants.LS_NEIGHBORS);
+
+        this.operators = new LinkedHashMap<>();
+        operators.put("relocate", new Relocate());
+        operators.put("exchange", new Exchange());
+        operators.put("2opt", new TwoOpt());
+        operators.put("2opt_star", new TwoOptStar());
+        operators.put("or_opt", new OrOpt());
+
+        for (Node customer : instance.getCustomers()) {
+            customers.add(customer.getId());
+        }
+    }
+
+    /**
+     * Improve solution in place until no move improves it (or pass limit reached)
+     *
+     * @return Number of moves applied
+     */
+    public int improve(Solution solution) {
+        context.load(solution);
+        // Shuffle from a fixed order, so the visiting order depends only on the random stream
+        // (and is restored exactly when resuming from a checkpoint)
+        Collections.sort(customers);
+
+        int moves = 0;
+        boolean improved = true;
+        int pass = 0;
+
+        while (improved && pass < Constants.LS_MAX_PASSES) {
+            improved = false;
+            pass++;
+            Collections.shuffle(customers, random);
+
+            for (int customerId : customers) {
+                for (LocalSearchOperator op : operators.values()) {
+                    if (op.apply(context, customerId)) {
+                        improved = true;
+                        moves++;
+                    }
+                }
+            }
+        }
+
+        if (moves > 0) {
+            // Moves edit the route lists directly
+            solution.invalidateIndex();
+        }
+        evaluator.calculateTotalCost(solution);
+        int totalMoves = moves;
+        int totalPasses = pass;
+        Logger.debug(() -> "Local search: " + totalMoves + " moves in " + totalPasses + " passes");
+        return moves;
+    }
+}
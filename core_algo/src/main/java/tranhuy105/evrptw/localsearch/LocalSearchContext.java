@@ -0,0 +1,264 @@
+package tranhuy105.evrptw.localsearch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import tranhuy105.evrptw.algorithm.RouteEvaluator;
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Node;
+import tranhuy105.evrptw.model.NodeType;
+import tranhuy105.evrptw.model.RouteStats;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.util.Constants;
+
+/**
+ * Shared state for local search: customer positions, granular neighbor lists
+ * and cached forward states of every route.
+ */
+public class LocalSearchContext {
+    private static final double EPSILON = 1e-6;
+
+    private final RouteEvaluator evaluator;
+    private final boolean[] isCustomer;
+    private final int[][] neighbors;
+
+    private Solution solution;
+    private final List<double[][]> forwardStates = new ArrayList<>();
+    private final List<RouteStats> routeStats = new ArrayList<>();
+    private final int[] routeOf;
+    private final int[] posOf;
+
+    private int[] firstBuffer = new int[16];
+    private int[] secondBuffer = new int[16];
+
+    public LocalSearchContext(Instance instance, RouteEvaluator evaluator, int numNeighbors) {
+        this.evaluator = evaluator;
+
+        List<Node> allNodes = instance.getAllNodes();
+        int size = allNodes.size();
+        this.isCustomer = new boolean[size];
+        for (Node node : allNodes) {
+            isCustomer[node.getId()] = node.getType() == NodeType.CUSTOMER;
+        }
+        this.routeOf = new int[size];
+        this.posOf = new int[size];
+        this.neighbors = buildNeighbors(instance, numNeighbors);
+    }
+
+    /**
+     * Nearest customers of every customer by distance (granular neighborhood)
+     */
+    private static int[][] buildNeighbors(Instance instance, int numNeighbors) {
+        double[][] dist = instance.getDistanceMatrix();
+        List<Node> customers = instance.getCustomers();
+        int n = customers.size();
+        int k = Math.min(numNeighbors, n - 1);
+        int[][] result = new int[instance.getAllNodes().size()][];
+
+        Integer[] candidates = new Integer[n];
+        for (Node customer : customers) {
+            int id = customer.getId();
+            for (int i = 0; i < n; i++) {
+                candidates[i] = customers.get(i).getId();
+            }
+            Arrays.sort(candidates, (a, b) -> Double.compare(dist[id][a], dist[id][b]));
+
+            int[] list = new int[Math.max(0, k)];
+            int count = 0;
+            for (int i = 0; i < n && count < k; i++) {
+                if (candidates[i] != id) {
+                    list[count++] = candidates[i];
+                }
+            }
+            result[id] = list;
+        }
+        return result;
+    }
+
+    /**
+     * Attach a solution and compute route caches
+     */
+    public void load(Solution solution) {
+        this.solution = solution;
+        forwardStates.clear();
+        routeStats.clear();
+        List<List<Integer>> routes = solution.getRoutes();
+        for (int r = 0; r < routes.size(); r++) {
+            forwardStates.add(null);
+            routeStats.add(null);
+            refresh(r);
+        }
+    }
+
+    private void refresh(int r) {
+        List<Integer> route = solution.getRoutes().get(r);
+        forwardStates.set(r, evaluator.getForwardStates(route));
+        routeStats.set(r, evaluator.evaluate(route));
+        for (int k = 0; k < route.size(); k++) {
+            int nodeId = route.get(k);
+            if (isCustomer[nodeId]) {
+                routeOf[nodeId] = r;
+                posOf[nodeId] = k;
+            }
+        }
+    }
+
+    public boolean isCustomer(int nodeId) {
+        return isCustomer[nodeId];
+    }
+
+    public int[] getNeighbors(int customerId) {
+        return neighbors[customerId];
+    }
+
+    public int routeOf(int customerId) {
+        return routeOf[customerId];
+    }
+
+    public int posOf(int customerId) {
+        return posOf[customerId];
+    }
+
+    public List<Integer> getRoute(int r) {
+        return solution.getRoutes().get(r);
+    }
+
+    /**
+     * Scratch buffer for the first route of a move
+     */
+    public int[] firstBuffer(int minSize) {
+        if (firstBuffer.length < minSize) {
+            firstBuffer = new int[Math.max(minSize, firstBuffer.length * 2)];
+        }
+        return firstBuffer;
+    }
+
+    /**
+     * Scratch buffer for the second route of a move
+     */
+    public int[] secondBuffer(int minSize) {
+        if (secondBuffer.length < minSize) {
+            secondBuffer = new int[Math.max(minSize, secondBuffer.length * 2)];
+        }
+        return secondBuffer;
+    }
+
+    /**
+     * Replace route r by seq[0..len) if that lowers the cost without adding violations
+     */
+    public boolean tryCommit(int r, int[] seq, int len) {
+        List<Integer> route = getRoute(r);
+        int prefix = commonPrefix(route, seq, len);
+        if (prefix == len && len == route.size()) {
+            return false;
+        }
+
+        RouteStats oldStats = routeStats.get(r);
+        double oldCost = routeCost(oldStats, true);
+        double oldViol = violations(oldStats);
+
+        RouteStats newStats = evaluator.evaluateWithTail(route, prefix, forwardStates.get(r), seq, prefix, len);
+        boolean used = hasCustomer(seq, len);
+        double newCost = routeCost(newStats, used);
+        double newViol = used ? violations(newStats) : 0.0;
+
+        if (newCost >= oldCost - EPSILON || newViol > oldViol + EPSILON) {
+            return false;
+        }
+
+        apply(r, prefix, seq, len);
+        if (!used) {
+            removeRoute(r);
+        }
+        return true;
+    }
+
+    /**
+     * Replace routes r1 and r2 together if that lowers the cost without adding violations
+     */
+    public boolean tryCommit(int r1, int[] seq1, int len1, int r2, int[] seq2, int len2) {
+        List<Integer> route1 = getRoute(r1);
+        List<Integer> route2 = getRoute(r2);
+        int prefix1 = commonPrefix(route1, seq1, len1);
+        int prefix2 = commonPrefix(route2, seq2, len2);
+
+        RouteStats old1 = routeStats.get(r1);
+        RouteStats old2 = routeStats.get(r2);
+        double oldCost = routeCost(old1, true) + routeCost(old2, true);
+        double oldViol = violations(old1) + violations(old2);
+
+        RouteStats new1 = evaluator.evaluateWithTail(route1, prefix1, forwardStates.get(r1), seq1, prefix1, len1);
+        boolean used1 = hasCustomer(seq1, len1);
+        double newCost = routeCost(new1, used1);
+        if (newCost >= oldCost - EPSILON) {
+            return false;
+        }
+
+        RouteStats new2 = evaluator.evaluateWithTail(route2, prefix2, forwardStates.get(r2), seq2, prefix2, len2);
+        boolean used2 = hasCustomer(seq2, len2);
+        newCost += routeCost(new2, used2);
+        double newViol = (used1 ? violations(new1) : 0.0) + (used2 ? violations(new2) : 0.0);
+
+        if (newCost >= oldCost - EPSILON || newViol > oldViol + EPSILON) {
+            return false;
+        }
+
+        apply(r1, prefix1, seq1, len1);
+        apply(r2, prefix2, seq2, len2);
+        if (!used1 || !used2) {
+            // Remove higher index first so the other index stays valid
+            if (!used1 && !used2) {
+                removeRoute(Math.max(r1, r2));
+                removeRoute(Math.min(r1, r2));
+            } else {
+                removeRoute(used1 ? r2 : r1);
+            }
+        }
+        return true;
+    }
+
+    private void apply(int r, int prefix, int[] seq, int len) {
+        List<Integer> route = getRoute(r);
+        route.subList(prefix, route.size()).clear();
+        for (int i = prefix; i < len; i++) {
+            route.add(seq[i]);
+        }
+        refresh(r);
+    }
+
+    private void removeRoute(int r) {
+        solution.getRoutes().remove(r);
+        forwardStates.remove(r);
+        routeStats.remove(r);
+        for (int i = r; i < solution.getRoutes().size(); i++) {
+            refresh(i);
+        }
+    }
+
+    private static int commonPrefix(List<Integer> route, int[] seq, int len) {
+        int limit = Math.min(route.size(), len);
+        int i = 0;
+        while (i < limit && route.get(i) == seq[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private boolean hasCustomer(int[] seq, int len) {
+        for (int i = 0; i < len; i++) {
+            if (isCustomer[seq[i]]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double routeCost(RouteStats stats, boolean used) {
+        return used ? stats.cost() + Constants.PENALTY_VEHICLE : 0.0;
+    }
+
+    private static double violations(RouteStats stats) {
+        return stats.capacityViolation() + stats.timeViolation() + stats.batteryViolation();
+    }
+}
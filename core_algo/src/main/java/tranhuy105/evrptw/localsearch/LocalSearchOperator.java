@@ -0,0 +1,16 @@
+package tranhuy105.evrptw.localsearch;
+
+/**
+ * Interface for local search moves
+ */
+@FunctionalInterface
+public interface LocalSearchOperator {
+    /**
+     * Try moves around a customer and apply the first improving one
+     *
+     * @param context Search context holding the current solution and cached route states
+     * @param customerId Customer the moves are centered on
+     * @return true if an improving move was applied
+     */
+    boolean apply(LocalSearchContext context, int customerId);
+}
@@ -0,0 +1,22 @@
+package tranhuy105.evrptw.localsearch;
+
+/**
+ * Or-opt: move a chain of 2-3 consecutive nodes after a neighbor, forward or reversed
+ */
+public class OrOpt extends SegmentMove {
+    private static final int MIN_LENGTH = 2;
+    private static final int MAX_LENGTH = 3;
+
+    @Override
+    public boolean apply(LocalSearchContext context, int customerId) {
+        for (int len = MIN_LENGTH; len <= MAX_LENGTH; len++) {
+            for (int v : context.getNeighbors(customerId)) {
+                if (moveSegment(context, customerId, len, v, false, false) ||
+                    moveSegment(context, customerId, len, v, false, true)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
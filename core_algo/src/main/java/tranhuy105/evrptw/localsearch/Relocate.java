@@ -0,0 +1,18 @@
+package tranhuy105.evrptw.localsearch;
+
+/**
+ * Relocate: move a single customer next to one of its neighbors
+ */
+public class Relocate extends SegmentMove {
+
+    @Override
+    public boolean apply(LocalSearchContext context, int customerId) {
+        for (int v : context.getNeighbors(customerId)) {
+            if (moveSegment(context, customerId, 1, v, false, false) ||
+                moveSegment(context, customerId, 1, v, true, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
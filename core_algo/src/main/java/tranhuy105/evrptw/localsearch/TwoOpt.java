@@ -0,0 +1,44 @@
+package tranhuy105.evrptw.localsearch;
+
+import java.util.List;
+
+/**
+ * 2-opt: reverse the part of a route between a customer and a neighbor so they become adjacent
+ */
+public class TwoOpt implements LocalSearchOperator {
+
+    @Override
+    public boolean apply(LocalSearchContext context, int customerId) {
+        int ru = context.routeOf(customerId);
+
+        for (int v : context.getNeighbors(customerId)) {
+            if (context.routeOf(v) != ru) {
+                continue;
+            }
+            int pu = context.posOf(customerId);
+            int pv = context.posOf(v);
+            if (Math.abs(pu - pv) < 2) {
+                continue;
+            }
+
+            // Reverse (first, last] so route[first] is followed by route[last]
+            int first = Math.min(pu, pv);
+            int last = Math.max(pu, pv);
+            List<Integer> route = context.getRoute(ru);
+            int[] seq = context.firstBuffer(route.size());
+            for (int k = 0; k < route.size(); k++) {
+                seq[k] = route.get(k);
+            }
+            for (int a = first + 1, b = last; a < b; a++, b--) {
+                int tmp = seq[a];
+                seq[a] = seq[b];
+                seq[b] = tmp;
+            }
+
+            if (context.tryCommit(ru, seq, route.size())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,6 +1,8 @@
 package tranhuy105.evrptw.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -10,6 +12,11 @@ import java.util.Map;
  * Represents an EVRPTW problem instance with all nodes, parameters, and precomputed data
  */
 public class Instance {
+    // Codes stored in getNodeTypes()
+    public static final byte TYPE_DEPOT = 0;
+    public static final byte TYPE_CUSTOMER = 1;
+    public static final byte TYPE_STATION = 2;
+
     private Node depot;
     private final List<Node> customers = new ArrayList<>();
     private final List<Node> stations = new ArrayList<>();
@@ -29,10 +36,21 @@ public class Instance {
     private double[][] travelTimeMatrix;
     private double[][] energyMatrix;
 
+    // Node attributes indexed by id (parallel to allNodes) for hot loops
+    private double[] readyTimes;
+    private double[] dueTimes;
+    private double[] demands;
+    private double[] serviceTimes;
+    private byte[] nodeTypes;
+
     // Precomputed nearest stations (top 5 per node)
     private final Map<Integer, List<Integer>> nearestStations = new HashMap<>();
     private double maxReachableDistance;
 
+    // Lower bounds on the number of vehicles (computed at finalization)
+    private int binPackingLowerBound;
+    private int timeWindowLowerBound;
+
     public Node getDepot() {
         return depot;
     }
@@ -121,6 +139,37 @@ public class Instance {
         return energyMatrix;
     }
 
+    public double[] getReadyTimes() {
+        return readyTimes;
+    }
+
+    public double[] getDueTimes() {
+        return dueTimes;
+    }
+
+    public double[] getDemands() {
+        return demands;
+    }
+
+    public double[] getServiceTimes() {
+        return serviceTimes;
+    }
+
+    /**
+     * Node type codes by id: TYPE_DEPOT, TYPE_CUSTOMER or TYPE_STATION
+     */
+    public byte[] getNodeTypes() {
+        return nodeTypes;
+    }
+
+    public boolean isCustomer(int nodeId) {
+        return nodeTypes[nodeId] == TYPE_CUSTOMER;
+    }
+
+    public boolean isStation(int nodeId) {
+        return nodeTypes[nodeId] == TYPE_STATION;
+    }
+
     public Map<Integer, List<Integer>> getNearestStations() {
         return nearestStations;
     }
@@ -129,6 +178,27 @@ public class Instance {
         return maxReachableDistance;
     }
 
+    /**
+     * Bin-packing bound: ceil(total demand / cargo capacity)
+     */
+    public int getBinPackingLowerBound() {
+        return binPackingLowerBound;
+    }
+
+    /**
+     * Size of a clique in the customer conflict graph (pairs that can never share a route)
+     */
+    public int getTimeWindowLowerBound() {
+        return timeWindowLowerBound;
+    }
+
+    /**
+     * Minimum number of vehicles any feasible solution needs
+     */
+    public int getVehicleLowerBound() {
+        return Math.max(1, Math.max(binPackingLowerBound, timeWindowLowerBound));
+    }
+
     /**
      * Calculate Euclidean distance between two nodes
      */
@@ -160,6 +230,25 @@ public class Instance {
 
         int size = allNodes.size();
 
+        // Flatten node attributes
+        readyTimes = new double[size];
+        dueTimes = new double[size];
+        demands = new double[size];
+        serviceTimes = new double[size];
+        nodeTypes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            Node node = allNodes.get(i);
+            readyTimes[i] = node.getReadyTime();
+            dueTimes[i] = node.getDueTime();
+            demands[i] = node.getDemand();
+            serviceTimes[i] = node.getServiceTime();
+            nodeTypes[i] = switch (node.getType()) {
+                case DEPOT -> TYPE_DEPOT;
+                case CUSTOMER -> TYPE_CUSTOMER;
+                case STATION -> TYPE_STATION;
+            };
+        }
+
         // Precompute distance matrix
         distanceMatrix = new double[size][size];
         for (int i = 0; i < size; i++) {
@@ -201,6 +290,123 @@ public class Instance {
             sorted.sort(Comparator.comparingDouble(s -> distanceMatrix[nodeId][s]));
             nearestStations.put(i, sorted.subList(0, Math.min(5, sorted.size())));
         }
+
+        computeVehicleLowerBounds();
+    }
+
+    /**
+     * Compute bin-packing and conflict-clique lower bounds on the fleet size.
+     * Charging detours only add distance and time, so ignoring stations keeps both bounds valid.
+     */
+    private void computeVehicleLowerBounds() {
+        int n = customers.size();
+
+        double totalDemand = 0.0;
+        for (Node customer : customers) {
+            totalDemand += customer.getDemand();
+        }
+        binPackingLowerBound = (int) Math.ceil(totalDemand / cargoCapacity - 1e-9);
+
+        // Conflict graph as bitsets: customers i and j conflict if no route can serve both
+        int words = (n + 63) >>> 6;
+        long[][] conflicts = new long[n][words];
+        int[] degree = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (isConflict(customers.get(i), customers.get(j))) {
+                    conflicts[i][j >>> 6] |= 1L << j;
+                    conflicts[j][i >>> 6] |= 1L << i;
+                    degree[i]++;
+                    degree[j]++;
+                }
+            }
+        }
+
+        // Greedy cliques seeded from the highest-degree customers
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(degree[b], degree[a]));
+
+        int best = n > 0 ? 1 : 0;
+        int numSeeds = Math.min(n, 20);
+        for (int s = 0; s < numSeeds; s++) {
+            int seed = order[s];
+            if (degree[seed] + 1 <= best) {
+                break;  // Remaining seeds cannot beat the current clique
+            }
+            long[] candidates = conflicts[seed].clone();
+            int size = 1;
+            for (int k = 0; k < n; k++) {
+                int v = order[k];
+                if ((candidates[v >>> 6] & (1L << v)) != 0) {
+                    size++;
+                    long[] adj = conflicts[v];
+                    for (int w = 0; w < words; w++) {
+                        candidates[w] &= adj[w];
+                    }
+                }
+            }
+            best = Math.max(best, size);
+        }
+        timeWindowLowerBound = best;
+    }
+
+    /**
+     * Two customers conflict when their joint demand exceeds capacity,
+     * or neither visiting order fits inside the time windows
+     */
+    private boolean isConflict(Node a, Node b) {
+        if (a.getDemand() + b.getDemand() > cargoCapacity + 1e-9) {
+            return true;
+        }
+        return !canPrecede(a, b) && !canPrecede(b, a);
+    }
+
+    /**
+     * Check whether a route can visit 'first' directly followed by 'second'
+     */
+    private boolean canPrecede(Node first, Node second) {
+        int f = first.getId();
+        int s = second.getId();
+        double startFirst = Math.max(first.getReadyTime(), travelTimeMatrix[0][f]);
+        double startSecond = Math.max(second.getReadyTime(),
+                startFirst + first.getServiceTime() + travelTimeMatrix[f][s]);
+        if (startSecond > second.getDueTime() + 1e-9) {
+            return false;
+        }
+        return startSecond + second.getServiceTime() + travelTimeMatrix[s][0] <= depot.getDueTime() + 1e-9;
+    }
+
+    /**
+     * Build a finalized instance over a subset of customers and stations (same depot and vehicle).
+     * Node IDs are reassigned; the returned SubInstance maps them back to this instance.
+     */
+    public SubInstance subInstance(Collection<Integer> customerIds, Collection<Integer> stationIds) {
+        Instance sub = new Instance();
+        sub.batteryCapacity = batteryCapacity;
+        sub.cargoCapacity = cargoCapacity;
+        sub.consumptionRate = consumptionRate;
+        sub.refuelRate = refuelRate;
+        sub.velocity = velocity;
+        sub.chargingMode = chargingMode;
+        sub.batterySwapTime = batterySwapTime;
+
+        int[] toParent = new int[1 + customerIds.size() + stationIds.size()];
+        int next = 1;
+        sub.setDepot(depot.copy());
+        for (int id : customerIds) {
+            sub.customers.add(allNodes.get(id).copy());
+            toParent[next++] = id;
+        }
+        for (int id : stationIds) {
+            sub.stations.add(allNodes.get(id).copy());
+            toParent[next++] = id;
+        }
+        sub.finalizeInstance();
+
+        return new SubInstance(sub, this, toParent);
     }
 
     /**
@@ -67,6 +67,13 @@ public class Node {
         return serviceTime;
     }
 
+    /**
+     * Copy without the numeric ID (for sub-instances, which assign their own IDs)
+     */
+    public Node copy() {
+        return new Node(stringId, type, x, y, demand, readyTime, dueTime, serviceTime);
+    }
+
     @Override
     public String toString() {
         return String.format("%s[%s](%s)", type, stringId, id);
@@ -1,6 +1,7 @@
 package tranhuy105.evrptw.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -13,6 +14,16 @@ public class Solution {
     private double totalDistance;
     private double totalViolations;
 
+    // Customer index by node id: route, position and slot in the served list, -1 when unserved.
+    // Built on first use and kept current by the mutators below. Code that edits getRoutes()
+    // directly must call reindexRoute (the route kept its customers) or invalidateIndex.
+    private int[] routeOf;
+    private int[] posOf;
+    private int[] slotOf;
+    private int[] served;  // Served customers in no particular order
+    private int servedCount;
+    private boolean indexValid;
+
     public Solution(Instance instance) {
         this.instance = instance;
         this.routes = new ArrayList<>();
@@ -31,6 +42,7 @@ public class Solution {
 
     public void setRoutes(List<List<Integer>> routes) {
         this.routes = routes;
+        this.indexValid = false;
     }
 
     public double getCost() {
@@ -72,6 +84,40 @@ public class Solution {
         newSol.cost = cost;
         newSol.totalDistance = totalDistance;
         newSol.totalViolations = totalViolations;
+        if (indexValid) {
+            newSol.routeOf = routeOf.clone();
+            newSol.posOf = posOf.clone();
+            newSol.slotOf = slotOf.clone();
+            newSol.served = served.clone();
+            newSol.servedCount = servedCount;
+            newSol.indexValid = true;
+        }
+        return newSol;
+    }
+
+    /**
+     * Copy this solution onto another instance of the same nodes, translating node IDs.
+     * Distances are unchanged, so cost, distance and violations are copied as is.
+     *
+     * @param idMap New ID for each node ID of this solution's instance
+     */
+    public Solution remap(Instance target, int[] idMap) {
+        Solution newSol = new Solution(target);
+        newSol.routes = new ArrayList<>(routes.size());
+        for (List<Integer> route : routes) {
+            List<Integer> mapped = new ArrayList<>(route.size());
+            for (int nodeId : route) {
+                int newId = idMap[nodeId];
+                if (newId < 0) {
+                    throw new IllegalArgumentException("Node " + nodeId + " has no ID in the target instance");
+                }
+                mapped.add(newId);
+            }
+            newSol.routes.add(mapped);
+        }
+        newSol.cost = cost;
+        newSol.totalDistance = totalDistance;
+        newSol.totalViolations = totalViolations;
         return newSol;
     }
 
@@ -91,7 +137,7 @@ public class Solution {
             List<Integer> route = routes.get(rIdx);
             for (int pos = 0; pos < route.size(); pos++) {
                 int nodeId = route.get(pos);
-                if (instance.getAllNodes().get(nodeId).getType() == NodeType.CUSTOMER) {
+                if (instance.isCustomer(nodeId)) {
                     result.add(new CustomerPosition(rIdx, pos, nodeId));
                 }
             }
@@ -99,6 +145,204 @@ public class Solution {
         return result;
     }
 
+    /**
+     * Route index of a customer, or -1 if it is not in any route
+     */
+    public int routeOf(int customerId) {
+        locate(customerId);
+        return routeOf[customerId];
+    }
+
+    /**
+     * Position of a customer within its route, or -1 if it is not in any route
+     */
+    public int positionOf(int customerId) {
+        locate(customerId);
+        return posOf[customerId];
+    }
+
+    /**
+     * Number of customers served by the routes
+     */
+    public int servedCount() {
+        ensureIndex();
+        return servedCount;
+    }
+
+    /**
+     * Served customer at a slot in [0, servedCount()); slots are unordered and change on removal
+     */
+    public int servedCustomer(int slot) {
+        ensureIndex();
+        return served[slot];
+    }
+
+    /**
+     * Append a route and index its customers
+     */
+    public void addRoute(List<Integer> route) {
+        routes.add(route);
+        if (indexValid) {
+            addServed(route, 0, route.size());
+            reindex(routes.size() - 1, 0);
+        }
+    }
+
+    /**
+     * Insert nodes into a route at a position, shifting the index of the nodes after them
+     */
+    public void insert(int routeIdx, int pos, List<Integer> nodes) {
+        List<Integer> route = routes.get(routeIdx);
+        route.addAll(pos, nodes);
+        if (indexValid) {
+            addServed(route, pos, pos + nodes.size());
+            reindex(routeIdx, pos);
+        }
+    }
+
+    /**
+     * Remove the node at a position of a route and return its id
+     */
+    public int removeAt(int routeIdx, int pos) {
+        int nodeId = routes.get(routeIdx).remove(pos);
+        if (indexValid) {
+            if (instance.isCustomer(nodeId)) {
+                removeServed(nodeId);
+            }
+            reindex(routeIdx, pos);
+        }
+        return nodeId;
+    }
+
+    /**
+     * Remove a whole route and return it; later routes move down one index
+     */
+    public List<Integer> removeRoute(int routeIdx) {
+        List<Integer> route = routes.remove(routeIdx);
+        if (indexValid) {
+            for (int nodeId : route) {
+                if (instance.isCustomer(nodeId)) {
+                    removeServed(nodeId);
+                }
+            }
+            for (int r = routeIdx; r < routes.size(); r++) {
+                reindex(r, 0);
+            }
+        }
+        return route;
+    }
+
+    /**
+     * Drop empty routes, reindexing only the routes after the first one dropped
+     */
+    public void removeEmptyRoutes() {
+        int first = 0;
+        while (first < routes.size() && !routes.get(first).isEmpty()) {
+            first++;
+        }
+        if (first == routes.size()) {
+            return;
+        }
+        routes.removeIf(List::isEmpty);
+        if (indexValid) {
+            for (int r = first; r < routes.size(); r++) {
+                reindex(r, 0);
+            }
+        }
+    }
+
+    /**
+     * Update the index after a direct edit of one route that kept its customers (e.g. station changes)
+     */
+    public void reindexRoute(int routeIdx) {
+        if (indexValid) {
+            reindex(routeIdx, 0);
+        }
+    }
+
+    /**
+     * Mark the index stale after direct edits that move customers; it is rebuilt on next use
+     */
+    public void invalidateIndex() {
+        indexValid = false;
+    }
+
+    /**
+     * Make the index entry of a customer valid. An unserved answer is trusted; a served entry that
+     * no longer matches its route (an unreported direct edit) still triggers a full rebuild.
+     */
+    private void locate(int customerId) {
+        ensureIndex();
+        int r = routeOf[customerId];
+        if (r < 0) {
+            return;
+        }
+        int p = posOf[customerId];
+        if (r >= routes.size() || p >= routes.get(r).size() || routes.get(r).get(p) != customerId) {
+            rebuildIndex();
+        }
+    }
+
+    private void ensureIndex() {
+        if (!indexValid) {
+            rebuildIndex();
+        }
+    }
+
+    private void rebuildIndex() {
+        int size = instance.getAllNodes().size();
+        if (routeOf == null) {
+            routeOf = new int[size];
+            posOf = new int[size];
+            slotOf = new int[size];
+            served = new int[size];
+        }
+        Arrays.fill(routeOf, -1);
+        Arrays.fill(posOf, -1);
+        Arrays.fill(slotOf, -1);
+        servedCount = 0;
+        for (int r = 0; r < routes.size(); r++) {
+            List<Integer> route = routes.get(r);
+            addServed(route, 0, route.size());
+            reindex(r, 0);
+        }
+        indexValid = true;
+    }
+
+    private void addServed(List<Integer> route, int from, int to) {
+        for (int pos = from; pos < to; pos++) {
+            int nodeId = route.get(pos);
+            if (instance.isCustomer(nodeId) && slotOf[nodeId] < 0) {
+                slotOf[nodeId] = servedCount;
+                served[servedCount++] = nodeId;
+            }
+        }
+    }
+
+    private void removeServed(int customerId) {
+        int slot = slotOf[customerId];
+        if (slot < 0) {
+            return;
+        }
+        int last = served[--servedCount];
+        served[slot] = last;
+        slotOf[last] = slot;
+        slotOf[customerId] = -1;
+        routeOf[customerId] = -1;
+        posOf[customerId] = -1;
+    }
+
+    private void reindex(int routeIdx, int from) {
+        List<Integer> route = routes.get(routeIdx);
+        for (int pos = from; pos < route.size(); pos++) {
+            int nodeId = route.get(pos);
+            if (instance.isCustomer(nodeId)) {
+                routeOf[nodeId] = routeIdx;
+                posOf[nodeId] = pos;
+            }
+        }
+    }
+
     /**
      * Get route statistics using RouteEvaluator
      * Note: This requires a RouteEvaluator instance. 
@@ -0,0 +1,63 @@
+package tranhuy105.evrptw.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Instance over a subset of a parent instance's nodes, with node ID mapping in both directions
+ */
+public class SubInstance {
+    private final Instance instance;
+    private final Instance parent;
+    private final int[] toParent;
+    private final int[] toSub;
+
+    SubInstance(Instance instance, Instance parent, int[] toParent) {
+        this.instance = instance;
+        this.parent = parent;
+        this.toParent = toParent;
+        this.toSub = new int[parent.getAllNodes().size()];
+        Arrays.fill(toSub, -1);
+        for (int subId = 0; subId < toParent.length; subId++) {
+            toSub[toParent[subId]] = subId;
+        }
+    }
+
+    public Instance getInstance() {
+        return instance;
+    }
+
+    public Instance getParent() {
+        return parent;
+    }
+
+    /**
+     * Parent ID of a sub-instance node
+     */
+    public int toParent(int subId) {
+        return toParent[subId];
+    }
+
+    /**
+     * Sub-instance ID of a parent node, -1 if the node is not part of the sub-instance
+     */
+    public int toSub(int parentId) {
+        return toSub[parentId];
+    }
+
+    /**
+     * Translate a solution of the sub-instance to the parent instance
+     */
+    public Solution toParent(Solution subSolution) {
+        return subSolution.remap(parent, toParent);
+    }
+
+    /**
+     * Translate parent routes to an unevaluated solution of the sub-instance
+     */
+    public Solution toSub(List<List<Integer>> parentRoutes) {
+        Solution parentSol = new Solution(parent);
+        parentSol.getRoutes().addAll(parentRoutes);
+        return parentSol.remap(instance, toSub);
+    }
+}
@@ -0,0 +1,90 @@
+package tranhuy105.evrptw.operators.insertion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.util.Constants;
+
+/**
+ * Blink insertion (SISR): insert customers one at a time in a randomly chosen order
+ * (random, demand, far, close or due time), each at the cheapest position found while
+ * skipping every position with probability BLINK_RATE.
+ * One pass over the customers, so much cheaper than greedy or regret on large instances.
+ */
+public class BlinkInsertion implements InsertionOperator {
+    private final InsertionHelper helper;
+    private final Random random;
+
+    public BlinkInsertion(InsertionHelper helper, Random random) {
+        this.helper = helper;
+        this.random = random;
+    }
+
+    @Override
+    public void insert(Solution solution, List<Integer> unassigned) {
+        Instance inst = solution.getInstance();
+        double[][] distMatrix = inst.getDistanceMatrix();
+        List<Integer> order = new ArrayList<>(unassigned);
+        sortCustomers(order, inst);
+
+        for (int custId : order) {
+            double bestCost = distMatrix[0][custId] + distMatrix[custId][0] + Constants.PENALTY_VEHICLE;
+            int bestRouteIdx = -1;
+            InsertionResult best = null;
+
+            for (int rIdx = 0; rIdx < solution.getRoutes().size(); rIdx++) {
+                InsertionResult result = helper.findBestPosition(solution, rIdx, custId, random, Constants.BLINK_RATE);
+                if (result.costIncrease() < bestCost) {
+                    bestCost = result.costIncrease();
+                    bestRouteIdx = rIdx;
+                    best = result;
+                }
+            }
+
+            if (best == null) {
+                List<Integer> newRoute = new ArrayList<>();
+                newRoute.add(custId);
+                solution.addRoute(newRoute);
+                continue;
+            }
+
+            List<Integer> toInsert = new ArrayList<>(3);
+            if (best.stationBefore() != null) {
+                toInsert.add(best.stationBefore());
+            }
+            toInsert.add(custId);
+            if (best.stationAfter() != null) {
+                toInsert.add(best.stationAfter());
+            }
+            solution.insert(bestRouteIdx, best.position(), toInsert);
+        }
+    }
+
+    /**
+     * Shuffle, then sort by one criterion drawn with weights random 4, demand 4, far 2, close 1, due time 2
+     */
+    private void sortCustomers(List<Integer> order, Instance inst) {
+        Collections.shuffle(order, random);
+        double[] demands = inst.getDemands();
+        double[] dueTimes = inst.getDueTimes();
+        double[] fromDepot = inst.getDistanceMatrix()[0];
+
+        int pick = random.nextInt(13);
+        if (pick < 4) {
+            return;
+        } else if (pick < 8) {
+            order.sort(Comparator.comparingDouble((Integer c) -> demands[c]).reversed());
+        } else if (pick < 10) {
+            order.sort(Comparator.comparingDouble((Integer c) -> fromDepot[c]).reversed());
+        } else if (pick < 11) {
+            order.sort(Comparator.comparingDouble(c -> fromDepot[c]));
+        } else {
+            order.sort(Comparator.comparingDouble(c -> dueTimes[c]));
+        }
+    }
+}
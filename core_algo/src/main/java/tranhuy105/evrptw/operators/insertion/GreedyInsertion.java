@@ -85,10 +85,9 @@ public class GreedyInsertion implements InsertionOperator {
                 // Create new route
                 List<Integer> newRoute = new ArrayList<>();
                 newRoute.add(bestCandidate.customerId);
-                solution.getRoutes().add(newRoute);
+                solution.addRoute(newRoute);
             } else {
                 // Insert into existing route
-                List<Integer> route = solution.getRoutes().get(bestCandidate.routeIdx);
                 List<Integer> toInsert = new ArrayList<>();
                 
                 if (bestCandidate.stationBefore != null) {
@@ -99,7 +98,7 @@ public class GreedyInsertion implements InsertionOperator {
                     toInsert.add(bestCandidate.stationAfter);
                 }
 
-                route.addAll(bestCandidate.position, toInsert);
+                solution.insert(bestCandidate.routeIdx, bestCandidate.position, toInsert);
             }
 
             remaining.remove(Integer.valueOf(bestCandidate.customerId));
@@ -1,7 +1,10 @@
 package tranhuy105.evrptw.operators.insertion;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
+import tranhuy105.evrptw.algorithm.PenaltyWeights;
 import tranhuy105.evrptw.algorithm.RouteEvaluator;
 import tranhuy105.evrptw.model.Instance;
 import tranhuy105.evrptw.model.RouteStats;
@@ -15,8 +18,12 @@ public class InsertionHelper {
     private final RouteEvaluator evaluator;
 
     public InsertionHelper(Instance instance) {
+        this(instance, new PenaltyWeights());
+    }
+
+    public InsertionHelper(Instance instance, PenaltyWeights penalties) {
         this.instance = instance;
-        this.evaluator = new RouteEvaluator(instance);
+        this.evaluator = new RouteEvaluator(instance, penalties);
     }
 
     /**
@@ -35,6 +42,15 @@ public class InsertionHelper {
      * Optimized: uses in-place evaluation to avoid ArrayList creation.
      */
     public InsertionResult findBestPosition(Solution solution, int routeIdx, int customerId) {
+        return findBestPosition(solution, routeIdx, customerId, null, 0.0);
+    }
+
+    /**
+     * Best position with blinks: each position is skipped with probability blinkRate.
+     * Returns an infinite cost if every position was skipped.
+     */
+    public InsertionResult findBestPosition(Solution solution, int routeIdx, int customerId,
+                                            Random blinkRandom, double blinkRate) {
         List<Integer> route = solution.getRoutes().get(routeIdx);
         int routeLen = route.size();
 
@@ -55,8 +71,13 @@ public class InsertionHelper {
 
         // Evaluate ALL positions for best quality
         for (int pos = 0; pos <= routeLen; pos++) {
-            // Scenario 1: Direct insertion (no ArrayList creation)
-            RouteStats newStats = evaluator.evaluateWithInsertion(route, pos, customerId, forwardStates);
+            if (blinkRandom != null && blinkRandom.nextDouble() < blinkRate) {
+                continue;
+            }
+
+            // Scenario 1: Direct insertion, abandoned once it cannot beat the best so far
+            RouteStats newStats = evaluator.evaluateWithInsertion(route, pos, customerId, forwardStates,
+                    costOld + bestCost);
             double delta = newStats.cost() - costOld;
 
             if (delta < bestCost) {
@@ -77,7 +98,8 @@ public class InsertionHelper {
                     int stId = nearestStationIds.get(s);
                     
                     // Station BEFORE customer (no ArrayList creation)
-                    RouteStats statsBefore = evaluator.evaluateWithDoubleInsertion(route, pos, stId, customerId, forwardStates);
+                    RouteStats statsBefore = evaluator.evaluateWithDoubleInsertion(route, pos, stId, customerId, forwardStates,
+                            costOld + bestCost);
                     
                     if (statsBefore.batteryViolation() < 1e-6 && statsBefore.cost() - costOld < bestCost) {
                         bestCost = statsBefore.cost() - costOld;
@@ -87,7 +109,8 @@ public class InsertionHelper {
                     }
 
                     // Station AFTER customer (no ArrayList creation)
-                    RouteStats statsAfter = evaluator.evaluateWithDoubleInsertion(route, pos, customerId, stId, forwardStates);
+                    RouteStats statsAfter = evaluator.evaluateWithDoubleInsertion(route, pos, customerId, stId, forwardStates,
+                            costOld + bestCost);
                     
                     if (statsAfter.batteryViolation() < 1e-6 && statsAfter.cost() - costOld < bestCost) {
                         bestCost = statsAfter.cost() - costOld;
@@ -101,4 +124,23 @@ public class InsertionHelper {
 
         return new InsertionResult(bestPos, bestCost, bestStationBefore, bestStationAfter);
     }
+
+    /**
+     * Route serving a single customer, with a station before or after it if the battery requires one
+     */
+    public List<Integer> singletonRoute(int customerId) {
+        Solution solution = new Solution(instance);
+        solution.getRoutes().add(new ArrayList<>());
+        InsertionResult result = findBestPosition(solution, 0, customerId);
+
+        List<Integer> route = new ArrayList<>(3);
+        if (result.stationBefore() != null) {
+            route.add(result.stationBefore());
+        }
+        route.add(customerId);
+        if (result.stationAfter() != null) {
+            route.add(result.stationAfter());
+        }
+        return route;
+    }
 }
@@ -111,10 +111,9 @@ public class RegretInsertion implements InsertionOperator {
                 // Create new route
                 List<Integer> newRoute = new ArrayList<>();
                 newRoute.add(bestCandidate.customerId);
-                solution.getRoutes().add(newRoute);
+                solution.addRoute(newRoute);
             } else {
                 // Insert into existing route
-                List<Integer> route = solution.getRoutes().get(best.routeIdx);
                 List<Integer> toInsert = new ArrayList<>();
                 
                 if (best.stationBefore != null) {
@@ -125,7 +124,7 @@ public class RegretInsertion implements InsertionOperator {
                     toInsert.add(best.stationAfter);
                 }
 
-                route.addAll(best.position, toInsert);
+                solution.insert(best.routeIdx, best.position, toInsert);
             }
 
             remaining.remove(Integer.valueOf(bestCandidate.customerId));
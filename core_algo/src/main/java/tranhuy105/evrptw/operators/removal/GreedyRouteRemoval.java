@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-import tranhuy105.evrptw.model.NodeType;
 import tranhuy105.evrptw.model.Solution;
 
 /**
@@ -27,7 +26,7 @@ public class GreedyRouteRemoval implements RemovalOperator {
             List<Integer> route = solution.getRoutes().get(rIdx);
             int custCount = 0;
             for (int nodeId : route) {
-                if (solution.getInstance().getAllNodes().get(nodeId).getType() == NodeType.CUSTOMER) {
+                if (solution.getInstance().isCustomer(nodeId)) {
                     custCount++;
                 }
             }
@@ -51,9 +50,9 @@ public class GreedyRouteRemoval implements RemovalOperator {
         routesToRemove.sort(Collections.reverseOrder());
 
         for (int rIdx : routesToRemove) {
-            List<Integer> route = solution.getRoutes().remove(rIdx);
+            List<Integer> route = solution.removeRoute(rIdx);
             for (int nodeId : route) {
-                if (solution.getInstance().getAllNodes().get(nodeId).getType() == NodeType.CUSTOMER) {
+                if (solution.getInstance().isCustomer(nodeId)) {
                     removedIds.add(nodeId);
                 }
             }
@@ -1,11 +1,9 @@
 package tranhuy105.evrptw.operators.removal;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
-import tranhuy105.evrptw.model.CustomerPosition;
 import tranhuy105.evrptw.model.Solution;
 import tranhuy105.evrptw.util.StationAssociation;
 
@@ -13,39 +11,31 @@ import tranhuy105.evrptw.util.StationAssociation;
  * Random removal: remove q random customers
  */
 public class RandomRemoval implements RemovalOperator {
-    private final Random random = new Random();
+    private final Random random;
+
+    public RandomRemoval() {
+        this(new Random());
+    }
+
+    public RandomRemoval(Random random) {
+        this.random = random;
+    }
 
     @Override
     public List<Integer> remove(Solution solution, int q) {
-        List<CustomerPosition> customers = solution.getAllCustomersInRoutes();
-        if (customers.isEmpty()) {
+        int served = solution.servedCount();
+        if (served == 0) {
             return new ArrayList<>();
         }
 
-        q = Math.min(q, customers.size());
-        
-        // Randomly select customers to remove
-        List<CustomerPosition> toRemove = new ArrayList<>();
-        List<CustomerPosition> available = new ArrayList<>(customers);
-        Collections.shuffle(available, random);
-        
-        for (int i = 0; i < q && i < available.size(); i++) {
-            toRemove.add(available.get(i));
-        }
-
-        // Sort by (routeIdx, position) descending to maintain indices during removal
-        toRemove.sort((a, b) -> {
-            int cmp = Integer.compare(b.routeIndex(), a.routeIndex());
-            if (cmp != 0) return cmp;
-            return Integer.compare(b.position(), a.position());
-        });
+        q = Math.min(q, served);
 
+        // Draw from the served customers still in routes: a removal frees its slot in the served list
         List<Integer> removedIds = new ArrayList<>();
-        for (CustomerPosition cp : toRemove) {
-            StationAssociation association = StationAssociation.random();
-            removedIds.addAll(RemovalHelper.removeWithAssociation(
-                    solution, cp.routeIndex(), cp.position(), association
-            ));
+        for (int i = 0; i < q; i++) {
+            int customerId = solution.servedCustomer(random.nextInt(solution.servedCount()));
+            StationAssociation association = StationAssociation.random(random);
+            removedIds.addAll(RemovalHelper.removeWithAssociation(solution, customerId, association));
         }
 
         return RemovalHelper.filterCustomersOnly(removedIds, solution.getInstance());
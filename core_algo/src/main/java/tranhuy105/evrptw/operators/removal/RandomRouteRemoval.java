@@ -5,14 +5,21 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
-import tranhuy105.evrptw.model.NodeType;
 import tranhuy105.evrptw.model.Solution;
 
 /**
  * Random route removal: remove entire routes to reduce vehicle count
  */
 public class RandomRouteRemoval implements RemovalOperator {
-    private final Random random = new Random();
+    private final Random random;
+
+    public RandomRouteRemoval() {
+        this(new Random());
+    }
+
+    public RandomRouteRemoval(Random random) {
+        this.random = random;
+    }
 
     @Override
     public List<Integer> remove(Solution solution, int q) {
@@ -40,9 +47,9 @@ public class RandomRouteRemoval implements RemovalOperator {
 
         List<Integer> removedIds = new ArrayList<>();
         for (int rIdx : routesToRemove) {
-            List<Integer> route = solution.getRoutes().remove(rIdx);
+            List<Integer> route = solution.removeRoute(rIdx);
             for (int nodeId : route) {
-                if (solution.getInstance().getAllNodes().get(nodeId).getType() == NodeType.CUSTOMER) {
+                if (solution.getInstance().isCustomer(nodeId)) {
                     removedIds.add(nodeId);
                 }
             }
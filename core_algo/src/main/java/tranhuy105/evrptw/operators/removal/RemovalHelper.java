@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import tranhuy105.evrptw.model.Instance;
-import tranhuy105.evrptw.model.NodeType;
 import tranhuy105.evrptw.model.Solution;
 import tranhuy105.evrptw.util.StationAssociation;
 
@@ -14,36 +13,30 @@ import tranhuy105.evrptw.util.StationAssociation;
 public class RemovalHelper {
 
     /**
-     * Remove customer at position with optional station association
+     * Remove a customer, located through the solution index, with optional station association.
+     * Removing by id keeps other pending removals valid, so callers need no position ordering.
      */
-    public static List<Integer> removeWithAssociation(Solution solution, int routeIdx, int pos,
+    public static List<Integer> removeWithAssociation(Solution solution, int customerId,
                                                        StationAssociation association) {
-        List<Integer> route = solution.getRoutes().get(routeIdx);
-        if (pos >= route.size()) {
+        int routeIdx = solution.routeOf(customerId);
+        if (routeIdx < 0) {
             return new ArrayList<>();
         }
+        int pos = solution.positionOf(customerId);
+        List<Integer> route = solution.getRoutes().get(routeIdx);
 
         List<Integer> removed = new ArrayList<>();
         Instance inst = solution.getInstance();
 
-        // Check bounds and remove based on association
-        if (association == StationAssociation.RCWPS && pos > 0) {
-            int prevNodeId = route.get(pos - 1);
-            if (inst.getAllNodes().get(prevNodeId).getType() == NodeType.STATION) {
-                removed.add(route.remove(pos - 1));
-                pos--;
-            }
+        if (association == StationAssociation.RCWPS && pos > 0 && inst.isStation(route.get(pos - 1))) {
+            removed.add(solution.removeAt(routeIdx, pos - 1));
+            pos--;
         }
 
-        if (pos < route.size()) {
-            removed.add(route.remove(pos));
-        }
+        removed.add(solution.removeAt(routeIdx, pos));
 
-        if (association == StationAssociation.RCWSS && pos < route.size()) {
-            int nextNodeId = route.get(pos);
-            if (inst.getAllNodes().get(nextNodeId).getType() == NodeType.STATION) {
-                removed.add(route.remove(pos));
-            }
+        if (association == StationAssociation.RCWSS && pos < route.size() && inst.isStation(route.get(pos))) {
+            removed.add(solution.removeAt(routeIdx, pos));
         }
 
         return removed;
@@ -55,7 +48,7 @@ public class RemovalHelper {
     public static List<Integer> filterCustomersOnly(List<Integer> removedIds, Instance instance) {
         List<Integer> customers = new ArrayList<>();
         for (int nodeId : removedIds) {
-            if (instance.getAllNodes().get(nodeId).getType() == NodeType.CUSTOMER) {
+            if (instance.isCustomer(nodeId)) {
                 customers.add(nodeId);
             }
         }
@@ -1,90 +1,215 @@
 package tranhuy105.evrptw.operators.removal;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 import tranhuy105.evrptw.model.CustomerPosition;
 import tranhuy105.evrptw.model.Instance;
-import tranhuy105.evrptw.model.Node;
 import tranhuy105.evrptw.model.Solution;
 import tranhuy105.evrptw.util.Constants;
 import tranhuy105.evrptw.util.StationAssociation;
 
 /**
- * Shaw removal: remove customers that are similar to each other
+ * Shaw removal: remove customers that are similar to each other.
+ * Distance, time and demand relatedness are static, so each customer keeps a list of its
+ * SHAW_NEIGHBORS most related customers; only the same-route term is applied per call.
  */
 public class ShawRemoval implements RemovalOperator {
-    private final Random random = new Random();
+    private final Random random;
+
+    // Static relatedness lists, built once per instance
+    private Instance tableInstance;
+    private int[][] related;
+
+    public ShawRemoval() {
+        this(new Random());
+    }
+
+    public ShawRemoval(Random random) {
+        this.random = random;
+    }
 
     @Override
     public List<Integer> remove(Solution solution, int q) {
-        List<CustomerPosition> customers = solution.getAllCustomersInRoutes();
-        if (customers.isEmpty()) {
+        int served = solution.servedCount();
+        if (served == 0) {
             return new ArrayList<>();
         }
 
         Instance inst = solution.getInstance();
-        q = Math.min(q, customers.size());
+        q = Math.min(q, served);
 
         // Pick random seed customer
-        int seedIdx = random.nextInt(customers.size());
-        CustomerPosition seed = customers.get(seedIdx);
-        Node seedNode = inst.getAllNodes().get(seed.customerId());
-
-        // Calculate relatedness for all other customers
-        List<RelatednessEntry> relatedness = new ArrayList<>();
-        for (CustomerPosition cp : customers) {
-            if (cp.customerId() == seed.customerId()) {
-                continue;
+        int seedId = solution.servedCustomer(random.nextInt(served));
+        int seedRoute = solution.routeOf(seedId);
+
+        // Related customers in routes. Same-route and other-route customers are each already in
+        // static order and differ only by a constant route term, so one merge gives the full order.
+        int[] list = relatedList(inst, seedId);
+        int[] ids = new int[list.length];
+        double[] keys = new double[list.length];
+        int[] otherIds = new int[list.length];
+        double[] otherKeys = new double[list.length];
+        int same = 0;
+        int other = 0;
+        for (int id : list) {
+            int r = solution.routeOf(id);
+            if (r == seedRoute) {
+                ids[same] = id;
+                keys[same++] = relatedness(inst, seedId, id, true);
+            } else if (r >= 0) {
+                otherIds[other] = id;
+                otherKeys[other++] = relatedness(inst, seedId, id, false);
             }
-            Node node = inst.getAllNodes().get(cp.customerId());
+        }
+        int count = merge(ids, keys, same, otherIds, otherKeys, other);
+
+        // Customers outside the list score at least (last static score - same-route bonus),
+        // so only the prefix strictly below that is guaranteed to match the full ranking
+        double bound = Double.POSITIVE_INFINITY;
+        if (list.length < inst.getCustomers().size() - 1) {
+            int last = list[list.length - 1];
+            bound = relatedness(inst, seedId, last, false) - 2 * Constants.SHAW_PHI[2];
+        }
+        int valid = 0;
+        while (valid < count && keys[valid] < bound) {
+            valid++;
+        }
 
-            // R = phi1*dist + phi2*|time_diff| + phi3*same_route + phi4*|demand_diff|
-            double dist = inst.distance(seed.customerId(), cp.customerId());
-            double timeDiff = Math.abs(seedNode.getReadyTime() - node.getReadyTime());
-            double sameRoute = cp.routeIndex() == seed.routeIndex() ? -1.0 : 1.0;
-            double demandDiff = Math.abs(seedNode.getDemand() - node.getDemand());
+        // Select customers to remove (with randomness via eta)
+        List<Integer> toRemove = new ArrayList<>();
+        toRemove.add(seedId);
+        int remaining = served - 1;
+        List<CustomerPosition> full = null;
 
-            double R = Constants.SHAW_PHI[0] * dist +
-                       Constants.SHAW_PHI[1] * timeDiff +
-                       Constants.SHAW_PHI[2] * sameRoute +
-                       Constants.SHAW_PHI[3] * demandDiff;
+        while (toRemove.size() < q && remaining > 0) {
+            // Pick from sorted list with randomness
+            int idx = (int) (remaining * Math.pow(random.nextDouble(), Constants.SHAW_ETA));
+            idx = Math.min(idx, remaining - 1);
+
+            if (full == null && idx < valid) {
+                toRemove.add(ids[idx]);
+                System.arraycopy(ids, idx + 1, ids, idx, count - idx - 1);
+                System.arraycopy(keys, idx + 1, keys, idx, count - idx - 1);
+                count--;
+                valid--;
+            } else {
+                // Pick falls past the precomputed prefix: rank all customers as before
+                if (full == null) {
+                    full = fullRanking(inst, solution.getAllCustomersInRoutes(), seedId, seedRoute, toRemove);
+                }
+                toRemove.add(full.remove(idx).customerId());
+            }
+            remaining--;
+        }
 
-            relatedness.add(new RelatednessEntry(R, cp));
+        List<Integer> removedIds = new ArrayList<>();
+        for (int customerId : toRemove) {
+            StationAssociation association = StationAssociation.random(random);
+            removedIds.addAll(RemovalHelper.removeWithAssociation(solution, customerId, association));
         }
 
-        // Sort by relatedness (lower = more similar)
+        return RemovalHelper.filterCustomersOnly(removedIds, solution.getInstance());
+    }
+
+    /**
+     * R = phi1*dist + phi2*|time_diff| + phi3*same_route + phi4*|demand_diff|, lower = more similar
+     */
+    private static double relatedness(Instance inst, int a, int b, boolean sameRoute) {
+        double dist = inst.distance(a, b);
+        double timeDiff = Math.abs(inst.getReadyTimes()[a] - inst.getReadyTimes()[b]);
+        double demandDiff = Math.abs(inst.getDemands()[a] - inst.getDemands()[b]);
+
+        return Constants.SHAW_PHI[0] * dist +
+               Constants.SHAW_PHI[1] * timeDiff +
+               Constants.SHAW_PHI[2] * (sameRoute ? -1.0 : 1.0) +
+               Constants.SHAW_PHI[3] * demandDiff;
+    }
+
+    /**
+     * All customers in routes except the seed and those already picked, by relatedness to the seed
+     */
+    private static List<CustomerPosition> fullRanking(Instance inst, List<CustomerPosition> customers,
+                                                      int seedId, int seedRoute, List<Integer> picked) {
+        Set<Integer> skip = new HashSet<>(picked);
+        List<RelatednessEntry> relatedness = new ArrayList<>();
+        for (CustomerPosition cp : customers) {
+            if (skip.contains(cp.customerId())) {
+                continue;
+            }
+            boolean sameRoute = cp.routeIndex() == seedRoute;
+            relatedness.add(new RelatednessEntry(relatedness(inst, seedId, cp.customerId(), sameRoute), cp));
+        }
         relatedness.sort(Comparator.comparingDouble(e -> e.relatedness));
 
-        // Select customers to remove (with randomness via eta)
-        List<CustomerPosition> toRemove = new ArrayList<>();
-        toRemove.add(seed);
+        List<CustomerPosition> ranked = new ArrayList<>(relatedness.size());
+        for (RelatednessEntry e : relatedness) {
+            ranked.add(e.position);
+        }
+        return ranked;
+    }
 
-        while (toRemove.size() < q && !relatedness.isEmpty()) {
-            // Pick from sorted list with randomness
-            int idx = (int) (relatedness.size() * Math.pow(random.nextDouble(), Constants.SHAW_ETA));
-            idx = Math.min(idx, relatedness.size() - 1);
-            toRemove.add(relatedness.remove(idx).position);
+    private int[] relatedList(Instance inst, int customerId) {
+        if (tableInstance != inst) {
+            related = buildRelated(inst);
+            tableInstance = inst;
         }
+        return related[customerId];
+    }
 
-        // Sort by (routeIdx, position) descending
-        toRemove.sort((a, b) -> {
-            int cmp = Integer.compare(b.routeIndex(), a.routeIndex());
-            if (cmp != 0) return cmp;
-            return Integer.compare(b.position(), a.position());
-        });
+    /**
+     * For every customer, the SHAW_NEIGHBORS other customers with the lowest static relatedness
+     * (the route term is left out as it is the same +phi3 for everyone)
+     */
+    private static int[][] buildRelated(Instance inst) {
+        int n = inst.getCustomers().size();
+        int m = Math.min(Constants.SHAW_NEIGHBORS, n - 1);
+        int[][] table = new int[inst.getAllNodes().size()][];
+
+        for (int c = 1; c <= n; c++) {
+            Integer[] others = new Integer[n - 1];
+            double[] keys = new double[n + 1];
+            int count = 0;
+            for (int other = 1; other <= n; other++) {
+                if (other != c) {
+                    others[count++] = other;
+                    keys[other] = relatedness(inst, c, other, false);
+                }
+            }
+            Arrays.sort(others, Comparator.comparingDouble(o -> keys[o]));
 
-        List<Integer> removedIds = new ArrayList<>();
-        for (CustomerPosition cp : toRemove) {
-            StationAssociation association = StationAssociation.random();
-            removedIds.addAll(RemovalHelper.removeWithAssociation(
-                    solution, cp.routeIndex(), cp.position(), association
-            ));
+            table[c] = new int[m];
+            for (int i = 0; i < m; i++) {
+                table[c][i] = others[i];
+            }
         }
+        return table;
+    }
 
-        return RemovalHelper.filterCustomersOnly(removedIds, solution.getInstance());
+    /**
+     * Merge two key-sorted runs into ids/keys (the first run is read from there) and return the length
+     */
+    private static int merge(int[] ids, double[] keys, int firstLen, int[] otherIds, double[] otherKeys, int otherLen) {
+        int[] firstIds = Arrays.copyOf(ids, firstLen);
+        double[] firstKeys = Arrays.copyOf(keys, firstLen);
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < firstLen || j < otherLen) {
+            if (j >= otherLen || (i < firstLen && firstKeys[i] <= otherKeys[j])) {
+                ids[k] = firstIds[i];
+                keys[k++] = firstKeys[i++];
+            } else {
+                ids[k] = otherIds[j];
+                keys[k++] = otherKeys[j++];
+            }
+        }
+        return k;
     }
 
     private record RelatednessEntry(double relatedness, CustomerPosition position) {}
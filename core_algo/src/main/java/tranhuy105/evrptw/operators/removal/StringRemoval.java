@@ -0,0 +1,165 @@
+package tranhuy105.evrptw.operators.removal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import tranhuy105.evrptw.model.Instance;
+import tranhuy105.evrptw.model.Solution;
+import tranhuy105.evrptw.util.Constants;
+import tranhuy105.evrptw.util.StationAssociation;
+
+/**
+ * String removal (SISR): cut strings of consecutive customers from the routes around a random seed.
+ * A split string keeps a run of customers in its middle, so routes get slack in several places.
+ */
+public class StringRemoval implements RemovalOperator {
+    private final Random random;
+
+    // Nearest customers by distance, built once per instance
+    private Instance tableInstance;
+    private int[][] neighbors;
+
+    public StringRemoval() {
+        this(new Random());
+    }
+
+    public StringRemoval(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public List<Integer> remove(Solution solution, int q) {
+        int served = solution.servedCount();
+        if (served == 0) {
+            return new ArrayList<>();
+        }
+
+        Instance inst = solution.getInstance();
+        q = Math.min(q, served);
+
+        // String length limit from the average route, number of strings from q
+        long usedRoutes = solution.getRoutes().stream().filter(r -> !r.isEmpty()).count();
+        double maxLength = Math.min(Constants.STRING_MAX_LENGTH, (double) served / usedRoutes);
+        double maxStrings = 4.0 * q / (1.0 + maxLength) - 1.0;
+        int strings = (int) (random.nextDouble() * maxStrings) + 1;
+
+        int seed = solution.servedCustomer(random.nextInt(served));
+        int[] candidates = neighborList(inst, seed);
+
+        List<Integer> toRemove = new ArrayList<>();
+        boolean[] cutRoute = new boolean[solution.getRoutes().size()];
+        int cut = 0;
+
+        for (int i = -1; i < candidates.length && cut < strings && toRemove.size() < q; i++) {
+            int c = i < 0 ? seed : candidates[i];
+            int r = solution.routeOf(c);
+            if (r < 0 || cutRoute[r]) {
+                continue;
+            }
+
+            List<Integer> route = routeCustomers(solution.getRoutes().get(r), inst);
+            int card = route.size();
+            int maxHere = Math.max(1, (int) Math.min(card, maxLength));
+            int length = Math.min((int) (random.nextDouble() * maxHere) + 1, q - toRemove.size());
+
+            if (length < card && random.nextDouble() < Constants.STRING_SPLIT_RATE) {
+                cutSplitString(route, route.indexOf(c), length, toRemove);
+            } else {
+                cutString(route, route.indexOf(c), length, toRemove);
+            }
+            cutRoute[r] = true;
+            cut++;
+        }
+
+        List<Integer> removedIds = new ArrayList<>();
+        for (int customerId : toRemove) {
+            StationAssociation association = StationAssociation.random(random);
+            removedIds.addAll(RemovalHelper.removeWithAssociation(solution, customerId, association));
+        }
+
+        return RemovalHelper.filterCustomersOnly(removedIds, inst);
+    }
+
+    /**
+     * Remove length consecutive customers, placed at random among the windows containing idx
+     */
+    private void cutString(List<Integer> route, int idx, int length, List<Integer> toRemove) {
+        int start = windowStart(route.size(), idx, length);
+        toRemove.addAll(route.subList(start, start + length));
+    }
+
+    /**
+     * Take a string of length + m customers containing idx and remove all but m consecutive ones.
+     * m grows until a STRING_SPLIT_DEPTH draw or until the string fills the route.
+     */
+    private void cutSplitString(List<Integer> route, int idx, int length, List<Integer> toRemove) {
+        int card = route.size();
+        int kept = 1;
+        while (length + kept < card && random.nextDouble() > Constants.STRING_SPLIT_DEPTH) {
+            kept++;
+        }
+
+        int start = windowStart(card, idx, length + kept);
+        int keptFrom = start + 1 + random.nextInt(length);
+        for (int pos = start; pos < start + length + kept; pos++) {
+            if (pos < keptFrom || pos >= keptFrom + kept) {
+                toRemove.add(route.get(pos));
+            }
+        }
+    }
+
+    private int windowStart(int card, int idx, int length) {
+        int lo = Math.max(0, idx - length + 1);
+        int hi = Math.min(idx, card - length);
+        return lo + random.nextInt(hi - lo + 1);
+    }
+
+    private static List<Integer> routeCustomers(List<Integer> route, Instance inst) {
+        List<Integer> result = new ArrayList<>(route.size());
+        for (int nodeId : route) {
+            if (inst.isCustomer(nodeId)) {
+                result.add(nodeId);
+            }
+        }
+        return result;
+    }
+
+    private int[] neighborList(Instance inst, int customerId) {
+        if (tableInstance != inst) {
+            neighbors = buildNeighbors(inst);
+            tableInstance = inst;
+        }
+        return neighbors[customerId];
+    }
+
+    /**
+     * For every customer, its STRING_NEIGHBORS nearest other customers
+     */
+    private static int[][] buildNeighbors(Instance inst) {
+        int n = inst.getCustomers().size();
+        int m = Math.min(Constants.STRING_NEIGHBORS, n - 1);
+        double[][] dist = inst.getDistanceMatrix();
+        int[][] table = new int[inst.getAllNodes().size()][];
+
+        for (int c = 1; c <= n; c++) {
+            double[] row = dist[c];
+            Integer[] others = new Integer[n - 1];
+            int count = 0;
+            for (int other = 1; other <= n; other++) {
+                if (other != c) {
+                    others[count++] = other;
+                }
+            }
+            Arrays.sort(others, Comparator.comparingDouble(o -> row[o]));
+
+            table[c] = new int[m];
+            for (int i = 0; i < m; i++) {
+                table[c][i] = others[i];
+            }
+        }
+        return table;
+    }
+}
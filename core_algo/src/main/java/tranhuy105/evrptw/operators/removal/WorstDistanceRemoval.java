@@ -1,79 +1,112 @@
 package tranhuy105.evrptw.operators.removal;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
 
-import tranhuy105.evrptw.model.CustomerPosition;
 import tranhuy105.evrptw.model.Instance;
 import tranhuy105.evrptw.model.Solution;
 import tranhuy105.evrptw.util.Constants;
 import tranhuy105.evrptw.util.StationAssociation;
 
 /**
- * Worst distance removal: remove customers with highest distance cost
+ * Worst distance removal: remove customers with highest distance cost.
+ * Only the neighbors of each removed customer are re-ranked.
  */
 public class WorstDistanceRemoval implements RemovalOperator {
-    private final Random random = new Random();
+    private static final Comparator<CostEntry> BY_COST_DESC =
+            Comparator.comparingDouble(CostEntry::cost).reversed().thenComparingInt(CostEntry::customerId);
+
+    private final Random random;
+
+    public WorstDistanceRemoval() {
+        this(new Random());
+    }
+
+    public WorstDistanceRemoval(Random random) {
+        this.random = random;
+    }
 
     @Override
     public List<Integer> remove(Solution solution, int q) {
-        List<CustomerPosition> customers = solution.getAllCustomersInRoutes();
-        if (customers.isEmpty()) {
+        int served = solution.servedCount();
+        if (served == 0) {
             return new ArrayList<>();
         }
 
         Instance inst = solution.getInstance();
-        q = Math.min(q, customers.size());
-
-        // Calculate cost for each customer
-        List<CostEntry> costs = new ArrayList<>();
-        for (CustomerPosition cp : customers) {
-            List<Integer> route = solution.getRoutes().get(cp.routeIndex());
-            int pos = cp.position();
-
-            // Get predecessor and successor
-            int prevId = pos > 0 ? route.get(pos - 1) : 0;
-            int nextId = pos < route.size() - 1 ? route.get(pos + 1) : 0;
-
-            // Cost = d(prev, cust) + d(cust, next) - d(prev, next)
-            double cost = inst.distance(prevId, cp.customerId()) +
-                         inst.distance(cp.customerId(), nextId) -
-                         inst.distance(prevId, nextId);
-
-            costs.add(new CostEntry(cost, cp));
+        q = Math.min(q, served);
+
+        // Cost = d(prev, cust) + d(cust, next) - d(prev, next)
+        double[] costOf = new double[inst.getAllNodes().size()];
+        List<CostEntry> available = new ArrayList<>(served);
+        for (List<Integer> route : solution.getRoutes()) {
+            for (int pos = 0; pos < route.size(); pos++) {
+                int nodeId = route.get(pos);
+                if (inst.isCustomer(nodeId)) {
+                    costOf[nodeId] = saving(inst, route, pos);
+                    available.add(new CostEntry(costOf[nodeId], nodeId));
+                }
+            }
         }
 
         // Sort by cost descending
-        costs.sort((a, b) -> Double.compare(b.cost, a.cost));
-
-        // Select with randomness
-        List<CustomerPosition> toRemove = new ArrayList<>();
-        List<CostEntry> available = new ArrayList<>(costs);
+        available.sort(BY_COST_DESC);
 
-        while (toRemove.size() < q && !available.isEmpty()) {
+        List<Integer> removedIds = new ArrayList<>();
+        int removedCustomers = 0;
+        while (removedCustomers < q && !available.isEmpty()) {
+            // Select with randomness
             int idx = (int) (available.size() * Math.pow(random.nextDouble(), Constants.WORST_KAPPA));
             idx = Math.min(idx, available.size() - 1);
-            toRemove.add(available.remove(idx).position);
+            int customerId = available.remove(idx).customerId();
+
+            int routeIdx = solution.routeOf(customerId);
+            int pos = solution.positionOf(customerId);
+            StationAssociation association = StationAssociation.random(random);
+            List<Integer> removed = RemovalHelper.removeWithAssociation(solution, customerId, association);
+            removedIds.addAll(removed);
+            removedCustomers++;
+
+            // Only the nodes now on either side of the gap changed cost
+            int gap = inst.isStation(removed.get(0)) ? pos - 1 : pos;
+            List<Integer> route = solution.getRoutes().get(routeIdx);
+            if (gap > 0) {
+                updateCost(available, costOf, inst, route, gap - 1);
+            }
+            if (gap < route.size()) {
+                updateCost(available, costOf, inst, route, gap);
+            }
         }
 
-        // Sort by (routeIdx, position) descending
-        toRemove.sort((a, b) -> {
-            int cmp = Integer.compare(b.routeIndex(), a.routeIndex());
-            if (cmp != 0) return cmp;
-            return Integer.compare(b.position(), a.position());
-        });
+        return RemovalHelper.filterCustomersOnly(removedIds, inst);
+    }
 
-        List<Integer> removedIds = new ArrayList<>();
-        for (CustomerPosition cp : toRemove) {
-            StationAssociation association = StationAssociation.random();
-            removedIds.addAll(RemovalHelper.removeWithAssociation(
-                    solution, cp.routeIndex(), cp.position(), association
-            ));
+    private static void updateCost(List<CostEntry> available, double[] costOf, Instance inst,
+                                   List<Integer> route, int pos) {
+        int nodeId = route.get(pos);
+        if (!inst.isCustomer(nodeId)) {
+            return;
+        }
+        int at = Collections.binarySearch(available, new CostEntry(costOf[nodeId], nodeId), BY_COST_DESC);
+        if (at < 0) {
+            return;
         }
+        available.remove(at);
+        costOf[nodeId] = saving(inst, route, pos);
+        CostEntry entry = new CostEntry(costOf[nodeId], nodeId);
+        int insertAt = Collections.binarySearch(available, entry, BY_COST_DESC);
+        available.add(-insertAt - 1, entry);
+    }
 
-        return RemovalHelper.filterCustomersOnly(removedIds, solution.getInstance());
+    private static double saving(Instance inst, List<Integer> route, int pos) {
+        int prevId = pos > 0 ? route.get(pos - 1) : 0;
+        int nextId = pos < route.size() - 1 ? route.get(pos + 1) : 0;
+        int custId = route.get(pos);
+        return inst.distance(prevId, custId) + inst.distance(custId, nextId) - inst.distance(prevId, nextId);
     }
 
-    private record CostEntry(double cost, CustomerPosition position) {}
+    private record CostEntry(double cost, int customerId) {}
 }
@@ -8,8 +8,6 @@ import java.util.Random;
 
 import tranhuy105.evrptw.model.CustomerPosition;
 import tranhuy105.evrptw.model.Instance;
-import tranhuy105.evrptw.model.Node;
-import tranhuy105.evrptw.model.NodeType;
 import tranhuy105.evrptw.model.Solution;
 import tranhuy105.evrptw.util.Constants;
 import tranhuy105.evrptw.util.StationAssociation;
@@ -18,23 +16,33 @@ import tranhuy105.evrptw.util.StationAssociation;
  * Worst time removal: remove customers with largest time slack
  */
 public class WorstTimeRemoval implements RemovalOperator {
-    private final Random random = new Random();
+    private final Random random;
+
+    public WorstTimeRemoval() {
+        this(new Random());
+    }
+
+    public WorstTimeRemoval(Random random) {
+        this.random = random;
+    }
 
     @Override
     public List<Integer> remove(Solution solution, int q) {
-        List<CustomerPosition> customers = solution.getAllCustomersInRoutes();
-        if (customers.isEmpty()) {
+        int served = solution.servedCount();
+        if (served == 0) {
             return new ArrayList<>();
         }
 
         Instance inst = solution.getInstance();
-        List<Node> allNodes = inst.getAllNodes();
+        double[] readyTimes = inst.getReadyTimes();
+        double[] serviceTimes = inst.getServiceTimes();
+        byte[] nodeTypes = inst.getNodeTypes();
         double qBattery = inst.getBatteryCapacity();
         double gRefuelRate = inst.getRefuelRate();
         double[][] travelTimeMatrix = inst.getTravelTimeMatrix();
         double[][] energyMatrix = inst.getEnergyMatrix();
 
-        q = Math.min(q, customers.size());
+        q = Math.min(q, served);
 
         // Simulate routes to get arrival times
         Map<CustomerPositionKey, Double> arrivalTimes = new HashMap<>();
@@ -47,21 +55,20 @@ public class WorstTimeRemoval implements RemovalOperator {
 
             for (int pos = 0; pos < route.size(); pos++) {
                 int nodeId = route.get(pos);
-                Node node = allNodes.get(nodeId);
-                
+
                 currTime += travelTimeMatrix[prevId][nodeId];
                 currBat -= energyMatrix[prevId][nodeId];
 
-                if (currTime < node.getReadyTime()) {
-                    currTime = node.getReadyTime();
+                if (currTime < readyTimes[nodeId]) {
+                    currTime = readyTimes[nodeId];
                 }
 
-                NodeType nodeType = node.getType();
-                if (nodeType == NodeType.CUSTOMER) {
-                    double slack = currTime - node.getReadyTime();
+                byte nodeType = nodeTypes[nodeId];
+                if (nodeType == Instance.TYPE_CUSTOMER) {
+                    double slack = currTime - readyTimes[nodeId];
                     arrivalTimes.put(new CustomerPositionKey(rIdx, pos, nodeId), slack);
-                    currTime += node.getServiceTime();
-                } else if (nodeType == NodeType.STATION) {
+                    currTime += serviceTimes[nodeId];
+                } else if (nodeType == Instance.TYPE_STATION) {
                     double chargeAmount = qBattery - currBat;
                     if (chargeAmount > 0) {
                         currTime += chargeAmount * gRefuelRate;
@@ -92,19 +99,10 @@ public class WorstTimeRemoval implements RemovalOperator {
             toRemove.add(available.remove(idx).position);
         }
 
-        // Sort by (routeIdx, position) descending
-        toRemove.sort((a, b) -> {
-            int cmp = Integer.compare(b.routeIndex(), a.routeIndex());
-            if (cmp != 0) return cmp;
-            return Integer.compare(b.position(), a.position());
-        });
-
         List<Integer> removedIds = new ArrayList<>();
         for (CustomerPosition cp : toRemove) {
-            StationAssociation association = StationAssociation.random();
-            removedIds.addAll(RemovalHelper.removeWithAssociation(
-                    solution, cp.routeIndex(), cp.position(), association
-            ));
+            StationAssociation association = StationAssociation.random(random);
+            removedIds.addAll(RemovalHelper.removeWithAssociation(solution, cp.customerId(), association));
         }
 
         return RemovalHelper.filterCustomersOnly(removedIds, solution.getInstance());
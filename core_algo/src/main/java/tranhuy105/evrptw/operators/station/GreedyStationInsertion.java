@@ -3,10 +3,9 @@ package tranhuy105.evrptw.operators.station;
 import java.util.ArrayList;
 import java.util.List;
 
+import tranhuy105.evrptw.algorithm.PenaltyWeights;
 import tranhuy105.evrptw.algorithm.RouteEvaluator;
 import tranhuy105.evrptw.model.Instance;
-import tranhuy105.evrptw.model.Node;
-import tranhuy105.evrptw.model.NodeType;
 import tranhuy105.evrptw.model.RouteStats;
 import tranhuy105.evrptw.model.Solution;
 
@@ -18,50 +17,67 @@ public class GreedyStationInsertion {
     private final RouteEvaluator evaluator;
 
     public GreedyStationInsertion(Instance instance) {
+        this(instance, new PenaltyWeights());
+    }
+
+    public GreedyStationInsertion(Instance instance, PenaltyWeights penalties) {
         this.instance = instance;
-        this.evaluator = new RouteEvaluator(instance);
+        this.evaluator = new RouteEvaluator(instance, penalties);
     }
 
     /**
      * Repair solution by inserting stations to fix battery violations
      */
     public void repair(Solution solution) {
-        for (int rIdx = 0; rIdx < solution.getRoutes().size(); rIdx++) {
-            List<Integer> route = solution.getRoutes().get(rIdx);
-            if (route.isEmpty()) {
-                continue;
+        List<List<Integer>> routes = solution.getRoutes();
+        for (int r = 0; r < routes.size(); r++) {
+            if (repairRoute(routes.get(r))) {
+                solution.reindexRoute(r);
             }
+        }
+    }
 
-            // Keep repairing until feasible or no improvement
-            int maxRepairs = 10;
-            for (int attempt = 0; attempt < maxRepairs; attempt++) {
-                // Precompute forward states once per repair attempt (optimization)
-                double[][] forwardStates = evaluator.getForwardStates(route);
-                
-                // Find first battery violation
-                ViolationInfo violation = findFirstBatteryViolation(route);
-                
-                if (violation == null) {
-                    break;  // Route is battery feasible
-                }
+    /**
+     * Insert stations into a single route until it is battery feasible or no station helps
+     *
+     * @return true if a station was inserted
+     */
+    public boolean repairRoute(List<Integer> route) {
+        if (route.isEmpty()) {
+            return false;
+        }
+        boolean changed = false;
 
-                // Find best station to insert, passing forward states to avoid redundant computation
-                StationInsertionResult best = findBestStationInsertion(route, violation, forwardStates);
-                
-                if (best != null) {
-                    route.add(best.position, best.stationId);
-                } else {
-                    break;  // Cannot fix this route
-                }
+        // Keep repairing until feasible or no improvement
+        int maxRepairs = 10;
+        for (int attempt = 0; attempt < maxRepairs; attempt++) {
+            // Precompute forward states once per repair attempt (optimization)
+            double[][] forwardStates = evaluator.getForwardStates(route);
+            
+            // Find first battery violation
+            ViolationInfo violation = findFirstBatteryViolation(route);
+            
+            if (violation == null) {
+                break;  // Route is battery feasible
+            }
+
+            // Find best station to insert, passing forward states to avoid redundant computation
+            StationInsertionResult best = findBestStationInsertion(route, violation, forwardStates);
+            
+            if (best != null) {
+                route.add(best.position, best.stationId);
+                changed = true;
+            } else {
+                break;  // Cannot fix this route
             }
         }
+        return changed;
     }
 
     /**
      * Find first battery violation in route
      */
     private ViolationInfo findFirstBatteryViolation(List<Integer> route) {
-        List<Node> allNodes = instance.getAllNodes();
         double[][] energyMatrix = instance.getEnergyMatrix();
         double qBattery = instance.getBatteryCapacity();
 
@@ -70,15 +86,13 @@ public class GreedyStationInsertion {
 
         for (int pos = 0; pos < route.size(); pos++) {
             int nodeId = route.get(pos);
-            Node node = allNodes.get(nodeId);
-            
             currBat -= energyMatrix[prevId][nodeId];
 
             if (currBat < -1e-6) {
                 return new ViolationInfo(pos, nodeId);
             }
 
-            if (node.getType() == NodeType.STATION) {
+            if (instance.isStation(nodeId)) {
                 currBat = qBattery;
             }
 
@@ -5,14 +5,21 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
-import tranhuy105.evrptw.model.NodeType;
 import tranhuy105.evrptw.model.Solution;
 
 /**
  * Random station removal: remove random stations from routes
  */
 public class RandomStationRemoval implements StationRemovalOperator {
-    private final Random random = new Random();
+    private final Random random;
+
+    public RandomStationRemoval() {
+        this(new Random());
+    }
+
+    public RandomStationRemoval(Random random) {
+        this.random = random;
+    }
 
     @Override
     public List<Integer> remove(Solution solution, int sigma) {
@@ -22,7 +29,7 @@ public class RandomStationRemoval implements StationRemovalOperator {
             List<Integer> route = solution.getRoutes().get(rIdx);
             for (int pos = 0; pos < route.size(); pos++) {
                 int nodeId = route.get(pos);
-                if (solution.getInstance().getAllNodes().get(nodeId).getType() == NodeType.STATION) {
+                if (solution.getInstance().isStation(nodeId)) {
                     stations.add(new StationPosition(rIdx, pos, nodeId));
                 }
             }
@@ -49,7 +56,7 @@ public class RandomStationRemoval implements StationRemovalOperator {
         for (StationPosition sp : toRemove) {
             List<Integer> route = solution.getRoutes().get(sp.routeIdx);
             if (sp.position < route.size()) {
-                route.remove(sp.position);
+                solution.removeAt(sp.routeIdx, sp.position);
                 removed.add(sp.nodeId);
             }
         }
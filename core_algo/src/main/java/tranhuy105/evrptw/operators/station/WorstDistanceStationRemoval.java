@@ -5,7 +5,6 @@ import java.util.List;
 import java.util.Random;
 
 import tranhuy105.evrptw.model.Instance;
-import tranhuy105.evrptw.model.NodeType;
 import tranhuy105.evrptw.model.Solution;
 import tranhuy105.evrptw.util.Constants;
 
@@ -13,7 +12,15 @@ import tranhuy105.evrptw.util.Constants;
  * Worst distance station removal: remove stations with highest distance cost
  */
 public class WorstDistanceStationRemoval implements StationRemovalOperator {
-    private final Random random = new Random();
+    private final Random random;
+
+    public WorstDistanceStationRemoval() {
+        this(new Random());
+    }
+
+    public WorstDistanceStationRemoval(Random random) {
+        this.random = random;
+    }
 
     @Override
     public List<Integer> remove(Solution solution, int sigma) {
@@ -26,7 +33,7 @@ public class WorstDistanceStationRemoval implements StationRemovalOperator {
             List<Integer> route = solution.getRoutes().get(rIdx);
             for (int pos = 0; pos < route.size(); pos++) {
                 int nodeId = route.get(pos);
-                if (inst.getAllNodes().get(nodeId).getType() == NodeType.STATION) {
+                if (inst.isStation(nodeId)) {
                     int prevId = pos > 0 ? route.get(pos - 1) : 0;
                     int nextId = pos < route.size() - 1 ? route.get(pos + 1) : 0;
 
@@ -68,7 +75,7 @@ public class WorstDistanceStationRemoval implements StationRemovalOperator {
         for (StationCostEntry entry : toRemove) {
             List<Integer> route = solution.getRoutes().get(entry.routeIdx);
             if (entry.position < route.size()) {
-                route.remove(entry.position);
+                solution.removeAt(entry.routeIdx, entry.position);
                 removed.add(entry.nodeId);
             }
         }
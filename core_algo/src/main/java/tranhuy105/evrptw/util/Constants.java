@@ -10,6 +10,13 @@ public class Constants {
     public static final double PENALTY_TIME = 10000.0;
     public static final double PENALTY_BATTERY = 10000.0;
 
+    // Adaptive penalty parameters (violation weights only, the vehicle penalty stays fixed)
+    public static final double PENALTY_TARGET_FEASIBLE = 0.3;  // Target share of candidates feasible per constraint
+    public static final double PENALTY_INCREASE = 1.2;
+    public static final double PENALTY_DECREASE = 0.85;
+    public static final double PENALTY_MIN = 0.1;
+    public static final double PENALTY_MAX = 100000.0;
+
     // Battery swap parameters
     public static final double BATTERY_SWAP_TIME = 5.0;  // Fixed swap time in minutes
 
@@ -17,19 +24,63 @@ public class Constants {
     public static final int SIGMA_NEW_BEST = 33;
     public static final int SIGMA_BETTER = 9;
     public static final int SIGMA_ACCEPTED_WORSE = 13;
+    public static final int SIGMA_DUPLICATE = 0;  // Candidate identical to a recent solution
     public static final double RHO = 0.1;  // Learning rate
+    public static final int UCB_WINDOW = 500;  // Sliding-window UCB: recent calls per operator group
+    public static final double UCB_EXPLORATION = 0.2;  // Weight of the UCB exploration bonus (rewards in [0, 1])
+    public static final double THOMPSON_DISCOUNT = 0.9;  // Thompson sampling: evidence kept per segment
 
     // ALNS parameters
     public static final int SEGMENT_SIZE = 100;  // Update weights every N iterations
     public static final int STATION_REMOVAL_INTERVAL = 500;
 
+    // Acceptance criteria (costs are penalized distances)
+    public static final double SA_START_WORSE = 0.05;  // Start temperature accepts 5% worse with probability 1/2
+    public static final double SA_FINAL_RATIO = 0.002;  // sa-budget: final / start temperature over the iteration budget
+    public static final double SA_COOLING_RATE = 0.9995;  // Cooling per iteration (sa-budget: only without an iteration budget)
+    public static final double RRT_DEVIATION = 0.01;  // Record-to-record: accept up to 1% above the record
+    public static final double LAHC_BUDGET_FRACTION = 0.02;  // Late acceptance history length per budget iteration
+    public static final int LAHC_MIN_LENGTH = 10;
+    public static final int LAHC_MAX_LENGTH = 1000;
+    public static final double TA_START = 0.02;  // Threshold accepting: start threshold as a share of the cost
+    public static final int ROUTE_CACHE_SIZE = 1 << 14;  // Memoized route evaluations (routes, not bytes)
+    public static final int RECENT_SOLUTIONS = 64;  // Candidate fingerprints kept for duplicate detection
+
+    // Elite pool parameters
+    public static final int ELITE_POOL_SIZE = 10;
+    public static final int ELITE_CLOSEST = 3;  // Members averaged in the diversity contribution
+    public static final int ELITE_KEEP_BEST = 4;  // Members protected by cost rank in the biased fitness
+    public static final int ELITE_RESTART_STAGNATION = 500;  // Iterations without a new pool best before a restart
+
     // Shaw removal parameters
     public static final double[] SHAW_PHI = {1.0, 1.0, 1.0, 1.0};  // distance, time, route, demand
     public static final double SHAW_ETA = 2.0;  // determinism factor
+    public static final int SHAW_NEIGHBORS = 1000;  // Precomputed related customers per customer (all of them up to this size)
 
     // Worst removal determinism
     public static final double WORST_KAPPA = 4.0;
 
+    // String removal (SISR) and blink insertion parameters
+    public static final int STRING_MAX_LENGTH = 10;  // Longest string removed from one route
+    public static final double STRING_SPLIT_RATE = 0.5;  // Probability of a split string
+    public static final double STRING_SPLIT_DEPTH = 0.01;  // Chance to stop growing the kept part of a split string
+    public static final int STRING_NEIGHBORS = 100;  // Nearest customers scanned for routes to cut
+    public static final double BLINK_RATE = 0.01;  // Probability of skipping an insertion position
+
+    // Local search parameters
+    public static final int LS_NEIGHBORS = 15;  // Granular neighbor list size
+    public static final int LS_MAX_PASSES = 20;
+
+    // Route minimization parameters
+    public static final int ROUTE_MIN_ITERATIONS = 1000;  // Ejection pool steps per route elimination
+
+    // Construction heuristic parameters
+    public static final int SAVINGS_NEIGHBORS = 40;  // Savings pairs per customer (nearest customers only)
+    public static final double SOLOMON_LAMBDA = 2.0;  // Weight of depot distance in the I1 selection criterion
+
+    // Checkpoint parameters
+    public static final int CHECKPOINT_INTERVAL = 1000;  // Iterations between checkpoints
+
     // Feasibility recovery parameters
     public static final double FEASIBILITY_FOCUS_THRESHOLD = 0.3;  // Start focusing on feasibility after 30%
     public static final double INFEASIBLE_RESTART_THRESHOLD = 0.7; // Restart from best feasible after 70%
@@ -1,5 +1,7 @@
 package tranhuy105.evrptw.util;
 
+import java.util.function.Supplier;
+
 /**
  * Simple logging utility for EVRPTW solver
  */
@@ -18,25 +20,54 @@ public class Logger {
         return level.getValue() <= LogLevel.DEBUG.getValue();
     }
 
+    public static boolean isEnabled(LogLevel msgLevel) {
+        return msgLevel.getValue() >= level.getValue();
+    }
+
     private static void log(LogLevel msgLevel, String message) {
-        if (msgLevel.getValue() >= level.getValue()) {
+        if (isEnabled(msgLevel)) {
             System.out.println("[" + msgLevel.name() + "] " + message);
         }
     }
 
+    /**
+     * Build the message only if the level is enabled
+     */
+    private static void log(LogLevel msgLevel, Supplier<String> message) {
+        if (isEnabled(msgLevel)) {
+            System.out.println("[" + msgLevel.name() + "] " + message.get());
+        }
+    }
+
     public static void debug(String message) {
         log(LogLevel.DEBUG, message);
     }
 
+    public static void debug(Supplier<String> message) {
+        log(LogLevel.DEBUG, message);
+    }
+
     public static void info(String message) {
         log(LogLevel.INFO, message);
     }
 
+    public static void info(Supplier<String> message) {
+        log(LogLevel.INFO, message);
+    }
+
     public static void warning(String message) {
         log(LogLevel.WARNING, message);
     }
 
+    public static void warning(Supplier<String> message) {
+        log(LogLevel.WARNING, message);
+    }
+
     public static void error(String message) {
         log(LogLevel.ERROR, message);
     }
+
+    public static void error(Supplier<String> message) {
+        log(LogLevel.ERROR, message);
+    }
 }
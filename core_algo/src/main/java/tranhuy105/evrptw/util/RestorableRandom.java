@@ -0,0 +1,47 @@
+package tranhuy105.evrptw.util;
+
+import java.util.Random;
+
+/**
+ * Same generator as java.util.Random (identical sequence for the same seed),
+ * but its 48-bit state can be read and restored for checkpoints.
+ * Not thread-safe: each solver owns its own instance.
+ */
+public class RestorableRandom extends Random {
+    private static final long serialVersionUID = 1L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // No initializer: assigned by setSeed() during super construction
+    private long state;
+
+    public RestorableRandom() {
+        this(System.nanoTime());
+    }
+
+    public RestorableRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
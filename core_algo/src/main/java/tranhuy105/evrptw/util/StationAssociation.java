@@ -16,7 +16,14 @@ public enum StationAssociation {
      * Randomly select a station association strategy
      */
     public static StationAssociation random() {
+        return random(random);
+    }
+
+    /**
+     * Randomly select a station association strategy using the given generator
+     */
+    public static StationAssociation random(Random rng) {
         StationAssociation[] values = values();
-        return values[random.nextInt(values.length)];
+        return values[rng.nextInt(values.length)];
     }
 }
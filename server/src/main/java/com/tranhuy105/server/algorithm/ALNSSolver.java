@@ -6,6 +6,9 @@ import java.util.Random;
 
 import org.springframework.stereotype.Service;
 
+import com.tranhuy105.server.algorithm.localsearch.LocalSearch;
+import com.tranhuy105.server.algorithm.operator.InsertionOperator;
+import com.tranhuy105.server.algorithm.operator.RemovalOperator;
 import com.tranhuy105.server.algorithm.operator.station.GreedyStationInsertion;
 import com.tranhuy105.server.config.ALNSProperties;
 import com.tranhuy105.server.domain.Instance;
@@ -29,11 +32,17 @@ public class ALNSSolver {
     private final InitialSolutionBuilder initialSolutionBuilder;
     private final GreedyStationInsertion stationInsertion;
     private final RouteEvaluator evaluator;
+    private final LocalSearch localSearch;
+    private final RouteMinimizer routeMinimizer;
     
     private final Random random = new Random();
 
     private static final String REMOVAL_GROUP = "removal";
     private static final String INSERTION_GROUP = "insertion";
+    static final int RECENT_SOLUTIONS = 64;  // Candidate fingerprints kept for duplicate detection
+
+    // Route removal operators, disabled once the fleet reaches its lower bound
+    static final List<String> ROUTE_REMOVAL_OPERATORS = List.of("random_route");
 
     /**
      * Solve the EVRPTW problem instance
@@ -46,13 +55,34 @@ public class ALNSSolver {
      * Solve with custom iteration/time limits
      */
     public Solution solve(Instance instance, int maxIterations, double maxTimeSeconds) {
-        // Register operators with weight manager
-        weightManager.registerGroup(REMOVAL_GROUP, new ArrayList<>(operatorRegistry.getRemovalOperatorNames()));
-        weightManager.registerGroup(INSERTION_GROUP, new ArrayList<>(operatorRegistry.getInsertionOperatorNames()));
+        return solve(instance, maxIterations, maxTimeSeconds, null);
+    }
 
-        // Build initial solution
-        log.info("Building initial solution...");
-        Solution currentSol = initialSolutionBuilder.build(instance);
+    /**
+     * Solve starting from the given solution (null = build one)
+     */
+    public Solution solve(Instance instance, int maxIterations, double maxTimeSeconds, Solution initialSolution) {
+        // Register operators with weight manager
+        List<String> removalNames = new ArrayList<>(operatorRegistry.getRemovalOperatorNames());
+        List<String> insertionNames = new ArrayList<>(operatorRegistry.getInsertionOperatorNames());
+        int removalGroup = weightManager.registerGroup(REMOVAL_GROUP, removalNames, properties.operatorSelection());
+        int insertionGroup = weightManager.registerGroup(INSERTION_GROUP, insertionNames, properties.operatorSelection());
+        // Operators by weight manager handle
+        RemovalOperator[] removalOps = removalNames.stream()
+                .map(operatorRegistry::getRemovalOperator).toArray(RemovalOperator[]::new);
+        InsertionOperator[] insertionOps = insertionNames.stream()
+                .map(operatorRegistry::getInsertionOperator).toArray(InsertionOperator[]::new);
+        DestroySizePolicy destroySize = DestroySizePolicy.create(properties.destroySize().policy(),
+                instance.getCustomers().size(), properties.destroySize().maxRemove(), random);
+
+        // Build initial solution unless warm started
+        Solution currentSol;
+        if (initialSolution != null) {
+            currentSol = initialSolution.copy();
+        } else {
+            log.info("Building initial solution...");
+            currentSol = initialSolutionBuilder.build(instance);
+        }
         Solution bestSol = currentSol.copy();
         Solution bestFeasibleSol = bestSol.isFeasible() ? bestSol.copy() : null;
 
@@ -61,19 +91,33 @@ public class ALNSSolver {
                 String.format("%.2f", bestSol.getTotalDistance()),
                 bestSol.getVehicleCount(),
                 bestSol.isFeasible());
-
-        // Initialize temperature for simulated annealing
-        double tInit = bestSol.getCost() * 0.05 / Math.log(2);
-        double temperature = tInit;
-
-        String currentRemovalOp = null;
-        String currentInsertionOp = null;
+        log.info("Vehicle lower bound: {} (bin-packing={}, time-window clique={})",
+                instance.getVehicleLowerBound(), instance.getBinPackingLowerBound(),
+                instance.getTimeWindowLowerBound());
+
+        boolean fleetAtLowerBound = checkFleetLowerBound(weightManager, bestFeasibleSol, instance, 0);
+
+        AcceptanceCriterion acceptance = AcceptanceCriterion.create(properties, maxIterations, random);
+        acceptance.start(searchCost(currentSol, properties), currentSol.getCost());
+        int acceptanceFleet = currentSol.getRoutes().size();
+
+        int currentRemovalOp = -1;
+        int currentInsertionOp = -1;
+        RouteStatsCache routeCache = new RouteStatsCache(properties.routeCacheSize());
+        RecentSolutions recentSolutions = new RecentSolutions(RECENT_SOLUTIONS);
+        long duplicateCandidates = 0;
+        ElitePool elitePool = new ElitePool(properties.elite().poolSize());
+        if (bestFeasibleSol != null) {
+            elitePool.add(bestFeasibleSol, 0);
+        }
+        int eliteRestarts = 0;
 
         long startTime = System.currentTimeMillis();
         long maxTimeMs = (long) (maxTimeSeconds * 1000);
         int iteration = 0;
         int iterationsWithoutFeasible = 0;
         int bestFeasibleFoundAt = -1;  // Track when BEST feasible was found
+        boolean routeMinimizationDone = false;
 
         while (iteration < maxIterations) {
             // Check time limit
@@ -82,17 +126,40 @@ public class ALNSSolver {
                 break;
             }
 
+            // Route minimization phase: runs once, as soon as a feasible solution exists
+            if (!routeMinimizationDone && bestFeasibleSol != null) {
+                routeMinimizationDone = true;
+                if (properties.routeMinimization().enabled() && !fleetAtLowerBound) {
+                    Solution minimized = routeMinimizer.minimize(bestFeasibleSol, instance,
+                            properties.routeMinimization().maxIterations(), random);
+                    if (minimized.getVehicleCount() < bestFeasibleSol.getVehicleCount()) {
+                        bestFeasibleSol = minimized;
+                        bestFeasibleFoundAt = iteration;
+                        bestSol = minimized.copy();
+                        currentSol = minimized.copy();
+                        elitePool.add(minimized, iteration);
+                        fleetAtLowerBound = checkFleetLowerBound(weightManager, bestFeasibleSol, instance, iteration);
+                    }
+                }
+            }
+
             double progress = (double) iteration / maxIterations;
 
-            // Feasibility recovery
-            if (bestFeasibleSol != null && 
-                !currentSol.isFeasible() &&
-                progress > 0.7 &&
-                iterationsWithoutFeasible > 200) {
-                log.debug("Iter {}: Restarting from best feasible solution", iteration);
-                currentSol = bestFeasibleSol.copy();
+            // Feasibility recovery, or (when enabled) a diverse restart if the elite pool best stagnates
+            boolean stuckInfeasible = bestFeasibleSol != null &&
+                                      !currentSol.isFeasible() &&
+                                      progress > 0.7 &&
+                                      iterationsWithoutFeasible > 200;
+            boolean stagnating = properties.elite().restarts() && elitePool.size() > 1 &&
+                                 iteration - elitePool.getLastImprovement() >= properties.elite().restartStagnation();
+            if (stuckInfeasible || stagnating) {
+                log.debug("Iter {}: Restarting from an elite solution", iteration);
+                Solution restart = elitePool.pickRestart(currentSol, random);
+                currentSol = restart != null ? restart : bestFeasibleSol.copy();
+                elitePool.markRestart(iteration);
+                eliteRestarts++;
                 iterationsWithoutFeasible = 0;
-                temperature = tInit * 0.1;
+                acceptance.reheat(0.1);
             }
 
             Solution tempSol = currentSol.copy();
@@ -101,123 +168,153 @@ public class ALNSSolver {
             boolean feasibilityFocus = progress > 0.3 && bestFeasibleSol == null;
 
             // ==================== DESTROY PHASE ====================
-            currentRemovalOp = weightManager.select(REMOVAL_GROUP);
-            weightManager.recordUsage(REMOVAL_GROUP, currentRemovalOp);
-
-            int nCustomers = instance.getCustomers().size();
-            int minRemove, maxRemove;
-            if (feasibilityFocus) {
-                minRemove = Math.max(1, (int) (nCustomers * 0.05));
-                maxRemove = Math.max(2, (int) (nCustomers * 0.15));
-            } else {
-                minRemove = Math.max(1, (int) (nCustomers * 0.1));
-                maxRemove = Math.max(2, (int) (nCustomers * 0.4));
-            }
+            currentRemovalOp = weightManager.select(removalGroup);
+            weightManager.recordUsage(removalGroup, currentRemovalOp);
 
-            int q = random.nextInt(maxRemove - minRemove + 1) + minRemove;
-            removedCustomers = operatorRegistry.getRemovalOperator(currentRemovalOp)
-                    .remove(tempSol, q, instance);
+            long destroyStart = System.nanoTime();
+            int q = destroySize.next(feasibilityFocus);
+            removedCustomers = removalOps[currentRemovalOp].remove(tempSol, q, instance);
 
             tempSol.getRoutes().removeIf(Route::isEmpty);
 
             // ==================== REPAIR PHASE ====================
-            currentInsertionOp = weightManager.select(INSERTION_GROUP);
-            weightManager.recordUsage(INSERTION_GROUP, currentInsertionOp);
+            currentInsertionOp = weightManager.select(insertionGroup);
+            weightManager.recordUsage(insertionGroup, currentInsertionOp);
 
-            operatorRegistry.getInsertionOperator(currentInsertionOp)
-                    .insert(tempSol, removedCustomers, instance);
+            insertionOps[currentInsertionOp].insert(tempSol, removedCustomers, instance);
 
             stationInsertion.repair(tempSol, instance);
             tempSol.getRoutes().removeIf(Route::isEmpty);
 
             // ==================== EVALUATION & ACCEPTANCE ====================
-            evaluator.calculateTotalCost(tempSol, instance);
-            double cost = tempSol.getCost();
-            double dist = tempSol.getTotalDistance();
-            double viol = tempSol.getTotalViolations();
-            boolean isFeasible = viol < 1e-6;
+            // Same routes as the current or a recently evaluated solution: skip evaluation
+            long fingerprint = RouteHash.fingerprint(tempSol);
+            boolean duplicate = fingerprint == RouteHash.fingerprint(currentSol)
+                    || recentSolutions.contains(fingerprint);
 
             boolean accepted = false;
             ResultType resultType = null;
-
-            int currVehicles = currentSol.getVehicleCount();
-            int newVehicles = tempSol.getVehicleCount();
-
-            if (newVehicles < currVehicles) {
-                accepted = true;
-                resultType = ResultType.BETTER;
-            } else if (newVehicles > currVehicles) {
-                accepted = false;
+            long destroyRepairNs;
+
+            if (duplicate) {
+                duplicateCandidates++;
+                resultType = ResultType.DUPLICATE;
+                destroyRepairNs = System.nanoTime() - destroyStart;
+                if (!currentSol.isFeasible()) {
+                    iterationsWithoutFeasible++;
+                }
             } else {
-                double delta = cost - currentSol.getCost();
-
-                if (delta < 0) {
+                recentSolutions.add(fingerprint);
+                evaluator.calculateTotalCost(tempSol, instance, routeCache);
+                destroyRepairNs = System.nanoTime() - destroyStart;
+                double cost = tempSol.getCost();
+                double dist = tempSol.getTotalDistance();
+                double viol = tempSol.getTotalViolations();
+                boolean isFeasible = viol < 1e-6;
+
+                int currVehicles = currentSol.getVehicleCount();
+                int newVehicles = tempSol.getVehicleCount();
+
+                if (newVehicles < currVehicles) {
                     accepted = true;
                     resultType = ResultType.BETTER;
-                } else if (temperature > 1e-10 && random.nextDouble() < Math.exp(-delta / temperature)) {
-                    accepted = true;
-                    resultType = ResultType.ACCEPTED_WORSE;
+                } else if (newVehicles > currVehicles) {
+                    accepted = false;
+                } else {
+                    double delta = cost - currentSol.getCost();
+
+                    if (delta < 0) {
+                        accepted = true;
+                        resultType = ResultType.BETTER;
+                    } else if (acceptance.accept(searchCost(tempSol, properties), searchCost(currentSol, properties))) {
+                        accepted = true;
+                        resultType = ResultType.ACCEPTED_WORSE;
+                    }
                 }
-            }
 
-            if (accepted) {
-                currentSol = tempSol;
-            }
-
-            // Update best solution
-            boolean isNewBest = checkNewBest(tempSol, bestSol, isFeasible, viol, dist);
-
-            if (isNewBest) {
-                bestSol = tempSol.copy();
-                resultType = ResultType.NEW_BEST;
-                log.debug("Iter {}: NEW BEST! Cost={}, Dist={}, Veh={}, Feasible={}",
-                        iteration, String.format("%.2f", cost), String.format("%.2f", dist),
-                        bestSol.getVehicleCount(), isFeasible);
-            }
+                if (accepted) {
+                    currentSol = tempSol;
+                }
 
-            // Track best feasible
-            if (isFeasible) {
-                iterationsWithoutFeasible = 0;
+                // Update best solution
+                boolean isNewBest = checkNewBest(tempSol, bestSol, isFeasible, viol, dist);
+
+                if (isNewBest) {
+                    if (properties.localSearch().enabled()) {
+                        // Intensify around the new best (never adds violations)
+                        localSearch.improve(tempSol, instance, random);
+                        cost = tempSol.getCost();
+                        dist = tempSol.getTotalDistance();
+                        viol = tempSol.getTotalViolations();
+                        isFeasible = viol < 1e-6;
+                    }
+                    bestSol = tempSol.copy();
+                    resultType = ResultType.NEW_BEST;
+                    log.debug("Iter {}: NEW BEST! Cost={}, Dist={}, Veh={}, Feasible={}",
+                            iteration, String.format("%.2f", cost), String.format("%.2f", dist),
+                            bestSol.getVehicleCount(), isFeasible);
+                }
 
-                if (bestFeasibleSol == null) {
-                    bestFeasibleSol = tempSol.copy();
-                    bestFeasibleFoundAt = iteration;
-                    log.info("Iter {}: First feasible solution found!", iteration);
-                } else if (tempSol.getVehicleCount() < bestFeasibleSol.getVehicleCount() ||
-                           (tempSol.getVehicleCount() == bestFeasibleSol.getVehicleCount() &&
-                            dist < bestFeasibleSol.getTotalDistance())) {
-                    bestFeasibleSol = tempSol.copy();
-                    bestFeasibleFoundAt = iteration;
+                // Track best feasible
+                if (isFeasible) {
+                    iterationsWithoutFeasible = 0;
+                    elitePool.add(tempSol, iteration);
+
+                    if (bestFeasibleSol == null) {
+                        bestFeasibleSol = tempSol.copy();
+                        bestFeasibleFoundAt = iteration;
+                        log.info("Iter {}: First feasible solution found!", iteration);
+                    } else if (tempSol.getVehicleCount() < bestFeasibleSol.getVehicleCount() ||
+                               (tempSol.getVehicleCount() == bestFeasibleSol.getVehicleCount() &&
+                                dist < bestFeasibleSol.getTotalDistance())) {
+                        bestFeasibleSol = tempSol.copy();
+                        bestFeasibleFoundAt = iteration;
+                    }
+                    if (!fleetAtLowerBound) {
+                        fleetAtLowerBound = checkFleetLowerBound(weightManager, bestFeasibleSol, instance, iteration);
+                    }
+                } else {
+                    iterationsWithoutFeasible++;
                 }
-            } else {
-                iterationsWithoutFeasible++;
             }
 
             // Update operator scores
             if (resultType != null) {
-                weightManager.updateScore(REMOVAL_GROUP, currentRemovalOp, resultType.getScore());
-                weightManager.updateScore(INSERTION_GROUP, currentInsertionOp, resultType.getScore());
+                weightManager.updateScore(removalGroup, currentRemovalOp, resultType.getScore());
+                weightManager.updateScore(insertionGroup, currentInsertionOp, resultType.getScore());
+            }
+            if (!ROUTE_REMOVAL_OPERATORS.contains(removalNames.get(currentRemovalOp))) {
+                destroySize.record(resultType, destroyRepairNs);
             }
 
             // Update weights periodically
             if ((iteration + 1) % properties.segmentSize() == 0) {
                 weightManager.updateAllWeights();
+                destroySize.endSegment();
 
                 if (iteration % 500 == 0) {
                     log.debug("Iter {}: Current={}, Best={}, T={}, HasFeasible={}",
                             iteration,
                             String.format("%.2f", currentSol.getCost()),
                             String.format("%.2f", bestSol.getCost()),
-                            String.format("%.4f", temperature),
+                            String.format("%.4f", acceptance.level()),
                             bestFeasibleSol != null);
                 }
             }
 
-            temperature *= properties.coolingRate();
+            // Records kept by the acceptance criterion only compare within one fleet size
+            if (currentSol.getRoutes().size() != acceptanceFleet) {
+                acceptanceFleet = currentSol.getRoutes().size();
+                acceptance.rebase(searchCost(currentSol, properties));
+            }
+            acceptance.step(searchCost(currentSol, properties));
             iteration++;
         }
 
-        log.info("Completed {} iterations", iteration);
+        log.info("Completed {} iterations ({} duplicate candidates skipped)", iteration, duplicateCandidates);
+        log.info("Elite pool: {} solutions, mean broken-pairs distance {}, {} restarts",
+                elitePool.size(), String.format("%.3f", elitePool.averageDistance()), eliteRestarts);
+        logRouteCache(routeCache);
 
         if (bestFeasibleSol != null) {
             log.info("Returning best feasible solution (found at iter {})", bestFeasibleFoundAt);
@@ -228,6 +325,39 @@ public class ALNSSolver {
         }
     }
 
+    /**
+     * Log hit rate and approximate memory of a solve's route cache
+     */
+    static void logRouteCache(RouteStatsCache cache) {
+        log.info("Route cache: {} hits, {} misses ({}% hit rate), ~{} KB in {} slots",
+                cache.getHits(), cache.getMisses(), String.format("%.1f", cache.getHitRate() * 100),
+                cache.getMemoryBytes() / 1024, cache.getCapacity());
+    }
+
+    /**
+     * Cost seen by the acceptance criterion: penalized distance without the vehicle penalty
+     */
+    static double searchCost(Solution solution, ALNSProperties properties) {
+        return solution.getCost() - solution.getRoutes().size() * properties.penalties().vehicle();
+    }
+
+    /**
+     * Once the best feasible fleet matches the instance lower bound no route can be saved,
+     * so route removal is disabled. Returns true if the bound has been reached.
+     */
+    static boolean checkFleetLowerBound(AdaptiveWeightManager weightManager, Solution bestFeasibleSol,
+                                        Instance instance, int iteration) {
+        if (bestFeasibleSol == null || bestFeasibleSol.getVehicleCount() > instance.getVehicleLowerBound()) {
+            return false;
+        }
+        for (String opName : ROUTE_REMOVAL_OPERATORS) {
+            weightManager.setEnabled(REMOVAL_GROUP, opName, false);
+        }
+        log.info("Iter {}: Fleet at lower bound ({} vehicles), disabling route removal",
+                iteration, bestFeasibleSol.getVehicleCount());
+        return true;
+    }
+
     private boolean checkNewBest(Solution tempSol, Solution bestSol,
                                   boolean isFeasible, double viol, double dist) {
         boolean bestIsFeasible = bestSol.isFeasible();
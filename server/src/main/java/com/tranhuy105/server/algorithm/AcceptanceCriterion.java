@@ -0,0 +1,67 @@
+package com.tranhuy105.server.algorithm;
+
+import java.util.Random;
+
+import com.tranhuy105.server.config.ALNSProperties;
+
+/**
+ * Decides whether the search moves to a candidate that is not better than the current solution.
+ * Only asked for candidates with the same number of vehicles as the current solution; costs are
+ * penalized distances (the vehicle penalty left out), so they stay comparable across fleet sizes.
+ */
+public interface AcceptanceCriterion {
+
+    /**
+     * Calibrate on the initial solution
+     *
+     * @param initialCost Search cost of the initial solution
+     * @param totalCost Its cost with the vehicle penalty included
+     */
+    void start(double initialCost, double totalCost);
+
+    /**
+     * Accept a candidate whose cost is not below the current cost
+     */
+    boolean accept(double candidateCost, double currentCost);
+
+    /**
+     * End of an iteration, with the cost of the (possibly new) current solution
+     */
+    void step(double currentCost);
+
+    /**
+     * The current solution changed fleet size: reset anything remembered from the old fleet
+     */
+    default void rebase(double currentCost) {
+    }
+
+    /**
+     * The search restarted from another solution: loosen acceptance a little
+     *
+     * @param share Level to reheat to, as a share of the start level
+     */
+    default void reheat(double share) {
+    }
+
+    /**
+     * Temperature or threshold, for progress logs
+     */
+    double level();
+
+    /**
+     * Create the criterion configured in alns.acceptance: sa (default), sa-budget, rrt, lahc or ta
+     *
+     * @param maxIterations Iteration budget used for calibration
+     */
+    static AcceptanceCriterion create(ALNSProperties properties, int maxIterations, Random random) {
+        ALNSProperties.AcceptanceConfig config = properties.acceptance();
+        return switch (config.criterion().toLowerCase()) {
+            case "sa" -> new SimulatedAnnealingAcceptance(maxIterations, properties.coolingRate(), random, false);
+            case "sa-budget" -> new SimulatedAnnealingAcceptance(maxIterations, properties.coolingRate(), random, true);
+            case "rrt" -> new RecordToRecordAcceptance(config.rrtDeviation());
+            case "lahc" -> new LateAcceptance(maxIterations, config.lahcBudgetFraction());
+            case "ta" -> new ThresholdAcceptance(maxIterations, config.thresholdStart(), properties.coolingRate());
+            default -> throw new IllegalArgumentException("Unknown acceptance criterion: " + config.criterion());
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package com.tranhuy105.server.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Learns which band of destroy sizes pays off best per unit of time.
+ * Bands double in width (1-2, 3-4, 5-8, 9-16, ...) up to 40% of the customers or the cap.
+ * Each band is picked by roulette wheel; its reward is the score per call scaled by
+ * (mean time per call / band time per call), so large bands must earn their cost.
+ * Only improvements are rewarded: tiny moves are almost always accepted as equal-cost, which says nothing.
+ */
+@Slf4j
+public class AdaptiveDestroySize implements DestroySizePolicy {
+    private static final double RHO = 0.1;  // Learning rate, same as AdaptiveWeightManager
+
+    private final int[] bandMin;
+    private final int[] bandMax;
+    private final double[] weights;
+    private final double[] scores;
+    private final int[] usage;
+    private final long[] timeNs;
+    private final int focusMax;
+    private final Random random;
+    private int lastBand = -1;
+
+    public AdaptiveDestroySize(int nCustomers, int cap, Random random) {
+        int upper = Math.max(2, (int) (nCustomers * 0.4));
+        if (cap > 0) {
+            upper = Math.max(1, Math.min(upper, cap));
+        }
+
+        List<int[]> bands = new ArrayList<>();
+        int lo = 1;
+        int hi = 2;
+        while (lo <= upper) {
+            bands.add(new int[]{lo, Math.min(hi, upper)});
+            lo = hi + 1;
+            hi = hi * 2;
+        }
+
+        int n = bands.size();
+        this.bandMin = new int[n];
+        this.bandMax = new int[n];
+        for (int i = 0; i < n; i++) {
+            bandMin[i] = bands.get(i)[0];
+            bandMax[i] = bands.get(i)[1];
+        }
+        this.weights = new double[n];
+        Arrays.fill(weights, 1.0);
+        this.scores = new double[n];
+        this.usage = new int[n];
+        this.timeNs = new long[n];
+        this.focusMax = Math.max(2, (int) (nCustomers * 0.15));
+        this.random = random;
+    }
+
+    @Override
+    public int next(boolean feasibilityFocus) {
+        lastBand = selectBand();
+        usage[lastBand]++;
+
+        int q = bandMin[lastBand] + random.nextInt(bandMax[lastBand] - bandMin[lastBand] + 1);
+        return feasibilityFocus ? Math.min(q, focusMax) : q;
+    }
+
+    private int selectBand() {
+        double total = 0.0;
+        for (double w : weights) {
+            total += w;
+        }
+        if (total < 1e-9) {
+            return random.nextInt(weights.length);
+        }
+
+        double r = random.nextDouble() * total;
+        double cumsum = 0.0;
+        for (int i = 0; i < weights.length; i++) {
+            cumsum += weights[i];
+            if (r <= cumsum) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    @Override
+    public void record(ResultType result, long nanos) {
+        if (lastBand < 0) {
+            return;
+        }
+        timeNs[lastBand] += nanos;
+        if (result == ResultType.NEW_BEST || result == ResultType.BETTER) {
+            scores[lastBand] += result.getScore();
+        }
+        lastBand = -1;
+    }
+
+    @Override
+    public void endSegment() {
+        long time = 0;
+        int calls = 0;
+        for (int i = 0; i < weights.length; i++) {
+            time += timeNs[i];
+            calls += usage[i];
+        }
+        double meanTime = calls > 0 ? (double) time / calls : 0.0;
+
+        for (int i = 0; i < weights.length; i++) {
+            if (usage[i] > 0) {
+                double reward = scores[i] / usage[i];
+                if (meanTime > 0 && timeNs[i] > 0) {
+                    reward *= meanTime / ((double) timeNs[i] / usage[i]);
+                }
+                weights[i] = weights[i] * (1.0 - RHO) + RHO * reward;
+            }
+        }
+
+        Arrays.fill(scores, 0.0);
+        Arrays.fill(usage, 0);
+        Arrays.fill(timeNs, 0L);
+
+        if (log.isDebugEnabled()) {
+            StringBuilder sb = new StringBuilder("Updated destroy size weights: {");
+            for (int i = 0; i < weights.length; i++) {
+                if (i > 0) sb.append(", ");
+                sb.append("q").append(bandMin[i]).append("-").append(bandMax[i])
+                        .append("=").append(String.format("%.4f", weights[i]));
+            }
+            sb.append("}");
+            log.debug(sb.toString());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.tranhuy105.server.algorithm;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,124 +14,174 @@ import lombok.extern.slf4j.Slf4j;
 
 /**
  * Adaptive weight system for operator selection in ALNS.
- * Uses roulette wheel selection with score-based weight updates.
+ * Groups and operators are referenced by int handles (registration order and position in the
+ * operator list); names are only looked up to enable or disable operators.
+ * The next operator is picked by the group's SelectionPolicy (roulette wheel by default),
+ * weights get score-based updates every segment.
  */
 @Component
 @Slf4j
 public class AdaptiveWeightManager {
     private static final double RHO = 0.1;  // Learning rate
-    
-    private final Map<String, double[]> operatorGroups = new HashMap<>();
-    // Each group: [weight, score, usage] arrays indexed by operator
-    
-    private final Map<String, Map<String, Integer>> nameToIndex = new HashMap<>();
-    private final Map<String, String[]> indexToName = new HashMap<>();
+
+    /**
+     * Weights, segment scores and usage of one operator group, indexed by operator handle
+     */
+    private static final class OperatorGroup {
+        private final String name;
+        private final String[] names;
+        private final Map<String, Integer> nameToIndex = new HashMap<>();
+        private final double[] weights;
+        private final double[] scores;
+        private final int[] usage;
+        private final boolean[] enabled;
+        private final SelectionPolicy policy;
+
+        private OperatorGroup(String name, List<String> operatorNames, SelectionPolicy policy) {
+            int n = operatorNames.size();
+            this.name = name;
+            this.names = operatorNames.toArray(new String[0]);
+            this.weights = new double[n];
+            this.scores = new double[n];
+            this.usage = new int[n];
+            this.enabled = new boolean[n];
+            this.policy = policy;
+            for (int i = 0; i < n; i++) {
+                nameToIndex.put(names[i], i);
+            }
+            Arrays.fill(weights, 1.0);  // Initial weight = 1.0
+            Arrays.fill(enabled, true);
+            policy.refresh(weights, enabled);
+        }
+    }
+
+    private final List<OperatorGroup> groups = new ArrayList<>();
+    private final Map<String, Integer> groupIndex = new HashMap<>();
     private final Random random = new Random();
 
     /**
-     * Register a group of operators
+     * Register a group of operators picked by roulette wheel
+     *
+     * @return Group handle
      */
-    public void registerGroup(String groupName, List<String> operatorNames) {
-        int n = operatorNames.size();
-        double[] data = new double[n * 3]; // weight, score, usage per operator
-        
-        Map<String, Integer> nameMap = new HashMap<>();
-        String[] names = new String[n];
-        
-        for (int i = 0; i < n; i++) {
-            data[i] = 1.0; // Initial weight = 1.0
-            nameMap.put(operatorNames.get(i), i);
-            names[i] = operatorNames.get(i);
+    public int registerGroup(String groupName, List<String> operatorNames) {
+        return registerGroup(groupName, operatorNames, "roulette");
+    }
+
+    /**
+     * Register a group of operators; registering a name again replaces that group
+     *
+     * @param policy Selection policy: roulette, alias, ucb or thompson
+     * @return Group handle
+     */
+    public int registerGroup(String groupName, List<String> operatorNames, String policy) {
+        OperatorGroup group = new OperatorGroup(groupName, operatorNames,
+                SelectionPolicy.create(policy, operatorNames.size(), random));
+        Integer existing = groupIndex.get(groupName);
+        int handle;
+        if (existing != null) {
+            handle = existing;
+            groups.set(handle, group);
+        } else {
+            handle = groups.size();
+            groups.add(group);
+            groupIndex.put(groupName, handle);
         }
-        
-        operatorGroups.put(groupName, data);
-        nameToIndex.put(groupName, nameMap);
-        indexToName.put(groupName, names);
-        
-        log.debug("Registered operator group '{}' with {} operators", groupName, n);
+
+        log.debug("Registered operator group '{}' with {} operators ({} selection)",
+                groupName, operatorNames.size(), policy);
+        return handle;
     }
 
     /**
-     * Select an operator using roulette wheel selection
+     * Handle of the next operator to call
      */
-    public String select(String groupName) {
-        double[] data = operatorGroups.get(groupName);
-        String[] names = indexToName.get(groupName);
-        int n = names.length;
-        
-        // Calculate total weight
-        double total = 0.0;
-        for (int i = 0; i < n; i++) {
-            total += data[i];
+    public int select(int group) {
+        OperatorGroup g = groups.get(group);
+        return g.policy.select(g.weights, g.enabled);
+    }
+
+    /**
+     * Name of an operator handle
+     */
+    public String getOperatorName(int group, int op) {
+        return groups.get(group).names[op];
+    }
+
+    /**
+     * Enable or disable an operator for selection. A group always keeps at least one operator enabled.
+     */
+    public void setEnabled(String groupName, String operatorName, boolean value) {
+        OperatorGroup g = groups.get(groupIndex.get(groupName));
+        Integer idx = g.nameToIndex.get(operatorName);
+        if (idx == null) {
+            return;
         }
-        
-        if (total < 1e-9) {
-            return names[random.nextInt(n)];
+        g.enabled[idx] = value;
+
+        boolean any = false;
+        for (boolean e : g.enabled) {
+            any |= e;
         }
-        
-        // Roulette wheel selection
-        double r = random.nextDouble() * total;
-        double cumsum = 0.0;
-        
-        for (int i = 0; i < n; i++) {
-            cumsum += data[i];
-            if (r <= cumsum) {
-                return names[i];
-            }
+        if (!any) {
+            g.enabled[idx] = true;
         }
-        
-        return names[n - 1];
+        g.policy.refresh(g.weights, g.enabled);
+    }
+
+    /**
+     * Check whether an operator can currently be selected
+     */
+    public boolean isEnabled(String groupName, String operatorName) {
+        OperatorGroup g = groups.get(groupIndex.get(groupName));
+        Integer idx = g.nameToIndex.get(operatorName);
+        return idx != null && g.enabled[idx];
     }
 
     /**
      * Record that an operator was used
      */
-    public void recordUsage(String groupName, String operatorName) {
-        double[] data = operatorGroups.get(groupName);
-        int idx = nameToIndex.get(groupName).get(operatorName);
-        int n = indexToName.get(groupName).length;
-        data[2 * n + idx]++; // usage is at offset 2*n
+    public void recordUsage(int group, int op) {
+        OperatorGroup g = groups.get(group);
+        g.usage[op]++;
+        g.policy.onUse(op);
     }
 
     /**
      * Update score for an operator
      */
-    public void updateScore(String groupName, String operatorName, int score) {
-        double[] data = operatorGroups.get(groupName);
-        int idx = nameToIndex.get(groupName).get(operatorName);
-        int n = indexToName.get(groupName).length;
-        data[n + idx] += score; // score is at offset n
+    public void updateScore(int group, int op, int score) {
+        OperatorGroup g = groups.get(group);
+        g.scores[op] += score;
+        g.policy.onReward(op, Math.min(1.0, (double) score / ResultType.NEW_BEST.getScore()));
     }
 
     /**
      * Update weights based on accumulated scores and usage.
      * Formula: weight = weight * (1 - RHO) + RHO * (score / usage)
      */
-    public void updateWeights(String groupName) {
-        double[] data = operatorGroups.get(groupName);
-        String[] names = indexToName.get(groupName);
-        int n = names.length;
+    public void updateWeights(int group) {
+        OperatorGroup g = groups.get(group);
+        int n = g.names.length;
         double oneMinusRho = 1.0 - RHO;
-        
+
         for (int i = 0; i < n; i++) {
-            double usage = data[2 * n + i];
-            if (usage > 0) {
-                double score = data[n + i];
-                data[i] = data[i] * oneMinusRho + RHO * (score / usage);
+            if (g.usage[i] > 0) {
+                g.weights[i] = g.weights[i] * oneMinusRho + RHO * (g.scores[i] / g.usage[i]);
             }
         }
-        
+
         // Reset scores and usage
-        for (int i = 0; i < n; i++) {
-            data[n + i] = 0.0;
-            data[2 * n + i] = 0.0;
-        }
-        
+        Arrays.fill(g.scores, 0.0);
+        Arrays.fill(g.usage, 0);
+        g.policy.endSegment();
+        g.policy.refresh(g.weights, g.enabled);
+
         if (log.isDebugEnabled()) {
-            StringBuilder sb = new StringBuilder("Updated weights for '" + groupName + "': {");
+            StringBuilder sb = new StringBuilder("Updated weights for '" + g.name + "': {");
             for (int i = 0; i < n; i++) {
                 if (i > 0) sb.append(", ");
-                sb.append(names[i]).append("=").append(String.format("%.4f", data[i]));
+                sb.append(g.names[i]).append("=").append(String.format("%.4f", g.weights[i]));
             }
             sb.append("}");
             log.debug(sb.toString());
@@ -140,8 +192,8 @@ public class AdaptiveWeightManager {
      * Update weights for all registered groups
      */
     public void updateAllWeights() {
-        for (String groupName : operatorGroups.keySet()) {
-            updateWeights(groupName);
+        for (int group = 0; group < groups.size(); group++) {
+            updateWeights(group);
         }
     }
 
@@ -149,6 +201,6 @@ public class AdaptiveWeightManager {
      * Get registered operator names for a group
      */
     public Set<String> getOperatorNames(String groupName) {
-        return nameToIndex.get(groupName).keySet();
+        return groups.get(groupIndex.get(groupName)).nameToIndex.keySet();
     }
 }
@@ -0,0 +1,84 @@
+package com.tranhuy105.server.algorithm;
+
+import java.util.Random;
+
+/**
+ * Roulette wheel sampled in O(1) with Vose's alias method. The table is rebuilt in O(n)
+ * only when weights change (once per segment) or an operator is enabled or disabled.
+ */
+public class AliasSelection implements SelectionPolicy {
+    private final double[] prob;
+    private final int[] alias;
+    private final int[] small;
+    private final int[] large;
+    private final Random random;
+
+    public AliasSelection(int n, Random random) {
+        this.prob = new double[n];
+        this.alias = new int[n];
+        this.small = new int[n];
+        this.large = new int[n];
+        this.random = random;
+    }
+
+    @Override
+    public int select(double[] weights, boolean[] enabled) {
+        int i = random.nextInt(prob.length);
+        return random.nextDouble() < prob[i] ? i : alias[i];
+    }
+
+    @Override
+    public void refresh(double[] weights, boolean[] enabled) {
+        int n = prob.length;
+        double total = 0.0;
+        for (int i = 0; i < n; i++) {
+            if (enabled[i]) {
+                total += weights[i];
+            }
+        }
+        // All weights near zero: uniform over enabled operators, as the roulette does
+        boolean uniform = total < 1e-9;
+        int enabledCount = 0;
+        int anyEnabled = 0;
+        for (int i = 0; i < n; i++) {
+            if (enabled[i]) {
+                enabledCount++;
+                anyEnabled = i;
+            }
+        }
+
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < n; i++) {
+            double w = !enabled[i] ? 0.0 : uniform ? 1.0 : weights[i];
+            prob[i] = w * n / (uniform ? enabledCount : total);
+            alias[i] = i;
+            if (prob[i] < 1.0) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+
+        while (smallSize > 0 && largeSize > 0) {
+            int s = small[--smallSize];
+            int l = large[--largeSize];
+            alias[s] = l;
+            prob[l] -= 1.0 - prob[s];
+            if (prob[l] < 1.0) {
+                small[smallSize++] = l;
+            } else {
+                large[largeSize++] = l;
+            }
+        }
+        // Leftovers are 1 up to rounding; an enabled one must never fall through to a disabled alias
+        while (largeSize > 0) {
+            prob[large[--largeSize]] = 1.0;
+        }
+        while (smallSize > 0) {
+            int s = small[--smallSize];
+            prob[s] = enabled[s] ? 1.0 : 0.0;
+            alias[s] = enabled[s] ? s : anyEnabled;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.tranhuy105.server.algorithm;
+
+import java.util.Random;
+
+/**
+ * Removes 10-40% of the customers (5-15% under feasibility focus), optionally capped
+ */
+public class FractionDestroySize implements DestroySizePolicy {
+    private final int nCustomers;
+    private final int cap;
+    private final Random random;
+
+    public FractionDestroySize(int nCustomers, int cap, Random random) {
+        this.nCustomers = nCustomers;
+        this.cap = cap;
+        this.random = random;
+    }
+
+    @Override
+    public int next(boolean feasibilityFocus) {
+        if (feasibilityFocus) {
+            return DestroySizePolicy.draw(Math.max(1, (int) (nCustomers * 0.05)),
+                    Math.max(2, (int) (nCustomers * 0.15)), cap, random);
+        }
+        return DestroySizePolicy.draw(Math.max(1, (int) (nCustomers * 0.1)),
+                Math.max(2, (int) (nCustomers * 0.4)), cap, random);
+    }
+}
@@ -2,15 +2,19 @@ package com.tranhuy105.server.algorithm;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.stereotype.Component;
 
 import com.tranhuy105.server.algorithm.operator.InsertionHelper;
 import com.tranhuy105.server.algorithm.operator.InsertionResult;
+import com.tranhuy105.server.algorithm.operator.insertion.GreedyInsertion;
 import com.tranhuy105.server.algorithm.operator.station.GreedyStationInsertion;
 import com.tranhuy105.server.domain.Instance;
 import com.tranhuy105.server.domain.Node;
+import com.tranhuy105.server.domain.NodeType;
 import com.tranhuy105.server.domain.Route;
 import com.tranhuy105.server.domain.Solution;
 
@@ -26,6 +30,7 @@ import lombok.extern.slf4j.Slf4j;
 public class InitialSolutionBuilder {
     private final InsertionHelper insertionHelper;
     private final GreedyStationInsertion stationInsertion;
+    private final GreedyInsertion greedyInsertion;
     private final RouteEvaluator evaluator;
 
     /**
@@ -102,6 +107,50 @@ public class InitialSolutionBuilder {
         return solution;
     }
 
+    /**
+     * Build a warm start from existing routes (node IDs without depot).
+     * A customer listed more than once is kept at its first visit only.
+     * Customers not covered by the routes are inserted greedily.
+     */
+    public Solution fromRoutes(List<List<Integer>> routes, Instance instance) {
+        Solution solution = new Solution();
+        Set<Integer> served = new HashSet<>();
+        for (List<Integer> stops : routes) {
+            List<Integer> kept = new ArrayList<>(stops.size());
+            boolean hasCustomer = false;
+            for (int id : stops) {
+                if (instance.getAllNodes().get(id).getType() != NodeType.CUSTOMER) {
+                    kept.add(id);
+                } else if (served.add(id)) {
+                    kept.add(id);
+                    hasCustomer = true;
+                }
+            }
+            // Skip routes left with stations only
+            if (hasCustomer) {
+                solution.getRoutes().add(new Route(kept));
+            }
+        }
+
+        List<Integer> missing = new ArrayList<>();
+        for (Node customer : instance.getCustomers()) {
+            if (!served.contains(customer.getId())) {
+                missing.add(customer.getId());
+            }
+        }
+
+        log.info("Warm start: {} routes, {} customers to insert", solution.getRoutes().size(), missing.size());
+        if (!missing.isEmpty()) {
+            greedyInsertion.insert(solution, missing, instance);
+        }
+
+        stationInsertion.repair(solution, instance);
+        solution.getRoutes().removeIf(Route::isEmpty);
+        evaluator.calculateTotalCost(solution, instance);
+
+        return solution;
+    }
+
     private int findNearestToDepot(List<Integer> customers, Instance instance) {
         return customers.stream()
                 .min(Comparator.comparingDouble(c -> instance.distance(0, c)))
@@ -0,0 +1,46 @@
+package com.tranhuy105.server.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Late acceptance hill climbing: accept a candidate no worse than the current cost of L
+ * iterations ago, kept in a ring buffer. L is a fraction of the iteration budget within [10, 1000].
+ */
+public class LateAcceptance implements AcceptanceCriterion {
+    private static final int MIN_LENGTH = 10;
+    private static final int MAX_LENGTH = 1000;
+
+    private final double[] history;
+    private int index = 0;
+
+    public LateAcceptance(int maxIterations, double budgetFraction) {
+        int length = maxIterations < Integer.MAX_VALUE ? (int) (maxIterations * budgetFraction) : MAX_LENGTH;
+        this.history = new double[Math.max(MIN_LENGTH, Math.min(MAX_LENGTH, length))];
+    }
+
+    @Override
+    public void start(double initialCost, double totalCost) {
+        rebase(initialCost);
+    }
+
+    @Override
+    public boolean accept(double candidateCost, double currentCost) {
+        return candidateCost <= currentCost || candidateCost <= history[index];
+    }
+
+    @Override
+    public void step(double currentCost) {
+        history[index] = currentCost;
+        index = (index + 1) % history.length;
+    }
+
+    @Override
+    public void rebase(double currentCost) {
+        Arrays.fill(history, currentCost);
+    }
+
+    @Override
+    public double level() {
+        return history[index];
+    }
+}
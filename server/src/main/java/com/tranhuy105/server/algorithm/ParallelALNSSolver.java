@@ -10,6 +10,9 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import org.springframework.stereotype.Service;
 
+import com.tranhuy105.server.algorithm.localsearch.LocalSearch;
+import com.tranhuy105.server.algorithm.operator.InsertionOperator;
+import com.tranhuy105.server.algorithm.operator.RemovalOperator;
 import com.tranhuy105.server.algorithm.operator.station.GreedyStationInsertion;
 import com.tranhuy105.server.config.ALNSProperties;
 import com.tranhuy105.server.domain.Instance;
@@ -32,6 +35,8 @@ public class ParallelALNSSolver {
     private final InitialSolutionBuilder initialSolutionBuilder;
     private final GreedyStationInsertion stationInsertion;
     private final RouteEvaluator evaluator;
+    private final LocalSearch localSearch;
+    private final RouteMinimizer routeMinimizer;
 
     private static final int NUM_WORKERS = 4;
     private static final int SYNC_INTERVAL = 200;  // Sync every 200 iterations
@@ -46,14 +51,23 @@ public class ParallelALNSSolver {
     }
 
     public Solution solve(Instance instance, int maxIterations, double maxTimeSeconds) {
+        return solve(instance, maxIterations, maxTimeSeconds, null);
+    }
+
+    /**
+     * Solve starting from the given solution (null = build one)
+     */
+    public Solution solve(Instance instance, int maxIterations, double maxTimeSeconds, Solution initialSolution) {
         log.info("Starting Parallel ALNS with {} workers", NUM_WORKERS);
         
         // Shared best solution (thread-safe)
         AtomicReference<Solution> globalBest = new AtomicReference<>(null);
         AtomicReference<Solution> globalBestFeasible = new AtomicReference<>(null);
         
-        // Build initial solution once
-        Solution initialSol = initialSolutionBuilder.build(instance);
+        // Build initial solution once unless warm started
+        Solution initialSol = initialSolution != null
+                ? initialSolution.copy()
+                : initialSolutionBuilder.build(instance);
         globalBest.set(initialSol.copy());
         if (initialSol.isFeasible()) {
             globalBestFeasible.set(initialSol.copy());
@@ -82,6 +96,10 @@ public class ParallelALNSSolver {
         long startTime = System.currentTimeMillis();
         long maxTimeMs = maxTimeSeconds > 0 ? (long) (maxTimeSeconds * 1000) : Long.MAX_VALUE;
         int iterationsPerWorker = maxIterations / NUM_WORKERS;
+        // One cache for all workers: they evaluate routes of the same instance
+        RouteStatsCache routeCache = new RouteStatsCache(properties.routeCacheSize());
+        // Shared elite pool: workers feed it at sync and restart from its diverse members
+        ElitePool elitePool = new ElitePool(properties.elite().poolSize());
 
         // Launch workers
         List<Future<WorkerResult>> futures = new ArrayList<>();
@@ -91,7 +109,7 @@ public class ParallelALNSSolver {
             
             futures.add(executor.submit(() -> 
                 runWorker(wId, seed, instance, initialSol.copy(), iterationsPerWorker, 
-                         startTime, maxTimeMs, globalBest, globalBestFeasible)
+                         startTime, maxTimeMs, globalBest, globalBestFeasible, routeCache, elitePool)
             ));
         }
 
@@ -113,6 +131,9 @@ public class ParallelALNSSolver {
 
         long elapsed = System.currentTimeMillis() - startTime;
         log.info("Parallel ALNS completed in {}ms", elapsed);
+        ALNSSolver.logRouteCache(routeCache);
+        log.info("Elite pool: {} solutions, mean broken-pairs distance {}",
+                elitePool.size(), String.format("%.3f", elitePool.averageDistance()));
 
         // Return best feasible or best overall
         Solution finalSolution = globalBestFeasible.get();
@@ -132,24 +153,40 @@ public class ParallelALNSSolver {
                                    Solution startSolution, int maxIterations,
                                    long startTime, long maxTimeMs,
                                    AtomicReference<Solution> globalBest,
-                                   AtomicReference<Solution> globalBestFeasible) {
+                                   AtomicReference<Solution> globalBestFeasible,
+                                   RouteStatsCache routeCache, ElitePool elitePool) {
         
         Random random = new Random(seed);
         
         // Each worker has its own weight manager
         AdaptiveWeightManager weightManager = new AdaptiveWeightManager();
-        weightManager.registerGroup(REMOVAL_GROUP, new ArrayList<>(operatorRegistry.getRemovalOperatorNames()));
-        weightManager.registerGroup(INSERTION_GROUP, new ArrayList<>(operatorRegistry.getInsertionOperatorNames()));
+        List<String> removalNames = new ArrayList<>(operatorRegistry.getRemovalOperatorNames());
+        List<String> insertionNames = new ArrayList<>(operatorRegistry.getInsertionOperatorNames());
+        int removalGroup = weightManager.registerGroup(REMOVAL_GROUP, removalNames, properties.operatorSelection());
+        int insertionGroup = weightManager.registerGroup(INSERTION_GROUP, insertionNames, properties.operatorSelection());
+        // Operators by weight manager handle
+        RemovalOperator[] removalOps = removalNames.stream()
+                .map(operatorRegistry::getRemovalOperator).toArray(RemovalOperator[]::new);
+        InsertionOperator[] insertionOps = insertionNames.stream()
+                .map(operatorRegistry::getInsertionOperator).toArray(InsertionOperator[]::new);
+        DestroySizePolicy destroySize = DestroySizePolicy.create(properties.destroySize().policy(),
+                instance.getCustomers().size(), properties.destroySize().maxRemove(), random);
 
         Solution currentSol = startSolution;
         Solution localBest = currentSol.copy();
         Solution localBestFeasible = currentSol.isFeasible() ? currentSol.copy() : null;
 
-        double tInit = currentSol.getCost() * 0.05 / Math.log(2);
-        double temperature = tInit;
+        AcceptanceCriterion acceptance = AcceptanceCriterion.create(properties, maxIterations, random);
+        acceptance.start(ALNSSolver.searchCost(currentSol, properties), currentSol.getCost());
+        int acceptanceFleet = currentSol.getRoutes().size();
 
+        boolean fleetAtLowerBound = ALNSSolver.checkFleetLowerBound(
+                weightManager, localBestFeasible, instance, 0);
+
+        RecentSolutions recentSolutions = new RecentSolutions(ALNSSolver.RECENT_SOLUTIONS);
         int iteration = 0;
         int bestFoundAt = -1;
+        boolean routeMinimizationDone = false;
 
         while (iteration < maxIterations) {
             // Check time limit
@@ -157,6 +194,23 @@ public class ParallelALNSSolver {
                 break;
             }
 
+            // Route minimization phase: runs once, as soon as this worker has a feasible solution
+            if (!routeMinimizationDone && localBestFeasible != null) {
+                routeMinimizationDone = true;
+                if (properties.routeMinimization().enabled() && !fleetAtLowerBound) {
+                    Solution minimized = routeMinimizer.minimize(localBestFeasible, instance,
+                            properties.routeMinimization().maxIterations(), random);
+                    if (minimized.getVehicleCount() < localBestFeasible.getVehicleCount()) {
+                        localBestFeasible = minimized;
+                        localBest = minimized.copy();
+                        currentSol = minimized.copy();
+                        bestFoundAt = iteration;
+                        fleetAtLowerBound = ALNSSolver.checkFleetLowerBound(
+                                weightManager, localBestFeasible, instance, iteration);
+                    }
+                }
+            }
+
             double progress = (double) iteration / maxIterations;
 
             // ==================== SYNC WITH GLOBAL BEST ====================
@@ -165,78 +219,119 @@ public class ParallelALNSSolver {
                 Solution gBest = globalBestFeasible.get();
                 if (gBest == null) gBest = globalBest.get();
                 
+                if (localBestFeasible != null) {
+                    elitePool.add(localBestFeasible, iteration);
+                }
+                if (currentSol.isFeasible()) {
+                    elitePool.add(currentSol, iteration);
+                }
+
                 if (gBest != null && isBetterSolution(gBest, localBest)) {
-                    // Adopt global best with some probability
+                    // With some probability restart from an elite solution (global best if none),
+                    // so workers spread over different good regions instead of one copy
                     if (random.nextDouble() < 0.5) {
-                        currentSol = gBest.copy();
-                        temperature = tInit * 0.3;  // Reset temperature partially
+                        Solution restart = elitePool.pickRestart(currentSol, random);
+                        currentSol = restart != null ? restart : gBest.copy();
+                        acceptance.reheat(0.3);  // Reset temperature partially
                     }
                 }
                 
                 // Share our best to global
                 updateGlobalBest(localBest, localBestFeasible, globalBest, globalBestFeasible);
+
+                if (!fleetAtLowerBound) {
+                    fleetAtLowerBound = ALNSSolver.checkFleetLowerBound(
+                            weightManager, globalBestFeasible.get(), instance, iteration);
+                }
             }
 
             // ==================== DESTROY PHASE ====================
             Solution tempSol = currentSol.copy();
             
-            String removalOp = weightManager.select(REMOVAL_GROUP);
-            weightManager.recordUsage(REMOVAL_GROUP, removalOp);
+            int removalOp = weightManager.select(removalGroup);
+            weightManager.recordUsage(removalGroup, removalOp);
 
-            int nCustomers = instance.getCustomers().size();
-            int minRemove = Math.max(1, (int) (nCustomers * 0.1));
-            int maxRemove = Math.max(2, (int) (nCustomers * 0.4));
-            int q = random.nextInt(maxRemove - minRemove + 1) + minRemove;
+            long destroyStart = System.nanoTime();
+            int q = destroySize.next(false);
 
-            List<Integer> removed = operatorRegistry.getRemovalOperator(removalOp)
-                    .remove(tempSol, q, instance);
+            List<Integer> removed = removalOps[removalOp].remove(tempSol, q, instance);
             tempSol.getRoutes().removeIf(Route::isEmpty);
 
             // ==================== REPAIR PHASE ====================
-            String insertionOp = weightManager.select(INSERTION_GROUP);
-            weightManager.recordUsage(INSERTION_GROUP, insertionOp);
+            int insertionOp = weightManager.select(insertionGroup);
+            weightManager.recordUsage(insertionGroup, insertionOp);
 
-            operatorRegistry.getInsertionOperator(insertionOp)
-                    .insert(tempSol, removed, instance);
+            insertionOps[insertionOp].insert(tempSol, removed, instance);
             stationInsertion.repair(tempSol, instance);
             tempSol.getRoutes().removeIf(Route::isEmpty);
 
             // ==================== EVALUATION ====================
-            evaluator.calculateTotalCost(tempSol, instance);
-            
-            boolean accepted = acceptSolution(tempSol, currentSol, temperature, random);
-            if (accepted) {
-                currentSol = tempSol;
-            }
+            // Same routes as the current or a recently evaluated solution: skip evaluation
+            long fingerprint = RouteHash.fingerprint(tempSol);
+            boolean duplicate = fingerprint == RouteHash.fingerprint(currentSol)
+                    || recentSolutions.contains(fingerprint);
 
-            // Update local best
+            boolean accepted = false;
             ResultType resultType = null;
-            if (isBetterSolution(tempSol, localBest)) {
-                localBest = tempSol.copy();
-                resultType = ResultType.NEW_BEST;
-                bestFoundAt = iteration;
-            } else if (accepted) {
-                resultType = tempSol.getCost() < currentSol.getCost() ? 
-                            ResultType.BETTER : ResultType.ACCEPTED_WORSE;
-            }
+            long destroyRepairNs;
+
+            if (duplicate) {
+                resultType = ResultType.DUPLICATE;
+                destroyRepairNs = System.nanoTime() - destroyStart;
+            } else {
+                recentSolutions.add(fingerprint);
+                evaluator.calculateTotalCost(tempSol, instance, routeCache);
+                destroyRepairNs = System.nanoTime() - destroyStart;
+            
+                accepted = acceptSolution(tempSol, currentSol, acceptance);
+                if (accepted) {
+                    currentSol = tempSol;
+                }
+
+                // Update local best
+                if (isBetterSolution(tempSol, localBest)) {
+                    if (properties.localSearch().enabled()) {
+                        localSearch.improve(tempSol, instance, random);
+                    }
+                    localBest = tempSol.copy();
+                    resultType = ResultType.NEW_BEST;
+                    bestFoundAt = iteration;
+                } else if (accepted) {
+                    resultType = tempSol.getCost() < currentSol.getCost() ? 
+                                ResultType.BETTER : ResultType.ACCEPTED_WORSE;
+                }
 
-            if (tempSol.isFeasible()) {
-                if (localBestFeasible == null || isBetterSolution(tempSol, localBestFeasible)) {
-                    localBestFeasible = tempSol.copy();
+                if (tempSol.isFeasible()) {
+                    if (localBestFeasible == null || isBetterSolution(tempSol, localBestFeasible)) {
+                        localBestFeasible = tempSol.copy();
+                    }
+                    if (!fleetAtLowerBound) {
+                        fleetAtLowerBound = ALNSSolver.checkFleetLowerBound(
+                                weightManager, localBestFeasible, instance, iteration);
+                    }
                 }
             }
 
             // Update scores
             if (resultType != null) {
-                weightManager.updateScore(REMOVAL_GROUP, removalOp, resultType.getScore());
-                weightManager.updateScore(INSERTION_GROUP, insertionOp, resultType.getScore());
+                weightManager.updateScore(removalGroup, removalOp, resultType.getScore());
+                weightManager.updateScore(insertionGroup, insertionOp, resultType.getScore());
+            }
+            if (!ALNSSolver.ROUTE_REMOVAL_OPERATORS.contains(removalNames.get(removalOp))) {
+                destroySize.record(resultType, destroyRepairNs);
             }
 
             if ((iteration + 1) % properties.segmentSize() == 0) {
                 weightManager.updateAllWeights();
+                destroySize.endSegment();
             }
 
-            temperature *= properties.coolingRate();
+            // Records kept by the acceptance criterion only compare within one fleet size
+            if (currentSol.getRoutes().size() != acceptanceFleet) {
+                acceptanceFleet = currentSol.getRoutes().size();
+                acceptance.rebase(ALNSSolver.searchCost(currentSol, properties));
+            }
+            acceptance.step(ALNSSolver.searchCost(currentSol, properties));
             iteration++;
         }
 
@@ -292,7 +387,7 @@ public class ParallelALNSSolver {
         return isBetterSolution(a, b);
     }
 
-    private boolean acceptSolution(Solution newSol, Solution currentSol, double temperature, Random random) {
+    private boolean acceptSolution(Solution newSol, Solution currentSol, AcceptanceCriterion acceptance) {
         int currVehicles = currentSol.getVehicleCount();
         int newVehicles = newSol.getVehicleCount();
 
@@ -301,11 +396,9 @@ public class ParallelALNSSolver {
 
         double delta = newSol.getCost() - currentSol.getCost();
         if (delta < 0) return true;
-        
-        if (temperature > 1e-10) {
-            return random.nextDouble() < Math.exp(-delta / temperature);
-        }
-        return false;
+
+        return acceptance.accept(ALNSSolver.searchCost(newSol, properties),
+                ALNSSolver.searchCost(currentSol, properties));
     }
 
     private record WorkerResult(Solution best, Solution bestFeasible, int iterations, int bestFoundAt) {}
@@ -0,0 +1,30 @@
+package com.tranhuy105.server.algorithm;
+
+/**
+ * Fingerprints of the last few evaluated candidates, oldest overwritten first.
+ * Small enough that a linear scan beats any hashed set.
+ */
+public final class RecentSolutions {
+    private final long[] fingerprints;
+    private int size = 0;
+    private int next = 0;
+
+    public RecentSolutions(int capacity) {
+        this.fingerprints = new long[capacity];
+    }
+
+    public boolean contains(long fingerprint) {
+        for (int i = 0; i < size; i++) {
+            if (fingerprints[i] == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void add(long fingerprint) {
+        fingerprints[next] = fingerprint;
+        next = (next + 1) % fingerprints.length;
+        size = Math.min(size + 1, fingerprints.length);
+    }
+}
@@ -0,0 +1,39 @@
+package com.tranhuy105.server.algorithm;
+
+/**
+ * Record-to-record travel: accept any candidate within a deviation of the best current cost
+ * seen on this fleet size (the record)
+ */
+public class RecordToRecordAcceptance implements AcceptanceCriterion {
+    private final double deviation;
+    private double record;
+
+    public RecordToRecordAcceptance(double deviation) {
+        this.deviation = deviation;
+    }
+
+    @Override
+    public void start(double initialCost, double totalCost) {
+        record = initialCost;
+    }
+
+    @Override
+    public boolean accept(double candidateCost, double currentCost) {
+        return candidateCost <= record * (1.0 + deviation);
+    }
+
+    @Override
+    public void step(double currentCost) {
+        record = Math.min(record, currentCost);
+    }
+
+    @Override
+    public void rebase(double currentCost) {
+        record = currentCost;
+    }
+
+    @Override
+    public double level() {
+        return record * deviation;
+    }
+}
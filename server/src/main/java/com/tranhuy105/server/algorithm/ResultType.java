@@ -6,7 +6,8 @@ package com.tranhuy105.server.algorithm;
 public enum ResultType {
     NEW_BEST(33),
     BETTER(9),
-    ACCEPTED_WORSE(13);
+    ACCEPTED_WORSE(13),
+    DUPLICATE(0);  // Candidate identical to a recent solution
 
     private final int score;
 
@@ -149,10 +149,37 @@ public class RouteEvaluator {
         return buildStats(state, instance);
     }
 
+    /**
+     * Evaluate a route whose first prefixLen nodes are unchanged (read from cached forward states)
+     * and whose remaining nodes are nodes[from..to)
+     */
+    public RouteStats evaluateWithTail(List<Integer> route, int prefixLen, double[][] forwardStates,
+                                       int[] nodes, int from, int to, Instance instance) {
+        int prevNodeId = (prefixLen == 0) ? 0 : route.get(prefixLen - 1);
+        RouteState state = loadState(forwardStates[prefixLen], prevNodeId, instance);
+
+        for (int i = from; i < to; i++) {
+            visitNode(state, nodes[i], instance);
+        }
+
+        if (prefixLen + (to - from) > 0) {
+            returnToDepot(state, instance);
+        }
+        return buildStats(state, instance);
+    }
+
     /**
      * Calculate total cost for a complete solution
      */
     public void calculateTotalCost(Solution solution, Instance instance) {
+        calculateTotalCost(solution, instance, null);
+    }
+
+    /**
+     * Calculate total cost, reusing stats of routes already in the cache (null = no cache).
+     * A cache must only ever see routes of one instance.
+     */
+    public void calculateTotalCost(Solution solution, Instance instance, RouteStatsCache cache) {
         double totalCost = solution.getRoutes().size() * properties.penalties().vehicle();
         double totalDist = 0.0;
         double totalViol = 0.0;
@@ -162,7 +189,9 @@ public class RouteEvaluator {
                 continue;
             }
 
-            RouteStats stats = evaluate(route.getStops(), instance);
+            RouteStats stats = cache != null
+                    ? cache.get(route.getStops(), stops -> evaluate(stops, instance))
+                    : evaluate(route.getStops(), instance);
             totalCost += stats.cost();
             totalDist += stats.distance();
             totalViol += stats.totalViolation();
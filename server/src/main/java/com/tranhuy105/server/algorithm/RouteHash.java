@@ -0,0 +1,61 @@
+package com.tranhuy105.server.algorithm;
+
+import java.util.List;
+
+import com.tranhuy105.server.domain.Route;
+import com.tranhuy105.server.domain.Solution;
+
+/**
+ * Zobrist-style 64-bit hashes of routes and solutions.
+ * A route hashes to the XOR of a random key per directed arc (depot, node 0, at both ends),
+ * so inserting u between a and b changes it by arc(a,b) ^ arc(a,u) ^ arc(u,b).
+ * A solution fingerprint sums mixed route hashes, so it does not depend on route order.
+ */
+public final class RouteHash {
+    private RouteHash() {
+    }
+
+    /**
+     * Random key of the directed arc from -> to
+     */
+    public static long arcKey(int from, int to) {
+        return mix((long) from << 32 | (to & 0xFFFFFFFFL));
+    }
+
+    /**
+     * Hash of one route
+     */
+    public static long of(List<Integer> route) {
+        long h = 0L;
+        int prev = 0;
+        for (int i = 0, n = route.size(); i < n; i++) {
+            int node = route.get(i);
+            h ^= arcKey(prev, node);
+            prev = node;
+        }
+        return h ^ arcKey(prev, 0);
+    }
+
+    /**
+     * Order-independent fingerprint of a solution's routes; empty routes are ignored
+     */
+    public static long fingerprint(Solution solution) {
+        long h = 0L;
+        for (Route route : solution.getRoutes()) {
+            if (!route.isEmpty()) {
+                h += mix(of(route.getStops()));
+            }
+        }
+        return h;
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
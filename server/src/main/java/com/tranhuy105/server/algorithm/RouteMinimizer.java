@@ -0,0 +1,335 @@
+package com.tranhuy105.server.algorithm;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.stereotype.Component;
+
+import com.tranhuy105.server.domain.Instance;
+import com.tranhuy105.server.domain.Node;
+import com.tranhuy105.server.domain.NodeType;
+import com.tranhuy105.server.domain.Route;
+import com.tranhuy105.server.domain.RouteStats;
+import com.tranhuy105.server.domain.Solution;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Route minimization phase: repeatedly removes the smallest route and pushes its customers
+ * into the others, ejecting at most two customers per insertion (ejection pool + penalty counters).
+ * Every route stays feasible throughout, so a successful elimination is a feasible solution
+ * with one vehicle less.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RouteMinimizer {
+    private static final double EPSILON = 1e-6;
+    private static final int DOUBLE_EJECTION_POSITIONS = 3;  // Best insertion positions tried for 2 ejections
+    private static final int NUM_STATIONS = 4;
+
+    private final RouteEvaluator evaluator;
+
+    /**
+     * Remove routes until the lower bound is reached or an elimination fails
+     * @param solution Feasible starting solution (not modified)
+     * @param maxIterations Ejection pool steps allowed per route elimination
+     * @return Best feasible solution found (a copy)
+     */
+    public Solution minimize(Solution solution, Instance instance, int maxIterations, Random random) {
+        Solution best = solution.copy();
+        if (!best.isFeasible()) {
+            return best;
+        }
+
+        int lowerBound = instance.getVehicleLowerBound();
+        while (best.getVehicleCount() > lowerBound) {
+            Solution trial = best.copy();
+            if (!eliminateRoute(trial, instance, maxIterations, random)) {
+                break;
+            }
+            evaluator.calculateTotalCost(trial, instance);
+            if (!trial.isFeasible()) {
+                break;
+            }
+            best = trial;
+            log.info("Route minimization: {} vehicles (Dist={})",
+                    best.getVehicleCount(), String.format("%.2f", best.getTotalDistance()));
+        }
+        return best;
+    }
+
+    /**
+     * Remove the smallest route and reinsert its customers through the ejection pool
+     */
+    private boolean eliminateRoute(Solution solution, Instance instance, int maxIterations, Random random) {
+        List<Route> routes = solution.getRoutes();
+        int smallest = 0;
+        for (int r = 1; r < routes.size(); r++) {
+            if (countCustomers(routes.get(r).getStops(), instance) <
+                countCustomers(routes.get(smallest).getStops(), instance)) {
+                smallest = r;
+            }
+        }
+
+        List<Integer> removed = new ArrayList<>();
+        for (int nodeId : routes.remove(smallest).getStops()) {
+            if (isCustomer(nodeId, instance)) {
+                removed.add(nodeId);
+            }
+        }
+        Collections.shuffle(removed, random);
+        Deque<Integer> pool = new ArrayDeque<>(removed);
+
+        int[] penalty = new int[instance.getAllNodes().size()];
+        Arrays.fill(penalty, 1);
+
+        for (int iter = 0; iter < maxIterations && !pool.isEmpty(); iter++) {
+            int customerId = pool.pop();
+            if (insertFeasible(solution, customerId, instance)) {
+                continue;
+            }
+            penalty[customerId]++;
+            if (!insertWithEjection(solution, customerId, penalty, pool, instance)) {
+                return false;
+            }
+        }
+        return pool.isEmpty();
+    }
+
+    /**
+     * Cheapest insertion that keeps the route feasible (optionally with a station next to the customer)
+     */
+    private boolean insertFeasible(Solution solution, int customerId, Instance instance) {
+        List<Integer> nearestStations = instance.getNearestStations().get(customerId);
+        int numStations = nearestStations != null ? Math.min(NUM_STATIONS, nearestStations.size()) : 0;
+        double capacity = instance.getVehicleSpec().getCargoCapacity();
+        double demand = instance.getAllNodes().get(customerId).getDemand();
+
+        int bestRoute = -1;
+        int bestPos = -1;
+        Integer bestStBefore = null;
+        Integer bestStAfter = null;
+        double bestDelta = Double.POSITIVE_INFINITY;
+
+        List<Route> routes = solution.getRoutes();
+        for (int r = 0; r < routes.size(); r++) {
+            List<Integer> stops = routes.get(r).getStops();
+            if (routeLoad(stops, instance) + demand > capacity + EPSILON) {
+                continue;
+            }
+            double[][] forwardStates = evaluator.getForwardStates(stops, instance);
+            double oldDist = evaluator.evaluate(stops, instance).distance();
+
+            for (int pos = 0; pos <= stops.size(); pos++) {
+                RouteStats stats = evaluator.evaluateWithInsertion(stops, pos, customerId, forwardStates, instance);
+                if (stats.isFeasible()) {
+                    if (stats.distance() - oldDist < bestDelta) {
+                        bestDelta = stats.distance() - oldDist;
+                        bestRoute = r;
+                        bestPos = pos;
+                        bestStBefore = null;
+                        bestStAfter = null;
+                    }
+                    continue;
+                }
+                if (stats.batteryViolation() < EPSILON) {
+                    continue;  // Stations cannot fix time or capacity
+                }
+                for (int s = 0; s < numStations; s++) {
+                    int stId = nearestStations.get(s);
+                    RouteStats before = evaluator.evaluateWithDoubleInsertion(stops, pos, stId, customerId, instance);
+                    if (before.isFeasible() && before.distance() - oldDist < bestDelta) {
+                        bestDelta = before.distance() - oldDist;
+                        bestRoute = r;
+                        bestPos = pos;
+                        bestStBefore = stId;
+                        bestStAfter = null;
+                    }
+                    RouteStats after = evaluator.evaluateWithDoubleInsertion(stops, pos, customerId, stId, instance);
+                    if (after.isFeasible() && after.distance() - oldDist < bestDelta) {
+                        bestDelta = after.distance() - oldDist;
+                        bestRoute = r;
+                        bestPos = pos;
+                        bestStBefore = null;
+                        bestStAfter = stId;
+                    }
+                }
+            }
+        }
+
+        if (bestRoute < 0) {
+            return false;
+        }
+
+        List<Integer> toInsert = new ArrayList<>(3);
+        if (bestStBefore != null) {
+            toInsert.add(bestStBefore);
+        }
+        toInsert.add(customerId);
+        if (bestStAfter != null) {
+            toInsert.add(bestStAfter);
+        }
+        routes.get(bestRoute).getStops().addAll(bestPos, toInsert);
+        return true;
+    }
+
+    /**
+     * Insert customer into a route while ejecting one or two customers so the route stays feasible.
+     * Minimizes the summed penalty of the ejected customers, then distance.
+     */
+    private boolean insertWithEjection(Solution solution, int customerId, int[] penalty,
+                                       Deque<Integer> pool, Instance instance) {
+        double capacity = instance.getVehicleSpec().getCargoCapacity();
+        List<Node> nodes = instance.getAllNodes();
+
+        int bestRoute = -1;
+        int bestPos = -1;
+        int bestE1 = -1;
+        int bestE2 = -1;
+        int bestPenalty = Integer.MAX_VALUE;
+        double bestDist = Double.POSITIVE_INFINITY;
+        int[] buffer = new int[16];
+
+        List<Route> routes = solution.getRoutes();
+        for (int r = 0; r < routes.size(); r++) {
+            List<Integer> stops = routes.get(r).getStops();
+            int len = stops.size();
+            double load = routeLoad(stops, instance) + nodes.get(customerId).getDemand();
+            double[][] forwardStates = evaluator.getForwardStates(stops, instance);
+            if (buffer.length < len + 1) {
+                buffer = new int[len + 1];
+            }
+
+            // Rank insertion positions by penalized cost to limit double ejections
+            double[] positionCost = new double[len + 1];
+            Integer[] ranked = new Integer[len + 1];
+            for (int pos = 0; pos <= len; pos++) {
+                positionCost[pos] = evaluator.evaluateWithInsertion(stops, pos, customerId, forwardStates, instance).cost();
+                ranked[pos] = pos;
+            }
+            Arrays.sort(ranked, (a, b) -> Double.compare(positionCost[a], positionCost[b]));
+
+            for (int rank = 0; rank <= len; rank++) {
+                int pos = ranked[rank];
+                for (int e1 = 0; e1 < len; e1++) {
+                    int c1 = stops.get(e1);
+                    if (!isCustomer(c1, instance)) {
+                        continue;
+                    }
+                    double d1 = nodes.get(c1).getDemand();
+
+                    // Single ejection
+                    if (penalty[c1] <= bestPenalty && load - d1 <= capacity + EPSILON) {
+                        double dist = evaluateEjection(stops, forwardStates, pos, customerId, e1, -1, buffer, instance);
+                        if (dist >= 0 && isBetter(penalty[c1], dist, bestPenalty, bestDist)) {
+                            bestPenalty = penalty[c1];
+                            bestDist = dist;
+                            bestRoute = r;
+                            bestPos = pos;
+                            bestE1 = e1;
+                            bestE2 = -1;
+                        }
+                    }
+
+                    // Double ejection (only at the most promising positions)
+                    if (rank >= DOUBLE_EJECTION_POSITIONS) {
+                        continue;
+                    }
+                    for (int e2 = e1 + 1; e2 < len; e2++) {
+                        int c2 = stops.get(e2);
+                        if (!isCustomer(c2, instance) || penalty[c1] + penalty[c2] > bestPenalty ||
+                            load - d1 - nodes.get(c2).getDemand() > capacity + EPSILON) {
+                            continue;
+                        }
+                        double dist = evaluateEjection(stops, forwardStates, pos, customerId, e1, e2, buffer, instance);
+                        if (dist >= 0 && isBetter(penalty[c1] + penalty[c2], dist, bestPenalty, bestDist)) {
+                            bestPenalty = penalty[c1] + penalty[c2];
+                            bestDist = dist;
+                            bestRoute = r;
+                            bestPos = pos;
+                            bestE1 = e1;
+                            bestE2 = e2;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (bestRoute < 0) {
+            return false;
+        }
+
+        List<Integer> stops = routes.get(bestRoute).getStops();
+        if (buffer.length < stops.size() + 1) {
+            buffer = new int[stops.size() + 1];
+        }
+        int len = buildEjection(stops, bestPos, customerId, bestE1, bestE2, buffer);
+        pool.push(stops.get(bestE1));
+        if (bestE2 >= 0) {
+            pool.push(stops.get(bestE2));
+        }
+        stops.clear();
+        for (int i = 0; i < len; i++) {
+            stops.add(buffer[i]);
+        }
+        return true;
+    }
+
+    private static boolean isBetter(int penalty, double dist, int bestPenalty, double bestDist) {
+        return penalty < bestPenalty || (penalty == bestPenalty && dist < bestDist);
+    }
+
+    /**
+     * Distance of the route with customerId inserted at pos and positions e1 (and e2) removed,
+     * or -1 if that route is infeasible
+     */
+    private double evaluateEjection(List<Integer> stops, double[][] forwardStates, int pos, int customerId,
+                                    int e1, int e2, int[] buffer, Instance instance) {
+        int len = buildEjection(stops, pos, customerId, e1, e2, buffer);
+        int prefix = Math.min(pos, e1);
+        RouteStats stats = evaluator.evaluateWithTail(stops, prefix, forwardStates, buffer, prefix, len, instance);
+        return stats.isFeasible() ? stats.distance() : -1;
+    }
+
+    private static int buildEjection(List<Integer> stops, int pos, int customerId, int e1, int e2, int[] buffer) {
+        int n = 0;
+        for (int k = 0; k <= stops.size(); k++) {
+            if (k == pos) {
+                buffer[n++] = customerId;
+            }
+            if (k < stops.size() && k != e1 && k != e2) {
+                buffer[n++] = stops.get(k);
+            }
+        }
+        return n;
+    }
+
+    private static boolean isCustomer(int nodeId, Instance instance) {
+        return instance.getAllNodes().get(nodeId).getType() == NodeType.CUSTOMER;
+    }
+
+    private static int countCustomers(List<Integer> stops, Instance instance) {
+        int count = 0;
+        for (int nodeId : stops) {
+            if (isCustomer(nodeId, instance)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static double routeLoad(List<Integer> stops, Instance instance) {
+        double load = 0.0;
+        for (int nodeId : stops) {
+            load += instance.getAllNodes().get(nodeId).getDemand();
+        }
+        return load;
+    }
+}
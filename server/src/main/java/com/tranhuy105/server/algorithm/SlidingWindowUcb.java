@@ -0,0 +1,81 @@
+package com.tranhuy105.server.algorithm;
+
+import java.util.Random;
+
+/**
+ * Sliding-window UCB1: picks the enabled operator with the best mean reward over its calls
+ * among the last WINDOW calls of the group, plus an exploration bonus. Forgetting old calls
+ * lets the choice follow the search as it moves from construction-repair to fine tuning.
+ */
+public class SlidingWindowUcb implements SelectionPolicy {
+    private static final int WINDOW = 500;
+    private static final double EXPLORATION = 0.2;  // Weight of the exploration bonus (rewards in [0, 1])
+
+    private final int[] playedOp;
+    private final double[] playedReward;
+    private final int[] counts;
+    private final double[] sums;
+    private final int[] lastSlot;
+    private final Random random;
+    private int head = 0;
+    private int size = 0;
+
+    public SlidingWindowUcb(int n, Random random) {
+        this.playedOp = new int[WINDOW];
+        this.playedReward = new double[WINDOW];
+        this.counts = new int[n];
+        this.sums = new double[n];
+        this.lastSlot = new int[n];
+        this.random = random;
+    }
+
+    @Override
+    public int select(double[] weights, boolean[] enabled) {
+        int n = counts.length;
+        double logT = Math.log(Math.max(size, 1));
+        int best = -1;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        // Start at a random operator so untried ones and ties are not biased to low handles
+        int offset = random.nextInt(n);
+        for (int k = 0; k < n; k++) {
+            int i = (offset + k) % n;
+            if (!enabled[i]) {
+                continue;
+            }
+            if (counts[i] == 0) {
+                return i;
+            }
+            double value = sums[i] / counts[i] + EXPLORATION * Math.sqrt(2.0 * logT / counts[i]);
+            if (value > bestValue) {
+                bestValue = value;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void onUse(int op) {
+        if (size == playedOp.length) {
+            // Window full: forget the oldest call
+            counts[playedOp[head]]--;
+            sums[playedOp[head]] -= playedReward[head];
+        } else {
+            size++;
+        }
+        playedOp[head] = op;
+        playedReward[head] = 0.0;
+        counts[op]++;
+        lastSlot[op] = head;
+        head = (head + 1) % playedOp.length;
+    }
+
+    @Override
+    public void onReward(int op, double reward) {
+        int slot = lastSlot[op];
+        if (counts[op] > 0 && playedOp[slot] == op) {
+            playedReward[slot] += reward;
+            sums[op] += reward;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.tranhuy105.server.algorithm;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Discounted Thompson sampling: each operator keeps a Beta(alpha, beta) posterior of its reward,
+ * every call adds its reward r to alpha and 1 - r to beta. The operator with the highest posterior
+ * sample is picked. At each segment end the evidence decays towards the Beta(1, 1) prior, so old
+ * results lose influence.
+ */
+public class ThompsonSelection implements SelectionPolicy {
+    private static final double DISCOUNT = 0.9;  // Evidence kept per segment
+
+    private final double[] alpha;
+    private final double[] beta;
+    private final Random random;
+
+    public ThompsonSelection(int n, Random random) {
+        this.alpha = new double[n];
+        this.beta = new double[n];
+        this.random = random;
+        Arrays.fill(alpha, 1.0);
+        Arrays.fill(beta, 1.0);
+    }
+
+    @Override
+    public int select(double[] weights, boolean[] enabled) {
+        int best = -1;
+        double bestSample = -1.0;
+        for (int i = 0; i < alpha.length; i++) {
+            if (!enabled[i]) {
+                continue;
+            }
+            double x = sampleGamma(alpha[i]);
+            double sample = x / (x + sampleGamma(beta[i]));
+            if (sample > bestSample) {
+                bestSample = sample;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void onUse(int op) {
+        // A call counts as a failure until its reward arrives
+        beta[op] += 1.0;
+    }
+
+    @Override
+    public void onReward(int op, double reward) {
+        double r = Math.min(reward, beta[op] - 1.0);
+        alpha[op] += r;
+        beta[op] -= r;
+    }
+
+    @Override
+    public void endSegment() {
+        for (int i = 0; i < alpha.length; i++) {
+            alpha[i] = 1.0 + DISCOUNT * (alpha[i] - 1.0);
+            beta[i] = 1.0 + DISCOUNT * (beta[i] - 1.0);
+        }
+    }
+
+    /**
+     * Gamma(shape, 1) sample for shape >= 1 (Marsaglia and Tsang)
+     */
+    private double sampleGamma(double shape) {
+        double d = shape - 1.0 / 3.0;
+        double c = 1.0 / Math.sqrt(9.0 * d);
+        while (true) {
+            double x = random.nextGaussian();
+            double v = 1.0 + c * x;
+            if (v <= 0) {
+                continue;
+            }
+            v = v * v * v;
+            double u = random.nextDouble();
+            if (Math.log(u) < 0.5 * x * x + d - d * v + d * Math.log(v)) {
+                return d * v;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.tranhuy105.server.algorithm;
+
+/**
+ * Threshold accepting: accept a candidate less than a threshold worse than the current one.
+ * The threshold starts at a share of the initial cost and falls linearly to zero over the
+ * iteration budget, or geometrically by the configured cooling rate without a budget.
+ */
+public class ThresholdAcceptance implements AcceptanceCriterion {
+    private final int maxIterations;
+    private final double startShare;
+    private final double fallbackCoolingRate;
+    private double start;
+    private double threshold;
+
+    public ThresholdAcceptance(int maxIterations, double startShare, double fallbackCoolingRate) {
+        this.maxIterations = maxIterations;
+        this.startShare = startShare;
+        this.fallbackCoolingRate = fallbackCoolingRate;
+    }
+
+    @Override
+    public void start(double initialCost, double totalCost) {
+        start = initialCost * startShare;
+        threshold = start;
+    }
+
+    @Override
+    public boolean accept(double candidateCost, double currentCost) {
+        return candidateCost - currentCost < threshold;
+    }
+
+    @Override
+    public void step(double currentCost) {
+        if (maxIterations < Integer.MAX_VALUE) {
+            threshold = Math.max(0.0, threshold - start / Math.max(1, maxIterations));
+        } else {
+            threshold *= fallbackCoolingRate;
+        }
+    }
+
+    @Override
+    public void reheat(double share) {
+        threshold = Math.max(threshold, start * share);
+    }
+
+    @Override
+    public double level() {
+        return threshold;
+    }
+}
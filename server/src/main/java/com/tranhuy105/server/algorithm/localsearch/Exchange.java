@@ -0,0 +1,60 @@
+package com.tranhuy105.server.algorithm.localsearch;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Exchange: swap a customer with one of its neighbors
+ */
+@Component
+public class Exchange implements LocalSearchOperator {
+
+    @Override
+    public String getName() {
+        return "exchange";
+    }
+
+    @Override
+    public boolean apply(LocalSearchContext context, int customerId) {
+        int ru = context.routeOf(customerId);
+        int pu = context.posOf(customerId);
+
+        for (int v : context.getNeighbors(customerId)) {
+            int rv = context.routeOf(v);
+            int pv = context.posOf(v);
+            List<Integer> routeU = context.getRoute(ru);
+
+            if (ru == rv) {
+                int[] seq = context.firstBuffer(routeU.size());
+                for (int k = 0; k < routeU.size(); k++) {
+                    seq[k] = routeU.get(k);
+                }
+                seq[pu] = v;
+                seq[pv] = customerId;
+                if (context.tryCommit(ru, seq, routeU.size())) {
+                    return true;
+                }
+                continue;
+            }
+
+            List<Integer> routeV = context.getRoute(rv);
+            int[] seqU = context.firstBuffer(routeU.size());
+            for (int k = 0; k < routeU.size(); k++) {
+                seqU[k] = routeU.get(k);
+            }
+            seqU[pu] = v;
+
+            int[] seqV = context.secondBuffer(routeV.size());
+            for (int k = 0; k < routeV.size(); k++) {
+                seqV[k] = routeV.get(k);
+            }
+            seqV[pv] = customerId;
+
+            if (context.tryCommit(ru, seqU, routeU.size(), rv, seqV, routeV.size())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
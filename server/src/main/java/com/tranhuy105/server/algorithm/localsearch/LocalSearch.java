@@ -0,0 +1,78 @@
+package com.tranhuy105.server.algorithm.localsearch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.stereotype.Component;
+
+import com.tranhuy105.server.algorithm.RouteEvaluator;
+import com.tranhuy105.server.config.ALNSProperties;
+import com.tranhuy105.server.domain.Instance;
+import com.tranhuy105.server.domain.Node;
+import com.tranhuy105.server.domain.Solution;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * First-improvement local search over granular neighborhoods.
+ * Never accepts a move that increases constraint violations, so feasible solutions stay feasible.
+ * Stateless and safe to share between parallel workers.
+ */
+@Component
+@Slf4j
+public class LocalSearch {
+    private final ALNSProperties properties;
+    private final RouteEvaluator evaluator;
+    private final List<LocalSearchOperator> operators;
+
+    /**
+     * Spring auto-injects all LocalSearchOperator beans
+     */
+    public LocalSearch(ALNSProperties properties, RouteEvaluator evaluator, List<LocalSearchOperator> operators) {
+        this.properties = properties;
+        this.evaluator = evaluator;
+        this.operators = operators;
+        log.info("Registered {} local search operators: {}", operators.size(),
+                operators.stream().map(LocalSearchOperator::getName).toList());
+    }
+
+    /**
+     * Improve solution in place until no move improves it (or pass limit reached)
+     * @return Number of moves applied
+     */
+    public int improve(Solution solution, Instance instance, Random random) {
+        LocalSearchContext context = new LocalSearchContext(solution, instance, evaluator,
+                properties.penalties().vehicle());
+
+        List<Integer> customers = new ArrayList<>(instance.getCustomers().size());
+        for (Node customer : instance.getCustomers()) {
+            customers.add(customer.getId());
+        }
+
+        int moves = 0;
+        boolean improved = true;
+        int pass = 0;
+        int maxPasses = properties.localSearch().maxPasses();
+
+        while (improved && pass < maxPasses) {
+            improved = false;
+            pass++;
+            Collections.shuffle(customers, random);
+
+            for (int customerId : customers) {
+                for (LocalSearchOperator op : operators) {
+                    if (op.apply(context, customerId)) {
+                        improved = true;
+                        moves++;
+                    }
+                }
+            }
+        }
+
+        evaluator.calculateTotalCost(solution, instance);
+        log.debug("Local search: {} moves in {} passes", moves, pass);
+        return moves;
+    }
+}
@@ -0,0 +1,214 @@
+package com.tranhuy105.server.algorithm.localsearch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tranhuy105.server.algorithm.RouteEvaluator;
+import com.tranhuy105.server.domain.Instance;
+import com.tranhuy105.server.domain.NodeType;
+import com.tranhuy105.server.domain.RouteStats;
+import com.tranhuy105.server.domain.Solution;
+
+/**
+ * Shared state for one local search run: customer positions and cached forward states of every route
+ */
+public class LocalSearchContext {
+    private static final double EPSILON = 1e-6;
+    private static final int[] NO_NEIGHBORS = new int[0];
+
+    private final Solution solution;
+    private final Instance instance;
+    private final RouteEvaluator evaluator;
+    private final double vehiclePenalty;
+
+    private final List<double[][]> forwardStates = new ArrayList<>();
+    private final List<RouteStats> routeStats = new ArrayList<>();
+    private final int[] routeOf;
+    private final int[] posOf;
+
+    private int[] firstBuffer = new int[16];
+    private int[] secondBuffer = new int[16];
+
+    public LocalSearchContext(Solution solution, Instance instance, RouteEvaluator evaluator, double vehiclePenalty) {
+        this.solution = solution;
+        this.instance = instance;
+        this.evaluator = evaluator;
+        this.vehiclePenalty = vehiclePenalty;
+
+        int size = instance.getAllNodes().size();
+        this.routeOf = new int[size];
+        this.posOf = new int[size];
+
+        for (int r = 0; r < solution.getRoutes().size(); r++) {
+            forwardStates.add(null);
+            routeStats.add(null);
+            refresh(r);
+        }
+    }
+
+    private void refresh(int r) {
+        List<Integer> stops = getRoute(r);
+        forwardStates.set(r, evaluator.getForwardStates(stops, instance));
+        routeStats.set(r, evaluator.evaluate(stops, instance));
+        for (int k = 0; k < stops.size(); k++) {
+            int nodeId = stops.get(k);
+            if (isCustomer(nodeId)) {
+                routeOf[nodeId] = r;
+                posOf[nodeId] = k;
+            }
+        }
+    }
+
+    public boolean isCustomer(int nodeId) {
+        return instance.getAllNodes().get(nodeId).getType() == NodeType.CUSTOMER;
+    }
+
+    public int[] getNeighbors(int customerId) {
+        return instance.getNearestCustomers().getOrDefault(customerId, NO_NEIGHBORS);
+    }
+
+    public int routeOf(int customerId) {
+        return routeOf[customerId];
+    }
+
+    public int posOf(int customerId) {
+        return posOf[customerId];
+    }
+
+    public List<Integer> getRoute(int r) {
+        return solution.getRoutes().get(r).getStops();
+    }
+
+    /**
+     * Scratch buffer for the first route of a move
+     */
+    public int[] firstBuffer(int minSize) {
+        if (firstBuffer.length < minSize) {
+            firstBuffer = new int[Math.max(minSize, firstBuffer.length * 2)];
+        }
+        return firstBuffer;
+    }
+
+    /**
+     * Scratch buffer for the second route of a move
+     */
+    public int[] secondBuffer(int minSize) {
+        if (secondBuffer.length < minSize) {
+            secondBuffer = new int[Math.max(minSize, secondBuffer.length * 2)];
+        }
+        return secondBuffer;
+    }
+
+    /**
+     * Replace route r by seq[0..len) if that lowers the cost without adding violations
+     */
+    public boolean tryCommit(int r, int[] seq, int len) {
+        List<Integer> stops = getRoute(r);
+        int prefix = commonPrefix(stops, seq, len);
+        if (prefix == len && len == stops.size()) {
+            return false;
+        }
+
+        RouteStats oldStats = routeStats.get(r);
+        double oldCost = routeCost(oldStats, true);
+
+        RouteStats newStats = evaluator.evaluateWithTail(stops, prefix, forwardStates.get(r),
+                seq, prefix, len, instance);
+        boolean used = hasCustomer(seq, len);
+        double newCost = routeCost(newStats, used);
+        double newViol = used ? newStats.totalViolation() : 0.0;
+
+        if (newCost >= oldCost - EPSILON || newViol > oldStats.totalViolation() + EPSILON) {
+            return false;
+        }
+
+        apply(r, prefix, seq, len);
+        if (!used) {
+            removeRoute(r);
+        }
+        return true;
+    }
+
+    /**
+     * Replace routes r1 and r2 together if that lowers the cost without adding violations
+     */
+    public boolean tryCommit(int r1, int[] seq1, int len1, int r2, int[] seq2, int len2) {
+        List<Integer> stops1 = getRoute(r1);
+        List<Integer> stops2 = getRoute(r2);
+        int prefix1 = commonPrefix(stops1, seq1, len1);
+        int prefix2 = commonPrefix(stops2, seq2, len2);
+
+        RouteStats old1 = routeStats.get(r1);
+        RouteStats old2 = routeStats.get(r2);
+        double oldCost = routeCost(old1, true) + routeCost(old2, true);
+        double oldViol = old1.totalViolation() + old2.totalViolation();
+
+        RouteStats new1 = evaluator.evaluateWithTail(stops1, prefix1, forwardStates.get(r1),
+                seq1, prefix1, len1, instance);
+        boolean used1 = hasCustomer(seq1, len1);
+        double newCost = routeCost(new1, used1);
+        if (newCost >= oldCost - EPSILON) {
+            return false;
+        }
+
+        RouteStats new2 = evaluator.evaluateWithTail(stops2, prefix2, forwardStates.get(r2),
+                seq2, prefix2, len2, instance);
+        boolean used2 = hasCustomer(seq2, len2);
+        newCost += routeCost(new2, used2);
+        double newViol = (used1 ? new1.totalViolation() : 0.0) + (used2 ? new2.totalViolation() : 0.0);
+
+        if (newCost >= oldCost - EPSILON || newViol > oldViol + EPSILON) {
+            return false;
+        }
+
+        apply(r1, prefix1, seq1, len1);
+        apply(r2, prefix2, seq2, len2);
+        if (!used1 && !used2) {
+            removeRoute(Math.max(r1, r2));
+            removeRoute(Math.min(r1, r2));
+        } else if (!used1 || !used2) {
+            removeRoute(used1 ? r2 : r1);
+        }
+        return true;
+    }
+
+    private void apply(int r, int prefix, int[] seq, int len) {
+        List<Integer> stops = getRoute(r);
+        stops.subList(prefix, stops.size()).clear();
+        for (int i = prefix; i < len; i++) {
+            stops.add(seq[i]);
+        }
+        refresh(r);
+    }
+
+    private void removeRoute(int r) {
+        solution.getRoutes().remove(r);
+        forwardStates.remove(r);
+        routeStats.remove(r);
+        for (int i = r; i < solution.getRoutes().size(); i++) {
+            refresh(i);
+        }
+    }
+
+    private static int commonPrefix(List<Integer> stops, int[] seq, int len) {
+        int limit = Math.min(stops.size(), len);
+        int i = 0;
+        while (i < limit && stops.get(i) == seq[i]) {
+            i++;
+        }
+        return i;
+    }
+
+    private boolean hasCustomer(int[] seq, int len) {
+        for (int i = 0; i < len; i++) {
+            if (isCustomer(seq[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double routeCost(RouteStats stats, boolean used) {
+        return used ? stats.cost() + vehiclePenalty : 0.0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.tranhuy105.server.algorithm.localsearch;
+
+/**
+ * Interface for local search moves
+ */
+public interface LocalSearchOperator {
+    /**
+     * Get unique name for logging
+     */
+    String getName();
+
+    /**
+     * Try moves around a customer and apply the first improving one
+     * @param context Search context holding the current solution and cached route states
+     * @param customerId Customer the moves are centered on
+     * @return true if an improving move was applied
+     */
+    boolean apply(LocalSearchContext context, int customerId);
+}
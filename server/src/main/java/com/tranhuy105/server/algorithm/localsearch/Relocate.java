@@ -0,0 +1,26 @@
+package com.tranhuy105.server.algorithm.localsearch;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Relocate: move a single customer next to one of its neighbors
+ */
+@Component
+public class Relocate extends SegmentMove {
+
+    @Override
+    public String getName() {
+        return "relocate";
+    }
+
+    @Override
+    public boolean apply(LocalSearchContext context, int customerId) {
+        for (int v : context.getNeighbors(customerId)) {
+            if (moveSegment(context, customerId, 1, v, false, false) ||
+                moveSegment(context, customerId, 1, v, true, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
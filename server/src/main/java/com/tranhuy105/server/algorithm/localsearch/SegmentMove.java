@@ -0,0 +1,84 @@
+package com.tranhuy105.server.algorithm.localsearch;
+
+import java.util.List;
+
+/**
+ * Base for moves that relocate a consecutive segment next to another customer
+ */
+abstract class SegmentMove implements LocalSearchOperator {
+
+    /**
+     * Move the segment of length len starting at customerId next to customer v
+     *
+     * @param before Insert before v instead of after it
+     * @param reversed Insert the segment in reverse order
+     */
+    protected boolean moveSegment(LocalSearchContext context, int customerId, int len,
+                                  int v, boolean before, boolean reversed) {
+        int ru = context.routeOf(customerId);
+        int pu = context.posOf(customerId);
+        int rv = context.routeOf(v);
+        int pv = context.posOf(v);
+        List<Integer> routeU = context.getRoute(ru);
+
+        if (pu + len > routeU.size()) {
+            return false;
+        }
+
+        if (ru == rv) {
+            if (pv >= pu && pv < pu + len) {
+                return false;
+            }
+            int[] seq = context.firstBuffer(routeU.size());
+            int n = 0;
+            for (int k = 0; k < routeU.size(); k++) {
+                if (k >= pu && k < pu + len) {
+                    continue;
+                }
+                if (before && k == pv) {
+                    n = appendSegment(seq, n, routeU, pu, len, reversed);
+                }
+                seq[n++] = routeU.get(k);
+                if (!before && k == pv) {
+                    n = appendSegment(seq, n, routeU, pu, len, reversed);
+                }
+            }
+            return context.tryCommit(ru, seq, n);
+        }
+
+        List<Integer> routeV = context.getRoute(rv);
+        int[] seqU = context.firstBuffer(routeU.size());
+        int nu = 0;
+        for (int k = 0; k < routeU.size(); k++) {
+            if (k < pu || k >= pu + len) {
+                seqU[nu++] = routeU.get(k);
+            }
+        }
+
+        int[] seqV = context.secondBuffer(routeV.size() + len);
+        int nv = 0;
+        int insertAt = before ? pv : pv + 1;
+        for (int k = 0; k < insertAt; k++) {
+            seqV[nv++] = routeV.get(k);
+        }
+        nv = appendSegment(seqV, nv, routeU, pu, len, reversed);
+        for (int k = insertAt; k < routeV.size(); k++) {
+            seqV[nv++] = routeV.get(k);
+        }
+
+        return context.tryCommit(ru, seqU, nu, rv, seqV, nv);
+    }
+
+    private static int appendSegment(int[] seq, int n, List<Integer> route, int start, int len, boolean reversed) {
+        if (reversed) {
+            for (int k = start + len - 1; k >= start; k--) {
+                seq[n++] = route.get(k);
+            }
+        } else {
+            for (int k = start; k < start + len; k++) {
+                seq[n++] = route.get(k);
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,71 @@
+package com.tranhuy105.server.algorithm.localsearch;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 2-opt*: exchange route tails between two routes so a customer and its neighbor become adjacent
+ */
+@Component
+public class TwoOptStar implements LocalSearchOperator {
+
+    @Override
+    public String getName() {
+        return "2opt_star";
+    }
+
+    @Override
+    public boolean apply(LocalSearchContext context, int customerId) {
+        for (int v : context.getNeighbors(customerId)) {
+            int ru = context.routeOf(customerId);
+            int rv = context.routeOf(v);
+            if (ru == rv) {
+                continue;
+            }
+            int pu = context.posOf(customerId);
+            int pv = context.posOf(v);
+
+            // u -> v: route1[..pu] + route2[pv..], route2[..pv) + route1[pu+1..]
+            if (exchangeTails(context, ru, pu + 1, rv, pv)) {
+                return true;
+            }
+            // v -> u: route1[..pu) + route2[pv+1..], route2[..pv] + route1[pu..]
+            if (exchangeTails(context, ru, pu, rv, pv + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Swap route1[cut1..] with route2[cut2..]
+     */
+    private boolean exchangeTails(LocalSearchContext context, int r1, int cut1, int r2, int cut2) {
+        List<Integer> route1 = context.getRoute(r1);
+        List<Integer> route2 = context.getRoute(r2);
+
+        int len1 = cut1 + (route2.size() - cut2);
+        int len2 = cut2 + (route1.size() - cut1);
+        int[] seq1 = context.firstBuffer(len1);
+        int[] seq2 = context.secondBuffer(len2);
+
+        int n1 = 0;
+        for (int k = 0; k < cut1; k++) {
+            seq1[n1++] = route1.get(k);
+        }
+        for (int k = cut2; k < route2.size(); k++) {
+            seq1[n1++] = route2.get(k);
+        }
+
+        int n2 = 0;
+        for (int k = 0; k < cut2; k++) {
+            seq2[n2++] = route2.get(k);
+        }
+        for (int k = cut1; k < route1.size(); k++) {
+            seq2[n2++] = route1.get(k);
+        }
+
+        return context.tryCommit(r1, seq1, n1, r2, seq2, n2);
+    }
+}
@@ -1,6 +1,7 @@
 package com.tranhuy105.server.algorithm.operator;
 
 import java.util.List;
+import java.util.Random;
 
 import org.springframework.stereotype.Component;
 
@@ -23,6 +24,14 @@ public class InsertionHelper {
      * Find best position to insert customer in a route
      */
     public InsertionResult findBestPosition(Solution solution, int routeIdx, int customerId, Instance instance) {
+        return findBestPosition(solution, routeIdx, customerId, instance, null, 0.0);
+    }
+
+    /**
+     * Best position with blinks: each position is skipped with probability blinkRate
+     */
+    public InsertionResult findBestPosition(Solution solution, int routeIdx, int customerId, Instance instance,
+                                            Random blinkRandom, double blinkRate) {
         List<Integer> routeStops = solution.getRoutes().get(routeIdx).getStops();
         int routeLen = routeStops.size();
 
@@ -44,6 +53,10 @@ public class InsertionHelper {
 
         // Evaluate ALL positions for best quality
         for (int pos = 0; pos <= routeLen; pos++) {
+            if (blinkRandom != null && blinkRandom.nextDouble() < blinkRate) {
+                continue;
+            }
+
             // Scenario 1: Direct insertion
             RouteStats newStats = evaluator.evaluateWithInsertion(routeStops, pos, customerId, forwardStates, instance);
             double delta = newStats.cost() - costOld;
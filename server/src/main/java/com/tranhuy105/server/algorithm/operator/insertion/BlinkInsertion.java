@@ -0,0 +1,98 @@
+package com.tranhuy105.server.algorithm.operator.insertion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.stereotype.Component;
+
+import com.tranhuy105.server.algorithm.operator.InsertionHelper;
+import com.tranhuy105.server.algorithm.operator.InsertionOperator;
+import com.tranhuy105.server.algorithm.operator.InsertionResult;
+import com.tranhuy105.server.config.ALNSProperties;
+import com.tranhuy105.server.domain.Instance;
+import com.tranhuy105.server.domain.Route;
+import com.tranhuy105.server.domain.Solution;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Blink insertion (SISR): insert customers one at a time in a randomly chosen order
+ * (random, demand, far, close or due time), each at the cheapest position found while
+ * skipping every position with the configured blink rate.
+ */
+@Component
+@RequiredArgsConstructor
+public class BlinkInsertion implements InsertionOperator {
+    private final InsertionHelper insertionHelper;
+    private final ALNSProperties properties;
+    private final Random random = new Random();
+
+    @Override
+    public String getName() {
+        return "blink";
+    }
+
+    @Override
+    public void insert(Solution solution, List<Integer> customersToInsert, Instance instance) {
+        double blinkRate = properties.sisr().blinkRate();
+        List<Integer> order = new ArrayList<>(customersToInsert);
+        sortCustomers(order, instance);
+
+        for (int custId : order) {
+            double bestCost = instance.distance(0, custId) + instance.distance(custId, 0)
+                    + properties.penalties().vehicle();
+            int bestRouteIdx = -1;
+            InsertionResult best = null;
+
+            for (int rIdx = 0; rIdx < solution.getRoutes().size(); rIdx++) {
+                InsertionResult result = insertionHelper.findBestPosition(
+                        solution, rIdx, custId, instance, random, blinkRate);
+                if (result.costIncrease() < bestCost) {
+                    bestCost = result.costIncrease();
+                    bestRouteIdx = rIdx;
+                    best = result;
+                }
+            }
+
+            if (best == null) {
+                Route newRoute = new Route();
+                newRoute.getStops().add(custId);
+                solution.getRoutes().add(newRoute);
+                continue;
+            }
+
+            List<Integer> toInsert = new ArrayList<>(3);
+            if (best.stationBefore() != null) {
+                toInsert.add(best.stationBefore());
+            }
+            toInsert.add(custId);
+            if (best.stationAfter() != null) {
+                toInsert.add(best.stationAfter());
+            }
+            solution.getRoutes().get(bestRouteIdx).getStops().addAll(best.position(), toInsert);
+        }
+    }
+
+    /**
+     * Shuffle, then sort by one criterion drawn with weights random 4, demand 4, far 2, close 1, due time 2
+     */
+    private void sortCustomers(List<Integer> order, Instance instance) {
+        Collections.shuffle(order, random);
+
+        int pick = random.nextInt(13);
+        if (pick < 4) {
+            return;
+        } else if (pick < 8) {
+            order.sort(Comparator.comparingDouble((Integer c) -> instance.getAllNodes().get(c).getDemand()).reversed());
+        } else if (pick < 10) {
+            order.sort(Comparator.comparingDouble((Integer c) -> instance.distance(0, c)).reversed());
+        } else if (pick < 11) {
+            order.sort(Comparator.comparingDouble(c -> instance.distance(0, c)));
+        } else {
+            order.sort(Comparator.comparingDouble(c -> instance.getAllNodes().get(c).getDueTime()));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.tranhuy105.server.algorithm.operator.removal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.springframework.stereotype.Component;
+
+import com.tranhuy105.server.algorithm.operator.RemovalOperator;
+import com.tranhuy105.server.config.ALNSProperties;
+import com.tranhuy105.server.domain.CustomerPosition;
+import com.tranhuy105.server.domain.Instance;
+import com.tranhuy105.server.domain.NodeType;
+import com.tranhuy105.server.domain.Route;
+import com.tranhuy105.server.domain.Solution;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * String removal (SISR): cut strings of consecutive customers from the routes around a random seed.
+ * A split string keeps a run of customers in its middle, so routes get slack in several places.
+ */
+@Component
+@RequiredArgsConstructor
+public class StringRemoval implements RemovalOperator {
+    private final ALNSProperties properties;
+    private final Random random = new Random();
+
+    @Override
+    public String getName() {
+        return "string";
+    }
+
+    @Override
+    public List<Integer> remove(Solution solution, int count, Instance instance) {
+        // Customer positions per route
+        List<Route> routes = solution.getRoutes();
+        List<List<CustomerPosition>> byRoute = new ArrayList<>(routes.size());
+        int[] routeOf = new int[instance.getAllNodes().size()];
+        Arrays.fill(routeOf, -1);
+        List<Integer> served = new ArrayList<>();
+        int usedRoutes = 0;
+        for (int rIdx = 0; rIdx < routes.size(); rIdx++) {
+            List<Integer> stops = routes.get(rIdx).getStops();
+            List<CustomerPosition> positions = new ArrayList<>();
+            for (int pos = 0; pos < stops.size(); pos++) {
+                int nodeId = stops.get(pos);
+                if (instance.getAllNodes().get(nodeId).getType() == NodeType.CUSTOMER) {
+                    positions.add(new CustomerPosition(rIdx, pos, nodeId));
+                    routeOf[nodeId] = rIdx;
+                    served.add(nodeId);
+                }
+            }
+            byRoute.add(positions);
+            if (!positions.isEmpty()) {
+                usedRoutes++;
+            }
+        }
+        if (served.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        count = Math.min(count, served.size());
+        ALNSProperties.SisrConfig config = properties.sisr();
+
+        // String length limit from the average route, number of strings from count
+        double maxLength = Math.min(config.maxStringLength(), (double) served.size() / usedRoutes);
+        double maxStrings = 4.0 * count / (1.0 + maxLength) - 1.0;
+        int strings = (int) (random.nextDouble() * maxStrings) + 1;
+
+        // Visit routes in order of their customers' distance to the seed
+        int seed = served.get(random.nextInt(served.size()));
+        served.sort(Comparator.comparingDouble(c -> instance.distance(seed, c)));
+
+        List<CustomerPosition> toRemove = new ArrayList<>();
+        boolean[] cutRoute = new boolean[routes.size()];
+        int cut = 0;
+
+        for (int c : served) {
+            if (cut >= strings || toRemove.size() >= count) {
+                break;
+            }
+            int r = routeOf[c];
+            if (cutRoute[r]) {
+                continue;
+            }
+
+            List<CustomerPosition> route = byRoute.get(r);
+            int card = route.size();
+            int idx = indexOf(route, c);
+            int maxHere = Math.max(1, (int) Math.min(card, maxLength));
+            int length = Math.min((int) (random.nextDouble() * maxHere) + 1, count - toRemove.size());
+
+            if (length < card && random.nextDouble() < config.splitRate()) {
+                cutSplitString(route, idx, length, config.splitDepth(), toRemove);
+            } else {
+                int start = windowStart(card, idx, length);
+                toRemove.addAll(route.subList(start, start + length));
+            }
+            cutRoute[r] = true;
+            cut++;
+        }
+
+        return removeCustomers(solution, toRemove);
+    }
+
+    /**
+     * Take a string of length + m customers containing idx and remove all but m consecutive ones
+     */
+    private void cutSplitString(List<CustomerPosition> route, int idx, int length, double splitDepth,
+                                List<CustomerPosition> toRemove) {
+        int card = route.size();
+        int kept = 1;
+        while (length + kept < card && random.nextDouble() > splitDepth) {
+            kept++;
+        }
+
+        int start = windowStart(card, idx, length + kept);
+        int keptFrom = start + 1 + random.nextInt(length);
+        for (int pos = start; pos < start + length + kept; pos++) {
+            if (pos < keptFrom || pos >= keptFrom + kept) {
+                toRemove.add(route.get(pos));
+            }
+        }
+    }
+
+    private int windowStart(int card, int idx, int length) {
+        int lo = Math.max(0, idx - length + 1);
+        int hi = Math.min(idx, card - length);
+        return lo + random.nextInt(hi - lo + 1);
+    }
+
+    private static int indexOf(List<CustomerPosition> route, int customerId) {
+        for (int i = 0; i < route.size(); i++) {
+            if (route.get(i).customerId() == customerId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private List<Integer> removeCustomers(Solution solution, List<CustomerPosition> toRemove) {
+        toRemove.sort((a, b) -> {
+            int cmp = Integer.compare(b.routeIndex(), a.routeIndex());
+            if (cmp != 0) return cmp;
+            return Integer.compare(b.position(), a.position());
+        });
+
+        List<Integer> removedIds = new ArrayList<>();
+        for (CustomerPosition cp : toRemove) {
+            List<Integer> stops = solution.getRoutes().get(cp.routeIndex()).getStops();
+            if (cp.position() < stops.size()) {
+                stops.remove(cp.position());
+                removedIds.add(cp.customerId());
+            }
+        }
+
+        solution.getRoutes().removeIf(Route::isEmpty);
+        return removedIds;
+    }
+}
@@ -18,7 +18,15 @@ public record ALNSProperties(
     PenaltyConfig penalties,
     ShawConfig shaw,
     int segmentSize,
-    int stationRemovalInterval
+    int stationRemovalInterval,
+    LocalSearchConfig localSearch,
+    RouteMinimizationConfig routeMinimization,
+    DestroySizeConfig destroySize,
+    SisrConfig sisr,
+    int routeCacheSize,
+    AcceptanceConfig acceptance,
+    String operatorSelection,
+    EliteConfig elite
 ) {
     public ALNSProperties {
         // Defaults if not specified
@@ -34,6 +42,31 @@ public record ALNSProperties(
         if (stationRemovalInterval <= 0) {
             stationRemovalInterval = 500;
         }
+        if (localSearch == null) {
+            localSearch = new LocalSearchConfig(false, 20);
+        }
+        if (routeMinimization == null) {
+            routeMinimization = new RouteMinimizationConfig(true, 1000);
+        }
+        if (destroySize == null) {
+            destroySize = new DestroySizeConfig("fraction", 0);
+        }
+        if (sisr == null) {
+            sisr = new SisrConfig(10, 0.5, 0.01, 0.01);
+        }
+        if (routeCacheSize <= 0) {
+            routeCacheSize = 16384;
+        }
+        if (acceptance == null) {
+            acceptance = new AcceptanceConfig("sa", 0.01, 0.02, 0.02);
+        }
+        if (operatorSelection == null) {
+            // roulette, alias (same weights, O(1) sampling), ucb (sliding-window UCB) or thompson
+            operatorSelection = "roulette";
+        }
+        if (elite == null) {
+            elite = new EliteConfig(10, false, 500);
+        }
     }
 
     public record PenaltyConfig(
@@ -47,4 +80,64 @@ public record ALNSProperties(
         double[] phi,
         double eta
     ) {}
+
+    /**
+     * Local search applied to every new best solution
+     */
+    public record LocalSearchConfig(
+        boolean enabled,
+        int maxPasses
+    ) {}
+
+    /**
+     * Route minimization phase run once on the first feasible solution
+     */
+    public record RouteMinimizationConfig(
+        boolean enabled,
+        int maxIterations
+    ) {}
+
+    /**
+     * Customers removed per iteration: fraction (10-40% of n), log (2-8 ln n) or adaptive,
+     * with an absolute cap (0 = no cap)
+     */
+    public record DestroySizeConfig(
+        String policy,
+        int maxRemove
+    ) {}
+
+    /**
+     * String removal and blink insertion: longest string per route, chance of a split string,
+     * chance to stop growing the kept part of a split string, chance to skip an insertion position
+     */
+    public record SisrConfig(
+        int maxStringLength,
+        double splitRate,
+        double splitDepth,
+        double blinkRate
+    ) {}
+
+    /**
+     * Acceptance of non-improving candidates: sa (cools by alns.cooling-rate), sa-budget (cooling
+     * calibrated to the iteration budget, alns.cooling-rate only without one), rrt (record-to-record
+     * travel), lahc (late acceptance) or ta (threshold accepting); record deviation, late
+     * acceptance history length as a share of the iteration budget, start threshold as a share of
+     * the initial cost
+     */
+    public record AcceptanceConfig(
+        String criterion,
+        double rrtDeviation,
+        double lahcBudgetFraction,
+        double thresholdStart
+    ) {}
+
+    /**
+     * Pool of good, mutually different feasible solutions: pool size, whether to restart from
+     * a pool member when the pool best stops improving, and after how many iterations
+     */
+    public record EliteConfig(
+        int poolSize,
+        boolean restarts,
+        int restartStagnation
+    ) {}
 }
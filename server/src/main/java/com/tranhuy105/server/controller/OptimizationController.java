@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -33,10 +34,13 @@ public class OptimizationController {
      * Optimize from uploaded instance file (Schneider format txt)
      * 
      * curl -X POST -F "file=@instance.txt" "http://localhost:8080/api/v1/optimize/file?parallel=true&chargingMode=BATTERY_SWAP"
+     * 
+     * Warm start from a previous solution file: add -F "initialSolution=@solution.txt"
      */
     @PostMapping(value = "/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<OptimizationResponse> optimizeFromFile(
             @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "initialSolution", required = false) MultipartFile initialSolution,
             @RequestParam(value = "iterations", required = false) Integer iterations,
             @RequestParam(value = "timeLimit", required = false) Double timeLimit,
             @RequestParam(value = "parallel", required = false, defaultValue = "false") Boolean parallel,
@@ -47,7 +51,7 @@ public class OptimizationController {
                 file.getOriginalFilename(), parallel, chargingMode);
         
         OptimizationResponse response = optimizationService.optimizeFromFile(
-                file, iterations, timeLimit, parallel, chargingMode, batterySwapTime);
+                file, initialSolution, iterations, timeLimit, parallel, chargingMode, batterySwapTime);
         return ResponseEntity.ok(response);
     }
 
@@ -64,12 +68,30 @@ public class OptimizationController {
             @RequestParam(value = "parallel", required = false, defaultValue = "false") Boolean parallel,
             @RequestParam(value = "chargingMode", required = false, defaultValue = "BATTERY_SWAP") ChargingMode chargingMode,
             @RequestParam(value = "batterySwapTime", required = false, defaultValue = "5.0") Double batterySwapTime
+    ) {
+        return optimizeFromRaw(content, null, iterations, timeLimit, parallel, chargingMode, batterySwapTime);
+    }
+
+    /**
+     * Optimize from raw instance content with a warm start from raw solution content
+     * 
+     * curl -X POST -F "content=<instance.txt" -F "initialSolution=<solution.txt" "http://localhost:8080/api/v1/optimize/raw"
+     */
+    @PostMapping(value = "/raw", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<OptimizationResponse> optimizeFromRaw(
+            @RequestPart("content") String content,
+            @RequestPart(value = "initialSolution", required = false) String initialSolution,
+            @RequestParam(value = "iterations", required = false) Integer iterations,
+            @RequestParam(value = "timeLimit", required = false) Double timeLimit,
+            @RequestParam(value = "parallel", required = false, defaultValue = "false") Boolean parallel,
+            @RequestParam(value = "chargingMode", required = false, defaultValue = "BATTERY_SWAP") ChargingMode chargingMode,
+            @RequestParam(value = "batterySwapTime", required = false, defaultValue = "5.0") Double batterySwapTime
     ) {
         log.info("POST /api/v1/optimize/raw - content length: {}, parallel: {}, chargingMode: {}", 
                 content.length(), parallel, chargingMode);
         
         OptimizationResponse response = optimizationService.optimizeFromString(
-                content, iterations, timeLimit, parallel, chargingMode, batterySwapTime);
+                content, initialSolution, iterations, timeLimit, parallel, chargingMode, batterySwapTime);
         return ResponseEntity.ok(response);
     }
 
@@ -1,6 +1,7 @@
 package com.tranhuy105.server.domain;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +32,13 @@ public class Instance {
     
     // Nearest stations cache (top 5 per node)
     private final Map<Integer, List<Integer>> nearestStations = new HashMap<>();
+
+    // Nearest customers cache (top 15 per customer) for granular local search
+    private final Map<Integer, int[]> nearestCustomers = new HashMap<>();
+
+    // Lower bounds on the number of vehicles (computed at finalization)
+    private int binPackingLowerBound;
+    private int timeWindowLowerBound;
     
     /**
      * Add a node to the appropriate list based on type
@@ -103,6 +111,105 @@ public class Instance {
             sorted.sort(Comparator.comparingDouble(s -> distanceMatrix[nodeId][s]));
             nearestStations.put(i, sorted.subList(0, Math.min(5, sorted.size())));
         }
+
+        // Precompute nearest customers for each customer (top 15)
+        List<Integer> customerIds = customers.stream()
+                .map(Node::getId)
+                .toList();
+
+        for (int c : customerIds) {
+            nearestCustomers.put(c, customerIds.stream()
+                    .filter(other -> other != c)
+                    .sorted(Comparator.comparingDouble(other -> distanceMatrix[c][other]))
+                    .limit(15)
+                    .mapToInt(Integer::intValue)
+                    .toArray());
+        }
+
+        computeVehicleLowerBounds();
+    }
+
+    /**
+     * Minimum number of vehicles any feasible solution needs
+     */
+    public int getVehicleLowerBound() {
+        return Math.max(1, Math.max(binPackingLowerBound, timeWindowLowerBound));
+    }
+
+    /**
+     * Compute bin-packing and conflict-clique lower bounds on the fleet size.
+     * Charging detours only add distance and time, so ignoring stations keeps both bounds valid.
+     */
+    private void computeVehicleLowerBounds() {
+        int n = customers.size();
+        double capacity = vehicleSpec.getCargoCapacity();
+
+        double totalDemand = customers.stream().mapToDouble(Node::getDemand).sum();
+        binPackingLowerBound = (int) Math.ceil(totalDemand / capacity - 1e-9);
+
+        // Conflict graph as bitsets: customers i and j conflict if no route can serve both
+        int words = (n + 63) >>> 6;
+        long[][] conflicts = new long[n][words];
+        int[] degree = new int[n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (isConflict(customers.get(i), customers.get(j), capacity)) {
+                    conflicts[i][j >>> 6] |= 1L << j;
+                    conflicts[j][i >>> 6] |= 1L << i;
+                    degree[i]++;
+                    degree[j]++;
+                }
+            }
+        }
+
+        // Greedy cliques seeded from the highest-degree customers
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(degree[b], degree[a]));
+
+        int best = n > 0 ? 1 : 0;
+        int numSeeds = Math.min(n, 20);
+        for (int s = 0; s < numSeeds; s++) {
+            int seed = order[s];
+            if (degree[seed] + 1 <= best) {
+                break;
+            }
+            long[] candidates = conflicts[seed].clone();
+            int size = 1;
+            for (int k = 0; k < n; k++) {
+                int v = order[k];
+                if ((candidates[v >>> 6] & (1L << v)) != 0) {
+                    size++;
+                    long[] adj = conflicts[v];
+                    for (int w = 0; w < words; w++) {
+                        candidates[w] &= adj[w];
+                    }
+                }
+            }
+            best = Math.max(best, size);
+        }
+        timeWindowLowerBound = best;
+    }
+
+    private boolean isConflict(Node a, Node b, double capacity) {
+        if (a.getDemand() + b.getDemand() > capacity + 1e-9) {
+            return true;
+        }
+        return !canPrecede(a, b) && !canPrecede(b, a);
+    }
+
+    private boolean canPrecede(Node first, Node second) {
+        int f = first.getId();
+        int s = second.getId();
+        double startFirst = Math.max(first.getReadyTime(), travelTimeMatrix[0][f]);
+        double startSecond = Math.max(second.getReadyTime(),
+                startFirst + first.getServiceTime() + travelTimeMatrix[f][s]);
+        if (startSecond > second.getDueTime() + 1e-9) {
+            return false;
+        }
+        return startSecond + second.getServiceTime() + travelTimeMatrix[s][0] <= depot.getDueTime() + 1e-9;
     }
 
     /**
@@ -38,6 +38,8 @@ public class FleetOptimizationRequest {
     
     private Boolean parallel = true;
     
+    private List<List<Long>> initialSolution;  // Optional: previous plan as order IDs per route (warm start)
+    
     // Depot location (default: Hanoi center)
     private Double depotLat = 21.0285;
     private Double depotLng = 105.8542;
@@ -4,11 +4,18 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.stereotype.Service;
 
 import com.tranhuy105.server.domain.Instance;
 import com.tranhuy105.server.domain.Node;
+import com.tranhuy105.server.domain.NodeType;
 import com.tranhuy105.server.domain.VehicleSpec;
 import com.tranhuy105.server.exception.InstanceParseException;
 
@@ -91,6 +98,62 @@ public class InstanceParserService {
         return parse(new java.io.ByteArrayInputStream(content.getBytes()));
     }
 
+    /**
+     * Parse a solution in solver output format (first line total distance,
+     * then one route per line as string IDs from depot to depot).
+     * Unknown nodes and repeated customers are skipped so a plan for a slightly
+     * different instance can still be used as a warm start.
+     *
+     * @return Routes as node ID lists without depot
+     */
+    public List<List<Integer>> parseSolution(String content, Instance instance) {
+        Map<String, Integer> nodeIds = new HashMap<>();
+        for (Node node : instance.getAllNodes()) {
+            nodeIds.putIfAbsent(node.getStringId(), node.getId());
+        }
+
+        String depotId = instance.getDepot().getStringId();
+        List<List<Integer>> routes = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        String[] lines = content.split("\\R");
+
+        for (int lineNo = 1; lineNo <= lines.length; lineNo++) {
+            String line = lines[lineNo - 1].trim();
+
+            // Skip empty lines and the total distance header
+            if (line.isEmpty() || (lineNo == 1 && !line.startsWith(depotId))) {
+                continue;
+            }
+
+            String[] parts = line.split("\\s+");
+            if (parts.length < 2 || !parts[0].equals(depotId) || !parts[parts.length - 1].equals(depotId)) {
+                throw new InstanceParseException("Solution line " + lineNo + ": route must start and end at depot " + depotId);
+            }
+
+            List<Integer> route = new ArrayList<>();
+            for (int i = 1; i < parts.length - 1; i++) {
+                Integer nodeId = nodeIds.get(parts[i]);
+                if (nodeId == null) {
+                    log.warn("Solution line {}: unknown node {}, skipped", lineNo, parts[i]);
+                    continue;
+                }
+
+                NodeType type = instance.getAllNodes().get(nodeId).getType();
+                if (type == NodeType.DEPOT) {
+                    throw new InstanceParseException("Solution line " + lineNo + ": depot inside route");
+                }
+                if (type == NodeType.CUSTOMER && !seen.add(nodeId)) {
+                    log.warn("Solution line {}: customer {} visited twice, skipped", lineNo, parts[i]);
+                    continue;
+                }
+                route.add(nodeId);
+            }
+            routes.add(route);
+        }
+
+        return routes;
+    }
+
     private boolean isParameterLine(String firstToken) {
         return firstToken.equals("Q") || firstToken.equals("C") ||
                firstToken.equals("r") || firstToken.equals("g") ||
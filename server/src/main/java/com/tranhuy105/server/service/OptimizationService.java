@@ -1,14 +1,21 @@
 package com.tranhuy105.server.service;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.tranhuy105.server.algorithm.ALNSSolver;
+import com.tranhuy105.server.algorithm.InitialSolutionBuilder;
 import com.tranhuy105.server.algorithm.ParallelALNSSolver;
+import com.tranhuy105.server.config.ALNSProperties;
 import com.tranhuy105.server.domain.ChargingMode;
 import com.tranhuy105.server.domain.Instance;
 import com.tranhuy105.server.domain.Node;
@@ -43,6 +50,8 @@ public class OptimizationService {
     private final InstanceParserService parserService;
     private final ALNSSolver solver;
     private final ParallelALNSSolver parallelSolver;
+    private final InitialSolutionBuilder initialSolutionBuilder;
+    private final ALNSProperties properties;
     private final DeliveryOrderRepository orderRepository;
     private final SwapStationRepository stationRepository;
     private final DriverRepository driverRepository;
@@ -50,7 +59,8 @@ public class OptimizationService {
     /**
      * Optimize from uploaded file with charging mode support
      */
-    public OptimizationResponse optimizeFromFile(MultipartFile file, Integer iterations, 
+    public OptimizationResponse optimizeFromFile(MultipartFile file, MultipartFile initialSolution,
+                                                  Integer iterations, 
                                                   Double timeLimit, Boolean parallel,
                                                   ChargingMode chargingMode, Double batterySwapTime) {
         try {
@@ -67,8 +77,15 @@ public class OptimizationService {
             vehicleSpec.setChargingMode(chargingMode);
             vehicleSpec.setBatterySwapTime(batterySwapTime);
             
+            // Warm start from previous solution if provided
+            List<List<Integer>> initialRoutes = null;
+            if (initialSolution != null && !initialSolution.isEmpty()) {
+                String solutionContent = new String(initialSolution.getBytes(), StandardCharsets.UTF_8);
+                initialRoutes = parserService.parseSolution(solutionContent, instance);
+            }
+            
             // Run optimization
-            Solution solution = runOptimization(instance, iterations, timeLimit, parallel);
+            Solution solution = runOptimization(instance, iterations, timeLimit, parallel, initialRoutes);
             
             long computeTime = System.currentTimeMillis() - startTime;
             
@@ -83,7 +100,8 @@ public class OptimizationService {
     /**
      * Optimize from string content with charging mode support
      */
-    public OptimizationResponse optimizeFromString(String content, Integer iterations, 
+    public OptimizationResponse optimizeFromString(String content, String initialSolution,
+                                                    Integer iterations, 
                                                     Double timeLimit, Boolean parallel,
                                                     ChargingMode chargingMode, Double batterySwapTime) {
         log.info("Received optimization request from string content, parallel={}, chargingMode={}", 
@@ -98,7 +116,11 @@ public class OptimizationService {
         vehicleSpec.setChargingMode(chargingMode);
         vehicleSpec.setBatterySwapTime(batterySwapTime);
         
-        Solution solution = runOptimization(instance, iterations, timeLimit, parallel);
+        List<List<Integer>> initialRoutes = initialSolution != null && !initialSolution.isBlank()
+                ? parserService.parseSolution(initialSolution, instance)
+                : null;
+        
+        Solution solution = runOptimization(instance, iterations, timeLimit, parallel, initialRoutes);
         
         long computeTime = System.currentTimeMillis() - startTime;
         
@@ -140,9 +162,14 @@ public class OptimizationService {
         // Build Instance
         Instance instance = buildInstanceFromFleet(request, orders, stations);
         
+        // Warm start from previous plan if provided
+        List<List<Integer>> initialRoutes = request.getInitialSolution() != null
+                ? mapOrderRoutes(request.getInitialSolution(), orders)
+                : null;
+        
         // Run optimization
         Solution solution = runOptimization(instance, request.getIterations(), 
-                request.getTimeLimit(), request.getParallel());
+                request.getTimeLimit(), request.getParallel(), initialRoutes);
         
         long computeTime = System.currentTimeMillis() - startTime;
         
@@ -225,10 +252,57 @@ public class OptimizationService {
         return instance;
     }
 
+    /**
+     * Map previous routes given as order IDs to customer node IDs.
+     * Customers are added in order list order, so the i-th order is node i + 1.
+     * Orders not in this request are skipped.
+     */
+    private List<List<Integer>> mapOrderRoutes(List<List<Long>> orderRoutes, List<DeliveryOrder> orders) {
+        Map<Long, Integer> nodeByOrder = new HashMap<>();
+        for (int i = 0; i < orders.size(); i++) {
+            nodeByOrder.put(orders.get(i).getId(), i + 1);
+        }
+        
+        List<List<Integer>> routes = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        for (List<Long> orderRoute : orderRoutes) {
+            List<Integer> route = new ArrayList<>();
+            for (Long orderId : orderRoute) {
+                Integer nodeId = nodeByOrder.get(orderId);
+                if (nodeId == null) {
+                    continue;
+                }
+                if (!seen.add(nodeId)) {
+                    log.warn("Initial solution: order {} listed twice, skipped", orderId);
+                    continue;
+                }
+                route.add(nodeId);
+            }
+            routes.add(route);
+        }
+        return routes;
+    }
+
     private Solution runOptimization(Instance instance, Integer iterations, 
-                                      Double timeLimit, Boolean parallel) {
+                                      Double timeLimit, Boolean parallel,
+                                      List<List<Integer>> initialRoutes) {
         boolean useParallel = parallel != null && parallel;
         
+        Solution initialSolution = initialRoutes != null
+                ? initialSolutionBuilder.fromRoutes(initialRoutes, instance)
+                : null;
+        
+        if (initialSolution != null) {
+            int maxIterations = iterations != null ? iterations : properties.defaultIterations();
+            double maxTime = timeLimit != null ? timeLimit
+                    : (iterations != null ? 0 : properties.defaultTimeLimit());
+            log.info("Warm start: {} vehicles, cost={}", initialSolution.getVehicleCount(),
+                    String.format("%.2f", initialSolution.getCost()));
+            return useParallel
+                    ? parallelSolver.solve(instance, maxIterations, maxTime, initialSolution)
+                    : solver.solve(instance, maxIterations, maxTime, initialSolution);
+        }
+        
         if (useParallel) {
             log.info("Using Parallel ALNS solver");
             if (iterations != null && timeLimit != null) {